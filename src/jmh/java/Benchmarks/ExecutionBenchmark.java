@@ -0,0 +1,47 @@
+package Benchmarks;
+
+import AST.ASTNode;
+import Output.RingBufferSink;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst die Ausführung eines analysierten Programms in jedem Modus aus {@code Main}, z.B. den
+ * Knoten-Interpreter gegen den {@code Interpreter}. Gemessen wird samt Übersetzen in Knoten,
+ * Closures oder Bytecode, der AST wird nur einmal vorbereitet.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExecutionBenchmark {
+  @Param({"tree", "nodes", "closures", "vm", "jit", "stack"})
+  public String mode;
+
+  private ASTNode ast;
+  private final RingBufferSink out = new RingBufferSink(1 << 16);
+
+  @Setup(Level.Trial)
+  public void setup(Input input) throws Throwable {
+    ast = Phases.upTo(Phases.parse(input.source), Phases.Phase.OPTIMIZE);
+  }
+
+  @Benchmark
+  public RingBufferSink execute() throws Throwable {
+    Phases.execute(ast, mode, out);
+    return out;
+  }
+}
@@ -0,0 +1,55 @@
+package Benchmarks;
+
+import Synthetic.ProgramGenerator;
+import Synthetic.Shape;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Quelltext eines Benchmarks: eine Datei aus {@code src/main/antlr/test_files} oder ein erzeugtes
+ * Programm {@code synthetic-N} mit N Funktionen, siehe {@link Shape#scaled}. Mit {@code -p
+ * program=...} lassen sich andere Eingaben wählen.
+ */
+@State(Scope.Benchmark)
+public class Input {
+  private static final String SYNTHETIC = "synthetic-";
+
+  @Param({
+    "class.cpp",
+    "expr.cpp",
+    "func.cpp",
+    "ifthenelse.cpp",
+    "inheritance.cpp",
+    "polymorphie.cpp",
+    "refs.cpp",
+    "var_decl_test.cpp",
+    "vars.cpp",
+    "while.cpp",
+    "synthetic-100",
+    "synthetic-1000"
+  })
+  public String program;
+
+  String source;
+
+  @Setup(Level.Trial)
+  public void load() throws IOException {
+    if (program.startsWith(SYNTHETIC)) {
+      source = synthetic(Integer.parseInt(program.substring(SYNTHETIC.length())));
+    } else {
+      Path testFiles = Path.of(System.getProperty("testFiles", "src/main/antlr/test_files"));
+      source = Files.readString(testFiles.resolve(program));
+    }
+  }
+
+  /** Erzeugtes Programm mit {@code functions} Funktionen, immer mit demselben Seed. */
+  static String synthetic(int functions) {
+    return new ProgramGenerator(Shape.scaled(functions), 1).generate();
+  }
+}
@@ -0,0 +1,172 @@
+package Benchmarks;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import AST.ASTNode;
+import Output.OutputSink;
+import SymbolTable.Scope;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeVisitor;
+
+/**
+ * Die Phasen, die {@code Main} nacheinander ausführt, einzeln aufrufbar. Parser, Visitor und
+ * Interpreter liegen im Default-Package, das JMH für Benchmarks nicht erlaubt und aus dem ein Paket
+ * nichts importieren kann. Sie werden daher einmalig über MethodHandles gebunden.
+ */
+final class Phases {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+  private static final MethodHandle NEW_LEXER =
+      constructor("CppLexer", Lexer.class, CharStream.class);
+  private static final MethodHandle NEW_PARSER =
+      constructor("CppParser", Parser.class, TokenStream.class);
+  private static final MethodHandle PROGRAM = method("CppParser", "program", ParseTree.class);
+  private static final MethodHandle NEW_AST_BUILDER =
+      constructor("CppParseTreeVisitor", ParseTreeVisitor.class);
+  private static final MethodHandle NEW_FIRST_SCOPE =
+      constructor("FirstScopeVisitor", Object.class);
+  private static final MethodHandle FIRST_SCOPE =
+      method("FirstScopeVisitor", "visitProgram", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_SECOND_SCOPE =
+      constructor("SecondScopeVisitor", Object.class, Scope.class);
+  private static final MethodHandle SECOND_SCOPE =
+      method("SecondScopeVisitor", "visit", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_DEAD_CODE = constructor("DeadCodeEliminator", Object.class);
+  private static final MethodHandle DEAD_CODE =
+      method("DeadCodeEliminator", "eliminate", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_TYPE_CHECK =
+      constructor("TypeCheckVisitor", Object.class, Scope.class);
+  private static final MethodHandle TYPE_CHECK =
+      method("TypeCheckVisitor", "visit", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_FOLDER = constructor("ConstantFolder", Object.class);
+  private static final MethodHandle FOLD =
+      method("ConstantFolder", "fold", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_RANGES = constructor("RangeAnalysis", Object.class);
+  private static final MethodHandle RANGES =
+      method("RangeAnalysis", "analyze", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_PURITY = constructor("PurityAnalysis", Object.class);
+  private static final MethodHandle PURITY =
+      method("PurityAnalysis", "analyze", ASTNode.class, ASTNode.class);
+  private static final MethodHandle NEW_INTERPRETER = constructor("Interpreter", Object.class);
+  private static final MethodHandle SET_OUTPUT =
+      method("Interpreter", "setOutput", void.class, OutputSink.class);
+  private static final MethodHandle EVAL =
+      method("Interpreter", "eval", Object.class, ASTNode.class);
+  private static final MethodHandle EXECUTE =
+      staticMethod("Main", "execute", ASTNode.class, String.class, OutputSink.class);
+
+  private Phases() {}
+
+  private static MethodHandle constructor(String className, Class<?> as, Class<?>... params) {
+    try {
+      return LOOKUP
+          .findConstructor(Class.forName(className), methodType(void.class, params))
+          .asType(methodType(as, params));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Der Empfänger wird zu {@code Object}, damit der Aufruf ohne die Klasse auskommt. */
+  private static MethodHandle method(
+      String className, String name, Class<?> returns, Class<?>... params) {
+    try {
+      Class<?> owner = Class.forName(className);
+      MethodHandle handle = LOOKUP.unreflect(owner.getMethod(name, params));
+      return handle.asType(methodType(returns, Object.class, params));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static MethodHandle staticMethod(String className, String name, Class<?>... params) {
+    try {
+      return LOOKUP.unreflect(Class.forName(className).getMethod(name, params));
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  static ParseTree parse(String source) throws Throwable {
+    Lexer lexer = (Lexer) NEW_LEXER.invokeExact((CharStream) CharStreams.fromString(source));
+    Parser parser = (Parser) NEW_PARSER.invokeExact((TokenStream) new CommonTokenStream(lexer));
+    return (ParseTree) PROGRAM.invokeExact((Object) parser);
+  }
+
+  static ASTNode buildAst(ParseTree tree) throws Throwable {
+    ParseTreeVisitor<?> visitor = (ParseTreeVisitor<?>) NEW_AST_BUILDER.invokeExact();
+    return (ASTNode) visitor.visit(tree);
+  }
+
+  static ASTNode firstScope(ASTNode ast) throws Throwable {
+    return (ASTNode) FIRST_SCOPE.invokeExact((Object) NEW_FIRST_SCOPE.invokeExact(), ast);
+  }
+
+  static ASTNode secondScope(ASTNode ast) throws Throwable {
+    Object visitor = (Object) NEW_SECOND_SCOPE.invokeExact(ast.getScope());
+    return (ASTNode) SECOND_SCOPE.invokeExact(visitor, ast);
+  }
+
+  static ASTNode eliminateDeadCode(ASTNode ast) throws Throwable {
+    return (ASTNode) DEAD_CODE.invokeExact((Object) NEW_DEAD_CODE.invokeExact(), ast);
+  }
+
+  static ASTNode typeCheck(ASTNode ast) throws Throwable {
+    Object visitor = (Object) NEW_TYPE_CHECK.invokeExact(ast.getScope());
+    return (ASTNode) TYPE_CHECK.invokeExact(visitor, ast);
+  }
+
+  /** Die Optimierungen und Analysen zwischen Typprüfung und Interpreter, wie in {@code Main}. */
+  static ASTNode optimize(ASTNode ast) throws Throwable {
+    ASTNode folded = (ASTNode) FOLD.invokeExact((Object) NEW_FOLDER.invokeExact(), ast);
+    eliminateDeadCode(folded);
+    ASTNode ranged = (ASTNode) RANGES.invokeExact((Object) NEW_RANGES.invokeExact(), folded);
+    return (ASTNode) PURITY.invokeExact((Object) NEW_PURITY.invokeExact(), ranged);
+  }
+
+  static Object interpret(ASTNode ast, OutputSink out) throws Throwable {
+    Object interpreter = (Object) NEW_INTERPRETER.invokeExact();
+    SET_OUTPUT.invokeExact(interpreter, out);
+    return (Object) EVAL.invokeExact(interpreter, ast);
+  }
+
+  /** Führt das Programm wie {@code Main} im Modus {@code mode} aus, samt Übersetzen. */
+  static void execute(ASTNode ast, String mode, OutputSink out) throws Throwable {
+    EXECUTE.invokeExact(ast, mode, out);
+  }
+
+  /** Alle Phasen bis einschließlich {@code last}, ausgehend vom Parse-Baum. */
+  static ASTNode upTo(ParseTree tree, Phase last) throws Throwable {
+    ASTNode ast = buildAst(tree);
+    if (last.compareTo(Phase.FIRST_SCOPE) >= 0) {
+      firstScope(ast);
+    }
+    if (last.compareTo(Phase.SECOND_SCOPE) >= 0) {
+      secondScope(ast);
+      eliminateDeadCode(ast);
+    }
+    if (last.compareTo(Phase.TYPE_CHECK) >= 0) {
+      typeCheck(ast);
+    }
+    if (last.compareTo(Phase.OPTIMIZE) >= 0) {
+      optimize(ast);
+    }
+    return ast;
+  }
+
+  enum Phase {
+    AST,
+    FIRST_SCOPE,
+    SECOND_SCOPE,
+    TYPE_CHECK,
+    OPTIMIZE
+  }
+}
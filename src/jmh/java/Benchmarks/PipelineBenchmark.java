@@ -0,0 +1,112 @@
+package Benchmarks;
+
+import AST.ASTNode;
+import Output.RingBufferSink;
+import java.util.concurrent.TimeUnit;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Misst jede Phase aus {@code Main} für sich. Die Scope- und Typ-Visitoren verändern den AST,
+ * deshalb bekommen sie vor jedem Aufruf einen frischen AST, der bis zur vorherigen Phase bearbeitet
+ * ist; diese Vorbereitung wird nicht mitgemessen.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+  @State(Scope.Thread)
+  public static class Parsed {
+    ParseTree tree;
+
+    @Setup(Level.Trial)
+    public void setup(Input input) throws Throwable {
+      tree = Phases.parse(input.source);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class FreshAst {
+    ASTNode ast;
+
+    @Setup(Level.Invocation)
+    public void setup(Parsed parsed) throws Throwable {
+      ast = Phases.buildAst(parsed.tree);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Scoped {
+    ASTNode ast;
+
+    @Setup(Level.Invocation)
+    public void setup(Parsed parsed) throws Throwable {
+      ast = Phases.upTo(parsed.tree, Phases.Phase.FIRST_SCOPE);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class Resolved {
+    ASTNode ast;
+
+    @Setup(Level.Invocation)
+    public void setup(Parsed parsed) throws Throwable {
+      ast = Phases.upTo(parsed.tree, Phases.Phase.SECOND_SCOPE);
+    }
+  }
+
+  /** Der Interpreter lässt den AST unverändert, er wird nur einmal vorbereitet. */
+  @State(Scope.Thread)
+  public static class Analysed {
+    ASTNode ast;
+    final RingBufferSink out = new RingBufferSink(1 << 16);
+
+    @Setup(Level.Trial)
+    public void setup(Parsed parsed) throws Throwable {
+      ast = Phases.upTo(parsed.tree, Phases.Phase.OPTIMIZE);
+    }
+  }
+
+  @Benchmark
+  public ParseTree lexAndParse(Input input) throws Throwable {
+    return Phases.parse(input.source);
+  }
+
+  @Benchmark
+  public ASTNode buildAst(Parsed parsed) throws Throwable {
+    return Phases.buildAst(parsed.tree);
+  }
+
+  @Benchmark
+  public ASTNode firstScope(FreshAst fresh) throws Throwable {
+    return Phases.firstScope(fresh.ast);
+  }
+
+  @Benchmark
+  public ASTNode secondScope(Scoped scoped) throws Throwable {
+    return Phases.secondScope(scoped.ast);
+  }
+
+  @Benchmark
+  public ASTNode typeCheck(Resolved resolved) throws Throwable {
+    return Phases.typeCheck(resolved.ast);
+  }
+
+  @Benchmark
+  public Object interpret(Analysed analysed) throws Throwable {
+    return Phases.interpret(analysed.ast, analysed.out);
+  }
+}
@@ -8,6 +8,18 @@ public class ASTNode {
   private Scope scope;
   private Type type;
   private String value;
+  private int depth = -1;
+  private int slot = -1;
+  // Attribut in einer Methode seiner Klasse, liegt in der Instanz statt im Environment
+  private boolean member;
+  // Laufzeitdaten des Interpreters für diesen Knoten, z.B. ein Inline-Cache
+  private Object cache;
+  // von der RangeAnalysis bewiesen: alle Indizes liegen innerhalb der Arraygrenzen
+  private boolean inBounds;
+  // fortlaufende Nummer, vom Profiler vergeben
+  private int id = -1;
+  // Zeile im Quelltext, nur für Funktionen, Konstruktoren und Aufrufe gesetzt
+  private int line = -1;
   public ArrayList<ASTNode> children = new ArrayList<>();
 
   public ASTNode(Type type) {
@@ -51,6 +63,63 @@ public class ASTNode {
     this.value = value;
   }
 
+  public int getDepth() {
+    return depth;
+  }
+
+  public int getSlot() {
+    return slot;
+  }
+
+  public boolean hasSlot() {
+    return slot >= 0;
+  }
+
+  public void setSlot(int depth, int slot) {
+    this.depth = depth;
+    this.slot = slot;
+  }
+
+  public boolean isMember() {
+    return member;
+  }
+
+  public void setMember(boolean member) {
+    this.member = member;
+  }
+
+  public Object getCache() {
+    return cache;
+  }
+
+  public void setCache(Object cache) {
+    this.cache = cache;
+  }
+
+  public boolean isInBounds() {
+    return inBounds;
+  }
+
+  public void setInBounds(boolean inBounds) {
+    this.inBounds = inBounds;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public void setId(int id) {
+    this.id = id;
+  }
+
+  public int getLine() {
+    return line;
+  }
+
+  public void setLine(int line) {
+    this.line = line;
+  }
+
   public void addChild(ASTNode child) {
     this.children.add(child);
   }
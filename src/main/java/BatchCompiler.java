@@ -0,0 +1,270 @@
+import AST.ASTNode;
+import Output.Diagnostics;
+import Output.OutputSink;
+import Output.RingBufferSink;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import org.antlr.v4.runtime.BaseErrorListener;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.RecognitionException;
+import org.antlr.v4.runtime.Recognizer;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Führt die Pipeline aus {@code Main} für viele Programme parallel aus, auf einem
+ * Work-Stealing-Pool mit einem Worker pro Kern. Jeder Worker benutzt seinen Lexer und Parser für
+ * alle Programme wieder. Prüfungen und Laufzeit melden Fehler über eigene {@link Diagnostics} in
+ * die Meldungen des Programms, {@code System.out} bleibt unberührt. Mit einem {@link
+ * IncrementalCompiler} werden unveränderte Klassen und Funktionen nicht neu analysiert.
+ */
+public class BatchCompiler implements AutoCloseable {
+  // die Ausgabe eines Programms wird höchstens mit so vielen letzten Bytes aufgehoben
+  private static final int OUTPUT_CAPACITY = 1 << 16;
+
+  /**
+   * Ergebnis eines Programms: Meldungen der Prüfungen und Laufzeitfehler, die Ausgabe und die
+   * Zeiten der Phasen. Programme mit Fehlern in Parser oder Prüfung werden nicht ausgeführt. Die
+   * Ausgabe ist leer, wenn sie an eine eigene Senke ging. {@code failed} setzt die Phase, die den
+   * Fehler gemeldet hat. {@code reused} zählt die Klassen und Funktionen aus dem Cache.
+   */
+  public record Result(
+      Path file,
+      List<String> diagnostics,
+      boolean failed,
+      String output,
+      long parseNanos,
+      long analysisNanos,
+      long runNanos,
+      int reused) {}
+
+  private final ExecutorService pool;
+  private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+  private final IncrementalCompiler incremental;
+
+  public BatchCompiler(int jobs) {
+    this(jobs, null);
+  }
+
+  /** {@code incremental} darf null sein, dann wird jedes Programm vollständig analysiert. */
+  public BatchCompiler(int jobs, IncrementalCompiler incremental) {
+    this.pool = Executors.newWorkStealingPool(jobs);
+    this.incremental = incremental;
+  }
+
+  /** Verzeichnisse werden rekursiv nach {@code .cpp}-Dateien durchsucht. */
+  public static List<Path> collect(List<Path> paths) throws IOException {
+    List<Path> files = new ArrayList<>();
+    for (Path path : paths) {
+      if (Files.isDirectory(path)) {
+        try (Stream<Path> walk = Files.walk(path)) {
+          walk.filter(file -> file.toString().endsWith(".cpp")).sorted().forEach(files::add);
+        }
+      } else {
+        files.add(path);
+      }
+    }
+    return files;
+  }
+
+  /** Die Ergebnisse stehen in der Reihenfolge von {@code files}. */
+  public List<Result> compile(List<Path> files, String mode) throws InterruptedException {
+    List<Future<Result>> futures = new ArrayList<>();
+    for (Path file : files) {
+      futures.add(pool.submit(() -> compile(file, mode)));
+    }
+    List<Result> results = new ArrayList<>();
+    try {
+      for (Future<Result> future : futures) {
+        results.add(future.get());
+      }
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    }
+    return results;
+  }
+
+  /** Prüft und startet {@code source} auf dem Pool, die print-BuiltIns schreiben in {@code out}. */
+  public Future<Result> submit(Path name, String source, String mode, OutputSink out) {
+    return pool.submit(() -> compile(name, source, mode, out));
+  }
+
+  @Override
+  public void close() {
+    pool.shutdownNow();
+  }
+
+  private Result compile(Path file, String mode) {
+    String source;
+    try {
+      source = Files.readString(file);
+    } catch (IOException e) {
+      return new Result(file, List.of("Error: " + e), true, "", 0, 0, 0, 0);
+    }
+    RingBufferSink out = new RingBufferSink(OUTPUT_CAPACITY);
+    Result result = compile(file, source, mode, out);
+    return new Result(
+        file,
+        result.diagnostics(),
+        result.failed(),
+        out.toString(),
+        result.parseNanos(),
+        result.analysisNanos(),
+        result.runNanos(),
+        result.reused());
+  }
+
+  private Result compile(Path file, String source, String mode, OutputSink out) {
+    Worker worker = workers.get();
+    worker.syntaxErrors.clear();
+    ByteArrayOutputStream messages = new ByteArrayOutputStream();
+    PrintStream stream = new PrintStream(messages, true);
+    Diagnostics analysis = new Diagnostics(stream);
+    Diagnostics run = new Diagnostics(stream);
+    List<String> errors = new ArrayList<>();
+    IncrementalCompiler.Build build = null;
+    boolean analysed = false;
+    long parseNanos = 0;
+    long analysisNanos = 0;
+    long runNanos = 0;
+    try {
+      long start = System.nanoTime();
+      ParseTree parseTree = null;
+      if (incremental != null) {
+        build = incremental.parse(source, worker);
+      }
+      if (build == null) {
+        // Syntaxfehler meldet der Parser des ganzen Programms mit den richtigen Positionen
+        worker.syntaxErrors.clear();
+        parseTree = worker.parse(source);
+      }
+      parseNanos = System.nanoTime() - start;
+      if (!worker.syntaxErrors.isEmpty()) {
+        errors.addAll(worker.syntaxErrors);
+        return result(file, messages, errors, true, parseNanos, 0, 0, 0);
+      }
+
+      start = System.nanoTime();
+      ASTNode scopedAst = build != null ? build.analyze(analysis) : analyze(parseTree, analysis);
+      analysisNanos = System.nanoTime() - start;
+      analysed = !analysis.hasErrors();
+      if (!analysed) {
+        return result(file, messages, errors, true, parseNanos, analysisNanos, 0, reused(build));
+      }
+
+      start = System.nanoTime();
+      try {
+        Main.execute(scopedAst, mode, out, run);
+      } finally {
+        out.flush();
+      }
+      runNanos = System.nanoTime() - start;
+    } catch (IOException | RuntimeException e) {
+      errors.add("Error: " + e);
+    } catch (StackOverflowError e) {
+      errors.add("Error: stack overflow");
+    } finally {
+      // erst nach der Ausführung, bis dahin teilt der Baum Scopes mit dem Cache
+      if (build != null) {
+        build.release(analysed);
+      }
+    }
+    boolean failed = run.hasErrors() || !errors.isEmpty();
+    return result(
+        file, messages, errors, failed, parseNanos, analysisNanos, runNanos, reused(build));
+  }
+
+  private static int reused(IncrementalCompiler.Build build) {
+    return build == null ? 0 : build.reused();
+  }
+
+  /** Dieselben Durchläufe wie in {@code Main}, ohne die Zwischenstände auszugeben. */
+  static ASTNode analyze(ParseTree parseTree, Diagnostics diagnostics) {
+    ASTNode ast = new CppParseTreeVisitor().visit(parseTree);
+    FirstScopeVisitor scopeVisitor = new FirstScopeVisitor();
+    scopeVisitor.diagnostics = diagnostics;
+    ASTNode scopedAst = scopeVisitor.visitProgram(ast);
+    SecondScopeVisitor secondScopeVisitor = new SecondScopeVisitor(scopeVisitor.currentScope);
+    secondScopeVisitor.diagnostics = diagnostics;
+    secondScopeVisitor.visit(scopedAst);
+    DeadCodeEliminator deadCodeEliminator = new DeadCodeEliminator();
+    deadCodeEliminator.eliminate(scopedAst);
+    TypeCheckVisitor typeCheckVisitor = new TypeCheckVisitor(scopeVisitor.currentScope);
+    typeCheckVisitor.diagnostics = diagnostics;
+    typeCheckVisitor.visit(scopedAst);
+    new ConstantFolder().fold(scopedAst);
+    deadCodeEliminator.eliminate(scopedAst);
+    new RangeAnalysis().analyze(scopedAst);
+    new PurityAnalysis().analyze(scopedAst);
+    return scopedAst;
+  }
+
+  private static Result result(
+      Path file,
+      ByteArrayOutputStream messages,
+      List<String> errors,
+      boolean failed,
+      long parseNanos,
+      long analysisNanos,
+      long runNanos,
+      int reused) {
+    List<String> diagnostics = new ArrayList<>(messages.toString().lines().toList());
+    diagnostics.addAll(errors);
+    return new Result(file, diagnostics, failed, "", parseNanos, analysisNanos, runNanos, reused);
+  }
+
+  /** Lexer und Parser eines Pool-Threads, für jede Datei zurückgesetzt. */
+  private static final class Worker implements IncrementalCompiler.Frontend {
+    final CppLexer lexer = new CppLexer(null);
+    final CommonTokenStream tokens = new CommonTokenStream(lexer);
+    final CppParser parser = new CppParser(tokens);
+    final List<String> syntaxErrors = new ArrayList<>();
+
+    Worker() {
+      BaseErrorListener listener =
+          new BaseErrorListener() {
+            @Override
+            public void syntaxError(
+                Recognizer<?, ?> recognizer,
+                Object offendingSymbol,
+                int line,
+                int charPositionInLine,
+                String msg,
+                RecognitionException e) {
+              syntaxErrors.add("Error: line " + line + ":" + charPositionInLine + " " + msg);
+            }
+          };
+      lexer.removeErrorListeners();
+      lexer.addErrorListener(listener);
+      parser.removeErrorListeners();
+      parser.addErrorListener(listener);
+    }
+
+    @Override
+    public List<? extends Token> tokenize(String source) {
+      lexer.setInputStream(CharStreams.fromString(source));
+      List<? extends Token> all = lexer.getAllTokens();
+      return syntaxErrors.isEmpty() ? all : null;
+    }
+
+    @Override
+    public ParseTree parse(String source) {
+      lexer.setInputStream(CharStreams.fromString(source));
+      tokens.setTokenSource(lexer);
+      parser.setTokenStream(tokens);
+      ParseTree parseTree = parser.program();
+      return syntaxErrors.isEmpty() ? parseTree : null;
+    }
+  }
+}
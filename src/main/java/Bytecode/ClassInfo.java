@@ -0,0 +1,22 @@
+package Bytecode;
+
+/** Laufzeitbeschreibung einer Klasse: Anzahl der Felder (inkl. geerbter) und die vtable. */
+public class ClassInfo {
+  public final String name;
+  public final ClassInfo superClass;
+  public int intFields;
+  public int objectFields;
+
+  // vtable Index -> Index der Funktion im Programm
+  public int[] vtable = new int[0];
+
+  public ClassInfo(String name, ClassInfo superClass) {
+    this.name = name;
+    this.superClass = superClass;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
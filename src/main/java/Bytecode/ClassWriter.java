@@ -0,0 +1,160 @@
+package Bytecode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Minimaler Writer für JVM-Klassendateien. Es wird Version 49 geschrieben, damit keine
+ * StackMapTable nötig ist und die JVM die Typen beim Verifizieren selbst herleitet.
+ */
+final class ClassWriter {
+  private static final int VERSION = 49;
+
+  private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+  private final DataOutputStream pool = new DataOutputStream(poolBytes);
+  private final Map<String, Integer> entries = new HashMap<>();
+  private int poolCount = 1;
+
+  private final ByteArrayOutputStream fieldBytes = new ByteArrayOutputStream();
+  private final DataOutputStream fields = new DataOutputStream(fieldBytes);
+  private int fieldCount;
+
+  private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+  private final DataOutputStream methods = new DataOutputStream(methodBytes);
+  private int methodCount;
+
+  private final String name;
+
+  ClassWriter(String name) {
+    this.name = name;
+  }
+
+  int utf8(String value) {
+    return entry("U" + value, 1, out -> out.writeUTF(value));
+  }
+
+  int classRef(String internalName) {
+    int nameIndex = utf8(internalName);
+    return entry("C" + internalName, 7, out -> out.writeShort(nameIndex));
+  }
+
+  int string(String value) {
+    int valueIndex = utf8(value);
+    return entry("S" + value, 8, out -> out.writeShort(valueIndex));
+  }
+
+  int integer(int value) {
+    return entry("I" + value, 3, out -> out.writeInt(value));
+  }
+
+  int fieldRef(String owner, String name, String descriptor) {
+    return memberRef(9, owner, name, descriptor);
+  }
+
+  int methodRef(String owner, String name, String descriptor) {
+    return memberRef(10, owner, name, descriptor);
+  }
+
+  private int memberRef(int tag, String owner, String name, String descriptor) {
+    int ownerIndex = classRef(owner);
+    int nameIndex = utf8(name);
+    int descriptorIndex = utf8(descriptor);
+    int nameAndType =
+        entry(
+            "N" + name + ":" + descriptor,
+            12,
+            out -> {
+              out.writeShort(nameIndex);
+              out.writeShort(descriptorIndex);
+            });
+    return entry(
+        tag + owner + "." + name + ":" + descriptor,
+        tag,
+        out -> {
+          out.writeShort(ownerIndex);
+          out.writeShort(nameAndType);
+        });
+  }
+
+  void field(int access, String name, String descriptor) {
+    try {
+      fields.writeShort(access);
+      fields.writeShort(utf8(name));
+      fields.writeShort(utf8(descriptor));
+      fields.writeShort(0);
+      fieldCount++;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  void method(
+      int access, String name, String descriptor, int maxStack, int maxLocals, byte[] code) {
+    if (code.length >= 65536) {
+      throw new UnsupportedOperationException("Method " + name + " is too large for the JIT");
+    }
+    try {
+      methods.writeShort(access);
+      methods.writeShort(utf8(name));
+      methods.writeShort(utf8(descriptor));
+      methods.writeShort(1);
+      methods.writeShort(utf8("Code"));
+      methods.writeInt(12 + code.length);
+      methods.writeShort(maxStack);
+      methods.writeShort(maxLocals);
+      methods.writeInt(code.length);
+      methods.write(code);
+      methods.writeShort(0); // exception table
+      methods.writeShort(0); // attributes
+      methodCount++;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  byte[] toByteArray() {
+    int thisClass = classRef(name);
+    int superClass = classRef("java/lang/Object");
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(VERSION);
+      out.writeShort(poolCount);
+      poolBytes.writeTo(out);
+      out.writeShort(0x0001 | 0x0010 | 0x0020); // public final super
+      out.writeShort(thisClass);
+      out.writeShort(superClass);
+      out.writeShort(0); // interfaces
+      out.writeShort(fieldCount);
+      fieldBytes.writeTo(out);
+      out.writeShort(methodCount);
+      methodBytes.writeTo(out);
+      out.writeShort(0); // attributes
+      return bytes.toByteArray();
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private interface EntryWriter {
+    void write(DataOutputStream out) throws IOException;
+  }
+
+  private int entry(String key, int tag, EntryWriter writer) {
+    Integer index = entries.get(key);
+    if (index != null) return index;
+    try {
+      pool.writeByte(tag);
+      writer.write(pool);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    entries.put(key, poolCount);
+    return poolCount++;
+  }
+}
@@ -0,0 +1,24 @@
+package Bytecode;
+
+/** Eine übersetzte Funktion, Methode oder ein Konstruktor mit eigenem Code und Konstantenpool. */
+public class CompiledFunction {
+  public final String name;
+  public int[] code;
+  public Object[] constants;
+  public int intRegisters;
+  public int objectRegisters;
+
+  // Zielregister der Parameter, bei Methoden ist Parameter 0 immer "this"
+  public int[] paramRegisters;
+  public boolean[] paramObjects;
+  public boolean returnsObject;
+
+  public CompiledFunction(String name) {
+    this.name = name;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
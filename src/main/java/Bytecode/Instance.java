@@ -0,0 +1,52 @@
+package Bytecode;
+
+import java.lang.reflect.Array;
+
+/**
+ * Objekt einer Klasse. Geerbte Felder liegen vor den eigenen, dadurch passt das Layout einer
+ * Basisklasse immer auf den Anfang der Felder einer abgeleiteten Klasse.
+ */
+public class Instance {
+  public final ClassInfo clazz;
+  public final int[] ints;
+  public final Object[] objects;
+
+  public Instance(ClassInfo clazz) {
+    this.clazz = clazz;
+    this.ints = new int[clazz.intFields];
+    this.objects = new Object[clazz.objectFields];
+  }
+
+  /** Standard-Kopie wie beim generierten Copy-Konstruktor bzw. operator=. */
+  public void copyFrom(Instance other) {
+    System.arraycopy(other.ints, 0, this.ints, 0, this.ints.length);
+    for (int i = 0; i < this.objects.length; i++) {
+      Object value = other.objects[i];
+      if (value instanceof Instance instance) {
+        if (!(this.objects[i] instanceof Instance)) {
+          this.objects[i] = new Instance(instance.clazz);
+        }
+        ((Instance) this.objects[i]).copyFrom(instance);
+      } else if (value != null && value.getClass().isArray()) {
+        this.objects[i] = copyArray(value);
+      } else {
+        this.objects[i] = value;
+      }
+    }
+  }
+
+  private static Object copyArray(Object array) {
+    int length = Array.getLength(array);
+    Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+    for (int i = 0; i < length; i++) {
+      Object item = Array.get(array, i);
+      Array.set(copy, i, item != null && item.getClass().isArray() ? copyArray(item) : item);
+    }
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return clazz.name + "@" + Integer.toHexString(hashCode());
+  }
+}
@@ -0,0 +1,756 @@
+package Bytecode;
+
+import static Bytecode.Opcode.*;
+
+import Output.ChannelSink;
+import Output.OutputSink;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Übersetzt ein {@link Program} in eine versteckte JVM-Klasse ({@code Lookup.defineHiddenClass}).
+ * Jede Funktion wird eine statische Methode, deren Register zu lokalen Variablen werden, damit
+ * HotSpot die Funktionen selbst optimieren kann. Objekte behalten das Layout von {@link Instance}.
+ */
+public class Jit {
+  private static final String OBJECT_DESC = "Ljava/lang/Object;";
+  private static final String RUNTIME = "Bytecode/JitRuntime";
+  private static final String INSTANCE = "Bytecode/Instance";
+
+  // JVM Opcodes
+  private static final int ACONST_NULL = 0x01;
+  private static final int ICONST_0 = 0x03;
+  private static final int BIPUSH = 0x10;
+  private static final int SIPUSH = 0x11;
+  private static final int LDC_W = 0x13;
+  private static final int JILOAD = 0x15;
+  private static final int JALOAD = 0x19;
+  private static final int JISTORE = 0x36;
+  private static final int JASTORE = 0x3a;
+  private static final int JIALOAD = 0x2e;
+  private static final int JAALOAD = 0x32;
+  private static final int JIASTORE = 0x4f;
+  private static final int JAASTORE = 0x53;
+  private static final int POP = 0x57;
+  private static final int DUP = 0x59;
+  private static final int SWAP = 0x5f;
+  private static final int JIADD = 0x60;
+  private static final int JISUB = 0x64;
+  private static final int JIMUL = 0x68;
+  private static final int JIDIV = 0x6c;
+  private static final int JIREM = 0x70;
+  private static final int I2C = 0x92;
+  private static final int IFEQ = 0x99;
+  private static final int IFNE = 0x9a;
+  private static final int IF_ICMPEQ = 0x9f;
+  private static final int IF_ICMPNE = 0xa0;
+  private static final int IF_ICMPLT = 0xa1;
+  private static final int IF_ICMPGE = 0xa2;
+  private static final int IF_ICMPGT = 0xa3;
+  private static final int IF_ICMPLE = 0xa4;
+  private static final int GOTO = 0xa7;
+  private static final int LOOKUPSWITCH = 0xab;
+  private static final int IRETURN = 0xac;
+  private static final int ARETURN = 0xb0;
+  private static final int GETSTATIC = 0xb2;
+  private static final int GETFIELD = 0xb4;
+  private static final int INVOKEVIRTUAL = 0xb6;
+  private static final int INVOKESPECIAL = 0xb7;
+  private static final int INVOKESTATIC = 0xb8;
+  private static final int JNEW = 0xbb;
+  private static final int NEWARRAY_INT = 0xbc;
+  private static final int ATHROW = 0xbf;
+  private static final int CHECKCAST = 0xc0;
+  private static final int WIDE = 0xc4;
+
+  private final Program program;
+  private final CompiledFunction[] functions;
+  private final String className;
+  private final ClassWriter writer;
+
+  // vtable Index + Deskriptor -> Name der Brücke, die virtuelle Aufrufe verteilt
+  private final Map<String, String> bridges = new LinkedHashMap<>();
+
+  // Zustand der gerade übersetzten Methode
+  private byte[] code;
+  private int size;
+  private int intBase;
+  private int objectBase;
+  private int[] boxes;
+
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+  // null bis zum ersten compile()
+  private MethodHandles.Lookup lookup;
+
+  public Jit(Program program) {
+    this.program = program;
+    this.functions = program.functions;
+    this.className = "Bytecode/JitProgram";
+    this.writer = new ClassWriter(className);
+  }
+
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  /**
+   * Übersetzt das Programm in die versteckte Klasse. Ist eine Funktion zu groß für eine
+   * JVM-Methode, wird eine {@link UnsupportedOperationException} geworfen, bevor etwas läuft.
+   */
+  public void compile() {
+    if (lookup == null) {
+      lookup = define();
+    }
+  }
+
+  /** Übersetzt das Programm, falls noch nicht geschehen, und führt es aus. */
+  public void run() {
+    compile();
+    Class<?> compiled = lookup.lookupClass();
+    try {
+      CompiledFunction entry = functions[program.entry];
+      lookup.findStaticVarHandle(compiled, "G", int[].class).set(new int[program.globalInts]);
+      lookup
+          .findStaticVarHandle(compiled, "O", Object[].class)
+          .set(new Object[program.globalObjects]);
+      lookup.findStaticVarHandle(compiled, "C", ClassInfo[].class).set(program.classes);
+      lookup.findStaticVarHandle(compiled, "P", OutputSink.class).set(out);
+      MethodHandle main = lookup.findStatic(compiled, "f" + program.entry, methodType(entry));
+      main.invoke();
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private MethodHandles.Lookup define() {
+    writer.field(0x0008, "G", "[I");
+    writer.field(0x0008, "O", "[" + OBJECT_DESC);
+    writer.field(0x0008, "C", "[LBytecode/ClassInfo;");
+    writer.field(0x0008, "P", "LOutput/OutputSink;");
+    for (int i = 0; i < functions.length; i++) {
+      function(i);
+    }
+    for (Map.Entry<String, String> bridge : bridges.entrySet()) {
+      String key = bridge.getKey();
+      int slot = Integer.parseInt(key.substring(0, key.indexOf(':')));
+      bridge(bridge.getValue(), slot, key.substring(key.indexOf(':') + 1));
+    }
+    try {
+      return MethodHandles.lookup().defineHiddenClass(writer.toByteArray(), true);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // ---------------------------------------------------------------- Funktionen
+
+  private void function(int index) {
+    CompiledFunction fn = functions[index];
+    code = new byte[256];
+    size = 0;
+    int params = fn.paramRegisters.length;
+    intBase = params;
+    objectBase = intBase + fn.intRegisters;
+    int boxBase = objectBase + fn.objectRegisters;
+
+    // Register, auf die eine Referenz gebildet wird, liegen in einer int[1]-Zelle
+    boxes = new int[fn.intRegisters];
+    Arrays.fill(boxes, -1);
+    int boxCount = 0;
+    int maxArgs = 0;
+    for (int pc = 0; pc < fn.code.length; pc += length(fn.code, pc)) {
+      int op = fn.code[pc];
+      if (op == IREF && boxes[fn.code[pc + 2]] < 0) {
+        boxes[fn.code[pc + 2]] = boxBase + boxCount++;
+      } else if (op == CALL || op == VCALL) {
+        maxArgs = Math.max(maxArgs, fn.code[pc + 3]);
+      }
+    }
+
+    // alle Register vorbelegen, damit der Verifier überall einen Typ kennt
+    for (int r = 0; r < fn.intRegisters; r++) {
+      if (boxes[r] >= 0) {
+        pushInt(1);
+        u1(NEWARRAY_INT, 10);
+        local(JASTORE, boxes[r]);
+      } else {
+        u1(ICONST_0);
+        local(JISTORE, intBase + r);
+      }
+    }
+    for (int r = 0; r < fn.objectRegisters; r++) {
+      u1(ACONST_NULL);
+      local(JASTORE, objectBase + r);
+    }
+    for (int i = 0; i < params; i++) {
+      if (fn.paramObjects[i]) {
+        local(JALOAD, i);
+        local(JASTORE, objectBase + fn.paramRegisters[i]);
+      } else {
+        local(JILOAD, i);
+        storeInt(fn.paramRegisters[i]);
+      }
+    }
+
+    int[] offsets = new int[fn.code.length + 1];
+    List<int[]> jumps = new ArrayList<>();
+    for (int pc = 0; pc < fn.code.length; pc += length(fn.code, pc)) {
+      offsets[pc] = size;
+      instruction(fn, pc, jumps);
+    }
+    for (int[] jump : jumps) {
+      int offset = offsets[jump[2]] - jump[0];
+      if (offset != (short) offset) {
+        throw new UnsupportedOperationException(
+            "Function " + fn.name + " is too large for the JIT");
+      }
+      code[jump[1]] = (byte) (offset >> 8);
+      code[jump[1] + 1] = (byte) offset;
+    }
+    // die JVM erlaubt höchstens 64 KB Code pro Methode
+    if (size >= 65536) {
+      throw new UnsupportedOperationException("Function " + fn.name + " is too large for the JIT");
+    }
+    writer.method(
+        0x0008,
+        "f" + index,
+        descriptor(fn),
+        Math.max(8, maxArgs + 4),
+        boxBase + boxCount,
+        Arrays.copyOf(code, size));
+  }
+
+  private void instruction(CompiledFunction fn, int pc, List<int[]> jumps) {
+    int[] c = fn.code;
+    int a = pc + 1 < c.length ? c[pc + 1] : 0;
+    switch (c[pc]) {
+      case ICONST -> {
+        pushInt(c[pc + 2]);
+        storeInt(a);
+      }
+      case ONULL -> {
+        u1(ACONST_NULL);
+        local(JASTORE, objectBase + a);
+      }
+      case IMOVE -> {
+        loadInt(c[pc + 2]);
+        storeInt(a);
+      }
+      case OMOVE -> {
+        local(JALOAD, objectBase + c[pc + 2]);
+        local(JASTORE, objectBase + a);
+      }
+      case IGLOAD -> {
+        global("G", "[I");
+        pushInt(c[pc + 2]);
+        u1(JIALOAD);
+        storeInt(a);
+      }
+      case IGSTORE -> {
+        global("G", "[I");
+        pushInt(a);
+        loadInt(c[pc + 2]);
+        u1(JIASTORE);
+      }
+      case OGLOAD -> {
+        global("O", "[" + OBJECT_DESC);
+        pushInt(c[pc + 2]);
+        u1(JAALOAD);
+        local(JASTORE, objectBase + a);
+      }
+      case OGSTORE -> {
+        global("O", "[" + OBJECT_DESC);
+        pushInt(a);
+        local(JALOAD, objectBase + c[pc + 2]);
+        u1(JAASTORE);
+      }
+      case IADD, ISUB, IMUL, IDIV, IMOD -> {
+        loadInt(c[pc + 2]);
+        loadInt(c[pc + 3]);
+        u1(
+            switch (c[pc]) {
+              case IADD -> JIADD;
+              case ISUB -> JISUB;
+              case IMUL -> JIMUL;
+              case IDIV -> JIDIV;
+              default -> JIREM;
+            });
+        storeInt(a);
+      }
+      case IADDK -> {
+        loadInt(c[pc + 2]);
+        pushInt(c[pc + 3]);
+        u1(JIADD);
+        storeInt(a);
+      }
+      case IEQ, INE, ILT, ILE, IGT, IGE -> {
+        loadInt(c[pc + 2]);
+        loadInt(c[pc + 3]);
+        int branch =
+            switch (c[pc]) {
+              case IEQ -> IF_ICMPEQ;
+              case INE -> IF_ICMPNE;
+              case ILT -> IF_ICMPLT;
+              case ILE -> IF_ICMPLE;
+              case IGT -> IF_ICMPGT;
+              default -> IF_ICMPGE;
+            };
+        condition(branch);
+        storeInt(a);
+      }
+      case INOT -> {
+        loadInt(c[pc + 2]);
+        condition(IFEQ);
+        storeInt(a);
+      }
+      case TOBOOL -> {
+        loadInt(c[pc + 2]);
+        condition(IFNE);
+        storeInt(a);
+      }
+      case TOCHAR -> {
+        loadInt(c[pc + 2]);
+        u1(I2C);
+        storeInt(a);
+      }
+      case JMP -> jump(GOTO, a, jumps);
+      case JMPF, JMPT -> {
+        loadInt(a);
+        jump(c[pc] == JMPF ? IFEQ : IFNE, c[pc + 2], jumps);
+      }
+      case CALL, VCALL -> {
+        int target = a;
+        int count = c[pc + 3];
+        CompiledFunction callee;
+        if (c[pc] == CALL) {
+          callee = functions[c[pc + 2]];
+        } else {
+          callee = anyImplementation(c[pc + 2]);
+        }
+        for (int i = 0; i < count; i++) {
+          if (callee.paramObjects[i]) {
+            local(JALOAD, objectBase + c[pc + 4 + i]);
+          } else {
+            loadInt(c[pc + 4 + i]);
+          }
+        }
+        String descriptor = descriptor(callee);
+        if (c[pc] == CALL) {
+          invoke(INVOKESTATIC, className, "f" + c[pc + 2], descriptor);
+        } else {
+          String key = c[pc + 2] + ":" + descriptor;
+          String bridge = bridges.computeIfAbsent(key, k -> "vcall" + bridges.size());
+          invoke(INVOKESTATIC, className, bridge, descriptor);
+        }
+        if (target < 0) {
+          u1(POP);
+        } else if (callee.returnsObject) {
+          local(JASTORE, objectBase + target);
+        } else {
+          storeInt(target);
+        }
+      }
+      case RET -> {
+        if (fn.returnsObject) {
+          u1(ACONST_NULL);
+          u1(ARETURN);
+        } else {
+          u1(ICONST_0);
+          u1(IRETURN);
+        }
+      }
+      case IRET -> {
+        loadInt(a);
+        u1(IRETURN);
+      }
+      case ORET -> {
+        local(JALOAD, objectBase + a);
+        u1(ARETURN);
+      }
+      case PRINTI, PRINTB, PRINTC -> {
+        global("P", "LOutput/OutputSink;");
+        loadInt(a);
+        String name =
+            switch (c[pc]) {
+              case PRINTI -> "printInt";
+              case PRINTB -> "printBool";
+              default -> "printChar";
+            };
+        invoke(INVOKESTATIC, RUNTIME, name, "(LOutput/OutputSink;I)V");
+      }
+      case NEWARRAY -> {
+        int dims = c[pc + 3];
+        pushInt(c[pc + 2]);
+        pushInt(dims);
+        u1(NEWARRAY_INT, 10);
+        for (int i = 0; i < dims; i++) {
+          u1(DUP);
+          pushInt(i);
+          loadInt(c[pc + 4 + i]);
+          u1(JIASTORE);
+        }
+        invoke(INVOKESTATIC, "Bytecode/VM", "newArray", "(I[I)" + OBJECT_DESC);
+        local(JASTORE, objectBase + a);
+      }
+      case IALOAD, ZALOAD, CALOAD, AALOAD -> {
+        local(JALOAD, objectBase + c[pc + 2]);
+        loadInt(c[pc + 3]);
+        arrayName(fn, c[pc + 4], c[pc + 5]);
+        String access = "(" + OBJECT_DESC + "I" + OBJECT_DESC + "I)";
+        switch (c[pc]) {
+          case IALOAD -> invoke(INVOKESTATIC, RUNTIME, "iaload", access + "I");
+          case ZALOAD -> invoke(INVOKESTATIC, RUNTIME, "zaload", access + "I");
+          case CALOAD -> invoke(INVOKESTATIC, RUNTIME, "caload", access + "I");
+          default -> invoke(INVOKESTATIC, RUNTIME, "aaload", access + OBJECT_DESC);
+        }
+        if (c[pc] == AALOAD) {
+          local(JASTORE, objectBase + a);
+        } else {
+          storeInt(a);
+        }
+      }
+      case IASTORE, ZASTORE, CASTORE, AASTORE -> {
+        local(JALOAD, objectBase + a);
+        loadInt(c[pc + 2]);
+        if (c[pc] == AASTORE) {
+          local(JALOAD, objectBase + c[pc + 3]);
+        } else {
+          loadInt(c[pc + 3]);
+        }
+        arrayName(fn, c[pc + 4], c[pc + 5]);
+        String value = c[pc] == AASTORE ? OBJECT_DESC : "I";
+        String name =
+            switch (c[pc]) {
+              case IASTORE -> "iastore";
+              case ZASTORE -> "zastore";
+              case CASTORE -> "castore";
+              default -> "aastore";
+            };
+        invoke(INVOKESTATIC, RUNTIME, name, "(" + OBJECT_DESC + "I" + value + OBJECT_DESC + "I)V");
+      }
+      case NEW -> {
+        u2(JNEW, writer.classRef(INSTANCE));
+        u1(DUP);
+        global("C", "[LBytecode/ClassInfo;");
+        pushInt(c[pc + 2]);
+        u1(JAALOAD);
+        invoke(INVOKESPECIAL, INSTANCE, "<init>", "(LBytecode/ClassInfo;)V");
+        local(JASTORE, objectBase + a);
+      }
+      case IGETFIELD, OGETFIELD -> {
+        fields(c[pc + 2], c[pc] == IGETFIELD);
+        pushInt(c[pc + 3]);
+        if (c[pc] == IGETFIELD) {
+          u1(JIALOAD);
+          storeInt(a);
+        } else {
+          u1(JAALOAD);
+          local(JASTORE, objectBase + a);
+        }
+      }
+      case IPUTFIELD, OPUTFIELD -> {
+        fields(a, c[pc] == IPUTFIELD);
+        pushInt(c[pc + 2]);
+        if (c[pc] == IPUTFIELD) {
+          loadInt(c[pc + 3]);
+          u1(JIASTORE);
+        } else {
+          local(JALOAD, objectBase + c[pc + 3]);
+          u1(JAASTORE);
+        }
+      }
+      case COPY -> {
+        local(JALOAD, objectBase + a);
+        invoke(INVOKESTATIC, "Bytecode/VM", "instance", "(" + OBJECT_DESC + ")L" + INSTANCE + ";");
+        local(JALOAD, objectBase + c[pc + 2]);
+        invoke(INVOKESTATIC, "Bytecode/VM", "instance", "(" + OBJECT_DESC + ")L" + INSTANCE + ";");
+        invoke(INVOKEVIRTUAL, INSTANCE, "copyFrom", "(L" + INSTANCE + ";)V");
+      }
+      case IREF, IGREF, IFREF -> {
+        u2(JNEW, writer.classRef("Bytecode/Ref$Ints"));
+        u1(DUP);
+        switch (c[pc]) {
+          case IREF -> {
+            local(JALOAD, boxes[c[pc + 2]]);
+            u1(ICONST_0);
+          }
+          case IGREF -> {
+            global("G", "[I");
+            pushInt(c[pc + 2]);
+          }
+          default -> {
+            fields(c[pc + 2], true);
+            pushInt(c[pc + 3]);
+          }
+        }
+        invoke(INVOKESPECIAL, "Bytecode/Ref$Ints", "<init>", "([II)V");
+        local(JASTORE, objectBase + a);
+      }
+      case IEREF -> {
+        local(JALOAD, objectBase + c[pc + 2]);
+        loadInt(c[pc + 3]);
+        arrayName(fn, c[pc + 4], c[pc + 5]);
+        String descriptor = "(" + OBJECT_DESC + "I" + OBJECT_DESC + "I)LBytecode/Ref;";
+        invoke(INVOKESTATIC, RUNTIME, "elementRef", descriptor);
+        local(JASTORE, objectBase + a);
+      }
+      case IDEREF -> {
+        local(JALOAD, objectBase + c[pc + 2]);
+        u2(CHECKCAST, writer.classRef("Bytecode/Ref"));
+        invoke(INVOKEVIRTUAL, "Bytecode/Ref", "get", "()I");
+        storeInt(a);
+      }
+      case ISTOREREF -> {
+        local(JALOAD, objectBase + a);
+        u2(CHECKCAST, writer.classRef("Bytecode/Ref"));
+        loadInt(c[pc + 2]);
+        invoke(INVOKEVIRTUAL, "Bytecode/Ref", "set", "(I)V");
+      }
+      default -> throw new IllegalStateException("Unknown opcode " + c[pc] + " in " + fn.name);
+    }
+  }
+
+  /** Verteilt einen virtuellen Aufruf anhand der vtable des Empfängers auf die Methoden. */
+  private void bridge(String name, int slot, String descriptor) {
+    code = new byte[128];
+    size = 0;
+    MethodType type = MethodType.fromMethodDescriptorString(descriptor, null);
+    int params = type.parameterCount();
+
+    TreeMap<Integer, CompiledFunction> targets = new TreeMap<>();
+    for (ClassInfo clazz : program.classes) {
+      if (slot < clazz.vtable.length) {
+        int index = clazz.vtable[slot];
+        if (descriptor(functions[index]).equals(descriptor)) {
+          targets.put(index, functions[index]);
+        }
+      }
+    }
+
+    local(JALOAD, 0);
+    invoke(INVOKESTATIC, RUNTIME, "vtable", "(" + OBJECT_DESC + ")[I");
+    pushInt(slot);
+    u1(JIALOAD);
+    int start = size;
+    u1(LOOKUPSWITCH);
+    while (size % 4 != 0) u1(0);
+    int defaultSlot = size;
+    u4(0);
+    u4(targets.size());
+    int[] caseSlots = new int[targets.size()];
+    int i = 0;
+    for (int index : targets.keySet()) {
+      u4(index);
+      caseSlots[i++] = size;
+      u4(0);
+    }
+    i = 0;
+    for (int index : targets.keySet()) {
+      patch4(caseSlots[i++], size - start);
+      for (int p = 0; p < params; p++) {
+        local(type.parameterType(p) == int.class ? JILOAD : JALOAD, p);
+      }
+      invoke(INVOKESTATIC, className, "f" + index, descriptor);
+      u1(type.returnType() == int.class ? IRETURN : ARETURN);
+    }
+    patch4(defaultSlot, size - start);
+    invoke(INVOKESTATIC, RUNTIME, "noMethod", "()Ljava/lang/RuntimeException;");
+    u1(ATHROW);
+    writer.method(0x0008, name, descriptor, params + 2, params, Arrays.copyOf(code, size));
+  }
+
+  private CompiledFunction anyImplementation(int slot) {
+    for (ClassInfo clazz : program.classes) {
+      if (slot < clazz.vtable.length) {
+        return functions[clazz.vtable[slot]];
+      }
+    }
+    throw new IllegalStateException("No implementation for vtable slot " + slot);
+  }
+
+  // ---------------------------------------------------------------- Hilfen
+
+  private static String descriptor(CompiledFunction fn) {
+    StringBuilder builder = new StringBuilder("(");
+    for (boolean object : fn.paramObjects) {
+      builder.append(object ? OBJECT_DESC : "I");
+    }
+    return builder.append(')').append(fn.returnsObject ? OBJECT_DESC : "I").toString();
+  }
+
+  private static MethodType methodType(CompiledFunction fn) {
+    return MethodType.fromMethodDescriptorString(descriptor(fn), Jit.class.getClassLoader());
+  }
+
+  /** Länge einer Bytecode-Instruktion einschließlich Opcode. */
+  static int length(int[] code, int pc) {
+    return switch (code[pc]) {
+      case ONULL, JMP, RET, IRET, ORET, PRINTI, PRINTB, PRINTC -> 2;
+      case ICONST,
+              IMOVE,
+              OMOVE,
+              IGLOAD,
+              IGSTORE,
+              OGLOAD,
+              OGSTORE,
+              INOT,
+              TOBOOL,
+              TOCHAR,
+              JMPF,
+              JMPT,
+              NEW,
+              COPY,
+              IREF,
+              IGREF,
+              IDEREF,
+              ISTOREREF ->
+          3;
+      case IADD,
+              ISUB,
+              IMUL,
+              IDIV,
+              IMOD,
+              IADDK,
+              IEQ,
+              INE,
+              ILT,
+              ILE,
+              IGT,
+              IGE,
+              IGETFIELD,
+              IPUTFIELD,
+              OGETFIELD,
+              OPUTFIELD,
+              IFREF ->
+          4;
+      case IALOAD, ZALOAD, CALOAD, AALOAD, IASTORE, ZASTORE, CASTORE, AASTORE, IEREF -> 6;
+      case CALL, VCALL -> 4 + code[pc + 3];
+      case NEWARRAY -> 4 + code[pc + 3];
+      default -> throw new IllegalStateException("Unknown opcode " + code[pc]);
+    };
+  }
+
+  private void loadInt(int register) {
+    if (boxes[register] >= 0) {
+      local(JALOAD, boxes[register]);
+      u1(ICONST_0);
+      u1(JIALOAD);
+    } else {
+      local(JILOAD, intBase + register);
+    }
+  }
+
+  private void storeInt(int register) {
+    if (boxes[register] >= 0) {
+      local(JALOAD, boxes[register]);
+      u1(SWAP);
+      u1(ICONST_0);
+      u1(SWAP);
+      u1(JIASTORE);
+    } else {
+      local(JISTORE, intBase + register);
+    }
+  }
+
+  private void fields(int register, boolean ints) {
+    local(JALOAD, objectBase + register);
+    invoke(INVOKESTATIC, "Bytecode/VM", "instance", "(" + OBJECT_DESC + ")L" + INSTANCE + ";");
+    if (ints) {
+      u2(GETFIELD, writer.fieldRef(INSTANCE, "ints", "[I"));
+    } else {
+      u2(GETFIELD, writer.fieldRef(INSTANCE, "objects", "[" + OBJECT_DESC));
+    }
+  }
+
+  private void arrayName(CompiledFunction fn, int constant, int dimension) {
+    u2(LDC_W, writer.string(String.valueOf(fn.constants[constant])));
+    pushInt(dimension);
+  }
+
+  private void global(String name, String descriptor) {
+    u2(GETSTATIC, writer.fieldRef(className, name, descriptor));
+  }
+
+  private void invoke(int opcode, String owner, String name, String descriptor) {
+    u2(opcode, writer.methodRef(owner, name, descriptor));
+  }
+
+  // hinterlässt 1 oder 0 auf dem Stack, je nachdem ob der Vergleich zutrifft
+  private void condition(int branch) {
+    u1(branch);
+    u2(7);
+    u1(ICONST_0);
+    u1(GOTO);
+    u2(4);
+    u1(ICONST_0 + 1);
+  }
+
+  private void jump(int opcode, int target, List<int[]> jumps) {
+    jumps.add(new int[] {size, size + 1, target});
+    u1(opcode);
+    u2(0);
+  }
+
+  private void pushInt(int value) {
+    if (value >= -1 && value <= 5) {
+      u1(ICONST_0 + value);
+    } else if (value == (byte) value) {
+      u1(BIPUSH, value);
+    } else if (value == (short) value) {
+      u1(SIPUSH);
+      u2(value);
+    } else {
+      u2(LDC_W, writer.integer(value));
+    }
+  }
+
+  private void local(int opcode, int slot) {
+    if (slot < 256) {
+      u1(opcode, slot);
+    } else {
+      u1(WIDE, opcode);
+      u2(slot);
+    }
+  }
+
+  private void u1(int... bytes) {
+    ensure(bytes.length);
+    for (int b : bytes) {
+      code[size++] = (byte) b;
+    }
+  }
+
+  private void u2(int value) {
+    u1(value >> 8, value);
+  }
+
+  private void u2(int opcode, int value) {
+    u1(opcode, value >> 8, value);
+  }
+
+  private void u4(int value) {
+    u1(value >> 24, value >> 16, value >> 8, value);
+  }
+
+  private void patch4(int position, int value) {
+    code[position] = (byte) (value >> 24);
+    code[position + 1] = (byte) (value >> 16);
+    code[position + 2] = (byte) (value >> 8);
+    code[position + 3] = (byte) value;
+  }
+
+  private void ensure(int extra) {
+    if (size + extra > code.length) {
+      code = Arrays.copyOf(code, Math.max(code.length * 2, size + extra));
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package Bytecode;
+
+import Output.OutputSink;
+
+/** Hilfsmethoden, die der vom {@link Jit} erzeugte Code aufruft. */
+final class JitRuntime {
+  private JitRuntime() {}
+
+  static void printInt(OutputSink out, int value) {
+    out.printInt(value);
+  }
+
+  static void printBool(OutputSink out, int value) {
+    out.printBool(value != 0);
+  }
+
+  static void printChar(OutputSink out, int value) {
+    out.printChar((char) value);
+  }
+
+  static int[] vtable(Object receiver) {
+    if (receiver == null) {
+      throw new RuntimeException("Method call on an uninitialized object");
+    }
+    return ((Instance) receiver).clazz.vtable;
+  }
+
+  static RuntimeException noMethod() {
+    return new IllegalStateException("No implementation for virtual method");
+  }
+
+  static int iaload(Object array, int index, Object name, int dimension) {
+    int[] values = (int[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    return values[index];
+  }
+
+  static int zaload(Object array, int index, Object name, int dimension) {
+    boolean[] values = (boolean[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    return values[index] ? 1 : 0;
+  }
+
+  static int caload(Object array, int index, Object name, int dimension) {
+    char[] values = (char[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    return values[index];
+  }
+
+  static Object aaload(Object array, int index, Object name, int dimension) {
+    Object[] values = (Object[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    return values[index];
+  }
+
+  static void iastore(Object array, int index, int value, Object name, int dimension) {
+    int[] values = (int[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    values[index] = value;
+  }
+
+  static void zastore(Object array, int index, int value, Object name, int dimension) {
+    boolean[] values = (boolean[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    values[index] = value != 0;
+  }
+
+  static void castore(Object array, int index, int value, Object name, int dimension) {
+    char[] values = (char[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    values[index] = (char) value;
+  }
+
+  static void aastore(Object array, int index, Object value, Object name, int dimension) {
+    Object[] values = (Object[]) array;
+    VM.checkIndex(values.length, index, name, dimension);
+    values[index] = value;
+  }
+
+  static Ref elementRef(Object array, int index, Object name, int dimension) {
+    VM.checkIndex(java.lang.reflect.Array.getLength(array), index, name, dimension);
+    return Ref.of(array, index);
+  }
+}
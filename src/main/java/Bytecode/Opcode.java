@@ -0,0 +1,82 @@
+package Bytecode;
+
+/**
+ * Befehlssatz der Register-VM. Jeder Befehl besteht aus dem Opcode und seinen Operanden im {@code
+ * int[]} Code einer {@link CompiledFunction}. {@code i} steht für ein int-Register, {@code o} für
+ * ein Objekt-Register, {@code g} für einen globalen Slot, {@code k} für einen Index in den
+ * Konstantenpool und {@code t} für ein Sprungziel.
+ */
+public final class Opcode {
+  private Opcode() {}
+
+  public static final int ICONST = 0; // i, wert
+  public static final int ONULL = 1; // o
+  public static final int IMOVE = 2; // i, i
+  public static final int OMOVE = 3; // o, o
+
+  public static final int IGLOAD = 4; // i, g
+  public static final int IGSTORE = 5; // g, i
+  public static final int OGLOAD = 6; // o, g
+  public static final int OGSTORE = 7; // g, o
+
+  public static final int IADD = 8; // i, i, i
+  public static final int ISUB = 9;
+  public static final int IMUL = 10;
+  public static final int IDIV = 11;
+  public static final int IMOD = 12;
+  public static final int IADDK = 13; // i, i, wert
+
+  public static final int IEQ = 14; // i, i, i
+  public static final int INE = 15;
+  public static final int ILT = 16;
+  public static final int ILE = 17;
+  public static final int IGT = 18;
+  public static final int IGE = 19;
+  public static final int INOT = 20; // i, i
+  public static final int TOBOOL = 21; // i, i
+  public static final int TOCHAR = 22; // i, i
+
+  public static final int JMP = 23; // t
+  public static final int JMPF = 24; // i, t
+  public static final int JMPT = 25; // i, t
+
+  public static final int CALL = 26; // ziel, funktion, anzahl, register...
+  public static final int VCALL = 27; // ziel, vtable index, anzahl, this, register...
+  public static final int RET = 28;
+  public static final int IRET = 29; // i
+  public static final int ORET = 30; // o
+
+  public static final int PRINTI = 31; // i
+  public static final int PRINTB = 32; // i
+  public static final int PRINTC = 33; // i
+
+  public static final int NEWARRAY = 34; // o, elementtyp, dimensionen, i...
+  public static final int IALOAD = 35; // i, o, i, k, dimension
+  public static final int ZALOAD = 36;
+  public static final int CALOAD = 37;
+  public static final int AALOAD = 38; // o, o, i, k, dimension
+  public static final int IASTORE = 39; // o, i, i, k, dimension
+  public static final int ZASTORE = 40;
+  public static final int CASTORE = 41;
+  public static final int AASTORE = 42; // o, i, o, k, dimension
+
+  public static final int NEW = 43; // o, klasse
+  public static final int IGETFIELD = 44; // i, o, feld
+  public static final int IPUTFIELD = 45; // o, feld, i
+  public static final int OGETFIELD = 46; // o, o, feld
+  public static final int OPUTFIELD = 47; // o, feld, o
+  public static final int COPY = 48; // o, o
+
+  public static final int IREF = 49; // o, i
+  public static final int IGREF = 50; // o, g
+  public static final int IFREF = 51; // o, o, feld
+  public static final int IEREF = 52; // o, o, i, k, dimension
+  public static final int IDEREF = 53; // i, o
+  public static final int ISTOREREF = 54; // o, i
+
+  // Elementtypen für NEWARRAY
+  public static final int ELEMENT_INT = 0;
+  public static final int ELEMENT_BOOL = 1;
+  public static final int ELEMENT_CHAR = 2;
+  public static final int ELEMENT_OBJECT = 3;
+}
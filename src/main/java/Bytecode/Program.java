@@ -0,0 +1,25 @@
+package Bytecode;
+
+/** Ergebnis des {@code BytecodeCompiler}: alle Funktionen, Klassen und die globalen Slots. */
+public class Program {
+  public final CompiledFunction[] functions;
+  public final ClassInfo[] classes;
+  public final int globalInts;
+  public final int globalObjects;
+
+  // führt die globalen Anweisungen aus und ruft main auf
+  public final int entry;
+
+  public Program(
+      CompiledFunction[] functions,
+      ClassInfo[] classes,
+      int globalInts,
+      int globalObjects,
+      int entry) {
+    this.functions = functions;
+    this.classes = classes;
+    this.globalInts = globalInts;
+    this.globalObjects = globalObjects;
+    this.entry = entry;
+  }
+}
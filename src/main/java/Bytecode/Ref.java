@@ -0,0 +1,80 @@
+package Bytecode;
+
+/**
+ * Referenz auf einen primitiven Speicherplatz (Register, globaler Slot, Feld oder Array-Element).
+ * Referenzen auf Objekte brauchen keine Zelle, dort wird einfach das {@link Instance} geteilt.
+ */
+public abstract class Ref {
+  public abstract int get();
+
+  public abstract void set(int value);
+
+  public static Ref of(Object array, int index) {
+    return switch (array) {
+      case int[] values -> new Ints(values, index);
+      case boolean[] values -> new Bools(values, index);
+      case char[] values -> new Chars(values, index);
+      default -> throw new RuntimeException("Cannot reference an element of " + array);
+    };
+  }
+
+  public static final class Ints extends Ref {
+    private final int[] values;
+    private final int index;
+
+    public Ints(int[] values, int index) {
+      this.values = values;
+      this.index = index;
+    }
+
+    @Override
+    public int get() {
+      return values[index];
+    }
+
+    @Override
+    public void set(int value) {
+      values[index] = value;
+    }
+  }
+
+  public static final class Bools extends Ref {
+    private final boolean[] values;
+    private final int index;
+
+    public Bools(boolean[] values, int index) {
+      this.values = values;
+      this.index = index;
+    }
+
+    @Override
+    public int get() {
+      return values[index] ? 1 : 0;
+    }
+
+    @Override
+    public void set(int value) {
+      values[index] = value != 0;
+    }
+  }
+
+  public static final class Chars extends Ref {
+    private final char[] values;
+    private final int index;
+
+    public Chars(char[] values, int index) {
+      this.values = values;
+      this.index = index;
+    }
+
+    @Override
+    public int get() {
+      return values[index];
+    }
+
+    @Override
+    public void set(int value) {
+      values[index] = (char) value;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package Bytecode;
+
+import static Bytecode.Opcode.*;
+
+import Output.ChannelSink;
+import Output.OutputSink;
+import java.lang.reflect.Array;
+
+/**
+ * Führt ein {@link Program} aus. Jeder Aufruf bekommt zwei Registerbänke, {@code int[]} für int,
+ * bool und char sowie {@code Object[]} für Arrays, Objekte und Referenzen.
+ */
+public class VM {
+  private final Program program;
+  private final CompiledFunction[] functions;
+  private final int[] globalInts;
+  private final Object[] globalObjects;
+
+  // Rückgabewert des zuletzt beendeten Aufrufs
+  private int returnInt;
+  private Object returnObject;
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+
+  public VM(Program program) {
+    this.program = program;
+    this.functions = program.functions;
+    this.globalInts = new int[program.globalInts];
+    this.globalObjects = new Object[program.globalObjects];
+  }
+
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  public void run() {
+    CompiledFunction entry = functions[program.entry];
+    execute(entry, new int[entry.intRegisters], new Object[entry.objectRegisters]);
+  }
+
+  private void execute(CompiledFunction fn, int[] ints, Object[] objects) {
+    final int[] code = fn.code;
+    final Object[] constants = fn.constants;
+    int pc = 0;
+    while (true) {
+      switch (code[pc++]) {
+        case ICONST -> {
+          ints[code[pc]] = code[pc + 1];
+          pc += 2;
+        }
+        case ONULL -> objects[code[pc++]] = null;
+        case IMOVE -> {
+          ints[code[pc]] = ints[code[pc + 1]];
+          pc += 2;
+        }
+        case OMOVE -> {
+          objects[code[pc]] = objects[code[pc + 1]];
+          pc += 2;
+        }
+        case IGLOAD -> {
+          ints[code[pc]] = globalInts[code[pc + 1]];
+          pc += 2;
+        }
+        case IGSTORE -> {
+          globalInts[code[pc]] = ints[code[pc + 1]];
+          pc += 2;
+        }
+        case OGLOAD -> {
+          objects[code[pc]] = globalObjects[code[pc + 1]];
+          pc += 2;
+        }
+        case OGSTORE -> {
+          globalObjects[code[pc]] = objects[code[pc + 1]];
+          pc += 2;
+        }
+        case IADD -> {
+          ints[code[pc]] = ints[code[pc + 1]] + ints[code[pc + 2]];
+          pc += 3;
+        }
+        case ISUB -> {
+          ints[code[pc]] = ints[code[pc + 1]] - ints[code[pc + 2]];
+          pc += 3;
+        }
+        case IMUL -> {
+          ints[code[pc]] = ints[code[pc + 1]] * ints[code[pc + 2]];
+          pc += 3;
+        }
+        case IDIV -> {
+          ints[code[pc]] = ints[code[pc + 1]] / ints[code[pc + 2]];
+          pc += 3;
+        }
+        case IMOD -> {
+          ints[code[pc]] = ints[code[pc + 1]] % ints[code[pc + 2]];
+          pc += 3;
+        }
+        case IADDK -> {
+          ints[code[pc]] = ints[code[pc + 1]] + code[pc + 2];
+          pc += 3;
+        }
+        case IEQ -> {
+          ints[code[pc]] = ints[code[pc + 1]] == ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case INE -> {
+          ints[code[pc]] = ints[code[pc + 1]] != ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case ILT -> {
+          ints[code[pc]] = ints[code[pc + 1]] < ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case ILE -> {
+          ints[code[pc]] = ints[code[pc + 1]] <= ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case IGT -> {
+          ints[code[pc]] = ints[code[pc + 1]] > ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case IGE -> {
+          ints[code[pc]] = ints[code[pc + 1]] >= ints[code[pc + 2]] ? 1 : 0;
+          pc += 3;
+        }
+        case INOT -> {
+          ints[code[pc]] = ints[code[pc + 1]] == 0 ? 1 : 0;
+          pc += 2;
+        }
+        case TOBOOL -> {
+          ints[code[pc]] = ints[code[pc + 1]] != 0 ? 1 : 0;
+          pc += 2;
+        }
+        case TOCHAR -> {
+          ints[code[pc]] = (char) ints[code[pc + 1]];
+          pc += 2;
+        }
+        case JMP -> pc = code[pc];
+        case JMPF -> pc = ints[code[pc]] == 0 ? code[pc + 1] : pc + 2;
+        case JMPT -> pc = ints[code[pc]] != 0 ? code[pc + 1] : pc + 2;
+        case CALL -> {
+          int target = code[pc];
+          CompiledFunction callee = functions[code[pc + 1]];
+          pc = invoke(callee, target, code, pc + 2, ints, objects);
+        }
+        case VCALL -> {
+          int target = code[pc];
+          Instance receiver = (Instance) objects[code[pc + 3]];
+          if (receiver == null) {
+            throw new RuntimeException("Method call on an uninitialized object");
+          }
+          CompiledFunction callee = functions[receiver.clazz.vtable[code[pc + 1]]];
+          pc = invoke(callee, target, code, pc + 2, ints, objects);
+        }
+        case RET -> {
+          returnInt = 0;
+          returnObject = null;
+          return;
+        }
+        case IRET -> {
+          returnInt = ints[code[pc]];
+          return;
+        }
+        case ORET -> {
+          returnObject = objects[code[pc]];
+          return;
+        }
+        case PRINTI -> out.printInt(ints[code[pc++]]);
+        case PRINTB -> out.printBool(ints[code[pc++]] != 0);
+        case PRINTC -> out.printChar((char) ints[code[pc++]]);
+        case NEWARRAY -> {
+          int target = code[pc];
+          int element = code[pc + 1];
+          int[] sizes = new int[code[pc + 2]];
+          for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = ints[code[pc + 3 + i]];
+          }
+          objects[target] = newArray(element, sizes);
+          pc += 3 + sizes.length;
+        }
+        case IALOAD -> {
+          int[] array = (int[]) objects[code[pc + 1]];
+          int index = ints[code[pc + 2]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          ints[code[pc]] = array[index];
+          pc += 5;
+        }
+        case ZALOAD -> {
+          boolean[] array = (boolean[]) objects[code[pc + 1]];
+          int index = ints[code[pc + 2]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          ints[code[pc]] = array[index] ? 1 : 0;
+          pc += 5;
+        }
+        case CALOAD -> {
+          char[] array = (char[]) objects[code[pc + 1]];
+          int index = ints[code[pc + 2]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          ints[code[pc]] = array[index];
+          pc += 5;
+        }
+        case AALOAD -> {
+          Object[] array = (Object[]) objects[code[pc + 1]];
+          int index = ints[code[pc + 2]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          objects[code[pc]] = array[index];
+          pc += 5;
+        }
+        case IASTORE -> {
+          int[] array = (int[]) objects[code[pc]];
+          int index = ints[code[pc + 1]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          array[index] = ints[code[pc + 2]];
+          pc += 5;
+        }
+        case ZASTORE -> {
+          boolean[] array = (boolean[]) objects[code[pc]];
+          int index = ints[code[pc + 1]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          array[index] = ints[code[pc + 2]] != 0;
+          pc += 5;
+        }
+        case CASTORE -> {
+          char[] array = (char[]) objects[code[pc]];
+          int index = ints[code[pc + 1]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          array[index] = (char) ints[code[pc + 2]];
+          pc += 5;
+        }
+        case AASTORE -> {
+          Object[] array = (Object[]) objects[code[pc]];
+          int index = ints[code[pc + 1]];
+          checkIndex(array.length, index, constants[code[pc + 3]], code[pc + 4]);
+          array[index] = objects[code[pc + 2]];
+          pc += 5;
+        }
+        case NEW -> {
+          objects[code[pc]] = new Instance(program.classes[code[pc + 1]]);
+          pc += 2;
+        }
+        case IGETFIELD -> {
+          ints[code[pc]] = instance(objects[code[pc + 1]]).ints[code[pc + 2]];
+          pc += 3;
+        }
+        case IPUTFIELD -> {
+          instance(objects[code[pc]]).ints[code[pc + 1]] = ints[code[pc + 2]];
+          pc += 3;
+        }
+        case OGETFIELD -> {
+          objects[code[pc]] = instance(objects[code[pc + 1]]).objects[code[pc + 2]];
+          pc += 3;
+        }
+        case OPUTFIELD -> {
+          instance(objects[code[pc]]).objects[code[pc + 1]] = objects[code[pc + 2]];
+          pc += 3;
+        }
+        case COPY -> {
+          instance(objects[code[pc]]).copyFrom(instance(objects[code[pc + 1]]));
+          pc += 2;
+        }
+        case IREF -> {
+          objects[code[pc]] = new Ref.Ints(ints, code[pc + 1]);
+          pc += 2;
+        }
+        case IGREF -> {
+          objects[code[pc]] = new Ref.Ints(globalInts, code[pc + 1]);
+          pc += 2;
+        }
+        case IFREF -> {
+          objects[code[pc]] = new Ref.Ints(instance(objects[code[pc + 1]]).ints, code[pc + 2]);
+          pc += 3;
+        }
+        case IEREF -> {
+          Object array = objects[code[pc + 1]];
+          int index = ints[code[pc + 2]];
+          checkIndex(Array.getLength(array), index, constants[code[pc + 3]], code[pc + 4]);
+          objects[code[pc]] = Ref.of(array, index);
+          pc += 5;
+        }
+        case IDEREF -> {
+          ints[code[pc]] = ((Ref) objects[code[pc + 1]]).get();
+          pc += 2;
+        }
+        case ISTOREREF -> {
+          ((Ref) objects[code[pc]]).set(ints[code[pc + 1]]);
+          pc += 2;
+        }
+        default ->
+            throw new IllegalStateException("Unknown opcode " + code[pc - 1] + " in " + fn.name);
+      }
+    }
+  }
+
+  /** Kopiert die Argumente in einen neuen Frame, führt den Aufruf aus und liefert das neue pc. */
+  private int invoke(
+      CompiledFunction callee, int target, int[] code, int pc, int[] ints, Object[] objects) {
+    int count = code[pc++];
+    int[] calleeInts = new int[callee.intRegisters];
+    Object[] calleeObjects = new Object[callee.objectRegisters];
+    for (int i = 0; i < count; i++) {
+      if (callee.paramObjects[i]) {
+        calleeObjects[callee.paramRegisters[i]] = objects[code[pc + i]];
+      } else {
+        calleeInts[callee.paramRegisters[i]] = ints[code[pc + i]];
+      }
+    }
+    execute(callee, calleeInts, calleeObjects);
+    if (target >= 0) {
+      if (callee.returnsObject) {
+        objects[target] = returnObject;
+      } else {
+        ints[target] = returnInt;
+      }
+    }
+    return pc + count;
+  }
+
+  static Instance instance(Object object) {
+    if (object == null) {
+      throw new RuntimeException("Access to an uninitialized object");
+    }
+    return (Instance) object;
+  }
+
+  static Object newArray(int element, int[] sizes) {
+    return switch (element) {
+      case ELEMENT_INT -> Array.newInstance(int.class, sizes);
+      case ELEMENT_BOOL -> Array.newInstance(boolean.class, sizes);
+      case ELEMENT_CHAR -> Array.newInstance(char.class, sizes);
+      default -> Array.newInstance(Object.class, sizes);
+    };
+  }
+
+  static void checkIndex(int length, int index, Object name, int dimension) {
+    if (index < 0 || index >= length) {
+      throw new RuntimeException(
+          "Error: index "
+              + index
+              + " is out of bounds for dimension "
+              + dimension
+              + " of array "
+              + name
+              + " (size: "
+              + length
+              + ")");
+    }
+  }
+}
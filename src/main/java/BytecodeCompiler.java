@@ -0,0 +1,1353 @@
+import static Bytecode.Opcode.*;
+
+import AST.ASTNode;
+import AST.Type;
+import Bytecode.ClassInfo;
+import Bytecode.CompiledFunction;
+import Bytecode.Program;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Übersetzt den analysierten AST in Register-Bytecode für die {@link Bytecode.VM}. Variablen
+ * bekommen feste Register, je nach Typ in der int- oder der Objekt-Registerbank. Klassen werden mit
+ * festem Feld-Layout und vtable übersetzt.
+ */
+public class BytecodeCompiler {
+  private static final String INT = "int";
+  private static final String BOOL = "bool";
+  private static final String CHAR = "char";
+  private static final String VOID = "void";
+
+  /** Statischer Typ: int, bool, char, void oder ein Klassenname, dazu die Array-Dimensionen. */
+  private record VarType(String name, int dims) {
+    boolean isPrimitive() {
+      return dims == 0 && (name.equals(INT) || name.equals(BOOL) || name.equals(CHAR));
+    }
+
+    boolean isVoid() {
+      return dims == 0 && name.equals(VOID);
+    }
+
+    boolean isObject() {
+      return !isPrimitive() && !isVoid();
+    }
+
+    boolean isInstance() {
+      return dims == 0 && isObject();
+    }
+  }
+
+  private record Value(VarType type, int reg) {}
+
+  private record Param(String name, VarType type, boolean ref, ASTNode defaultValue) {}
+
+  private record Field(VarType type, boolean ref, int index) {
+    boolean isObject() {
+      return type.isObject() || ref;
+    }
+  }
+
+  private record Binding(VarType type, boolean ref, boolean global, int index) {
+    boolean isObject() {
+      return type.isObject() || ref;
+    }
+  }
+
+  private static final class FunctionInfo {
+    final int index;
+    final String name;
+    final ClassLayout owner;
+    final List<Param> params = new ArrayList<>();
+    VarType returnType = new VarType(VOID, 0);
+    boolean returnsRef;
+    boolean virtual;
+    int vtableIndex = -1;
+    ASTNode node;
+
+    FunctionInfo(int index, String name, ClassLayout owner) {
+      this.index = index;
+      this.name = name;
+      this.owner = owner;
+    }
+  }
+
+  private static final class ClassLayout {
+    final String name;
+    final ClassLayout superLayout;
+    final ClassInfo info;
+    final int index;
+    final Map<String, Field> fields = new LinkedHashMap<>();
+    final List<ASTNode> fieldDecls = new ArrayList<>();
+    final Map<String, FunctionInfo> methods = new HashMap<>();
+    final List<FunctionInfo> constructors = new ArrayList<>();
+    final List<FunctionInfo> vtable = new ArrayList<>();
+    FunctionInfo copyConstructor;
+    FunctionInfo assignOperator;
+    int intFields;
+    int objectFields;
+
+    ClassLayout(String name, ClassLayout superLayout, int index) {
+      this.name = name;
+      this.superLayout = superLayout;
+      this.info = new ClassInfo(name, superLayout == null ? null : superLayout.info);
+      this.index = index;
+    }
+
+    FunctionInfo method(String name) {
+      for (ClassLayout layout = this; layout != null; layout = layout.superLayout) {
+        FunctionInfo method = layout.methods.get(name);
+        if (method != null) return method;
+      }
+      return null;
+    }
+  }
+
+  // Speicherorte für Place
+  private static final int LOCAL = 0;
+  private static final int GLOBAL = 1;
+  private static final int FIELD = 2;
+  private static final int ELEMENT = 3;
+
+  /** Ein Speicherort, der gelesen, geschrieben oder referenziert werden kann. */
+  private final class Place {
+    final int where;
+    final VarType type;
+    final boolean ref;
+    final int index;
+    final int base;
+    final int name;
+    final int dim;
+
+    Place(int where, VarType type, boolean ref, int index, int base, int name, int dim) {
+      this.where = where;
+      this.type = type;
+      this.ref = ref;
+      this.index = index;
+      this.base = base;
+      this.name = name;
+      this.dim = dim;
+    }
+
+    Value load() {
+      if (type.isObject()) {
+        if (where == LOCAL) return new Value(type, index);
+        int target = objectTemp();
+        switch (where) {
+          case GLOBAL -> emit(OGLOAD, target, index);
+          case FIELD -> emit(OGETFIELD, target, base, index);
+          default -> emit(AALOAD, target, base, index, name, dim);
+        }
+        return new Value(type, target);
+      }
+      if (ref) {
+        int target = intTemp();
+        emit(IDEREF, target, refRegister());
+        return new Value(type, target);
+      }
+      if (where == LOCAL) return new Value(type, index);
+      int target = intTemp();
+      switch (where) {
+        case GLOBAL -> emit(IGLOAD, target, index);
+        case FIELD -> emit(IGETFIELD, target, base, index);
+        default -> {
+          int opcode = elementOpcode(type, IALOAD, ZALOAD, CALOAD);
+          emit(opcode, target, base, index, name, dim);
+        }
+      }
+      return new Value(type, target);
+    }
+
+    void store(int reg) {
+      if (type.isObject()) {
+        storeObject(reg);
+      } else if (ref) {
+        emit(ISTOREREF, refRegister(), reg);
+      } else {
+        switch (where) {
+          case LOCAL -> {
+            if (index != reg) emit(IMOVE, index, reg);
+          }
+          case GLOBAL -> emit(IGSTORE, index, reg);
+          case FIELD -> emit(IPUTFIELD, base, index, reg);
+          default -> {
+            int opcode = elementOpcode(type, IASTORE, ZASTORE, CASTORE);
+            emit(opcode, base, index, reg, name, dim);
+          }
+        }
+      }
+    }
+
+    // schreibt ein Objekt bzw. bei Referenzen die Ref-Zelle selbst
+    void storeObject(int reg) {
+      switch (where) {
+        case LOCAL -> {
+          if (index != reg) emit(OMOVE, index, reg);
+        }
+        case GLOBAL -> emit(OGSTORE, index, reg);
+        case FIELD -> emit(OPUTFIELD, base, index, reg);
+        default -> emit(AASTORE, base, index, reg, name, dim);
+      }
+    }
+
+    int makeRef() {
+      if (ref) return refRegister();
+      int target = objectTemp();
+      switch (where) {
+        case LOCAL -> emit(IREF, target, index);
+        case GLOBAL -> emit(IGREF, target, index);
+        case FIELD -> emit(IFREF, target, base, index);
+        default -> emit(IEREF, target, base, index, name, dim);
+      }
+      return target;
+    }
+
+    private int refRegister() {
+      if (where == LOCAL) return index;
+      int target = objectTemp();
+      if (where == GLOBAL) {
+        emit(OGLOAD, target, index);
+      } else {
+        emit(OGETFIELD, target, base, index);
+      }
+      return target;
+    }
+  }
+
+  private final List<FunctionInfo> functionInfos = new ArrayList<>();
+  private final List<CompiledFunction> compiled = new ArrayList<>();
+  private final Map<String, FunctionInfo> functions = new HashMap<>();
+  private final Map<String, ClassLayout> classes = new LinkedHashMap<>();
+  private final Map<String, Binding> globals = new HashMap<>();
+  private int globalInts;
+  private int globalObjects;
+  private FunctionInfo entry;
+
+  // Zustand der gerade übersetzten Funktion
+  private FunctionInfo function;
+  private int[] code;
+  private int size;
+  private ArrayList<Object> constants;
+  private ArrayDeque<Map<String, Binding>> scopes;
+  private int nextInt;
+  private int nextObject;
+  private int maxInt;
+  private int maxObject;
+
+  public Program compile(ASTNode program) {
+    for (ASTNode child : program.children) {
+      switch (child.getType()) {
+        case Type.CLASS -> declareClass(child);
+        case Type.FN_DECL -> declareFunction(child, null);
+        case Type.MAIN -> {
+          FunctionInfo main = newFunction("main", null);
+          main.returnType = new VarType(INT, 0);
+          main.node = child;
+          functions.put("main", main);
+        }
+        case Type.VAR_DECL, Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF ->
+            declareGlobal(child.children.getFirst().getValue(), declaredType(child), isRef(child));
+        case Type.FN_CALL -> {
+          if (constructs(child)) {
+            declareGlobal(child.getValue(), classType(child), false);
+          }
+        }
+        default -> {}
+      }
+    }
+    this.entry = newFunction("<program>", null);
+
+    for (ClassLayout layout : classes.values()) {
+      compileClass(layout);
+    }
+    for (FunctionInfo fn : new ArrayList<>(functionInfos)) {
+      if (fn.owner == null && fn != entry) {
+        compileFunction(fn);
+      }
+    }
+    begin(entry);
+    for (ASTNode child : program.children) {
+      statement(child);
+    }
+    finish();
+
+    ClassInfo[] classInfos = new ClassInfo[classes.size()];
+    for (ClassLayout layout : classes.values()) {
+      classInfos[layout.index] = layout.info;
+    }
+    return new Program(
+        compiled.toArray(new CompiledFunction[0]),
+        classInfos,
+        globalInts,
+        globalObjects,
+        entry.index);
+  }
+
+  // ---------------------------------------------------------------- Deklarationen
+
+  private FunctionInfo newFunction(String name, ClassLayout owner) {
+    FunctionInfo fn = new FunctionInfo(functionInfos.size(), name, owner);
+    functionInfos.add(fn);
+    compiled.add(new CompiledFunction(name));
+    if (owner != null) {
+      fn.params.add(new Param("this", new VarType(owner.name, 0), false, null));
+    }
+    return fn;
+  }
+
+  private void declareGlobal(String name, VarType type, boolean ref) {
+    boolean object = type.isObject() || ref;
+    globals.put(name, new Binding(type, ref, true, object ? globalObjects++ : globalInts++));
+  }
+
+  private void declareFunction(ASTNode node, ClassLayout owner) {
+    ASTNode info = node.children.getFirst();
+    String name = functionName(info);
+    FunctionInfo fn = owner == null ? functions.get(name) : owner.methods.get(name);
+    if (fn == null) {
+      fn = newFunction(owner == null ? name : owner.name + "::" + name, owner);
+      if (owner == null) {
+        functions.put(name, fn);
+      } else {
+        owner.methods.put(name, fn);
+      }
+      fn.returnType = info.getType() == Type.VOID ? new VarType(VOID, 0) : typeOf(info, 0);
+      fn.returnsRef = info.children.stream().anyMatch(c -> c.getType() == Type.REF);
+      for (ASTNode child : node.children) {
+        if (child.getType() == Type.PARAMS) {
+          addParams(fn, child);
+        }
+      }
+    }
+    if (node.getType() == Type.ABSTRACT_FN || "virtual".equals(node.getValue())) {
+      fn.virtual = true;
+    }
+    if (node.children.getLast().getType() == Type.BLOCK) {
+      fn.node = node;
+    }
+  }
+
+  private void addParams(FunctionInfo fn, ASTNode params) {
+    for (ASTNode param : params.children) {
+      boolean ref = false;
+      ASTNode defaultValue = null;
+      for (int i = param.getType() == Type.CLASSTYPE ? 1 : 0; i < param.children.size(); i++) {
+        ASTNode child = param.children.get(i);
+        if (child.getType() == Type.REF) {
+          ref = true;
+        } else {
+          defaultValue = child;
+        }
+      }
+      fn.params.add(new Param(param.getValue(), typeOf(param, 0), ref, defaultValue));
+    }
+  }
+
+  private void declareClass(ASTNode node) {
+    ClassLayout superLayout = null;
+    for (ASTNode child : node.children) {
+      if (child.getType() == Type.CLASSTYPE && "extends".equals(child.getValue())) {
+        superLayout = classes.get(child.children.getFirst().getValue());
+      }
+    }
+    ClassLayout layout = new ClassLayout(node.getValue(), superLayout, classes.size());
+    classes.put(layout.name, layout);
+    if (superLayout != null) {
+      layout.fields.putAll(superLayout.fields);
+      layout.intFields = superLayout.intFields;
+      layout.objectFields = superLayout.objectFields;
+      layout.vtable.addAll(superLayout.vtable);
+    }
+    VarType self = new VarType(layout.name, 0);
+
+    for (ASTNode child : node.children) {
+      switch (child.getType()) {
+        case Type.VAR_DECL, Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF -> {
+          VarType type = declaredType(child);
+          boolean ref = isRef(child);
+          boolean object = type.isObject() || ref;
+          int index = object ? layout.objectFields++ : layout.intFields++;
+          layout.fields.put(child.children.getFirst().getValue(), new Field(type, ref, index));
+          layout.fieldDecls.add(child);
+        }
+        case Type.FN_DECL, Type.ABSTRACT_FN -> declareFunction(child, layout);
+        case Type.CONSTRUCTOR -> {
+          FunctionInfo constructor = newFunction(layout.name + "::" + layout.name, layout);
+          for (ASTNode part : child.children) {
+            if (part.getType() == Type.PARAMS) {
+              addParams(constructor, part);
+            }
+          }
+          constructor.node = child;
+          layout.constructors.add(constructor);
+        }
+        case Type.COPY_CONSTRUCTOR -> {
+          FunctionInfo copy = newFunction(layout.name + "::copy", layout);
+          copy.params.add(new Param(child.children.getFirst().getValue(), self, true, null));
+          copy.node = child;
+          layout.copyConstructor = copy;
+        }
+        case Type.OPERATOR -> {
+          FunctionInfo operator = newFunction(layout.name + "::operator=", layout);
+          for (ASTNode part : child.children) {
+            if (part.getType() == Type.PARAMS) {
+              addParams(operator, part);
+            }
+          }
+          operator.returnType = self;
+          operator.returnsRef = true;
+          operator.node = child;
+          layout.assignOperator = operator;
+        }
+        default -> {}
+      }
+    }
+
+    // ohne FirstScopeVisitor fehlen die generierten Standard-Funktionen
+    if (layout.constructors.isEmpty()) {
+      layout.constructors.add(newFunction(layout.name + "::" + layout.name, layout));
+    }
+    if (layout.copyConstructor == null) {
+      layout.copyConstructor = newFunction(layout.name + "::copy", layout);
+      layout.copyConstructor.params.add(new Param("other", self, true, null));
+    }
+    if (layout.assignOperator == null) {
+      layout.assignOperator = newFunction(layout.name + "::operator=", layout);
+      layout.assignOperator.params.add(new Param("other", self, true, null));
+      layout.assignOperator.returnType = self;
+      layout.assignOperator.returnsRef = true;
+    }
+
+    // vtable: überschriebene virtuelle Methoden übernehmen den Index der Basisklasse
+    for (FunctionInfo method : layout.methods.values()) {
+      String name = method.name.substring(method.name.indexOf("::") + 2);
+      FunctionInfo inherited = superLayout == null ? null : superLayout.method(name);
+      if (inherited != null && inherited.virtual) {
+        method.virtual = true;
+        method.vtableIndex = inherited.vtableIndex;
+        layout.vtable.set(method.vtableIndex, method);
+      } else if (method.virtual) {
+        method.vtableIndex = layout.vtable.size();
+        layout.vtable.add(method);
+      }
+    }
+    layout.info.vtable = layout.vtable.stream().mapToInt(f -> f.index).toArray();
+    layout.info.intFields = layout.intFields;
+    layout.info.objectFields = layout.objectFields;
+  }
+
+  // ---------------------------------------------------------------- Funktionen
+
+  private void begin(FunctionInfo fn) {
+    this.function = fn;
+    this.code = new int[64];
+    this.size = 0;
+    this.constants = new ArrayList<>();
+    this.scopes = new ArrayDeque<>();
+    this.nextInt = 0;
+    this.nextObject = 0;
+    this.maxInt = 0;
+    this.maxObject = 0;
+    scopes.push(new HashMap<>());
+
+    CompiledFunction target = compiled.get(fn.index);
+    target.paramRegisters = new int[fn.params.size()];
+    target.paramObjects = new boolean[fn.params.size()];
+    target.returnsObject = fn.returnType.isObject();
+    for (int i = 0; i < fn.params.size(); i++) {
+      Param param = fn.params.get(i);
+      boolean ref = param.ref() && param.type().isPrimitive();
+      Binding binding = allocate(param.type(), ref);
+      scopes.peek().put(param.name(), binding);
+      target.paramRegisters[i] = binding.index();
+      target.paramObjects[i] = binding.isObject();
+    }
+  }
+
+  private void finish() {
+    emit(RET);
+    CompiledFunction target = compiled.get(function.index);
+    target.code = Arrays.copyOf(code, size);
+    target.constants = constants.toArray();
+    target.intRegisters = maxInt;
+    target.objectRegisters = maxObject;
+  }
+
+  private void compileFunction(FunctionInfo fn) {
+    begin(fn);
+    if (fn.node != null) {
+      statement(fn.node.children.getLast());
+    }
+    finish();
+  }
+
+  private void compileClass(ClassLayout layout) {
+    for (FunctionInfo constructor : layout.constructors) {
+      begin(constructor);
+      ASTNode block = constructorPrologue(layout, constructor.node);
+      if (block != null) {
+        statement(block);
+      }
+      finish();
+    }
+
+    FunctionInfo copy = layout.copyConstructor;
+    begin(copy);
+    ASTNode copyBlock = copy.node == null ? null : blockOf(copy.node);
+    if (copyBlock == null) {
+      emit(COPY, 0, 1);
+    } else {
+      statement(constructorPrologue(layout, copy.node));
+    }
+    finish();
+
+    FunctionInfo operator = layout.assignOperator;
+    begin(operator);
+    ASTNode operatorBlock = operator.node == null ? null : blockOf(operator.node);
+    if (operatorBlock == null) {
+      emit(COPY, 0, 1);
+      emit(ORET, 0);
+    } else {
+      statement(operatorBlock);
+    }
+    finish();
+
+    for (FunctionInfo method : layout.methods.values()) {
+      compileFunction(method);
+    }
+  }
+
+  /** Basisklasse und eigene Felder initialisieren, liefert den Rumpf des Konstruktors. */
+  private ASTNode constructorPrologue(ClassLayout layout, ASTNode node) {
+    List<ASTNode> baseArgs = List.of();
+    if (node != null) {
+      for (ASTNode child : node.children) {
+        if (child.getType() == Type.ARGS) {
+          baseArgs = child.children;
+        }
+      }
+    }
+    if (layout.superLayout != null) {
+      FunctionInfo base = selectConstructor(layout.superLayout, baseArgs);
+      emitCall(base, -1, arguments(base, 0, baseArgs));
+    }
+    Place self = lookup("this");
+    for (ASTNode decl : layout.fieldDecls) {
+      int ints = nextInt;
+      int objects = nextObject;
+      Field field = layout.fields.get(decl.children.getFirst().getValue());
+      if (decl.getType() != Type.VAR_REF && decl.getType() != Type.ARRAY_REF) {
+        Place place = new Place(FIELD, field.type(), field.ref(), field.index(), self.index, 0, 0);
+        initialize(place, decl);
+      }
+      nextInt = ints;
+      nextObject = objects;
+    }
+    return node == null ? null : blockOf(node);
+  }
+
+  private static ASTNode blockOf(ASTNode node) {
+    ASTNode last = node.children.isEmpty() ? null : node.children.getLast();
+    return last != null && last.getType() == Type.BLOCK ? last : null;
+  }
+
+  // ---------------------------------------------------------------- Anweisungen
+
+  private void statement(ASTNode node) {
+    int ints = nextInt;
+    int objects = nextObject;
+    switch (node.getType()) {
+      case Type.BLOCK -> {
+        scopes.push(new HashMap<>());
+        for (ASTNode child : node.children) {
+          statement(child);
+        }
+        scopes.pop();
+      }
+      case Type.VAR_DECL, Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF -> {
+        declare(node.children.getFirst().getValue(), declaredType(node), isRef(node), node);
+        return;
+      }
+      case Type.FN_CALL -> {
+        if (constructs(node)) {
+          declare(node.getValue(), classType(node), false, node);
+          return;
+        }
+        call(node);
+      }
+      case Type.ASSIGN -> assign(node);
+      case Type.DEC_INC, Type.OBJ_USAGE -> expression(node);
+      case Type.WHILE -> {
+        int start = size;
+        int condition = expression(node.children.getFirst()).reg();
+        int exit = emitJump(JMPF, condition);
+        nextInt = ints;
+        nextObject = objects;
+        statement(node.children.getLast());
+        emit(JMP, start);
+        patch(exit);
+      }
+      case Type.IF -> ifStatement(node);
+      case Type.RETURN -> returnStatement(node);
+      case Type.MAIN -> {
+        if (function == entry) {
+          emitCall(functions.get("main"), -1, new int[0]);
+        }
+      }
+      case Type.FN_DECL, Type.CLASS, Type.ABSTRACT_FN -> {}
+      default -> throw unsupported(node);
+    }
+    nextInt = ints;
+    nextObject = objects;
+  }
+
+  private void declare(String name, VarType type, boolean ref, ASTNode node) {
+    Binding binding;
+    if (function == entry && scopes.size() == 1) {
+      binding = globals.get(name);
+    } else {
+      binding = allocate(type, ref);
+    }
+    int ints = nextInt;
+    int objects = nextObject;
+    initialize(place(binding), node);
+    nextInt = ints;
+    nextObject = objects;
+    if (!binding.global()) {
+      scopes.peek().put(name, binding);
+    }
+  }
+
+  private void initialize(Place place, ASTNode node) {
+    VarType type = place.type;
+    switch (node.getType()) {
+      case Type.VAR_DECL -> {
+        if (type.isInstance()) {
+          ClassLayout layout = layout(type);
+          if (node.children.size() == 2) {
+            place.storeObject(copyInstance(layout, expression(node.children.getLast()).reg()));
+          } else {
+            place.storeObject(newInstance(layout, List.of()));
+          }
+        } else if (node.children.size() == 2) {
+          place.store(coerce(expression(node.children.getLast()), type));
+        } else {
+          int zero = intTemp();
+          emit(ICONST, zero, 0);
+          place.store(zero);
+        }
+      }
+      case Type.FN_CALL -> place.storeObject(newInstance(layout(type), argumentsOf(node)));
+      case Type.VAR_REF -> {
+        ASTNode target = node.children.getLast();
+        if (place.ref) {
+          place.storeObject(place(target).makeRef());
+        } else {
+          place.storeObject(expression(target).reg());
+        }
+      }
+      case Type.ARRAY_REF -> place.storeObject(expression(node.children.getLast()).reg());
+      case Type.ARRAY_DECL -> {
+        List<ASTNode> sizes = sizes(node.children.getFirst());
+        int[] registers = new int[sizes.size()];
+        for (int i = 0; i < registers.length; i++) {
+          registers[i] = coerce(expression(sizes.get(i)), new VarType(INT, 0));
+        }
+        place.storeObject(newArray(type, registers));
+      }
+      case Type.ARRAY_INIT -> {
+        ASTNode literal = node.children.getLast();
+        List<ASTNode> sizes = sizes(node.children.getFirst());
+        int[] registers = new int[type.dims()];
+        ASTNode level = literal;
+        for (int i = 0; i < registers.length; i++) {
+          if (i < sizes.size()) {
+            registers[i] = coerce(expression(sizes.get(i)), new VarType(INT, 0));
+          } else {
+            registers[i] = intTemp();
+            emit(ICONST, registers[i], level.children.size());
+          }
+          if (!level.children.isEmpty()) {
+            level = level.children.getFirst();
+          }
+        }
+        int array = newArray(type, registers);
+        fillArray(array, literal, type, 0, constant(node.children.getFirst().getValue()));
+        place.storeObject(array);
+      }
+      default -> throw unsupported(node);
+    }
+  }
+
+  private int newArray(VarType type, int[] sizes) {
+    int target = objectTemp();
+    int element =
+        switch (type.name()) {
+          case INT -> ELEMENT_INT;
+          case BOOL -> ELEMENT_BOOL;
+          case CHAR -> ELEMENT_CHAR;
+          default -> ELEMENT_OBJECT;
+        };
+    int[] words = new int[4 + sizes.length];
+    words[0] = NEWARRAY;
+    words[1] = target;
+    words[2] = element;
+    words[3] = sizes.length;
+    System.arraycopy(sizes, 0, words, 4, sizes.length);
+    emit(words);
+    return target;
+  }
+
+  private void fillArray(int array, ASTNode literal, VarType type, int depth, int name) {
+    VarType element = new VarType(type.name(), type.dims() - depth - 1);
+    for (int i = 0; i < literal.children.size(); i++) {
+      ASTNode child = literal.children.get(i);
+      int index = intTemp();
+      emit(ICONST, index, i);
+      Place place = new Place(ELEMENT, element, false, index, array, name, depth + 1);
+      if (child.getType() == Type.ARRAY) {
+        fillArray(place.load().reg(), child, type, depth + 1, name);
+      } else {
+        place.store(coerce(expression(child), element));
+      }
+    }
+  }
+
+  private void assign(ASTNode node) {
+    Place target = place(node.children.getFirst());
+    ASTNode valueNode = node.children.getLast();
+    if (target.type.isInstance()) {
+      int object = target.load().reg();
+      int value = expression(valueNode).reg();
+      emitCall(layout(target.type).assignOperator, -1, new int[] {object, value});
+      return;
+    }
+    if (!target.type.isPrimitive()) {
+      throw new IllegalStateException("Error: arrays cannot be assigned");
+    }
+    Value value = expression(valueNode);
+    int operator =
+        switch (node.getValue()) {
+          case "+=" -> IADD;
+          case "-=" -> ISUB;
+          case "*=" -> IMUL;
+          case "/=" -> IDIV;
+          default -> -1;
+        };
+    if (operator >= 0) {
+      int result = intTemp();
+      emit(operator, result, target.load().reg(), value.reg());
+      value = new Value(new VarType(INT, 0), result);
+    }
+    target.store(coerce(value, target.type));
+  }
+
+  private void ifStatement(ASTNode node) {
+    List<Integer> exits = new ArrayList<>();
+    int count = node.children.size();
+    for (int i = 0; i < count; i++) {
+      ASTNode child = node.children.get(i);
+      if (child.getType() == Type.BLOCK && i == count - 1 && i % 2 == 0) {
+        statement(child);
+      } else {
+        int ints = nextInt;
+        int objects = nextObject;
+        int next = emitJump(JMPF, expression(child).reg());
+        nextInt = ints;
+        nextObject = objects;
+        statement(node.children.get(++i));
+        if (i < count - 1) {
+          exits.add(emitJump(JMP, -1));
+        }
+        patch(next);
+      }
+    }
+    for (int exit : exits) {
+      patch(exit);
+    }
+  }
+
+  private void returnStatement(ASTNode node) {
+    VarType type = function.returnType;
+    if (node.children.isEmpty() || type.isVoid()) {
+      if (!node.children.isEmpty()) {
+        expression(node.children.getLast());
+      }
+      if (type.isPrimitive()) {
+        int zero = intTemp();
+        emit(ICONST, zero, 0);
+        emit(IRET, zero);
+      } else {
+        emit(RET);
+      }
+      return;
+    }
+    Value value = expression(node.children.getLast());
+    if (type.isPrimitive()) {
+      emit(IRET, coerce(value, type));
+    } else if (type.isInstance() && !function.returnsRef) {
+      emit(ORET, copyInstance(layout(type), value.reg()));
+    } else {
+      emit(ORET, value.reg());
+    }
+  }
+
+  // ---------------------------------------------------------------- Ausdrücke
+
+  private Value expression(ASTNode node) {
+    VarType intType = new VarType(INT, 0);
+    VarType boolType = new VarType(BOOL, 0);
+    switch (node.getType()) {
+      case Type.INT, Type.BOOL, Type.CHAR, Type.NULL -> {
+        int target = intTemp();
+        int value =
+            switch (node.getType()) {
+              case Type.INT -> Integer.parseInt(node.getValue());
+              case Type.BOOL -> Boolean.parseBoolean(node.getValue()) ? 1 : 0;
+              case Type.CHAR -> node.getValue().charAt(0);
+              default -> 0;
+            };
+        emit(ICONST, target, value);
+        VarType type =
+            switch (node.getType()) {
+              case Type.BOOL -> boolType;
+              case Type.CHAR -> new VarType(CHAR, 0);
+              default -> intType;
+            };
+        return new Value(type, target);
+      }
+      case Type.ID, Type.ARRAY_ITEM -> {
+        return place(node).load();
+      }
+      case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD -> {
+        int opcode =
+            switch (node.getType()) {
+              case Type.ADD -> IADD;
+              case Type.SUB -> ISUB;
+              case Type.MUL -> IMUL;
+              case Type.DIV -> IDIV;
+              default -> IMOD;
+            };
+        return binary(opcode, node, intType);
+      }
+      case Type.EQUAL,
+          Type.NOT_EQUAL,
+          Type.LESS,
+          Type.LESS_EQUAL,
+          Type.GREATER,
+          Type.GREATER_EQUAL -> {
+        int opcode =
+            switch (node.getType()) {
+              case Type.EQUAL -> IEQ;
+              case Type.NOT_EQUAL -> INE;
+              case Type.LESS -> ILT;
+              case Type.LESS_EQUAL -> ILE;
+              case Type.GREATER -> IGT;
+              default -> IGE;
+            };
+        return binary(opcode, node, boolType);
+      }
+      case Type.AND, Type.OR -> {
+        int target = intTemp();
+        emit(TOBOOL, target, primitive(expression(node.children.getFirst())));
+        int exit = emitJump(node.getType() == Type.AND ? JMPF : JMPT, target);
+        emit(TOBOOL, target, primitive(expression(node.children.getLast())));
+        patch(exit);
+        return new Value(boolType, target);
+      }
+      case Type.NOT -> {
+        int target = intTemp();
+        emit(INOT, target, primitive(expression(node.children.getFirst())));
+        return new Value(boolType, target);
+      }
+      case Type.FN_CALL -> {
+        return call(node);
+      }
+      case Type.DEC_INC -> {
+        return decInc(node, null);
+      }
+      case Type.OBJ_USAGE -> {
+        return objUsage(node);
+      }
+      default -> throw unsupported(node);
+    }
+  }
+
+  private Value binary(int opcode, ASTNode node, VarType type) {
+    int left = primitive(expression(node.children.getFirst()));
+    int right = primitive(expression(node.children.getLast()));
+    int target = intTemp();
+    emit(opcode, target, left, right);
+    return new Value(type, target);
+  }
+
+  private int primitive(Value value) {
+    if (!value.type().isPrimitive()) {
+      throw new IllegalStateException("Error: expected int, bool or char but got " + value.type());
+    }
+    return value.reg();
+  }
+
+  private int coerce(Value value, VarType type) {
+    int reg = primitive(value);
+    String from = value.type().name();
+    if (type.name().equals(BOOL) && !from.equals(BOOL)) {
+      int target = intTemp();
+      emit(TOBOOL, target, reg);
+      return target;
+    }
+    if (type.name().equals(CHAR) && !from.equals(CHAR)) {
+      int target = intTemp();
+      emit(TOCHAR, target, reg);
+      return target;
+    }
+    return reg;
+  }
+
+  private Value decInc(ASTNode node, Value receiver) {
+    ASTNode first = node.children.getFirst();
+    boolean prefix = first.getType() == Type.INC || first.getType() == Type.DEC;
+    ASTNode operator = prefix ? first : node.children.getLast();
+    ASTNode targetNode = prefix ? node.children.getLast() : first;
+    Place target = receiver == null ? place(targetNode) : member(receiver, targetNode);
+    int old = primitive(target.load());
+    if (!prefix) {
+      int copy = intTemp();
+      emit(IMOVE, copy, old);
+      old = copy;
+    }
+    int updated = intTemp();
+    emit(IADDK, updated, old, operator.getType() == Type.INC ? 1 : -1);
+    updated = coerce(new Value(new VarType(INT, 0), updated), target.type);
+    target.store(updated);
+    return new Value(target.type, prefix ? updated : old);
+  }
+
+  private Value call(ASTNode node) {
+    String name = node.getValue();
+    List<ASTNode> args = argumentsOf(node);
+    switch (name) {
+      case "print_int", "print_bool", "print_char" -> {
+        int value = primitive(expression(args.getFirst()));
+        emit(
+            switch (name) {
+              case "print_int" -> PRINTI;
+              case "print_bool" -> PRINTB;
+              default -> PRINTC;
+            },
+            value);
+        return new Value(new VarType(VOID, 0), -1);
+      }
+      default -> {}
+    }
+    if (function.owner != null) {
+      FunctionInfo method = function.owner.method(name);
+      if (method != null) {
+        return callMethod(method, lookup("this").index, args);
+      }
+    }
+    FunctionInfo fn = functions.get(name);
+    if (fn == null) {
+      throw new IllegalStateException("Error: no such function: " + name);
+    }
+    int target = resultRegister(fn);
+    emitCall(fn, target, arguments(fn, -1, args));
+    return new Value(fn.returnType, target);
+  }
+
+  private Value callMethod(FunctionInfo method, int receiver, List<ASTNode> args) {
+    int target = resultRegister(method);
+    int[] registers = arguments(method, receiver, args);
+    if (method.virtual) {
+      int[] words = new int[4 + registers.length];
+      words[0] = VCALL;
+      words[1] = target;
+      words[2] = method.vtableIndex;
+      words[3] = registers.length;
+      System.arraycopy(registers, 0, words, 4, registers.length);
+      emit(words);
+    } else {
+      emitCall(method, target, registers);
+    }
+    return new Value(method.returnType, target);
+  }
+
+  private int resultRegister(FunctionInfo fn) {
+    if (fn.returnType.isVoid()) return -1;
+    return fn.returnType.isObject() ? objectTemp() : intTemp();
+  }
+
+  /** Wertet die Argumente passend zu den Parametern aus, bei Methoden zuerst "this". */
+  private int[] arguments(FunctionInfo fn, int receiver, List<ASTNode> args) {
+    int offset = fn.owner == null ? 0 : 1;
+    int[] registers = new int[fn.params.size()];
+    if (offset == 1) {
+      registers[0] = receiver;
+    }
+    for (int i = offset; i < registers.length; i++) {
+      Param param = fn.params.get(i);
+      ASTNode arg = i - offset < args.size() ? args.get(i - offset) : param.defaultValue();
+      if (arg == null) {
+        throw new IllegalStateException(
+            "Error: missing argument " + param.name() + " for " + fn.name);
+      }
+      VarType type = param.type();
+      if (type.isPrimitive()) {
+        registers[i] = param.ref() ? place(arg).makeRef() : coerce(expression(arg), type);
+      } else if (type.isInstance() && !param.ref()) {
+        registers[i] = copyInstance(layout(type), expression(arg).reg());
+      } else {
+        registers[i] = expression(arg).reg();
+      }
+    }
+    return registers;
+  }
+
+  private void emitCall(FunctionInfo fn, int target, int[] registers) {
+    int[] words = new int[4 + registers.length];
+    words[0] = CALL;
+    words[1] = target;
+    words[2] = fn.index;
+    words[3] = registers.length;
+    System.arraycopy(registers, 0, words, 4, registers.length);
+    emit(words);
+  }
+
+  private int newInstance(ClassLayout layout, List<ASTNode> args) {
+    int target = objectTemp();
+    emit(NEW, target, layout.index);
+    FunctionInfo constructor = selectConstructor(layout, args);
+    emitCall(constructor, -1, arguments(constructor, target, args));
+    return target;
+  }
+
+  private int copyInstance(ClassLayout layout, int source) {
+    int target = objectTemp();
+    emit(NEW, target, layout.index);
+    emitCall(layout.copyConstructor, -1, new int[] {target, source});
+    return target;
+  }
+
+  private FunctionInfo selectConstructor(ClassLayout layout, List<ASTNode> args) {
+    if (args.size() == 1) {
+      VarType type = staticType(args.getFirst());
+      if (type != null && type.isInstance()) {
+        return layout.copyConstructor;
+      }
+    }
+    FunctionInfo candidate = null;
+    for (FunctionInfo constructor : layout.constructors) {
+      int count = constructor.params.size() - 1;
+      long required =
+          constructor.params.stream().skip(1).filter(p -> p.defaultValue() == null).count();
+      if (count == args.size()) {
+        return constructor;
+      }
+      if (candidate == null && required <= args.size() && args.size() <= count) {
+        candidate = constructor;
+      }
+    }
+    if (candidate == null) {
+      throw new IllegalStateException(
+          "Error: no constructor of " + layout.name + " takes " + args.size() + " arguments");
+    }
+    return candidate;
+  }
+
+  // ---------------------------------------------------------------- Objekte
+
+  private Value objUsage(ASTNode node) {
+    ASTNode last = node.children.getLast();
+    if (node.children.size() == 1 && last.getType() == Type.ID && last.getValue().equals("this")) {
+      return lookup("this").load();
+    }
+    Value receiver = receiver(node);
+    return switch (last.getType()) {
+      case Type.FN_CALL -> methodCall(receiver, last);
+      case Type.DEC_INC -> decInc(last, receiver);
+      default -> member(receiver, last).load();
+    };
+  }
+
+  private Place objUsagePlace(ASTNode node) {
+    return member(receiver(node), node.children.getLast());
+  }
+
+  /** Wertet die Kette bis vor das letzte Kind aus und liefert das Objekt davor. */
+  private Value receiver(ASTNode node) {
+    int start = 0;
+    Value receiver;
+    if ("this".equals(node.getValue()) || "*this".equals(node.getValue())) {
+      receiver = lookup("this").load();
+    } else {
+      receiver = place(node.children.getFirst()).load();
+      start = 1;
+    }
+    for (int i = start; i < node.children.size() - 1; i++) {
+      ASTNode child = node.children.get(i);
+      receiver =
+          child.getType() == Type.FN_CALL
+              ? methodCall(receiver, child)
+              : member(receiver, child).load();
+    }
+    return receiver;
+  }
+
+  private Value methodCall(Value receiver, ASTNode call) {
+    // Argumente von Methodenaufrufen landen nur als Text im AST
+    String text = call.getValue();
+    int open = text.indexOf('(');
+    String name = open < 0 ? text : text.substring(0, open);
+    if (open >= 0 && !text.substring(open + 1, text.lastIndexOf(')')).isBlank()) {
+      throw new UnsupportedOperationException(
+          "Method call " + text + " with arguments is not supported by the bytecode compiler");
+    }
+    FunctionInfo method = layout(receiver.type()).method(name);
+    if (method == null) {
+      throw new IllegalStateException(
+          "Error: no such method " + name + " in " + receiver.type().name());
+    }
+    return callMethod(method, receiver.reg(), List.of());
+  }
+
+  private Place member(Value receiver, ASTNode node) {
+    if (!receiver.type().isInstance()) {
+      throw new IllegalStateException("Error: " + receiver.type().name() + " is not an object");
+    }
+    ClassLayout layout = layout(receiver.type());
+    String name = node.getValue();
+    Field field = layout.fields.get(name);
+    if (field == null) {
+      throw new IllegalStateException("Error: no such attribute " + name + " in " + layout.name);
+    }
+    Place place = new Place(FIELD, field.type(), field.ref(), field.index(), receiver.reg(), 0, 0);
+    if (node.getType() == Type.ARRAY_ITEM) {
+      return element(place.load(), node);
+    }
+    return place;
+  }
+
+  // ---------------------------------------------------------------- Speicherorte
+
+  private Place place(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.ID -> lookup(node.getValue());
+      case Type.ARRAY_ITEM -> element(lookup(node.getValue()).load(), node);
+      case Type.OBJ_USAGE -> objUsagePlace(node);
+      default -> throw new IllegalStateException("Error: " + node.getType() + " is not assignable");
+    };
+  }
+
+  private Place element(Value array, ASTNode item) {
+    int name = constant(item.getValue());
+    int reg = array.reg();
+    VarType type = array.type();
+    int count = item.children.size();
+    if (count > type.dims()) {
+      throw new IllegalStateException("Error: Dimension mismatch for array " + item.getValue());
+    }
+    for (int i = 0; i < count; i++) {
+      int index = coerce(expression(item.children.get(i)), new VarType(INT, 0));
+      VarType element = new VarType(type.name(), type.dims() - i - 1);
+      Place place = new Place(ELEMENT, element, false, index, reg, name, i + 1);
+      if (i == count - 1) {
+        return place;
+      }
+      reg = place.load().reg();
+    }
+    throw new IllegalStateException("Error: array " + item.getValue() + " needs an index");
+  }
+
+  private Place lookup(String name) {
+    for (Map<String, Binding> scope : scopes) {
+      Binding binding = scope.get(name);
+      if (binding != null) return place(binding);
+    }
+    if (function.owner != null) {
+      Field field = function.owner.fields.get(name);
+      if (field != null) {
+        int self = scopes.getLast().get("this").index();
+        return new Place(FIELD, field.type(), field.ref(), field.index(), self, 0, 0);
+      }
+    }
+    Binding global = globals.get(name);
+    if (global != null) return place(global);
+    throw new IllegalStateException("Error: no such variable: " + name);
+  }
+
+  private Place place(Binding binding) {
+    return new Place(
+        binding.global() ? GLOBAL : LOCAL, binding.type(), binding.ref(), binding.index(), 0, 0, 0);
+  }
+
+  private Binding allocate(VarType type, boolean ref) {
+    boolean object = type.isObject() || ref;
+    return new Binding(type, ref, false, object ? objectTemp() : intTemp());
+  }
+
+  // ---------------------------------------------------------------- Typen
+
+  private VarType staticType(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.INT, Type.NULL, Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD ->
+          new VarType(INT, 0);
+      case Type.CHAR -> new VarType(CHAR, 0);
+      case Type.BOOL,
+              Type.AND,
+              Type.OR,
+              Type.NOT,
+              Type.EQUAL,
+              Type.NOT_EQUAL,
+              Type.LESS,
+              Type.LESS_EQUAL,
+              Type.GREATER,
+              Type.GREATER_EQUAL ->
+          new VarType(BOOL, 0);
+      case Type.ID -> lookup(node.getValue()).type;
+      case Type.ARRAY_ITEM -> {
+        VarType array = lookup(node.getValue()).type;
+        yield new VarType(array.name(), array.dims() - node.children.size());
+      }
+      case Type.FN_CALL -> {
+        FunctionInfo fn = functions.get(node.getValue());
+        yield fn == null ? null : fn.returnType;
+      }
+      default -> null;
+    };
+  }
+
+  private VarType declaredType(ASTNode node) {
+    ASTNode typeNode = node.children.getFirst();
+    int dims =
+        switch (node.getType()) {
+          case Type.ARRAY_DECL, Type.ARRAY_REF -> sizes(typeNode).size();
+          case Type.ARRAY_INIT -> {
+            int depth = 0;
+            for (ASTNode level = node.children.getLast();
+                level.getType() == Type.ARRAY;
+                level = level.children.getFirst()) {
+              depth++;
+              if (level.children.isEmpty()) break;
+            }
+            yield Math.max(depth, sizes(typeNode).size());
+          }
+          default -> 0;
+        };
+    return typeOf(typeNode, dims);
+  }
+
+  private static boolean isRef(ASTNode node) {
+    return node.getType() == Type.VAR_REF && isPrimitiveType(node.children.getFirst());
+  }
+
+  private static boolean isPrimitiveType(ASTNode typeNode) {
+    return typeNode.getType() == Type.INT
+        || typeNode.getType() == Type.BOOL
+        || typeNode.getType() == Type.CHAR;
+  }
+
+  private static VarType typeOf(ASTNode typeNode, int dims) {
+    if (typeNode.getType() == Type.CLASSTYPE) {
+      return new VarType(typeNode.children.getFirst().getValue(), dims);
+    }
+    return new VarType(typeNode.getType().name().toLowerCase(), dims);
+  }
+
+  private static List<ASTNode> sizes(ASTNode typeNode) {
+    List<ASTNode> children = typeNode.children;
+    return typeNode.getType() == Type.CLASSTYPE ? children.subList(1, children.size()) : children;
+  }
+
+  private static String functionName(ASTNode info) {
+    return info.getType() == Type.CLASSTYPE
+        ? info.children.get(1).getValue()
+        : info.children.getFirst().getValue();
+  }
+
+  private static boolean constructs(ASTNode call) {
+    return !call.children.isEmpty() && call.children.getFirst().getType() == Type.CLASSTYPE;
+  }
+
+  private static VarType classType(ASTNode call) {
+    return new VarType(call.children.getFirst().getValue(), 0);
+  }
+
+  private static List<ASTNode> argumentsOf(ASTNode call) {
+    for (ASTNode child : call.children) {
+      if (child.getType() == Type.ARGS) return child.children;
+    }
+    return List.of();
+  }
+
+  private ClassLayout layout(VarType type) {
+    ClassLayout layout = classes.get(type.name());
+    if (layout == null) {
+      throw new IllegalStateException("Error: no such class: " + type.name());
+    }
+    return layout;
+  }
+
+  // ---------------------------------------------------------------- Code
+
+  private int intTemp() {
+    maxInt = Math.max(maxInt, nextInt + 1);
+    return nextInt++;
+  }
+
+  private int objectTemp() {
+    maxObject = Math.max(maxObject, nextObject + 1);
+    return nextObject++;
+  }
+
+  private int constant(Object value) {
+    int index = constants.indexOf(value);
+    if (index < 0) {
+      constants.add(value);
+      index = constants.size() - 1;
+    }
+    return index;
+  }
+
+  private static int elementOpcode(VarType type, int ints, int bools, int chars) {
+    return switch (type.name()) {
+      case BOOL -> bools;
+      case CHAR -> chars;
+      default -> ints;
+    };
+  }
+
+  private void emit(int... words) {
+    if (size + words.length > code.length) {
+      code = Arrays.copyOf(code, Math.max(code.length * 2, size + words.length));
+    }
+    System.arraycopy(words, 0, code, size, words.length);
+    size += words.length;
+  }
+
+  /** Gibt die Position des Sprungziels zurück, damit es mit {@link #patch} gesetzt werden kann. */
+  private int emitJump(int opcode, int condition) {
+    if (opcode == JMP) {
+      emit(JMP, -1);
+    } else {
+      emit(opcode, condition, -1);
+    }
+    return size - 1;
+  }
+
+  private void patch(int position) {
+    code[position] = size;
+  }
+
+  private UnsupportedOperationException unsupported(ASTNode node) {
+    return new UnsupportedOperationException(
+        "Node "
+            + node.getType()
+            + (node.getValue() == null ? "" : " " + node.getValue())
+            + " is not supported by the bytecode compiler");
+  }
+}
@@ -0,0 +1,733 @@
+import AST.ASTNode;
+import AST.Type;
+import Closures.*;
+import Nodes.Kind;
+import Output.ChannelSink;
+import Output.OutputSink;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Übersetzt den analysierten AST in vorab gebundene Lambdas. Jeder Ausdruck wird ein {@link
+ * IntExpr} bzw. {@link ObjExpr}, jede Anweisung ein {@link Stmt}. Kinder, Slots und aufgerufene
+ * Funktionen werden beim Übersetzen festgelegt, zur Laufzeit gibt es kein switch über Knotentypen.
+ */
+public class ClosureCompiler {
+  /** Übersetzter Ausdruck mit statischem Typ, genau einer von ints/objects ist gesetzt. */
+  private record Expr(Kind kind, IntExpr ints, ObjExpr objects) {
+    static Expr of(Kind kind, IntExpr ints) {
+      return new Expr(kind, ints, null);
+    }
+  }
+
+  private final Map<String, Function> functions = new HashMap<>();
+  private final Map<String, Kind> returnKinds = new HashMap<>();
+  private Scope globalScope;
+  private Frame globals;
+
+  // Startindex jedes Scopes im Frame der aktuell übersetzten Funktion
+  private Map<Scope, Integer> bases = new HashMap<>();
+  private int frameSize;
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+
+  /** Vor {@link #compile} aufrufen, die Ausgabe wird in die Lambdas gebunden. */
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  public void run(Stmt program) {
+    program.exec(globals);
+  }
+
+  public Stmt compile(ASTNode program) {
+    this.globalScope = program.getScope();
+    this.globals = new Frame(globalScope.slotCount);
+    for (ASTNode child : program.children) {
+      if (child.getType() == Type.FN_DECL) {
+        ASTNode fnInfo = child.children.getFirst();
+        if (fnInfo.getType() == Type.CLASSTYPE) {
+          throw unsupported(fnInfo);
+        }
+        String name = fnInfo.children.getFirst().getValue();
+        functions.putIfAbsent(name, new Function(name));
+        returnKinds.put(name, Kind.of(fnInfo.getType().name().toLowerCase()));
+      } else if (child.getType() == Type.MAIN) {
+        functions.put("main", new Function("main"));
+        returnKinds.put("main", Kind.INT);
+      }
+    }
+
+    List<Stmt> statements = new ArrayList<>();
+    for (ASTNode child : program.children) {
+      switch (child.getType()) {
+        case Type.FN_DECL -> compileFnDecl(child);
+        case Type.MAIN -> {
+          compileFunction(functions.get("main"), null, child.children.getLast());
+          Function main = functions.get("main");
+          statements.add(
+              frame -> {
+                main.body.exec(main.newFrame());
+                return false;
+              });
+        }
+        default -> {
+          this.bases = new HashMap<>();
+          statements.add(statement(child));
+        }
+      }
+    }
+    return block(statements.toArray(new Stmt[0]));
+  }
+
+  private void compileFnDecl(ASTNode node) {
+    if (node.children.getLast().getType() != Type.BLOCK) {
+      return;
+    }
+    ASTNode params =
+        node.children.stream().filter(n -> n.getType() == Type.PARAMS).findFirst().orElse(null);
+    String name = node.children.getFirst().children.getFirst().getValue();
+    compileFunction(functions.get(name), params, node.children.getLast());
+  }
+
+  private void compileFunction(Function function, ASTNode params, ASTNode block) {
+    this.bases = new HashMap<>();
+    this.frameSize = 0;
+    int count = params == null ? 0 : params.children.size();
+    function.paramSlots = new int[count];
+    function.paramObjects = new boolean[count];
+    for (int i = 0; i < count; i++) {
+      ASTNode param = params.children.get(i);
+      if (!param.hasSlot() || !param.children.isEmpty()) {
+        throw unsupported(param);
+      }
+      function.paramSlots[i] = localIndex(param.getScope(), param.getSlot());
+    }
+    function.body = statement(block);
+    function.frameSize = frameSize;
+  }
+
+  private int localIndex(Scope scope, int slot) {
+    Integer base = bases.get(scope);
+    if (base == null) {
+      base = frameSize;
+      frameSize += scope.slotCount;
+      bases.put(scope, base);
+    }
+    return base + slot;
+  }
+
+  private Scope definingScope(ASTNode node) {
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope;
+  }
+
+  private Symbol symbol(ASTNode node) {
+    if (!node.hasSlot()) {
+      throw unsupported(node);
+    }
+    return definingScope(node).symbols.get(node.getValue());
+  }
+
+  // ---------------------------------------------------------------- Anweisungen
+
+  private Stmt statement(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.BLOCK -> {
+        Stmt[] statements = new Stmt[node.children.size()];
+        for (int i = 0; i < statements.length; i++) {
+          statements[i] = statement(node.children.get(i));
+        }
+        yield block(statements);
+      }
+      case Type.WHILE -> {
+        IntExpr condition = intExpression(node.children.getFirst());
+        Stmt body = statement(node.children.getLast());
+        yield frame -> {
+          while (condition.eval(frame) != 0) {
+            if (body.exec(frame)) return true;
+          }
+          return false;
+        };
+      }
+      case Type.IF -> ifStatement(node);
+      case Type.RETURN -> returnStatement(node);
+      case Type.VAR_DECL -> {
+        ASTNode target = node.children.getFirst();
+        if (target.getType() == Type.CLASSTYPE) {
+          throw unsupported(target);
+        }
+        IntExpr value =
+            node.children.size() == 2 ? intExpression(node.children.getLast()) : frame -> 0;
+        yield write(target, value);
+      }
+      case Type.ARRAY_DECL -> {
+        ASTNode target = node.children.getFirst();
+        IntExpr[] sizes = new IntExpr[target.children.size()];
+        for (int i = 0; i < sizes.length; i++) {
+          sizes[i] = intExpression(target.children.get(i));
+        }
+        yield writeObject(target, newArray(Kind.of(symbol(target).type), sizes, null));
+      }
+      case Type.ARRAY_INIT -> arrayInit(node);
+      case Type.ASSIGN -> assign(node);
+      case Type.FN_CALL, Type.DEC_INC -> {
+        Expr expression = expression(node);
+        if (expression.ints() != null) {
+          IntExpr value = expression.ints();
+          yield frame -> {
+            value.eval(frame);
+            return false;
+          };
+        }
+        ObjExpr value = expression.objects();
+        yield frame -> {
+          value.eval(frame);
+          return false;
+        };
+      }
+      default -> throw unsupported(node);
+    };
+  }
+
+  private static Stmt block(Stmt[] statements) {
+    return switch (statements.length) {
+      case 0 -> frame -> false;
+      case 1 -> statements[0];
+      case 2 -> {
+        Stmt first = statements[0];
+        Stmt second = statements[1];
+        yield frame -> first.exec(frame) || second.exec(frame);
+      }
+      default ->
+          frame -> {
+            for (Stmt statement : statements) {
+              if (statement.exec(frame)) return true;
+            }
+            return false;
+          };
+    };
+  }
+
+  private Stmt ifStatement(ASTNode node) {
+    List<IntExpr> conditions = new ArrayList<>();
+    List<Stmt> blocks = new ArrayList<>();
+    Stmt otherwise = frame -> false;
+    for (int i = 0; i < node.children.size(); i++) {
+      ASTNode child = node.children.get(i);
+      if (child.getType() == Type.BLOCK && i == node.children.size() - 1 && i % 2 == 0) {
+        otherwise = statement(child);
+      } else {
+        conditions.add(intExpression(child));
+        blocks.add(statement(node.children.get(++i)));
+      }
+    }
+    // von hinten verketten: if (c) b else <rest>
+    Stmt result = otherwise;
+    for (int i = conditions.size() - 1; i >= 0; i--) {
+      IntExpr condition = conditions.get(i);
+      Stmt then = blocks.get(i);
+      Stmt rest = result;
+      result = frame -> condition.eval(frame) != 0 ? then.exec(frame) : rest.exec(frame);
+    }
+    return result;
+  }
+
+  private Stmt returnStatement(ASTNode node) {
+    if (node.children.isEmpty()) {
+      return frame -> true;
+    }
+    Expr value = expression(node.children.getLast());
+    if (value.ints() != null) {
+      IntExpr ints = value.ints();
+      return frame -> {
+        frame.result = ints.eval(frame);
+        return true;
+      };
+    }
+    ObjExpr objects = value.objects();
+    return frame -> {
+      frame.objectResult = objects.eval(frame);
+      return true;
+    };
+  }
+
+  private Stmt arrayInit(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    List<IntExpr> sizes = new ArrayList<>();
+    for (ASTNode level = node.children.getLast();
+        level.getType() == Type.ARRAY;
+        level = level.children.getFirst()) {
+      int size = level.children.size();
+      sizes.add(frame -> size);
+      if (level.children.isEmpty()) break;
+    }
+    List<IntExpr> initial = new ArrayList<>();
+    flattenArray(node.children.getLast(), initial);
+    ObjExpr array =
+        newArray(
+            Kind.of(symbol(target).type),
+            sizes.toArray(new IntExpr[0]),
+            initial.toArray(new IntExpr[0]));
+    return writeObject(target, array);
+  }
+
+  private void flattenArray(ASTNode array, List<IntExpr> values) {
+    for (ASTNode child : array.children) {
+      if (child.getType() == Type.ARRAY) {
+        flattenArray(child, values);
+      } else {
+        values.add(intExpression(child));
+      }
+    }
+  }
+
+  private static ObjExpr newArray(Kind element, IntExpr[] sizes, IntExpr[] initial) {
+    Class<?> component =
+        switch (element) {
+          case INT -> int.class;
+          case BOOL -> boolean.class;
+          case CHAR -> char.class;
+          case OBJECT -> Object.class;
+        };
+    return frame -> {
+      int[] dimensions = new int[sizes.length];
+      for (int i = 0; i < sizes.length; i++) {
+        dimensions[i] = sizes[i].eval(frame);
+      }
+      Object array = Array.newInstance(component, dimensions);
+      if (initial != null) {
+        fill(array, element, initial, 0, frame);
+      }
+      return array;
+    };
+  }
+
+  private static int fill(Object array, Kind element, IntExpr[] initial, int next, Frame frame) {
+    int length = Array.getLength(array);
+    for (int i = 0; i < length && next < initial.length; i++) {
+      Object item = Array.get(array, i);
+      if (item != null && item.getClass().isArray()) {
+        next = fill(item, element, initial, next, frame);
+      } else {
+        int value = initial[next++].eval(frame);
+        switch (element) {
+          case BOOL -> ((boolean[]) array)[i] = value != 0;
+          case CHAR -> ((char[]) array)[i] = (char) value;
+          default -> ((int[]) array)[i] = value;
+        }
+      }
+    }
+    return next;
+  }
+
+  private Stmt assign(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    IntExpr value = intExpression(node.children.getLast());
+    IntExpr current = null;
+    if (!node.getValue().equals("=")) {
+      current = intExpression(target);
+    }
+    IntExpr left = current;
+    IntExpr result =
+        switch (node.getValue()) {
+          case "+=" -> frame -> left.eval(frame) + value.eval(frame);
+          case "-=" -> frame -> left.eval(frame) - value.eval(frame);
+          case "*=" -> frame -> left.eval(frame) * value.eval(frame);
+          case "/=" -> frame -> left.eval(frame) / value.eval(frame);
+          default -> value;
+        };
+    return switch (target.getType()) {
+      case Type.ID -> write(target, result);
+      case Type.ARRAY_ITEM -> writeElement(target, result);
+      default -> throw unsupported(target);
+    };
+  }
+
+  // ---------------------------------------------------------------- Variablen
+
+  private IntExpr convert(Kind kind, IntExpr value) {
+    return switch (kind) {
+      case BOOL -> frame -> value.eval(frame) != 0 ? 1 : 0;
+      case CHAR -> frame -> (char) value.eval(frame);
+      default -> value;
+    };
+  }
+
+  private Stmt write(ASTNode node, IntExpr value) {
+    Symbol symbol = symbol(node);
+    if (symbol instanceof SymbolTable.Array) {
+      throw unsupported(node);
+    }
+    IntExpr converted = convert(Kind.of(symbol.type), value);
+    Scope scope = definingScope(node);
+    int slot = node.getSlot();
+    if (scope == globalScope) {
+      int[] ints = globals.ints;
+      return frame -> {
+        ints[slot] = converted.eval(frame);
+        return false;
+      };
+    }
+    int index = localIndex(scope, slot);
+    return frame -> {
+      frame.ints[index] = converted.eval(frame);
+      return false;
+    };
+  }
+
+  private Stmt writeObject(ASTNode node, ObjExpr value) {
+    Scope scope = definingScope(node);
+    int slot = node.getSlot();
+    if (scope == globalScope) {
+      Object[] objects = globals.objects;
+      return frame -> {
+        objects[slot] = value.eval(frame);
+        return false;
+      };
+    }
+    int index = localIndex(scope, slot);
+    return frame -> {
+      frame.objects[index] = value.eval(frame);
+      return false;
+    };
+  }
+
+  private IntExpr readInt(ASTNode node) {
+    Scope scope = definingScope(node);
+    int slot = node.getSlot();
+    if (scope == globalScope) {
+      int[] ints = globals.ints;
+      return frame -> ints[slot];
+    }
+    int index = localIndex(scope, slot);
+    return frame -> frame.ints[index];
+  }
+
+  private ObjExpr readObject(ASTNode node) {
+    Scope scope = definingScope(node);
+    int slot = node.getSlot();
+    if (scope == globalScope) {
+      Object[] objects = globals.objects;
+      return frame -> objects[slot];
+    }
+    int index = localIndex(scope, slot);
+    return frame -> frame.objects[index];
+  }
+
+  private IntExpr[] indices(ASTNode arrayItem) {
+    IntExpr[] indices = new IntExpr[arrayItem.children.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = intExpression(arrayItem.children.get(i));
+    }
+    return indices;
+  }
+
+  /** Liefert das innerste Array vor dem letzten Index. */
+  private static Object walk(Object array, IntExpr[] indices, int count, String name, Frame frame) {
+    Object current = array;
+    for (int i = 0; i < count; i++) {
+      Object[] level = (Object[]) current;
+      current = level[checkIndex(level.length, indices[i].eval(frame), name, i + 1)];
+    }
+    return current;
+  }
+
+  private static int checkIndex(int length, int index, String name, int dimension) {
+    if (index < 0 || index >= length) {
+      throw new RuntimeException(
+          "Error: index "
+              + index
+              + " is out of bounds for dimension "
+              + dimension
+              + " of array "
+              + name
+              + " (size: "
+              + length
+              + ")");
+    }
+    return index;
+  }
+
+  private Expr arrayItem(ASTNode node) {
+    SymbolTable.Array symbol = (SymbolTable.Array) symbol(node);
+    ObjExpr array = readObject(node);
+    IntExpr[] indices = indices(node);
+    String name = node.getValue();
+    int dims = symbol.length.length;
+    int last = indices.length - 1;
+    if (indices.length < dims) {
+      return new Expr(
+          Kind.OBJECT,
+          null,
+          frame -> walk(array.eval(frame), indices, indices.length, name, frame));
+    }
+    Kind kind = Kind.of(symbol.type);
+    IntExpr index = indices[last];
+    int dimension = indices.length;
+    if (last == 0) {
+      // eindimensionale Arrays ohne Schleife
+      return Expr.of(
+          kind,
+          switch (kind) {
+            case BOOL ->
+                frame -> {
+                  boolean[] values = (boolean[]) array.eval(frame);
+                  return values[checkIndex(values.length, index.eval(frame), name, 1)] ? 1 : 0;
+                };
+            case CHAR ->
+                frame -> {
+                  char[] values = (char[]) array.eval(frame);
+                  return values[checkIndex(values.length, index.eval(frame), name, 1)];
+                };
+            default ->
+                frame -> {
+                  int[] values = (int[]) array.eval(frame);
+                  return values[checkIndex(values.length, index.eval(frame), name, 1)];
+                };
+          });
+    }
+    return Expr.of(
+        kind,
+        frame -> {
+          Object values = walk(array.eval(frame), indices, last, name, frame);
+          int i = checkIndex(Array.getLength(values), index.eval(frame), name, dimension);
+          return switch (values) {
+            case boolean[] bools -> bools[i] ? 1 : 0;
+            case char[] chars -> chars[i];
+            default -> ((int[]) values)[i];
+          };
+        });
+  }
+
+  private Stmt writeElement(ASTNode node, IntExpr value) {
+    SymbolTable.Array symbol = (SymbolTable.Array) symbol(node);
+    if (node.children.size() != symbol.length.length) {
+      throw unsupported(node);
+    }
+    ObjExpr array = readObject(node);
+    IntExpr[] indices = indices(node);
+    String name = node.getValue();
+    int last = indices.length - 1;
+    IntExpr index = indices[last];
+    int dimension = indices.length;
+    return frame -> {
+      Object values = walk(array.eval(frame), indices, last, name, frame);
+      int i = checkIndex(Array.getLength(values), index.eval(frame), name, dimension);
+      int v = value.eval(frame);
+      switch (values) {
+        case boolean[] bools -> bools[i] = v != 0;
+        case char[] chars -> chars[i] = (char) v;
+        default -> ((int[]) values)[i] = v;
+      }
+      return false;
+    };
+  }
+
+  // ---------------------------------------------------------------- Ausdrücke
+
+  private IntExpr intExpression(ASTNode node) {
+    Expr expression = expression(node);
+    if (expression.ints() == null) {
+      throw unsupported(node);
+    }
+    return expression.ints();
+  }
+
+  private Expr expression(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.INT -> {
+        int value = Integer.parseInt(node.getValue());
+        yield Expr.of(Kind.INT, frame -> value);
+      }
+      case Type.BOOL -> {
+        int value = Boolean.parseBoolean(node.getValue()) ? 1 : 0;
+        yield Expr.of(Kind.BOOL, frame -> value);
+      }
+      case Type.CHAR -> {
+        int value = node.getValue().charAt(0);
+        yield Expr.of(Kind.CHAR, frame -> value);
+      }
+      case Type.ID -> {
+        Symbol symbol = symbol(node);
+        if (symbol instanceof SymbolTable.Array) {
+          yield new Expr(Kind.OBJECT, null, readObject(node));
+        }
+        yield Expr.of(Kind.of(symbol.type), readInt(node));
+      }
+      case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD -> {
+        IntExpr left = intExpression(node.children.getFirst());
+        IntExpr right = intExpression(node.children.getLast());
+        yield Expr.of(
+            Kind.INT,
+            switch (node.getType()) {
+              case Type.ADD -> frame -> left.eval(frame) + right.eval(frame);
+              case Type.SUB -> frame -> left.eval(frame) - right.eval(frame);
+              case Type.MUL -> frame -> left.eval(frame) * right.eval(frame);
+              case Type.DIV -> frame -> left.eval(frame) / right.eval(frame);
+              default -> frame -> left.eval(frame) % right.eval(frame);
+            });
+      }
+      case Type.GREATER,
+          Type.GREATER_EQUAL,
+          Type.LESS,
+          Type.LESS_EQUAL,
+          Type.EQUAL,
+          Type.NOT_EQUAL -> {
+        IntExpr left = intExpression(node.children.getFirst());
+        IntExpr right = intExpression(node.children.getLast());
+        yield Expr.of(
+            Kind.BOOL,
+            switch (node.getType()) {
+              case Type.GREATER -> frame -> left.eval(frame) > right.eval(frame) ? 1 : 0;
+              case Type.GREATER_EQUAL -> frame -> left.eval(frame) >= right.eval(frame) ? 1 : 0;
+              case Type.LESS -> frame -> left.eval(frame) < right.eval(frame) ? 1 : 0;
+              case Type.LESS_EQUAL -> frame -> left.eval(frame) <= right.eval(frame) ? 1 : 0;
+              case Type.EQUAL -> frame -> left.eval(frame) == right.eval(frame) ? 1 : 0;
+              default -> frame -> left.eval(frame) != right.eval(frame) ? 1 : 0;
+            });
+      }
+      case Type.AND -> {
+        IntExpr left = intExpression(node.children.getFirst());
+        IntExpr right = intExpression(node.children.getLast());
+        yield Expr.of(Kind.BOOL, frame -> left.eval(frame) != 0 && right.eval(frame) != 0 ? 1 : 0);
+      }
+      case Type.OR -> {
+        IntExpr left = intExpression(node.children.getFirst());
+        IntExpr right = intExpression(node.children.getLast());
+        yield Expr.of(Kind.BOOL, frame -> left.eval(frame) != 0 || right.eval(frame) != 0 ? 1 : 0);
+      }
+      case Type.NOT -> {
+        IntExpr operand = intExpression(node.children.getFirst());
+        yield Expr.of(Kind.BOOL, frame -> operand.eval(frame) == 0 ? 1 : 0);
+      }
+      case Type.ARRAY_ITEM -> arrayItem(node);
+      case Type.FN_CALL -> call(node);
+      case Type.DEC_INC -> decInc(node);
+      default -> throw unsupported(node);
+    };
+  }
+
+  private Expr call(ASTNode node) {
+    ASTNode argsNode = node.children.isEmpty() ? null : node.children.getFirst();
+    if (argsNode != null && argsNode.getType() == Type.CLASSTYPE) {
+      throw unsupported(node);
+    }
+    List<ASTNode> argNodes = argsNode == null ? List.of() : argsNode.children;
+    String name = node.getValue();
+    switch (name) {
+      case "print_int", "print_bool", "print_char" -> {
+        IntExpr value = intExpression(argNodes.getFirst());
+        OutputSink out = this.out;
+        return Expr.of(
+            Kind.INT,
+            switch (name) {
+              case "print_int" ->
+                  frame -> {
+                    out.printInt(value.eval(frame));
+                    return 0;
+                  };
+              case "print_bool" ->
+                  frame -> {
+                    out.printBool(value.eval(frame) != 0);
+                    return 0;
+                  };
+              default ->
+                  frame -> {
+                    out.printChar((char) value.eval(frame));
+                    return 0;
+                  };
+            });
+      }
+      default -> {}
+    }
+    Function function = functions.get(name);
+    if (function == null) {
+      throw new RuntimeException("Function '" + name + "' not found");
+    }
+    IntExpr[] args = new IntExpr[argNodes.size()];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = intExpression(argNodes.get(i));
+    }
+    Kind kind = returnKinds.get(name);
+    IntExpr result = convert(kind == Kind.OBJECT ? Kind.INT : kind, frame -> frame.result);
+    return Expr.of(
+        kind,
+        switch (args.length) {
+          case 0 ->
+              frame -> {
+                Frame callee = function.newFrame();
+                function.body.exec(callee);
+                return result.eval(callee);
+              };
+          case 1 -> {
+            IntExpr arg = args[0];
+            yield frame -> {
+              Frame callee = function.newFrame();
+              callee.ints[function.paramSlots[0]] = arg.eval(frame);
+              function.body.exec(callee);
+              return result.eval(callee);
+            };
+          }
+          default ->
+              frame -> {
+                Frame callee = function.newFrame();
+                int[] slots = function.paramSlots;
+                for (int i = 0; i < args.length; i++) {
+                  callee.ints[slots[i]] = args[i].eval(frame);
+                }
+                function.body.exec(callee);
+                return result.eval(callee);
+              };
+        });
+  }
+
+  private Expr decInc(ASTNode node) {
+    ASTNode first = node.children.getFirst();
+    boolean prefix = first.getType() == Type.INC || first.getType() == Type.DEC;
+    ASTNode operator = prefix ? first : node.children.getLast();
+    ASTNode target = prefix ? node.children.getLast() : first;
+    int delta = operator.getType() == Type.INC ? 1 : -1;
+    if (target.getType() != Type.ID) {
+      throw unsupported(target);
+    }
+    Symbol symbol = symbol(target);
+    Kind kind = Kind.of(symbol.type);
+    if (symbol instanceof SymbolTable.Array || kind == Kind.OBJECT) {
+      throw unsupported(target);
+    }
+    Scope scope = definingScope(target);
+    boolean global = scope == globalScope;
+    int index = global ? target.getSlot() : localIndex(scope, target.getSlot());
+    int[] globalInts = globals.ints;
+    return Expr.of(
+        kind,
+        frame -> {
+          int[] ints = global ? globalInts : frame.ints;
+          int old = ints[index];
+          int updated = old + delta;
+          if (kind == Kind.BOOL) {
+            updated = updated != 0 ? 1 : 0;
+          } else if (kind == Kind.CHAR) {
+            updated = (char) updated;
+          }
+          ints[index] = updated;
+          return prefix ? updated : old;
+        });
+  }
+
+  private UnsupportedOperationException unsupported(ASTNode node) {
+    return new UnsupportedOperationException(
+        "Node "
+            + node.getType()
+            + (node.getValue() == null ? "" : " " + node.getValue())
+            + " is not supported by the closure compiler");
+  }
+}
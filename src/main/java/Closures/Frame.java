@@ -0,0 +1,16 @@
+package Closures;
+
+/** Speicher eines Funktionsaufrufs, jeder Slot hat je einen Platz für int und für Objekte. */
+public final class Frame {
+  public final int[] ints;
+  public final Object[] objects;
+
+  // Rückgabewert, gesetzt von einem return
+  public int result;
+  public Object objectResult;
+
+  public Frame(int size) {
+    this.ints = new int[size];
+    this.objects = new Object[size];
+  }
+}
@@ -0,0 +1,21 @@
+package Closures;
+
+/**
+ * Übersetzte Funktion. Wird vor dem Rumpf angelegt, damit Aufrufe (auch rekursive und vorwärts
+ * deklarierte) sie direkt binden können.
+ */
+public final class Function {
+  public final String name;
+  public int frameSize;
+  public int[] paramSlots;
+  public boolean[] paramObjects;
+  public Stmt body;
+
+  public Function(String name) {
+    this.name = name;
+  }
+
+  public Frame newFrame() {
+    return new Frame(frameSize);
+  }
+}
@@ -0,0 +1,7 @@
+package Closures;
+
+/** Ausdruck vom Typ int, bool (0/1) oder char. */
+@FunctionalInterface
+public interface IntExpr {
+  int eval(Frame frame);
+}
@@ -0,0 +1,7 @@
+package Closures;
+
+/** Ausdruck, der ein Array liefert. */
+@FunctionalInterface
+public interface ObjExpr {
+  Object eval(Frame frame);
+}
@@ -0,0 +1,7 @@
+package Closures;
+
+/** Anweisung, liefert true, wenn ein return ausgeführt wurde. */
+@FunctionalInterface
+public interface Stmt {
+  boolean exec(Frame frame);
+}
@@ -0,0 +1,211 @@
+import Output.ChannelSink;
+import Output.RingBufferSink;
+import Synthetic.ProgramGenerator;
+import Synthetic.Shape;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bleibt laufen und prüft und startet Programme, die über einen Unix-Domain-Socket oder über
+ * stdin/stdout kommen. Lexer, Parser und Prüfungen sind nach den ersten Anfragen warm, jede Anfrage
+ * bekommt eigene Visitor- und Interpreter-Instanzen.
+ *
+ * <p>Eine Anfrage ist eine Kopfzeile {@code <mode> <bytes> [name]} und danach {@code bytes} Bytes
+ * Quelltext in UTF-8. Die Antwort besteht aus Frames {@code <kind> <bytes>}, jeweils gefolgt von
+ * {@code bytes} Bytes: {@code output} mit Ausgabe des Programms, sobald der Puffer voll ist, {@code
+ * diagnostic} mit je einer Meldung und zuletzt {@code done} mit Status, Zeiten und der Anzahl der
+ * Klassen und Funktionen, deren Analyse aus dem Cache kam.
+ */
+public class CompileServer {
+  private static final String[] MODES = {"tree", "nodes", "closures", "vm", "jit", "stack"};
+
+  private final BatchCompiler compiler;
+
+  public CompileServer(BatchCompiler compiler) {
+    this.compiler = compiler;
+  }
+
+  /**
+   * Schickt erzeugte Programme in allen Modi durch die Pipeline, bis der JIT der JVM Lexer, Parser,
+   * Prüfungen und Interpreter übersetzt hat und die DFA-Caches des Parsers gefüllt sind.
+   */
+  public void warmUp(int rounds) {
+    String source = new ProgramGenerator(Shape.scaled(10), 1).generate();
+    List<Future<BatchCompiler.Result>> results = new ArrayList<>();
+    for (int i = 0; i < rounds; i++) {
+      results.add(
+          compiler.submit(
+              Path.of("warmup"),
+              source,
+              MODES[i % MODES.length],
+              new RingBufferSink(ChannelSink.DEFAULT_CAPACITY)));
+    }
+    for (Future<BatchCompiler.Result> result : results) {
+      try {
+        result.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        // ein misslungenes Aufwärmprogramm soll den Server nicht am Start hindern
+        System.err.println("Warm-up failed: " + e.getCause());
+      }
+    }
+  }
+
+  /** Jede Verbindung bekommt einen virtuellen Thread, die Anfragen laufen auf dem Pool. */
+  public void serve(Path socket) throws IOException {
+    Files.deleteIfExists(socket);
+    // der Server endet meist durch ein Signal, die Socket-Datei soll trotzdem verschwinden
+    Runtime.getRuntime()
+        .addShutdownHook(
+            new Thread(
+                () -> {
+                  try {
+                    Files.deleteIfExists(socket);
+                  } catch (IOException e) {
+                    System.err.println("Could not delete " + socket + ": " + e.getMessage());
+                  }
+                }));
+    try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+      server.bind(UnixDomainSocketAddress.of(socket));
+      System.err.println("Listening on " + socket);
+      while (true) {
+        SocketChannel client = server.accept();
+        connections.submit(
+            () -> {
+              try (client) {
+                handle(Channels.newInputStream(client), client);
+              }
+              return null;
+            });
+      }
+    }
+  }
+
+  /** Bearbeitet Anfragen nacheinander, bis die Eingabe endet. */
+  public void handle(InputStream in, WritableByteChannel out) throws IOException {
+    String header;
+    while ((header = readLine(in)) != null) {
+      if (header.isBlank()) {
+        continue;
+      }
+      String[] parts = header.trim().split("\\s+");
+      int length;
+      try {
+        length = Integer.parseInt(parts.length >= 2 ? parts[1] : "");
+      } catch (NumberFormatException e) {
+        // ohne Länge lässt sich die nächste Anfrage nicht finden
+        frame(out, "diagnostic", "Error: malformed request header: " + header);
+        frame(out, "done", "failed");
+        return;
+      }
+      byte[] source = in.readNBytes(length);
+      if (source.length < length) {
+        return;
+      }
+      String name = parts.length >= 3 ? parts[2] : "program";
+
+      ChannelSink sink = new ChannelSink(new OutputFrames(out), ChannelSink.DEFAULT_CAPACITY);
+      BatchCompiler.Result result;
+      try {
+        result =
+            compiler
+                .submit(Path.of(name), new String(source, StandardCharsets.UTF_8), parts[0], sink)
+                .get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (ExecutionException e) {
+        // nur diese Anfrage scheitert, die Verbindung bleibt offen
+        frame(out, "diagnostic", "Error: " + e.getCause());
+        frame(out, "done", "failed");
+        continue;
+      }
+      for (String diagnostic : result.diagnostics()) {
+        frame(out, "diagnostic", diagnostic);
+      }
+      frame(
+          out,
+          "done",
+          String.format(
+              "%s parse %.1f ms, analysis %.1f ms, run %.1f ms, %d cached",
+              result.failed() ? "failed" : "ok",
+              result.parseNanos() / 1e6,
+              result.analysisNanos() / 1e6,
+              result.runNanos() / 1e6,
+              result.reused()));
+    }
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    int b;
+    while ((b = in.read()) != '\n') {
+      if (b < 0) {
+        return line.size() == 0 ? null : line.toString(StandardCharsets.UTF_8);
+      }
+      line.write(b);
+    }
+    return line.toString(StandardCharsets.UTF_8);
+  }
+
+  private static void frame(WritableByteChannel out, String kind, String text) throws IOException {
+    byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+    writeFrame(out, kind, ByteBuffer.wrap(payload));
+  }
+
+  private static void writeFrame(WritableByteChannel out, String kind, ByteBuffer payload)
+      throws IOException {
+    byte[] header = (kind + " " + payload.remaining() + "\n").getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer frame = ByteBuffer.allocate(header.length + payload.remaining());
+    frame.put(header).put(payload).flip();
+    while (frame.hasRemaining()) {
+      out.write(frame);
+    }
+  }
+
+  /** Verpackt jeden Puffer der {@link ChannelSink} in einen {@code output}-Frame. */
+  private static final class OutputFrames implements WritableByteChannel {
+    private final WritableByteChannel out;
+
+    OutputFrames(WritableByteChannel out) {
+      this.out = out;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      int written = src.remaining();
+      if (written > 0) {
+        writeFrame(out, "output", src);
+      }
+      return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return out.isOpen();
+    }
+
+    @Override
+    public void close() {}
+  }
+}
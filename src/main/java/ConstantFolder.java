@@ -0,0 +1,286 @@
+import AST.ASTNode;
+import AST.Type;
+import SymbolTable.BuiltIn;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Optimierungslauf zwischen {@link TypeCheckVisitor} und der Ausführung. Konstante Teilausdrücke
+ * werden zu Literalen zusammengefasst, Variablen mit konstantem Startwert, die nie wieder
+ * geschrieben werden, durch ihren Wert ersetzt und {@code if}/{@code while} mit konstanter
+ * Bedingung vereinfacht.
+ */
+public class ConstantFolder {
+  // Variablen, die geschrieben, per Referenz gebunden oder an Funktionen übergeben werden
+  private final Set<Symbol> written = new HashSet<>();
+  private final Set<Symbol> declared = new HashSet<>();
+  private final Map<Symbol, ASTNode> constants = new HashMap<>();
+  private boolean inClass;
+
+  public ASTNode fold(ASTNode program) {
+    collectWrites(program);
+    visitChildren(program);
+    return program;
+  }
+
+  private void collectWrites(ASTNode node) {
+    switch (node.getType()) {
+      case Type.ASSIGN -> markWritten(node.children.getFirst());
+      case Type.DEC_INC -> node.children.forEach(this::markWritten);
+      case Type.VAR_REF, Type.ARRAY_REF -> markWritten(node.children.getLast());
+      case Type.VAR_DECL -> {
+        Symbol symbol = symbolOf(node.children.getFirst());
+        if (symbol != null && !declared.add(symbol)) {
+          written.add(symbol);
+        }
+      }
+      case Type.FN_CALL -> {
+        // Parameter können Referenzen sein, nur die print-Funktionen lesen sicher nur
+        Scope scope = node.getScope();
+        if (scope == null || !(scope.resolve(node.getValue()) instanceof BuiltIn)) {
+          for (ASTNode child : node.children) {
+            if (child.getType() == Type.ARGS) {
+              child.children.forEach(this::markWritten);
+            }
+          }
+        }
+      }
+      case null -> {
+        return;
+      }
+      default -> {}
+    }
+    for (ASTNode child : node.children) {
+      collectWrites(child);
+    }
+  }
+
+  private void markWritten(ASTNode node) {
+    if (node.getType() == Type.ID) {
+      Symbol symbol = symbolOf(node);
+      if (symbol != null) {
+        written.add(symbol);
+      }
+    }
+  }
+
+  private Symbol symbolOf(ASTNode node) {
+    if (!node.hasSlot()) {
+      return null;
+    }
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope.symbols.get(node.getValue());
+  }
+
+  private void visitChildren(ASTNode node) {
+    for (int i = 0; i < node.children.size(); i++) {
+      node.children.set(i, visit(node.children.get(i)));
+    }
+  }
+
+  private ASTNode visit(ASTNode node) {
+    switch (node.getType()) {
+      case Type.VAR_DECL -> {
+        visitDeclaration(node);
+        return node;
+      }
+      case Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF -> {
+        // der erste Kind-Knoten ist der Typ, seine Kinder sind die Arraygrößen
+        visitChildren(node.children.getFirst());
+        if (node.getType() == Type.ARRAY_INIT) {
+          visitChildren(node.children.getLast());
+        }
+        return node;
+      }
+      case Type.PARAMS -> {
+        return node;
+      }
+      case Type.CLASS -> {
+        boolean outer = inClass;
+        inClass = true;
+        visitChildren(node);
+        inClass = outer;
+        return node;
+      }
+      case Type.OBJ_USAGE -> {
+        // Objekt und Attribute bleiben stehen, nur Argumente von Methodenaufrufen werden gefaltet
+        for (ASTNode child : node.children) {
+          if (child.getType() == Type.FN_CALL) {
+            visitChildren(child);
+          }
+        }
+        return node;
+      }
+      case Type.ID -> {
+        Symbol symbol = symbolOf(node);
+        ASTNode constant = symbol == null ? null : constants.get(symbol);
+        return constant == null ? node : new ASTNode(constant.getType(), constant.getValue());
+      }
+      case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD -> {
+        visitChildren(node);
+        return foldCalculation(node);
+      }
+      case Type.GREATER,
+          Type.GREATER_EQUAL,
+          Type.LESS,
+          Type.LESS_EQUAL,
+          Type.EQUAL,
+          Type.NOT_EQUAL,
+          Type.AND,
+          Type.OR -> {
+        visitChildren(node);
+        return foldCondition(node);
+      }
+      case Type.NOT -> {
+        visitChildren(node);
+        ASTNode operand = node.children.getFirst();
+        return isLiteral(operand) ? literal(Type.BOOL, intValue(operand) == 0 ? 1 : 0) : node;
+      }
+      case Type.IF -> {
+        visitChildren(node);
+        return simplifyIf(node);
+      }
+      case Type.WHILE -> {
+        visitChildren(node);
+        ASTNode condition = node.children.getFirst();
+        return isLiteral(condition) && intValue(condition) == 0 ? new ASTNode(Type.BLOCK) : node;
+      }
+      case null -> {
+        return node;
+      }
+      default -> {
+        visitChildren(node);
+        return node;
+      }
+    }
+  }
+
+  private void visitDeclaration(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    if (node.children.size() != 2) {
+      return;
+    }
+    ASTNode value = visit(node.children.getLast());
+    node.children.set(1, value);
+    Symbol symbol = symbolOf(target);
+    Type type = target.getType();
+    if (!inClass
+        && isLiteral(value)
+        && symbol != null
+        && !written.contains(symbol)
+        && (type == Type.INT || type == Type.BOOL || type == Type.CHAR)) {
+      constants.put(symbol, literal(type, intValue(value)));
+    }
+  }
+
+  private ASTNode foldCalculation(ASTNode node) {
+    ASTNode l = node.children.getFirst();
+    ASTNode r = node.children.getLast();
+    if (!isLiteral(l) || !isLiteral(r)) {
+      return node;
+    }
+    int left = intValue(l);
+    int right = intValue(r);
+    if ((node.getType() == Type.DIV || node.getType() == Type.MOD) && right == 0) {
+      // Division durch 0 bleibt ein Laufzeitfehler
+      return node;
+    }
+    int result =
+        switch (node.getType()) {
+          case Type.ADD -> left + right;
+          case Type.SUB -> left - right;
+          case Type.MUL -> left * right;
+          case Type.DIV -> left / right;
+          default -> left % right;
+        };
+    return literal(Type.INT, result);
+  }
+
+  private ASTNode foldCondition(ASTNode node) {
+    ASTNode l = node.children.getFirst();
+    ASTNode r = node.children.getLast();
+    if (!isLiteral(l) || !isLiteral(r)) {
+      return node;
+    }
+    int left = intValue(l);
+    int right = intValue(r);
+    boolean result =
+        switch (node.getType()) {
+          case Type.GREATER -> left > right;
+          case Type.GREATER_EQUAL -> left >= right;
+          case Type.LESS -> left < right;
+          case Type.LESS_EQUAL -> left <= right;
+          case Type.EQUAL -> left == right;
+          case Type.NOT_EQUAL -> left != right;
+          case Type.AND -> left != 0 && right != 0;
+          default -> left != 0 || right != 0;
+        };
+    return literal(Type.BOOL, result ? 1 : 0);
+  }
+
+  /**
+   * Entfernt Zweige mit konstant falscher Bedingung. Ein konstant wahrer Zweig wird zum else-Zweig,
+   * bleibt nur dieser übrig, ersetzt sein Block das ganze {@code if}.
+   */
+  static ASTNode simplifyIf(ASTNode node) {
+    ASTNode simplified = new ASTNode(Type.IF);
+    simplified.setScope(node.getScope());
+    for (int i = 0; i < node.children.size(); i++) {
+      ASTNode child = node.children.get(i);
+      if (child.getType() == Type.BLOCK && i == node.children.size() - 1 && i % 2 == 0) {
+        simplified.addChild(child);
+        break;
+      }
+      ASTNode block = node.children.get(++i);
+      if (!isLiteral(child)) {
+        simplified.addChild(child);
+        simplified.addChild(block);
+      } else if (intValue(child) != 0) {
+        simplified.addChild(block);
+        break;
+      }
+    }
+    if (simplified.children.isEmpty()) {
+      return new ASTNode(Type.BLOCK);
+    }
+    if (simplified.children.size() == 1) {
+      return simplified.children.getFirst();
+    }
+    return simplified.children.size() == node.children.size() ? node : simplified;
+  }
+
+  /** Nur auf Ausdrücke anwenden, Typknoten von Deklarationen tragen den Variablennamen. */
+  private static boolean isLiteral(ASTNode node) {
+    Type type = node.getType();
+    return (type == Type.INT || type == Type.BOOL || type == Type.CHAR)
+        && node.children.isEmpty()
+        && node.getValue() != null
+        && !node.getValue().isEmpty()
+        && !node.hasSlot();
+  }
+
+  private static int intValue(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.INT -> Integer.parseInt(node.getValue());
+      case Type.CHAR -> node.getValue().charAt(0);
+      default -> Boolean.parseBoolean(node.getValue()) ? 1 : 0;
+    };
+  }
+
+  private static ASTNode literal(Type type, int value) {
+    String text =
+        switch (type) {
+          case Type.BOOL -> String.valueOf(value != 0);
+          case Type.CHAR -> String.valueOf((char) value);
+          default -> String.valueOf(value);
+        };
+    return new ASTNode(type, text);
+  }
+}
@@ -159,6 +159,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitFn_decl(CppParser.Fn_declContext ctx) {
     ASTNode node = new ASTNode(Type.FN_DECL);
+    node.setLine(ctx.getStart().getLine());
 
     ASTNode function;
 
@@ -336,6 +337,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitFn_call(CppParser.Fn_callContext ctx) {
     ASTNode node = new ASTNode(Type.FN_CALL);
+    node.setLine(ctx.getStart().getLine());
 
     switch (ctx.ID().size()) {
       case 1:
@@ -489,6 +491,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitConstructor(CppParser.ConstructorContext ctx) {
     ASTNode node = new ASTNode(Type.CONSTRUCTOR, ctx.ID().getFirst().getText());
+    node.setLine(ctx.getStart().getLine());
 
     if (ctx.params() != null) {
       node.addChild(visit(ctx.params()));
@@ -517,6 +520,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitCopy_constructor(CppParser.Copy_constructorContext ctx) {
     ASTNode node = new ASTNode(Type.COPY_CONSTRUCTOR, "copy_" + ctx.ID().getFirst().getText());
+    node.setLine(ctx.getStart().getLine());
 
     ASTNode child = new ASTNode(Type.CLASSTYPE, ctx.ID(2).getText());
     child.addChild(new ASTNode(Type.ID, ctx.ID(1).getText()));
@@ -544,6 +548,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitDestructor(CppParser.DestructorContext ctx) {
     ASTNode node = new ASTNode(Type.DESTRUCTOR, "~" + ctx.ID().getText());
+    node.setLine(ctx.getStart().getLine());
 
     if (ctx.children.getFirst().getText().equals("virtual")) {
       node.addChild(new ASTNode("virtual"));
@@ -629,6 +634,7 @@ public class CppParseTreeVisitor extends CppBaseVisitor<ASTNode> {
   @Override
   public ASTNode visitMain(CppParser.MainContext ctx) {
     ASTNode node = new ASTNode(Type.MAIN);
+    node.setLine(ctx.getStart().getLine());
 
     node.addChild(new ASTNode(Type.INT));
 
@@ -0,0 +1,127 @@
+import AST.ASTNode;
+import AST.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entfernt Code, der nie ausgeführt werden kann: Anweisungen nach einem {@code return}, Zweige mit
+ * konstant falscher Bedingung, leere Blöcke sowie Funktionen und Klassen, die von {@code main} und
+ * den globalen Deklarationen aus nicht erreichbar sind.
+ */
+public class DeadCodeEliminator {
+
+  public ASTNode eliminate(ASTNode program) {
+    removeUnreachable(program);
+    for (ASTNode child : program.children) {
+      prune(child);
+    }
+    return program;
+  }
+
+  /** Sucht über die Namen der Aufrufe und Klassentypen alle erreichbaren Deklarationen. */
+  private void removeUnreachable(ASTNode program) {
+    Map<String, ArrayList<ASTNode>> declarations = new HashMap<>();
+    ArrayDeque<ASTNode> pending = new ArrayDeque<>();
+    for (ASTNode child : program.children) {
+      String name = declaredName(child);
+      if (name != null) {
+        declarations.computeIfAbsent(name, key -> new ArrayList<>()).add(child);
+      } else {
+        pending.add(child);
+      }
+    }
+
+    Set<String> reached = new HashSet<>();
+    ArrayList<String> names = new ArrayList<>();
+    while (!pending.isEmpty()) {
+      collectReferences(pending.pop(), names);
+      for (String name : names) {
+        if (reached.add(name) && declarations.containsKey(name)) {
+          pending.addAll(declarations.get(name));
+        }
+      }
+      names.clear();
+    }
+
+    program.children.removeIf(
+        child -> declaredName(child) != null && !reached.contains(declaredName(child)));
+  }
+
+  private static String declaredName(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.FN_DECL -> {
+        ASTNode fnInfo = node.children.getFirst();
+        yield fnInfo.children.isEmpty() ? null : fnInfo.children.getFirst().getValue();
+      }
+      case Type.CLASS -> node.getValue();
+      case null, default -> null;
+    };
+  }
+
+  private void collectReferences(ASTNode node, ArrayList<String> names) {
+    switch (node.getType()) {
+      case Type.FN_CALL -> names.add(node.getValue());
+      case Type.CLASSTYPE -> {
+        // bei Vererbung steht "extends" im Knoten und die Basisklasse im Kind
+        names.add(node.getValue());
+        for (ASTNode child : node.children) {
+          names.add(child.getValue());
+        }
+      }
+      case null, default -> {}
+    }
+    for (ASTNode child : node.children) {
+      collectReferences(child, names);
+    }
+  }
+
+  /** Bereinigt alle Blöcke unterhalb von node, liefert den Ersatz für node selbst. */
+  private ASTNode prune(ASTNode node) {
+    if (node.getType() == Type.IF) {
+      node = ConstantFolder.simplifyIf(node);
+    }
+    for (int i = 0; i < node.children.size(); i++) {
+      node.children.set(i, prune(node.children.get(i)));
+    }
+    if (node.getType() == Type.BLOCK) {
+      ArrayList<ASTNode> statements = new ArrayList<>();
+      for (ASTNode statement : node.children) {
+        if (statement.getType() == Type.BLOCK && statement.children.isEmpty()) {
+          continue;
+        }
+        statements.add(statement);
+        if (terminates(statement)) {
+          break;
+        }
+      }
+      node.children = statements;
+    }
+    return node;
+  }
+
+  /** Ob nach der Anweisung in jedem Fall ein {@code return} ausgeführt wurde. */
+  private static boolean terminates(ASTNode statement) {
+    return switch (statement.getType()) {
+      case Type.RETURN -> true;
+      case Type.BLOCK -> !statement.children.isEmpty() && terminates(statement.children.getLast());
+      case Type.IF -> {
+        int size = statement.children.size();
+        if (size % 2 == 0) {
+          // ohne else-Zweig kann die Anweisung ohne return verlassen werden
+          yield false;
+        }
+        for (int i = 1; i < size; i += 2) {
+          if (!terminates(statement.children.get(i))) {
+            yield false;
+          }
+        }
+        yield terminates(statement.children.getLast());
+      }
+      case null, default -> false;
+    };
+  }
+}
@@ -0,0 +1,44 @@
+package Environment;
+
+/**
+ * Referenz auf eine Variable oder ein Attribut vom Typ int, bool oder char. Liegt sie in einem Slot
+ * oder Feld, lesen und schreiben {@link Environment} und {@link Instance} durch sie hindurch.
+ */
+public class Alias {
+  private final Environment environment;
+  private final Instance instance;
+  private final int index;
+
+  Alias(Environment environment, int slot) {
+    this.environment = environment;
+    this.instance = null;
+    this.index = slot;
+  }
+
+  public Alias(Instance instance, int index) {
+    this.environment = null;
+    this.instance = instance;
+    this.index = index;
+  }
+
+  public int getInt() {
+    return instance != null ? instance.getInt(index) : environment.getInt(0, index);
+  }
+
+  public Object get() {
+    return instance != null ? instance.getField(index) : environment.get(0, index);
+  }
+
+  public void set(int value) {
+    if (instance != null) {
+      instance.setInt(index, value);
+    } else {
+      environment.assign(0, index, value);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(get());
+  }
+}
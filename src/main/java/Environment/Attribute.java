@@ -10,10 +10,4 @@ public class Attribute {
     this.closure = closure;
     this.node = node;
   }
-
-  public Attribute bind(Instance instance) {
-    Environment environment = new Environment(this.closure);
-    environment.define("this", instance);
-    return new Attribute(this.node, environment);
-  }
 }
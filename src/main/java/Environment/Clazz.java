@@ -1,21 +1,151 @@
 package Environment;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 
+/**
+ * Zur Laufzeit verknüpfte Klasse. Methoden liegen in einer vtable, Attribute in einem festen
+ * Layout. Eine Unterklasse übernimmt beide von ihrer Oberklasse, überschreibt geerbte virtuelle
+ * Methoden auf demselben Index und hängt neue Member hinten an. Ein Index aus der Oberklasse gilt
+ * damit auch in jeder Unterklasse, über ihn erreicht ein Aufruf nur virtuelle Methoden der
+ * Unterklasse.
+ */
 public class Clazz {
-  HashMap<String, Function> methods;
-  HashMap<String, Attribute> attributes;
+  // in Deklarationsreihenfolge, danach richten sich vtable, Layout und Initialisierung
+  LinkedHashMap<String, Function> methods;
+  LinkedHashMap<String, Attribute> attributes;
 
-  public Clazz(HashMap<String, Function> methods, HashMap<String, Attribute> attributes) {
+  final String name;
+  final Clazz superClazz;
+  final Function[] vtable;
+  final Attribute[] layout;
+  final Shape shape;
+  private final HashMap<String, Integer> methodIndex = new HashMap<>();
+  private final HashMap<String, Integer> attributeIndex = new HashMap<>();
+  // Konstruktoren werden nicht vererbt und liegen nicht in der vtable
+  private final ArrayList<Function> constructors = new ArrayList<>();
+  private Function copyConstructor;
+
+  public Clazz(
+      String name,
+      LinkedHashMap<String, Function> methods,
+      LinkedHashMap<String, Attribute> attributes) {
+    this(name, null, methods, attributes);
+  }
+
+  public Clazz(
+      String name,
+      Clazz superClazz,
+      LinkedHashMap<String, Function> methods,
+      LinkedHashMap<String, Attribute> attributes) {
+    this.name = name;
     this.methods = methods;
     this.attributes = attributes;
+    this.superClazz = superClazz;
+
+    ArrayList<Function> vtable = new ArrayList<>();
+    ArrayList<Attribute> layout = new ArrayList<>();
+    if (superClazz != null) {
+      vtable.addAll(List.of(superClazz.vtable));
+      layout.addAll(List.of(superClazz.layout));
+      methodIndex.putAll(superClazz.methodIndex);
+      attributeIndex.putAll(superClazz.attributeIndex);
+    }
+    for (String method : methods.keySet()) {
+      Integer index = methodIndex.get(method);
+      if (index != null && vtable.get(index).virtual) {
+        vtable.set(index, methods.get(method));
+      } else {
+        // eine nicht virtuelle Methode verdeckt die der Oberklasse nur für diese Klasse
+        methodIndex.put(method, vtable.size());
+        vtable.add(methods.get(method));
+      }
+    }
+    // gleichnamige Attribute verdecken das der Oberklasse, beide bleiben im Layout
+    for (String attribute : attributes.keySet()) {
+      attributeIndex.put(attribute, layout.size());
+      layout.add(attributes.get(attribute));
+    }
+    this.vtable = vtable.toArray(new Function[0]);
+    this.layout = layout.toArray(new Attribute[0]);
+    this.shape = new Shape(superClazz == null ? null : superClazz.shape, this.layout);
+  }
+
+  /** Die Klasse selbst oder die Oberklasse mit diesem Namen, sonst null. */
+  Clazz ancestor(String name) {
+    for (Clazz clazz = this; clazz != null; clazz = clazz.superClazz) {
+      if (clazz.name.equals(name)) {
+        return clazz;
+      }
+    }
+    return null;
+  }
+
+  /** Ob Objekte dieser Klasse die Felder von {@code other} am Anfang ihres Layouts haben. */
+  boolean extendsOrIs(Clazz other) {
+    for (Clazz clazz = this; clazz != null; clazz = clazz.superClazz) {
+      if (clazz == other) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Clazz getSuperClazz() {
+    return superClazz;
+  }
+
+  public void addConstructor(Function constructor) {
+    constructors.add(constructor);
+  }
+
+  public List<Function> getConstructors() {
+    return constructors;
+  }
+
+  public void setCopyConstructor(Function copyConstructor) {
+    this.copyConstructor = copyConstructor;
+  }
+
+  public Function getCopyConstructor() {
+    return copyConstructor;
+  }
+
+  /** Eigene Attribute ohne die der Oberklassen, in der Reihenfolge ihrer Indizes. */
+  public List<Attribute> getOwnAttributes() {
+    int inherited = superClazz == null ? 0 : superClazz.layout.length;
+    return List.of(layout).subList(inherited, layout.length);
   }
 
   public Function getMethod(String name) {
-    return methods.get(name);
+    Integer index = methodIndex.get(name);
+    return index == null ? null : vtable[index];
   }
 
   public Attribute getAttribute(String name) {
-    return attributes.get(name);
+    Integer index = attributeIndex.get(name);
+    return index == null ? null : layout[index];
+  }
+
+  int methodIndex(String name) {
+    Integer index = methodIndex.get(name);
+    if (index == null) {
+      throw new RuntimeException("Function '" + name + "' not found");
+    }
+    return index;
+  }
+
+  public int attributeIndex(String name) {
+    Integer index = attributeIndex.get(name);
+    if (index == null) {
+      throw new RuntimeException("Attribute '" + name + "' not found");
+    }
+    return index;
   }
 }
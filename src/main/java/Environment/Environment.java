@@ -1,27 +1,101 @@
 package Environment;
 
+import Tracing.TraceListener;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class Environment {
+  private static final Object[] NO_SLOTS = new Object[0];
+  private static final String[] NO_NAMES = new String[0];
+  private static final int[] NO_PRIMITIVES = new int[0];
+  private static final byte[] NO_KINDS = new byte[0];
+
+  // Art des Werts in einem Slot, int, bool und char liegen ungeboxt in primitives
+  public static final byte OBJECT = 0;
+  public static final byte INT = 1;
+  public static final byte BOOL = 2;
+  public static final byte CHAR = 3;
+
   public Environment enclosingEnv;
-  public Map<String, Object> values = new HashMap<String, Object>();
+  public Map<String, Object> values;
 
-  public static int indentLevel = 0;
+  // Variablen mit (depth, slot) Koordinate aus dem SecondScopeVisitor
+  private Object[] slots = NO_SLOTS;
+  private String[] names = NO_NAMES;
+  private int[] primitives = NO_PRIMITIVES;
+  private byte[] kinds = NO_KINDS;
+
+  // wird von der umgebenden Environment übernommen, null heißt kein Trace
+  private TraceListener tracer;
 
   public Environment(Environment enclosing) {
     this.enclosingEnv = enclosing;
+    this.tracer = enclosing == null ? null : enclosing.tracer;
+  }
+
+  /** Nur für die äußerste Environment, alle danach angelegten übernehmen den Listener. */
+  public void setTracer(TraceListener tracer) {
+    this.tracer = tracer;
   }
 
   public void define(String name, Object value) {
+    if (this.values == null) {
+      this.values = new HashMap<>();
+    }
     this.values.put(name, value);
-    System.out.println("  ".repeat(indentLevel) + "Define " + name + " : " + value);
+    if (tracer != null) {
+      tracer.define(name, value);
+    }
+  }
+
+  public void define(int slot, String name, Object value) {
+    switch (value) {
+      case Integer i -> define(slot, name, i, INT);
+      case Boolean b -> define(slot, name, b ? 1 : 0, BOOL);
+      case Character c -> define(slot, name, c, CHAR);
+      case null, default -> {
+        ensureCapacity(slot);
+        this.slots[slot] = value;
+        this.names[slot] = name;
+        this.kinds[slot] = OBJECT;
+        if (tracer != null) {
+          tracer.define(name, value);
+        }
+      }
+    }
+  }
+
+  /** Legt einen int-, bool- oder char-Wert ungeboxt im Slot ab. */
+  public void define(int slot, String name, int value, byte kind) {
+    ensureCapacity(slot);
+    this.slots[slot] = null;
+    this.names[slot] = name;
+    this.kinds[slot] = kind;
+    this.primitives[slot] = convert(value, kind);
+    if (tracer != null) {
+      tracer.define(name, box(slot));
+    }
   }
 
+  private void ensureCapacity(int slot) {
+    if (slot >= this.slots.length) {
+      int size = Math.max(slot + 1, this.slots.length * 2);
+      this.slots = Arrays.copyOf(this.slots, size);
+      this.names = Arrays.copyOf(this.names, size);
+      this.primitives = Arrays.copyOf(this.primitives, size);
+      this.kinds = Arrays.copyOf(this.kinds, size);
+    }
+  }
+
+  /** Nur für Namen ohne Slot (Funktionen, Klassen, this), Slots sind über Namen nicht sichtbar. */
   public void assign(String name, Object value) {
-    if (this.values.containsKey(name)) {
+    if (this.values != null && this.values.containsKey(name)) {
       this.values.put(name, value);
-      System.out.println("  ".repeat(indentLevel) + "Assign " + name + " : " + value.toString());
+      if (tracer != null) {
+        tracer.assign(name, value);
+      }
     } else if (this.enclosingEnv != null) {
       this.enclosingEnv.assign(name, value);
     } else {
@@ -29,8 +103,43 @@ public class Environment {
     }
   }
 
+  public void assign(int depth, int slot, Object value) {
+    Environment environment = ancestor(depth);
+    if (slot >= environment.slots.length || environment.names[slot] == null) {
+      throw new RuntimeException("No value defined for slot " + slot + " at depth " + depth);
+    }
+    if (environment.kinds[slot] != OBJECT || environment.slots[slot] instanceof Alias) {
+      assign(depth, slot, toInt(value));
+      return;
+    }
+    environment.slots[slot] = value;
+    if (tracer != null) {
+      tracer.assign(environment.names[slot], value);
+    }
+  }
+
+  /** Schreibt ohne Boxing, der Wert wird auf den Typ des Slots (bool, char) gebracht. */
+  public void assign(int depth, int slot, int value) {
+    Environment environment = ancestor(depth);
+    if (slot >= environment.slots.length || environment.names[slot] == null) {
+      throw new RuntimeException("No value defined for slot " + slot + " at depth " + depth);
+    }
+    byte kind = environment.kinds[slot];
+    if (environment.slots[slot] instanceof Alias alias) {
+      alias.set(value);
+      return;
+    } else if (kind == OBJECT) {
+      environment.slots[slot] = value;
+    } else {
+      environment.primitives[slot] = convert(value, kind);
+    }
+    if (tracer != null) {
+      tracer.assign(environment.names[slot], environment.box(slot));
+    }
+  }
+
   public Object get(String name) {
-    if (values.containsKey(name)) return values.get(name);
+    if (values != null && values.containsKey(name)) return values.get(name);
     try {
       return enclosingEnv.get(name);
     } catch (Exception e) {
@@ -38,13 +147,92 @@ public class Environment {
     }
   }
 
-  public void print() {
-    System.out.println("  ".repeat(indentLevel) + "Environment {");
-    indentLevel++;
-    for (Map.Entry<String, Object> entry : values.entrySet()) {
-      System.out.println("  ".repeat(indentLevel) + entry.getKey() + ": " + entry.getValue());
+  public Object get(int depth, int slot) {
+    Environment environment = ancestor(depth);
+    if (slot >= environment.slots.length) return null;
+    return environment.box(slot);
+  }
+
+  /** Liest einen Slot als int, ohne einen Wrapper anzulegen. */
+  public int getInt(int depth, int slot) {
+    Environment environment = ancestor(depth);
+    if (slot >= environment.slots.length) return 0;
+    if (environment.kinds[slot] != OBJECT) return environment.primitives[slot];
+    return toInt(environment.slots[slot]);
+  }
+
+  /** Liest einen Slot nur, wenn er ein Objekt enthält, primitive Werte ergeben null. */
+  public Object getObject(int depth, int slot) {
+    Environment environment = ancestor(depth);
+    if (slot >= environment.slots.length || environment.kinds[slot] != OBJECT) return null;
+    return environment.slots[slot] instanceof Alias ? null : environment.slots[slot];
+  }
+
+  /** Ziel einer Referenz auf den Slot: Objekte und Arrays selbst, sonst ein {@link Alias}. */
+  public Object reference(int depth, int slot) {
+    Environment environment = ancestor(depth);
+    Object value = slot < environment.slots.length ? environment.slots[slot] : null;
+    if (value instanceof Alias || value instanceof Instance || value instanceof FlatArray) {
+      return value;
+    }
+    return new Alias(environment, slot);
+  }
+
+  private Object box(int slot) {
+    return switch (kinds[slot]) {
+      case INT -> primitives[slot];
+      case BOOL -> primitives[slot] != 0;
+      case CHAR -> (char) primitives[slot];
+      default -> slots[slot] instanceof Alias alias ? alias.get() : slots[slot];
+    };
+  }
+
+  static int convert(int value, byte kind) {
+    return switch (kind) {
+      case BOOL -> value != 0 ? 1 : 0;
+      case CHAR -> (char) value;
+      default -> value;
+    };
+  }
+
+  static int toInt(Object value) {
+    return switch (value) {
+      case Integer i -> i;
+      case Boolean b -> b ? 1 : 0;
+      case Character c -> c;
+      case Alias alias -> alias.getInt();
+      case null, default -> 0;
+    };
+  }
+
+  public void clear() {
+    Arrays.fill(this.slots, null);
+    Arrays.fill(this.names, null);
+    Arrays.fill(this.kinds, OBJECT);
+    if (this.values != null) {
+      this.values.clear();
+    }
+  }
+
+  private Environment ancestor(int depth) {
+    Environment environment = this;
+    for (int i = 0; i < depth; i++) {
+      environment = environment.enclosingEnv;
+    }
+    return environment;
+  }
+
+  /** Alle Variablen dieser Environment, für den Trace beim Verlassen eines Blocks. */
+  public Map<String, Object> variables() {
+    Map<String, Object> variables = new LinkedHashMap<>();
+    for (int i = 0; i < slots.length; i++) {
+      if (names[i] != null) {
+        variables.put(names[i], box(i));
+      }
+    }
+    if (values != null) {
+      variables.putAll(values);
     }
-    indentLevel--;
-    System.out.println("  ".repeat(indentLevel) + "}");
+    return variables;
   }
 }
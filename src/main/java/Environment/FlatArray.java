@@ -0,0 +1,120 @@
+package Environment;
+
+import java.util.Arrays;
+
+/**
+ * Mehrdimensionales Array mit einem einzigen flachen Speicher. Größen und Strides werden beim
+ * Anlegen einmal berechnet, ein Zugriff ist dann nur noch {@code offset + Σ index * stride}.
+ * Teilarrays wie {@code matrix[0]} sind Sichten auf denselben Speicher.
+ */
+public class FlatArray {
+  private final byte kind;
+  // int, bool und char liegen in ints, Objekte in objects
+  private final int[] ints;
+  private final Object[] objects;
+  private final int offset;
+  private final int[] sizes;
+  private final int[] strides;
+
+  public FlatArray(byte kind, int[] sizes) {
+    this.kind = kind;
+    this.offset = 0;
+    this.sizes = sizes.clone();
+    this.strides = new int[sizes.length];
+    int length = 1;
+    for (int i = sizes.length - 1; i >= 0; i--) {
+      strides[i] = length;
+      length *= sizes[i];
+    }
+    this.ints = kind != Environment.OBJECT ? new int[length] : null;
+    this.objects = kind == Environment.OBJECT ? new Object[length] : null;
+  }
+
+  private FlatArray(FlatArray base, int offset, int dropped) {
+    this.kind = base.kind;
+    this.ints = base.ints;
+    this.objects = base.objects;
+    this.offset = offset;
+    this.sizes = Arrays.copyOfRange(base.sizes, dropped, base.sizes.length);
+    this.strides = Arrays.copyOfRange(base.strides, dropped, base.strides.length);
+  }
+
+  public int dimensions() {
+    return sizes.length;
+  }
+
+  public int size(int dimension) {
+    return sizes[dimension];
+  }
+
+  public int[] sizes() {
+    return sizes.clone();
+  }
+
+  public int length() {
+    return sizes.length == 0 ? 0 : sizes[0] * strides[0];
+  }
+
+  /** Position im flachen Speicher, die Indizes müssen bereits geprüft sein. */
+  public int index(int[] indices) {
+    int index = offset;
+    for (int i = 0; i < indices.length; i++) {
+      index += indices[i] * strides[i];
+    }
+    return index;
+  }
+
+  /** Wie {@link #index(int[])}, die Indizes stehen ab {@code from} in {@code values}. */
+  public int index(int[] values, int from) {
+    int index = offset;
+    for (int i = 0; i < sizes.length; i++) {
+      index += values[from + i] * strides[i];
+    }
+    return index;
+  }
+
+  public int getInt(int index) {
+    if (ints == null) {
+      return Environment.toInt(objects[index]);
+    }
+    return ints[index];
+  }
+
+  public void setInt(int index, int value) {
+    if (ints == null) {
+      objects[index] = value;
+    } else {
+      ints[index] = Environment.convert(value, kind);
+    }
+  }
+
+  /** Element bei vollständigen Indizes, sonst die Sicht auf das Teilarray. */
+  public Object get(int[] indices) {
+    int index = index(indices);
+    if (indices.length < sizes.length) {
+      return new FlatArray(this, index, indices.length);
+    }
+    return switch (kind) {
+      case Environment.INT -> ints[index];
+      case Environment.BOOL -> ints[index] != 0;
+      case Environment.CHAR -> (char) ints[index];
+      default -> objects[index];
+    };
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text =
+        new StringBuilder(
+            switch (kind) {
+              case Environment.INT -> "int";
+              case Environment.BOOL -> "bool";
+              case Environment.CHAR -> "char";
+              default -> "object";
+            });
+    for (int size : sizes) {
+      text.append('[').append(size).append(']');
+    }
+    return text.toString();
+  }
+}
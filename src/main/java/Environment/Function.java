@@ -5,6 +5,10 @@ import AST.ASTNode;
 public class Function {
   public ASTNode node;
   public Environment closure;
+  // nur bei reinen Funktionen gesetzt
+  public MemoCache memo;
+  // nur Methoden, sonst verdeckt eine gleichnamige Methode der Unterklasse sie nur
+  public boolean virtual;
 
   public Function(ASTNode node, Environment closure) {
     this.closure = closure;
@@ -12,8 +16,6 @@ public class Function {
   }
 
   public Function bind(Instance instance) {
-    Environment environment = new Environment(this.closure);
-    environment.define("this", instance);
-    return new Function(this.node, environment);
+    return new Function(this.node, instance.receiver(this.closure));
   }
 }
@@ -0,0 +1,54 @@
+package Environment;
+
+/**
+ * Inline-Cache für einen {@code OBJ_USAGE}-Knoten. Gemerkt wird pro {@link Clazz} der Index in
+ * vtable bzw. Layout, damit bei wiederholten Zugriffen keine HashMap-Suche mehr nötig ist. Bis zu
+ * {@link #LIMIT} Klassen werden gecacht (polymorph), danach wird immer direkt in der Klasse
+ * gesucht. Gesucht wird in der statischen Klasse des Empfängers, so binden nicht virtuelle Methoden
+ * und verdeckte Attribute an den deklarierten Typ.
+ */
+public class InlineCache {
+  static final int LIMIT = 4;
+
+  private final String name;
+  private final boolean method;
+  // Name der statischen Klasse des Empfängers, null wenn sie nicht bekannt ist
+  private final String declared;
+  private final Clazz[] classes = new Clazz[LIMIT];
+  private final int[] indices = new int[LIMIT];
+  private int size;
+
+  public InlineCache(String name, boolean method) {
+    this(name, method, null);
+  }
+
+  public InlineCache(String name, boolean method, String declared) {
+    this.name = name;
+    this.method = method;
+    this.declared = declared;
+  }
+
+  public boolean isMethod() {
+    return method;
+  }
+
+  /** Index des Members in vtable bzw. Layout der Klasse des Empfängers. */
+  public int index(Instance receiver) {
+    Clazz clazz = receiver.getClazz();
+    for (int i = 0; i < size; i++) {
+      if (classes[i] == clazz) {
+        return indices[i];
+      }
+    }
+    Clazz lookup = declared == null ? null : clazz.ancestor(declared);
+    if (lookup == null) {
+      lookup = clazz;
+    }
+    int index = method ? lookup.methodIndex(name) : lookup.attributeIndex(name);
+    if (size < LIMIT) {
+      classes[size] = clazz;
+      indices[size++] = index;
+    }
+    return index;
+  }
+}
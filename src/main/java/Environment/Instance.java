@@ -1,25 +1,120 @@
 package Environment;
 
+/**
+ * Objekt einer {@link Clazz}. Die Felder liegen nach der {@link Shape} der Klasse in einem {@code
+ * int[]} für int, bool und char und einem {@code Object[]} für Objekte, Arrays und Referenzen.
+ */
 public class Instance {
   private final Clazz clazz;
+  private final Shape shape;
+  final int[] ints;
+  final Object[] objects;
+
+  // einmal pro Instanz gebundene Methoden, Index aus der vtable der Clazz
+  private Function[] methods;
+  private Environment receiver;
 
   public Instance(Clazz clazz) {
     this.clazz = clazz;
+    this.shape = clazz.shape;
+    this.ints = new int[shape.intCount];
+    this.objects = new Object[shape.objectCount];
+    for (int i = 0; i < objects.length; i++) {
+      if (shape.nested[i] != null) {
+        objects[i] = new Instance(shape.nested[i]);
+      }
+    }
+  }
+
+  public Clazz getClazz() {
+    return clazz;
   }
 
   public Function getMethod(String functionName) {
-    Function function = clazz.getMethod(functionName);
-    if (function != null) {
-      return function.bind(this);
+    return getMethod(clazz.methodIndex(functionName));
+  }
+
+  public Function getMethod(int index) {
+    if (methods == null) {
+      methods = new Function[clazz.vtable.length];
+    }
+    if (methods[index] == null) {
+      methods[index] = clazz.vtable[index].bind(this);
+    }
+    return methods[index];
+  }
+
+  public boolean isPrimitive(int index) {
+    return shape.isPrimitive(index);
+  }
+
+  public Object getField(int index) {
+    int offset = shape.offsets[index];
+    return switch (shape.kinds[index]) {
+      case Environment.INT -> ints[offset];
+      case Environment.BOOL -> ints[offset] != 0;
+      case Environment.CHAR -> (char) ints[offset];
+      default -> objects[offset] instanceof Alias alias ? alias.get() : objects[offset];
+    };
+  }
+
+  public int getInt(int index) {
+    if (!shape.isPrimitive(index)) {
+      return Environment.toInt(objects[shape.offsets[index]]);
+    }
+    return ints[shape.offsets[index]];
+  }
+
+  public void setInt(int index, int value) {
+    if (!shape.isPrimitive(index)) {
+      throw new RuntimeException("Field " + index + " is not a primitive");
+    }
+    ints[shape.offsets[index]] = Environment.convert(value, shape.kinds[index]);
+  }
+
+  public void setField(int index, Object value) {
+    if (shape.isPrimitive(index)) {
+      setInt(index, Environment.toInt(value));
+    } else if (objects[shape.offsets[index]] instanceof Alias alias) {
+      alias.set(Environment.toInt(value));
+    } else if (objects[shape.offsets[index]] instanceof Instance target
+        && value instanceof Instance source) {
+      target.copyFrom(source);
+    } else {
+      objects[shape.offsets[index]] = value;
     }
-    throw new RuntimeException("Function '" + functionName + "' not found");
   }
 
-  public Attribute getAttribute(String attributeName) {
-    Attribute attribute = clazz.getAttribute(attributeName);
-    if (attribute != null) {
-      return attribute.bind(this);
+  /**
+   * Kopiert alle Felder für Copy-Konstruktor und {@code operator=}, samt Member-Objekten. Von einem
+   * Objekt einer Unterklasse wird nur der Teil dieser Klasse kopiert.
+   */
+  public void copyFrom(Instance other) {
+    if (!other.clazz.extendsOrIs(clazz)) {
+      throw new RuntimeException("Cannot copy an object of another class");
+    }
+    System.arraycopy(other.ints, 0, ints, 0, ints.length);
+    for (int i = 0; i < objects.length; i++) {
+      if (objects[i] instanceof Instance target && other.objects[i] instanceof Instance source) {
+        target.copyFrom(source);
+      } else {
+        objects[i] = other.objects[i];
+      }
+    }
+  }
+
+  public Instance copy() {
+    Instance copy = new Instance(clazz);
+    copy.copyFrom(this);
+    return copy;
+  }
+
+  /** Environment mit {@code this}, das sich alle Methoden der Instanz teilen. */
+  public Environment receiver(Environment closure) {
+    if (receiver == null || receiver.enclosingEnv != closure) {
+      receiver = new Environment(closure);
+      receiver.define("this", this);
     }
-    throw new RuntimeException("Attribute '" + attributeName + "' not found");
+    return receiver;
   }
 }
@@ -0,0 +1,42 @@
+package Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ergebnisse einer reinen Funktion, geordnet nach dem letzten Zugriff. Ist der Cache voll, wird der
+ * am längsten nicht benutzte Eintrag verdrängt (LRU).
+ */
+public class MemoCache {
+  // Einträge pro Funktion, 0 schaltet die Memoisierung ab (--memo=N)
+  public static int capacity = 1024;
+
+  private final LinkedHashMap<List<?>, Object> entries;
+
+  public MemoCache(int capacity) {
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<List<?>, Object> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /** Cache für eine reine Funktion oder null, wenn die Memoisierung abgeschaltet ist. */
+  public static MemoCache create() {
+    return capacity > 0 ? new MemoCache(capacity) : null;
+  }
+
+  /** Gespeichertes Ergebnis für die Argumente oder null. */
+  public Object get(List<?> args) {
+    return entries.get(args);
+  }
+
+  public void put(List<?> args, Object result) {
+    if (result != null) {
+      entries.put(args, result);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package Environment;
+
+import AST.ASTNode;
+import AST.Type;
+import java.util.Arrays;
+
+/**
+ * Hidden Class einer {@link Clazz}: für jeden Layout-Index die Art des Felds und seinen Offset im
+ * {@code int[]} bzw. {@code Object[]} einer {@link Instance}. Die Shape einer Unterklasse beginnt
+ * mit der Shape der Oberklasse, geerbte Felder behalten also ihren Offset.
+ */
+public class Shape {
+  final byte[] kinds;
+  final int[] offsets;
+  // Klasse eines Member-Objekts pro Objekt-Offset, null bei Arrays und Referenzen
+  final Clazz[] nested;
+  final int intCount;
+  final int objectCount;
+
+  Shape(Shape parent, Attribute[] layout) {
+    int start = parent == null ? 0 : parent.kinds.length;
+    int ints = parent == null ? 0 : parent.intCount;
+    int objects = parent == null ? 0 : parent.objectCount;
+    this.kinds = new byte[layout.length];
+    this.offsets = new int[layout.length];
+    Clazz[] nested = new Clazz[objects + layout.length - start];
+    if (parent != null) {
+      System.arraycopy(parent.kinds, 0, kinds, 0, start);
+      System.arraycopy(parent.offsets, 0, offsets, 0, start);
+      System.arraycopy(parent.nested, 0, nested, 0, objects);
+    }
+    for (int i = start; i < layout.length; i++) {
+      boolean variable = layout[i].node.getType() == Type.VAR_DECL;
+      ASTNode target = layout[i].node.children.getFirst();
+      byte kind = variable ? kindOf(target.getType()) : Environment.OBJECT;
+      kinds[i] = kind;
+      if (kind != Environment.OBJECT) {
+        offsets[i] = ints++;
+      } else {
+        if (variable && target.getType() == Type.CLASSTYPE) {
+          Object clazz = layout[i].closure.get(target.children.getFirst().getValue());
+          nested[objects] = clazz instanceof Clazz c ? c : null;
+        }
+        offsets[i] = objects++;
+      }
+    }
+    this.intCount = ints;
+    this.objectCount = objects;
+    this.nested = Arrays.copyOf(nested, objects);
+  }
+
+  boolean isPrimitive(int index) {
+    return kinds[index] != Environment.OBJECT;
+  }
+
+  private static byte kindOf(Type type) {
+    return switch (type) {
+      case Type.INT -> Environment.INT;
+      case Type.BOOL -> Environment.BOOL;
+      case Type.CHAR -> Environment.CHAR;
+      default -> Environment.OBJECT;
+    };
+  }
+}
@@ -1,5 +1,6 @@
 import AST.ASTNode;
 import AST.Type;
+import Output.Diagnostics;
 import SymbolTable.*;
 import SymbolTable.Class;
 import java.util.ArrayList;
@@ -7,6 +8,7 @@ import java.util.HashMap;
 
 public class FirstScopeVisitor {
   Scope currentScope;
+  Diagnostics diagnostics = new Diagnostics();
 
   public ASTNode visit(ASTNode node) {
     switch (node.getType()) {
@@ -99,7 +101,7 @@ public class FirstScopeVisitor {
         if (classtype != null) {
           currentScope.bind(new Variable(fncall.getValue(), classtype.name));
         } else {
-          System.out.println(
+          diagnostics.error(
               "Error: cannot create object of class, cause class "
                   + classtype.name
                   + " does not exist");
@@ -119,9 +121,9 @@ public class FirstScopeVisitor {
 
     Variable variable = new Variable(firstChild.getValue(), typeSymbol.name);
 
-    Symbol alreadyDeclared = currentScope.resolve(variable.name);
+    Symbol alreadyDeclared = currentScope.symbols.get(variable.name);
     if (alreadyDeclared != null) {
-      System.out.println("Error: such variable " + variable.name + " already exists");
+      diagnostics.error("Error: such variable " + variable.name + " already exists");
     } else {
       currentScope.bind(variable);
     }
@@ -195,9 +197,9 @@ public class FirstScopeVisitor {
       }
     }
 
-    Symbol alreadyDeclared = currentScope.resolve(arr.name);
+    Symbol alreadyDeclared = currentScope.symbols.get(arr.name);
     if (alreadyDeclared != null) {
-      System.out.println("Error: such variable " + arr.name + " already exists");
+      diagnostics.error("Error: such variable " + arr.name + " already exists");
     } else {
       currentScope.bind(arr);
     }
@@ -230,7 +232,7 @@ public class FirstScopeVisitor {
     }
 
     if (dimensions != sizes.length) {
-      System.out.println("Error: initial and declaration dimensions mismatch");
+      diagnostics.error("Error: initial and declaration dimensions mismatch");
     }
     if (firstChild.children.isEmpty()) {
       arr = new Array(firstChild.getValue(), typeSymbol.name, dimensions);
@@ -239,9 +241,9 @@ public class FirstScopeVisitor {
       }
     }
 
-    Symbol alreadyDeclared = currentScope.resolve(arr.name);
+    Symbol alreadyDeclared = currentScope.symbols.get(arr.name);
     if (alreadyDeclared != null) {
-      System.out.println("Error: such variable " + arr.name + " already exists");
+      diagnostics.error("Error: such variable " + arr.name + " already exists");
     } else {
       currentScope.bind(arr);
     }
@@ -257,7 +259,7 @@ public class FirstScopeVisitor {
     Symbol lastSymbol = currentScope.resolve(lastChild.getValue());
 
     if (lastSymbol == null) {
-      System.out.println("Error: such variable " + lastChild.getValue() + " does not exist");
+      diagnostics.error("Error: such variable " + lastChild.getValue() + " does not exist");
     }
 
     ASTNode firstChild = node.children.getFirst();
@@ -270,15 +272,15 @@ public class FirstScopeVisitor {
       if (expr.getType() == Type.INT || expr.getType() == Type.ID) {
         arr.length[i] = expr.getValue();
       } else {
-        System.out.println(
+        diagnostics.error(
             "Error: type " + expr.getType().name() + " not cannot describe array length");
       }
     }
     Reference arrRef = new Reference(firstChild.getValue(), typeSymbol.name);
 
-    Symbol alreadyDeclared = currentScope.resolve(firstChild.getValue());
+    Symbol alreadyDeclared = currentScope.symbols.get(firstChild.getValue());
     if (alreadyDeclared != null) {
-      System.out.println("Error: such variable " + firstChild.getValue() + " already exists");
+      diagnostics.error("Error: such variable " + firstChild.getValue() + " already exists");
     } else {
       currentScope.bind(arrRef);
     }
@@ -309,7 +311,7 @@ public class FirstScopeVisitor {
     setChildrensScope(lastChild);
 
     if (lastChild.getType() != Type.ID && lastChild.getType() != Type.OBJ_USAGE) {
-      System.out.println("Error: reference got assigned to a value");
+      diagnostics.error("Error: reference got assigned to a value");
       return null;
     }
 
@@ -321,7 +323,7 @@ public class FirstScopeVisitor {
     }
 
     if (lastSymbol == null) {
-      System.out.println("Error: such variable " + lastChild.getValue() + " does not exist");
+      diagnostics.error("Error: such variable " + lastChild.getValue() + " does not exist");
     }
 
     Variable var = new Variable(lastChild.getValue(), lastSymbol.name);
@@ -331,9 +333,9 @@ public class FirstScopeVisitor {
     Symbol typeSymbol = getTypeEqual(type, firstChild);
 
     Reference refVariable = new Reference(firstChild.getValue(), typeSymbol.name);
-    Symbol alreadyDeclared = currentScope.resolve(refVariable.name);
+    Symbol alreadyDeclared = currentScope.symbols.get(refVariable.name);
     if (alreadyDeclared != null) {
-      System.out.println("Error: such variable " + refVariable.name + " already exists");
+      diagnostics.error("Error: such variable " + refVariable.name + " already exists");
     } else {
       currentScope.bind(refVariable);
     }
@@ -349,11 +351,11 @@ public class FirstScopeVisitor {
     String arrayName = node.getValue();
     Symbol symbol = currentScope.resolve(arrayName);
     if (symbol == null) {
-      System.out.println("Error: array " + arrayName + " not found");
+      diagnostics.error("Error: array " + arrayName + " not found");
     }
 
     if (!(symbol instanceof Array)) {
-      System.out.println("Error: no such array " + arrayName);
+      diagnostics.error("Error: no such array " + arrayName);
     }
 
     return node;
@@ -368,9 +370,10 @@ public class FirstScopeVisitor {
 
     Function function = new Function(name, typeSymbol.name);
     function.isImplemented = fndecl.children.getLast().getType() == Type.BLOCK;
+    function.setVirtual("virtual".equals(fndecl.getValue()));
     Symbol alreadyDeclared = currentScope.resolve(name);
     if (alreadyDeclared != null && ((Function) alreadyDeclared).isImplemented) {
-      System.out.println("Error: such function " + name + " already exists");
+      diagnostics.error("Error: such function " + name + " already exists");
     } else {
       currentScope.bind(function);
     }
@@ -402,7 +405,7 @@ public class FirstScopeVisitor {
     node.setScope(currentScope);
     setChildrensScope(node);
     if (!node.children.getLast().getValue().equals("0")) {
-      System.out.println(
+      diagnostics.error(
           "Error: function "
               + node.getValue()
               + " is not abstract, "
@@ -415,10 +418,11 @@ public class FirstScopeVisitor {
     Symbol typeSymbol = getTypeEqual(type, funcInfo);
 
     Function function = new Function(name, typeSymbol.name);
+    function.setVirtual(true);
 
     Symbol alreadyDeclared = currentScope.resolve(name);
     if (alreadyDeclared != null) {
-      System.out.println("Error: such abstract function " + name + " already exists");
+      diagnostics.error("Error: such abstract function " + name + " already exists");
     } else {
       currentScope.bind(function);
     }
@@ -467,7 +471,7 @@ public class FirstScopeVisitor {
       if (!(classType instanceof Class)) {
         currentScope.bind(classSymbol);
       } else {
-        System.out.println("Error: such class " + name + " already exists");
+        diagnostics.error("Error: such class " + name + " already exists");
       }
     }
 
@@ -519,7 +523,7 @@ public class FirstScopeVisitor {
         if (superclassConstructor != null) {
           if (superclassConstructor instanceof Function) {
             if (((Function) superclassConstructor).getParamCount() > 0) {
-              System.out.println(
+              diagnostics.error(
                   "Error: constructor must be implemented, because superclass has no base constructor");
             }
           }
@@ -578,11 +582,32 @@ public class FirstScopeVisitor {
     }
 
     visitChildren(classNode);
+    markOverrides(classSymbol);
+    // erst nach den eigenen Membern, sonst gälten Überschreibungen als doppelt deklariert
+    if (classSymbol.getSuperClass() != null) {
+      currentScope.baseScope = classSymbol.getSuperClass().getClassScope();
+    }
     currentScope = currentScope.enclosingScope;
 
     return classNode;
   }
 
+  // wer eine virtuelle Methode einer Oberklasse überschreibt, ist selbst virtuell
+  private static void markOverrides(Class classSymbol) {
+    for (Symbol symbol : classSymbol.getClassScope().symbols.values()) {
+      if (!(symbol instanceof Function method) || method.isVirtual()) {
+        continue;
+      }
+      for (Class base = classSymbol.getSuperClass(); base != null; base = base.getSuperClass()) {
+        if (base.getClassScope().symbols.get(method.name) instanceof Function inherited
+            && inherited.isVirtual()) {
+          method.setVirtual(true);
+          break;
+        }
+      }
+    }
+  }
+
   public ASTNode visitExpr(ASTNode node) {
     node.setScope(currentScope);
     if (!node.children.isEmpty() && node.getType() != Type.ID) {
@@ -610,12 +635,12 @@ public class FirstScopeVisitor {
     String type = node.children.getFirst().getType().name().toLowerCase();
     Symbol typeSymbol = currentScope.resolve(type);
     if (typeSymbol == null) {
-      System.out.println("Error: no such return type " + type);
+      diagnostics.error("Error: no such return type " + type);
     } else {
       Function function = new Function(name, typeSymbol.name);
       Symbol alreadyImplemented = currentScope.resolve(name);
       if (alreadyImplemented != null) {
-        System.out.println("Error: such function " + name + " already exists");
+        diagnostics.error("Error: such function " + name + " already exists");
       } else {
         currentScope.bind(function);
       }
@@ -0,0 +1,548 @@
+import AST.ASTNode;
+import AST.Type;
+import Output.Diagnostics;
+import SymbolTable.Class;
+import SymbolTable.Function;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Hebt die Analyse einzelner Klassen und Funktionen zwischen den Anfragen des {@link CompileServer}
+ * auf. Das Programm wird an den Tokens in Anweisungen der obersten Ebene zerlegt. Für jede {@code
+ * CLASS} und jedes {@code FN_DECL} bleibt der Teilbaum nach Scope-Läufen und Typprüfung samt Symbol
+ * und Scope im Cache, unter dem Hash seiner Tokens. Wiederverwendet wird er, solange die Signaturen
+ * aller globalen Namen, die er benutzt, gleich bleiben; alle anderen Anweisungen werden einzeln
+ * geparst, gescopt und geprüft. Die Optimierungen laufen danach über das ganze Programm, auf Kopien
+ * der aufgehobenen Bäume.
+ */
+public class IncrementalCompiler {
+  public static final int DEFAULT_CAPACITY = 1 << 14;
+
+  // steht in aufgehobenen Bäumen für den globalen Scope des Programms, das sie gerade benutzt
+  private static final Scope GLOBAL = new Scope();
+  private static final Set<String> BUILT_INS =
+      new FirstScopeVisitor().visitProgram(new ASTNode(Type.PROGRAM)).getScope().symbols.keySet();
+
+  // Varianten pro Hash, die sich nur in den Abhängigkeiten unterscheiden
+  private static final int VARIANTS = 4;
+
+  private final LinkedHashMap<String, List<Cached>> cache;
+
+  public IncrementalCompiler(int capacity) {
+    this.cache =
+        new LinkedHashMap<>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, List<Cached>> eldest) {
+            return size() > capacity;
+          }
+        };
+  }
+
+  /** Lexer und Parser eines Threads, bei Fehlern im Quelltext liefern beide null. */
+  public interface Frontend {
+    List<? extends Token> tokenize(String source);
+
+    ParseTree parse(String source);
+  }
+
+  /**
+   * Zerlegt {@code source} und parst alle Anweisungen, die nicht aus dem Cache kommen. Bei
+   * Syntaxfehlern oder wenn sich das Programm nicht zerlegen lässt, ist das Ergebnis null, dann
+   * meldet der Parser des ganzen Programms die Fehler.
+   */
+  public Build parse(String source, Frontend frontend) {
+    List<? extends Token> tokens = frontend.tokenize(source);
+    List<Unit> units = tokens == null ? null : split(tokens);
+    if (units == null) {
+      return null;
+    }
+    Build build = new Build(units);
+    for (Unit unit : units) {
+      unit.variants = take(unit.hash);
+      if (!unit.variants.isEmpty()) {
+        unit.takeOver(unit.variants.getFirst());
+      } else if (!unit.parse(frontend)) {
+        build.release(false);
+        return null;
+      }
+    }
+    build.declare();
+    for (int i = 0; i < units.size(); i++) {
+      Unit unit = units.get(i);
+      for (Cached variant : unit.variants) {
+        if (unit.cached == null && build.isValid(unit, variant, i)) {
+          unit.cached = variant;
+        }
+      }
+      // die übrigen gelten weiter für Programme mit anderen Abhängigkeiten
+      for (Cached variant : unit.variants.reversed()) {
+        if (variant != unit.cached) {
+          put(variant);
+        }
+      }
+      unit.variants = List.of();
+      if (unit.node == null && unit.cached == null && !unit.parse(frontend)) {
+        build.release(false);
+        return null;
+      }
+    }
+    return build;
+  }
+
+  private synchronized List<Cached> take(String hash) {
+    List<Cached> variants = cache.remove(hash);
+    return variants != null ? variants : List.of();
+  }
+
+  /** Die zuletzt benutzte Variante steht vorn. */
+  private synchronized void put(Cached cached) {
+    List<Cached> variants = cache.computeIfAbsent(cached.hash, hash -> new ArrayList<>());
+    variants.removeIf(variant -> variant.dependencies.equals(cached.dependencies));
+    variants.addFirst(cached);
+    if (variants.size() > VARIANTS) {
+      variants.removeLast();
+    }
+  }
+
+  /**
+   * Ein zerlegtes Programm. Aufgehobene Bäume gehören ihm allein, bis {@link #release} sie nach der
+   * Ausführung zurück in den Cache legt.
+   */
+  public final class Build {
+    private final List<Unit> units;
+    private final Map<String, Declaration> declarations = new HashMap<>();
+    private int reused;
+
+    private Build(List<Unit> units) {
+      this.units = units;
+    }
+
+    /** Anzahl der Klassen und Funktionen aus dem Cache. */
+    public int reused() {
+      return reused;
+    }
+
+    /**
+     * Dieselben Durchläufe wie in {@code Main}, Scope-Läufe und Typprüfung nur für Neues. Ihre
+     * Fehler gehen an {@code diagnostics}.
+     */
+    public ASTNode analyze(Diagnostics diagnostics) {
+      FirstScopeVisitor firstScope = new FirstScopeVisitor();
+      firstScope.diagnostics = diagnostics;
+      ASTNode program = firstScope.visitProgram(new ASTNode(Type.PROGRAM));
+      Scope globalScope = program.getScope();
+      for (Unit unit : units) {
+        if (unit.cached != null) {
+          unit.node = unit.cached.attach(globalScope, unit.line);
+          reused++;
+        } else {
+          int scopes = globalScope.innerScopes.size();
+          unit.node.setScope(globalScope);
+          firstScope.currentScope = globalScope;
+          firstScope.visit(unit.node);
+          unit.scope =
+              globalScope.innerScopes.size() > scopes ? globalScope.innerScopes.get(scopes) : null;
+        }
+        program.addChild(unit.node);
+      }
+
+      SecondScopeVisitor secondScope = new SecondScopeVisitor(globalScope);
+      secondScope.diagnostics = diagnostics;
+      for (Unit unit : units) {
+        if (unit.cached == null) {
+          secondScope.visit(unit.node);
+        }
+      }
+      // die Slots globaler Variablen können sich in aufgehobenen Bäumen verschoben haben
+      for (Unit unit : units) {
+        secondScope.visitSlots(unit.node);
+      }
+
+      DeadCodeEliminator deadCodeEliminator = new DeadCodeEliminator();
+      deadCodeEliminator.eliminate(program);
+      Set<ASTNode> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+      reachable.addAll(program.children);
+      TypeCheckVisitor typeCheck = new TypeCheckVisitor(globalScope);
+      typeCheck.diagnostics = diagnostics;
+      for (int i = 0; i < units.size(); i++) {
+        Unit unit = units.get(i);
+        if (unit.cached == null && reachable.contains(unit.node)) {
+          typeCheck.visit(unit.node);
+          unit.analysed = snapshot(unit, i, globalScope);
+        } else if (unit.cached != null && unit.cached.symbol instanceof Function function) {
+          function.setPure(false);
+        }
+      }
+
+      new ConstantFolder().fold(program);
+      deadCodeEliminator.eliminate(program);
+      new RangeAnalysis().analyze(program);
+      new PurityAnalysis().analyze(program);
+      return program;
+    }
+
+    /**
+     * Legt die benutzten Bäume zurück in den Cache, mit {@code store} auch die neu analysierten.
+     * Danach darf der Baum aus {@link #analyze} nicht mehr benutzt werden.
+     */
+    public void release(boolean store) {
+      for (Unit unit : units) {
+        for (Cached variant : unit.variants.reversed()) {
+          put(variant);
+        }
+        unit.variants = List.of();
+        if (unit.cached != null) {
+          unit.cached.detach();
+          put(unit.cached);
+          unit.cached = null;
+        }
+        if (store && unit.analysed != null) {
+          unit.analysed.detach();
+          put(unit.analysed);
+        }
+        unit.analysed = null;
+      }
+    }
+
+    private void declare() {
+      for (int i = 0; i < units.size(); i++) {
+        Unit unit = units.get(i);
+        if (unit.name == null) {
+          continue;
+        }
+        String signature = unit.description;
+        if (unit.superName != null) {
+          Declaration superClass = declarations.get(unit.superName);
+          signature += " : " + (superClass == null ? "?" : superClass.signature());
+        }
+        declarations.merge(
+            unit.name,
+            new Declaration(signature, i, 1),
+            (first, next) ->
+                new Declaration(
+                    first.signature() + " | " + next.signature(),
+                    first.index(),
+                    first.count() + 1));
+      }
+    }
+
+    /** Doppelte Namen meldet erst der {@link FirstScopeVisitor}, also wird neu analysiert. */
+    private boolean isValid(Unit unit, Cached cached, int index) {
+      if (declarations.get(unit.name).count() > 1) {
+        return false;
+      }
+      for (Map.Entry<String, String> dependency : cached.dependencies.entrySet()) {
+        if (!Objects.equals(dependency.getValue(), signature(dependency.getKey(), index))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /** Signatur eines globalen Namens, gesehen von der Anweisung an Stelle {@code index}. */
+    private String signature(String name, int index) {
+      Declaration declaration = declarations.get(name);
+      if (declaration != null) {
+        // der FirstScopeVisitor löst Typen nur gegen vorher Deklariertes auf
+        return declaration.signature() + (declaration.index() < index ? " before" : " after");
+      }
+      return BUILT_INS.contains(name) ? "builtin" : null;
+    }
+
+    private Cached snapshot(Unit unit, int index, Scope globalScope) {
+      if (unit.node.getType() != Type.CLASS && unit.node.getType() != Type.FN_DECL
+          || unit.name == null
+          || unit.scope == null) {
+        return null;
+      }
+      Map<String, String> dependencies = new HashMap<>();
+      collectDependencies(unit.node, unit.name, index, dependencies);
+      return new Cached(
+          unit.hash,
+          unit.name,
+          unit.superName,
+          unit.description,
+          copy(unit.node, globalScope, GLOBAL, 0),
+          globalScope.symbols.get(unit.name),
+          unit.scope,
+          unit.line,
+          dependencies);
+    }
+
+    private void collectDependencies(
+        ASTNode node, String name, int index, Map<String, String> dependencies) {
+      String value = node.getValue();
+      if (value != null && !value.equals(name) && !dependencies.containsKey(value)) {
+        String signature = signature(value, index);
+        if (signature != null) {
+          dependencies.put(value, signature);
+        }
+      }
+      for (ASTNode child : node.children) {
+        collectDependencies(child, name, index, dependencies);
+      }
+    }
+  }
+
+  /** Eine Anweisung der obersten Ebene. */
+  private static final class Unit {
+    final String text;
+    final String hash;
+    final int line;
+    List<Cached> variants = List.of();
+    Cached cached;
+    ASTNode node;
+    String name;
+    String superName;
+    String description;
+    Scope scope;
+    Cached analysed;
+
+    Unit(String text, int line) {
+      this.text = text;
+      this.hash = hash(text);
+      this.line = line;
+    }
+
+    boolean parse(Frontend frontend) {
+      ParseTree tree = frontend.parse(text);
+      if (tree == null) {
+        return false;
+      }
+      ASTNode program = new CppParseTreeVisitor().visit(tree);
+      if (program.children.size() != 1) {
+        return false;
+      }
+      node = program.children.getFirst();
+      shiftLines(node, line - 1);
+      name = declaredName(node);
+      superName = superclassName(node);
+      description = describe(node, hash);
+      return true;
+    }
+
+    void takeOver(Cached cached) {
+      name = cached.name;
+      superName = cached.superName;
+      description = cached.description;
+    }
+  }
+
+  /** Signatur und erste Stelle eines globalen Namens, {@code count} zählt die Deklarationen. */
+  private record Declaration(String signature, int index, int count) {}
+
+  /**
+   * Analysierter Baum einer Klasse oder Funktion. Scopes und Symbole teilt er mit den Kopien, die
+   * {@link #attach} für jedes Programm anlegt.
+   */
+  private static final class Cached {
+    final String hash;
+    final String name;
+    final String superName;
+    final String description;
+    final ASTNode node;
+    final Symbol symbol;
+    final Scope scope;
+    final int line;
+    final Map<String, String> dependencies;
+
+    Cached(
+        String hash,
+        String name,
+        String superName,
+        String description,
+        ASTNode node,
+        Symbol symbol,
+        Scope scope,
+        int line,
+        Map<String, String> dependencies) {
+      this.hash = hash;
+      this.name = name;
+      this.superName = superName;
+      this.description = description;
+      this.node = node;
+      this.symbol = symbol;
+      this.scope = scope;
+      this.line = line;
+      this.dependencies = dependencies;
+    }
+
+    /** Bindet Symbol und Scope im globalen Scope eines Programms und kopiert den Baum. */
+    ASTNode attach(Scope globalScope, int line) {
+      globalScope.bind(symbol);
+      scope.enclosingScope = globalScope;
+      globalScope.innerScopes.add(scope);
+      if (symbol instanceof Class classSymbol && superName != null) {
+        classSymbol.setSuperClass((Class) globalScope.resolve(superName, "Class"));
+      }
+      return copy(node, GLOBAL, globalScope, line - this.line);
+    }
+
+    /** Im Cache soll nichts auf das letzte Programm zeigen. */
+    void detach() {
+      scope.enclosingScope = null;
+      symbol.scope = null;
+      if (symbol instanceof Class classSymbol) {
+        classSymbol.setSuperClass(null);
+      }
+    }
+  }
+
+  /**
+   * Zerlegt an den Tokens in Anweisungen der obersten Ebene: eine endet mit {@code ;} oder mit
+   * {@code }}, außer es folgt {@code else} oder das {@code ;} einer Klasse. Der Text jeder
+   * Anweisung besteht aus ihren Tokens mit den Zeilenumbrüchen des Quelltexts, Leerzeichen und
+   * Kommentare ändern den Hash also nicht.
+   */
+  private static List<Unit> split(List<? extends Token> tokens) {
+    List<Unit> units = new ArrayList<>();
+    StringBuilder text = new StringBuilder();
+    int depth = 0;
+    int firstLine = -1;
+    int lastLine = -1;
+    for (int i = 0; i < tokens.size(); i++) {
+      Token token = tokens.get(i);
+      if (token.getChannel() != Token.DEFAULT_CHANNEL) {
+        continue;
+      }
+      if (firstLine < 0) {
+        firstLine = token.getLine();
+      } else {
+        text.append(token.getLine() > lastLine ? "\n".repeat(token.getLine() - lastLine) : " ");
+      }
+      lastLine = token.getLine();
+      text.append(token.getText());
+      switch (token.getText()) {
+        case "{" -> depth++;
+        case "}" -> depth--;
+        default -> {}
+      }
+      if (depth < 0) {
+        return null;
+      }
+      if (depth == 0
+          && (token.getText().equals(";")
+              || token.getText().equals("}") && !continues(tokens, i + 1))) {
+        units.add(new Unit(text.toString(), firstLine));
+        text.setLength(0);
+        firstLine = -1;
+      }
+    }
+    return firstLine < 0 ? units : null;
+  }
+
+  private static boolean continues(List<? extends Token> tokens, int next) {
+    for (int i = next; i < tokens.size(); i++) {
+      if (tokens.get(i).getChannel() == Token.DEFAULT_CHANNEL) {
+        String text = tokens.get(i).getText();
+        return text.equals("else") || text.equals(";");
+      }
+    }
+    return false;
+  }
+
+  private static String declaredName(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.FN_DECL -> {
+        ASTNode fnInfo = node.children.getFirst();
+        yield fnInfo.children.isEmpty() ? null : fnInfo.children.getFirst().getValue();
+      }
+      case Type.CLASS -> node.getValue();
+      case Type.MAIN -> "main";
+      case Type.VAR_DECL, Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF ->
+          node.children.getFirst().getValue();
+        // Objekte mit Konstruktorargumenten
+      case Type.FN_CALL ->
+          !node.children.isEmpty() && node.children.getFirst().getType() == Type.CLASSTYPE
+              ? node.getValue()
+              : null;
+      case null, default -> null;
+    };
+  }
+
+  private static String superclassName(ASTNode node) {
+    if (node.getType() != Type.CLASS) {
+      return null;
+    }
+    for (ASTNode child : node.children) {
+      if ("extends".equals(child.getValue()) && !child.children.isEmpty()) {
+        return child.children.getFirst().getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Was Benutzer einer Deklaration von ihr sehen: bei Funktionen Rückgabetyp und Parameter, sonst
+   * der ganze Text. Bei Klassen kommt in {@link Build#declare} die Signatur der Basisklasse dazu.
+   */
+  private static String describe(ASTNode node, String hash) {
+    if (node.getType() != Type.FN_DECL) {
+      return node.getType() + " " + hash;
+    }
+    StringBuilder description = new StringBuilder("FN_DECL");
+    for (ASTNode child : node.children) {
+      if (child.getType() != Type.BLOCK) {
+        render(child, description.append(' '));
+      }
+    }
+    return description.toString();
+  }
+
+  private static void render(ASTNode node, StringBuilder out) {
+    out.append(node.getType()).append(' ').append(node.getValue()).append('(');
+    for (ASTNode child : node.children) {
+      render(child, out.append(' '));
+    }
+    out.append(')');
+  }
+
+  /** Tiefe Kopie ohne Laufzeitdaten, {@code from} wird durch {@code to} ersetzt. */
+  private static ASTNode copy(ASTNode node, Scope from, Scope to, int lineOffset) {
+    ASTNode copy = new ASTNode(node.getType(), node.getValue());
+    copy.setScope(node.getScope() == from ? to : node.getScope());
+    copy.setSlot(node.getDepth(), node.getSlot());
+    copy.setMember(node.isMember());
+    if (node.getLine() >= 0) {
+      copy.setLine(node.getLine() + lineOffset);
+    }
+    copy.children.ensureCapacity(node.children.size());
+    for (ASTNode child : node.children) {
+      copy.addChild(copy(child, from, to, lineOffset));
+    }
+    return copy;
+  }
+
+  private static void shiftLines(ASTNode node, int offset) {
+    if (node.getLine() >= 0) {
+      node.setLine(node.getLine() + offset);
+    }
+    for (ASTNode child : node.children) {
+      shiftLines(child, offset);
+    }
+  }
+
+  private static String hash(String text) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+}
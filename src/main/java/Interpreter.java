@@ -1,22 +1,80 @@
 import AST.ASTNode;
 import AST.Type;
 import Environment.*;
+import Output.ChannelSink;
+import Output.Diagnostics;
+import Output.OutputSink;
 import SymbolTable.BuiltIn;
-import java.lang.reflect.Array;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import Tracing.CallStack;
+import Tracing.Profiler;
+import Tracing.TraceListener;
+import Tracing.Tracer;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 
 public class Interpreter {
   Environment env;
+  // gesetzt von evalReturn, Blöcke und Schleifen brechen dann ab
+  private boolean returning;
+  private Object returnValue;
+  // vorbereiteter Aufruf aus einem return in Endposition
+  private Function tailFunction;
+  private ArrayList<Object> tailArgs;
+  private int callDepth;
+  // null, solange kein Listener angehängt ist
+  private TraceListener tracer;
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+  private Diagnostics diagnostics = new Diagnostics();
+  private Profiler profiler;
+  // nur für Stichproben eines Samplers gepflegt
+  private CallStack callStack;
 
   public Interpreter() {
     this.env = new Environment(null);
   }
 
+  /** Vor {@link #eval} aufrufen, neue Environments übernehmen den Listener von der äußersten. */
+  public void addTraceListener(TraceListener listener) {
+    this.tracer = Tracer.combine(this.tracer, listener);
+    this.env.setTracer(this.tracer);
+  }
+
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  public void setDiagnostics(Diagnostics diagnostics) {
+    this.diagnostics = diagnostics;
+  }
+
+  /** Vor {@link #eval} aufrufen; der Profiler muss für dasselbe Programm angelegt sein. */
+  public void setProfiler(Profiler profiler) {
+    this.profiler = profiler;
+  }
+
+  public void setCallStack(CallStack callStack) {
+    this.callStack = callStack;
+  }
+
   public Object eval(ASTNode node) {
+    if (profiler != null) {
+      profiler.count(node);
+    }
     switch (node.getType()) {
+      case Type.PROGRAM:
+        evalProgram(node);
+        break;
       case Type.MAIN:
+        if (callStack != null) {
+          callStack.push(node, null);
+        }
         eval(node.children.getLast());
+        returning = false;
+        if (callStack != null) {
+          callStack.pop();
+        }
         break;
       case Type.OBJ_USAGE:
         return evalObjUsage(node);
@@ -30,7 +88,7 @@ public class Interpreter {
         evalBlock(node);
         break;
       case Type.RETURN:
-        evalReturn(node);
+        return evalReturn(node);
       case Type.CLASS:
         evalClass(node);
         break;
@@ -38,8 +96,7 @@ public class Interpreter {
         evalFnDecl(node);
         break;
       case Type.FN_CALL:
-        evalFnCall(node);
-        break;
+        return evalFnCall(node);
       case Type.VAR_DECL:
         evalVarDecl(node);
         break;
@@ -65,10 +122,9 @@ public class Interpreter {
       case Type.AND, Type.OR:
         return evaluateLogical(node);
       case Type.NOT:
-        return !convertToBoolean(eval(node));
+        return !evalBool(node.children.getFirst());
       case Type.DEC_INC:
-        evalDecInc(node);
-        break;
+        return evalDecInc(node);
       case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD:
         return evaluateCalculation(node);
       case Type.NULL:
@@ -80,7 +136,7 @@ public class Interpreter {
       case Type.CHAR:
         return node.getValue().charAt(0);
       case ID:
-        return this.env.get(node.getValue());
+        return lookup(node);
       default:
         evalChildren(node);
         break;
@@ -88,17 +144,97 @@ public class Interpreter {
     return null;
   }
 
+  /** Wertet einen Ausdruck als int aus, ohne Zwischenwerte zu boxen. */
+  public int evalInt(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.INT -> Integer.parseInt(node.getValue());
+      case Type.CHAR -> node.getValue().charAt(0);
+      case Type.BOOL -> Boolean.parseBoolean(node.getValue()) ? 1 : 0;
+      case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD -> evaluateCalculation(node);
+      case Type.GREATER,
+              Type.GREATER_EQUAL,
+              Type.LESS,
+              Type.LESS_EQUAL,
+              Type.EQUAL,
+              Type.NOT_EQUAL,
+              Type.AND,
+              Type.OR,
+              Type.NOT ->
+          evalBool(node) ? 1 : 0;
+      case Type.ID -> lookupInt(node);
+      case Type.ARRAY_ITEM -> evalArrayItemInt(node);
+      case Type.OBJ_USAGE -> evalObjUsageInt(node);
+      case Type.DEC_INC -> evalDecInc(node);
+      default -> convertToInteger(eval(node));
+    };
+  }
+
+  /** Wertet eine Bedingung aus, ohne Zwischenwerte zu boxen. */
+  public boolean evalBool(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.GREATER,
+              Type.GREATER_EQUAL,
+              Type.LESS,
+              Type.LESS_EQUAL,
+              Type.EQUAL,
+              Type.NOT_EQUAL ->
+          evaluateComparison(node);
+      case Type.AND, Type.OR -> evaluateLogical(node);
+      case Type.NOT -> !evalBool(node.children.getFirst());
+      case Type.BOOL -> Boolean.parseBoolean(node.getValue());
+      case Type.INT,
+              Type.CHAR,
+              Type.ID,
+              Type.ARRAY_ITEM,
+              Type.OBJ_USAGE,
+              Type.ADD,
+              Type.SUB,
+              Type.MUL,
+              Type.DIV,
+              Type.MOD ->
+          evalInt(node) != 0;
+      default -> convertToBoolean(eval(node));
+    };
+  }
+
+  /** Funktionen und Klassen hinter main sind dort bereits deklariert, main läuft daher zuletzt. */
+  public Object evalProgram(ASTNode node) {
+    ASTNode main = null;
+    for (ASTNode child : node.children) {
+      if (child.getType() == Type.MAIN) {
+        main = child;
+      } else {
+        eval(child);
+      }
+    }
+    if (main != null) {
+      eval(main);
+    }
+    return null;
+  }
+
   public Object evalClass(ASTNode node) {
-    HashMap<String, Function> methods = new HashMap<>();
-    HashMap<String, Attribute> attributes = new HashMap<>();
+    LinkedHashMap<String, Function> methods = new LinkedHashMap<>();
+    LinkedHashMap<String, Attribute> attributes = new LinkedHashMap<>();
+    ArrayList<Function> constructors = new ArrayList<>();
+    Function copyConstructor = null;
     for (ASTNode child : node.children) {
       switch (child.getType()) {
         case Type.FN_DECL:
-          methods.put(
-              child.children.getFirst().children.getFirst().getValue(),
-              new Function(child, this.env));
+          String name = child.children.getFirst().children.getFirst().getValue();
+          Function method = new Function(child, this.env);
+          method.virtual =
+              child.getScope().resolve(name) instanceof SymbolTable.Function symbol
+                  && symbol.isVirtual();
+          methods.put(name, method);
           break;
-        case Type.CONSTRUCTOR, Type.COPY_CONSTRUCTOR, Type.DESTRUCTOR, Type.OPERATOR:
+        case Type.CONSTRUCTOR:
+          constructors.add(new Function(child, this.env));
+          break;
+        case Type.COPY_CONSTRUCTOR:
+          copyConstructor = new Function(child, this.env);
+          break;
+        case Type.DESTRUCTOR, Type.OPERATOR:
           methods.put(child.getValue(), new Function(child, this.env));
           break;
         case Type.VAR_DECL, Type.VAR_REF, ARRAY_INIT, ARRAY_DECL:
@@ -106,77 +242,420 @@ public class Interpreter {
           break;
       }
     }
-    Clazz clazz = new Clazz(methods, attributes);
+    // die Oberklasse ist bereits definiert, ihre vtable wird beim Verknüpfen übernommen
+    Clazz superClazz = null;
+    if (node.getScope() != null
+        && node.getScope().resolve(node.getValue()) instanceof SymbolTable.Class classSymbol
+        && classSymbol.getSuperClass() != null) {
+      superClazz = (Clazz) this.env.get(classSymbol.getSuperClass().name);
+    }
+    Clazz clazz = new Clazz(node.getValue(), superClazz, methods, attributes);
+    constructors.forEach(clazz::addConstructor);
+    clazz.setCopyConstructor(copyConstructor);
     this.env.define(node.getValue(), clazz);
     return null;
   }
 
+  /**
+   * Merkt sich den Rückgabewert und setzt {@code returning}, damit die umgebenden Blöcke und
+   * Schleifen abbrechen. Ein Aufruf in Endposition wird nur vorbereitet und von {@link #evalFnCall}
+   * im selben Java-Frame ausgeführt.
+   */
   public Object evalReturn(ASTNode node) {
-    if (node.children.size() > 1) {
-      return eval(node.children.getLast());
+    Object value = null;
+    if (!node.children.isEmpty()) {
+      ASTNode expression = node.children.getLast();
+      if (isTailCall(expression)) {
+        if (profiler != null) {
+          profiler.count(expression);
+        }
+        tailFunction = callee(expression);
+        tailArgs = evalArgs(expression, tailFunction);
+      } else {
+        value = eval(expression);
+      }
     }
-    return null;
+    returnValue = value;
+    returning = true;
+    return value;
   }
 
   public Object evalObjUsage(ASTNode node) {
+    if (isThis(node)) {
+      return self();
+    }
+    Instance instance = receiverOf(node);
+    InlineCache cache = cacheOf(node);
+    int index = cache.index(instance);
+    return cache.isMethod() ? invoke(instance, index, node) : instance.getField(index);
+  }
 
+  private int evalObjUsageInt(ASTNode node) {
+    if (isThis(node)) {
+      return 0;
+    }
+    Instance instance = receiverOf(node);
+    InlineCache cache = cacheOf(node);
+    int index = cache.index(instance);
+    if (cache.isMethod()) {
+      return convertToInteger(invoke(instance, index, node));
+    }
+    return instance.getInt(index);
+  }
+
+  // return *this
+  private static boolean isThis(ASTNode node) {
+    ASTNode member = node.children.getLast();
+    return "*this".equals(node.getValue())
+        && member.getType() == Type.ID
+        && member.getValue().equals("this");
+  }
+
+  private Instance receiverOf(ASTNode node) {
+    if ("this".equals(node.getValue()) || "*this".equals(node.getValue())) {
+      return self();
+    }
     ASTNode objNode = node.children.getFirst();
-    ASTNode fieldNode = node.children.get(1);
     Object obj = eval(objNode);
-    if (obj instanceof Instance) {
-      if (objNode.getType() == Type.ID) {
-        return ((Instance) obj).getAttribute(fieldNode.getValue());
-      } else {
-        return ((Instance) obj).getMethod(fieldNode.getValue());
-      }
+    if (obj instanceof Instance instance) {
+      return instance;
     }
     throw new RuntimeException(
         "Object of type " + objNode.getValue() + " is not an instance of " + obj.getClass());
   }
 
+  private InlineCache cacheOf(ASTNode node) {
+    InlineCache cache = (InlineCache) node.getCache();
+    if (cache == null) {
+      // Methodenaufrufe stehen als Text "name(args)" im Knoten
+      ASTNode fieldNode = node.children.getLast();
+      String name = fieldNode.getValue();
+      boolean method = fieldNode.getType() == Type.FN_CALL;
+      if (method && name.indexOf('(') >= 0) {
+        name = name.substring(0, name.indexOf('('));
+      }
+      cache = new InlineCache(name, method, declaredClass(node));
+      node.setCache(cache);
+    }
+    return cache;
+  }
+
+  /** Statischer Typ des Empfängers, an ihn binden nicht virtuelle Methoden. */
+  private static String declaredClass(ASTNode node) {
+    if ("this".equals(node.getValue()) || "*this".equals(node.getValue())) {
+      return enclosingClass(node.getScope());
+    }
+    ASTNode objNode = node.children.getFirst();
+    Symbol symbol =
+        objNode.getScope() == null ? null : objNode.getScope().resolve(objNode.getValue());
+    return symbol == null ? null : symbol.type;
+  }
+
+  /** Klasse, in deren Methode der Scope liegt, sonst null. */
+  private static String enclosingClass(Scope scope) {
+    for (; scope != null && scope.enclosingScope != null; scope = scope.enclosingScope) {
+      for (Symbol symbol : scope.enclosingScope.symbols.values()) {
+        if (symbol instanceof SymbolTable.Class classSymbol
+            && classSymbol.getClassScope() == scope) {
+          return classSymbol.name;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Ruft die Methode auf dem Empfänger auf, Argumente stehen nur als Text im AST. */
+  private Object invoke(Instance instance, int index, ASTNode node) {
+    String text = node.children.getLast().getValue();
+    int open = text.indexOf('(');
+    if (open >= 0 && !text.substring(open + 1, text.lastIndexOf(')')).isBlank()) {
+      throw new RuntimeException("Method call " + text + " with arguments is not supported");
+    }
+    return call(instance.getMethod(index), new ArrayList<>(), node);
+  }
+
   public Object evalFnCall(ASTNode node) {
     if (node.getScope().resolve(node.getValue()) instanceof BuiltIn) {
       ASTNode argsNode = node.children.getFirst();
       switch (node.getValue()) {
-        case "print_int" -> print_int(eval(argsNode.children.getFirst()));
-        case "print_char" -> print_char(eval(argsNode.children.getFirst()));
-        case "print_bool" -> print_bool(eval(argsNode.children.getFirst()));
+        case "print_int" -> print_int(evalInt(argsNode.children.getFirst()));
+        case "print_char" -> print_char((char) evalInt(argsNode.children.getFirst()));
+        case "print_bool" -> print_bool(evalBool(argsNode.children.getFirst()));
       }
       return null;
-    } else if (node.children.getFirst().getType() == Type.CLASSTYPE) {
-      Instance inst = (Instance) eval(node.children.getLast().children.getFirst());
-      this.env.define(node.getValue(), inst);
-    }
-    Function fn = (Function) this.env.get(node.getValue());
-    Environment prevEnv = this.env;
-    if (!node.children.isEmpty()) {
-      ASTNode argsNode = node.children.getFirst();
-      ASTNode params =
-          fn.node.children.stream()
-              .filter(n -> n.getType() == Type.PARAMS)
-              .findFirst()
-              .orElse(null);
+    } else if (!node.children.isEmpty() && node.children.getFirst().getType() == Type.CLASSTYPE) {
+      // Objektdeklaration A x(...)
+      Clazz clazz = (Clazz) this.env.get(node.children.getFirst().getValue());
       ArrayList<Object> args = new ArrayList<>();
-      if (params != null) {
-        for (ASTNode arg : argsNode.children) {
+      if (node.children.getLast().getType() == Type.ARGS) {
+        for (ASTNode arg : node.children.getLast().children) {
           args.add(eval(arg));
         }
+      }
+      define(node, construct(clazz, args));
+      return null;
+    }
+    Function fn = callee(node);
+    return call(fn, evalArgs(node, fn), node);
+  }
+
+  /** Aufgerufene Funktion, Methoden ohne this-> kommen aus der vtable des Empfängers. */
+  private Function callee(ASTNode node) {
+    if (node.isMember()) {
+      Instance self = self();
+      return self.getMethod(memberOf(node).index(self));
+    }
+    return (Function) this.env.get(node.getValue());
+  }
+
+  /** Führt fn samt aller Aufrufe in Endposition aus, Methoden sind bereits an this gebunden. */
+  private Object call(Function fn, ArrayList<Object> args, ASTNode site) {
+    if (profiler != null) {
+      profiler.enter(fn.node);
+    }
+    if (callStack != null) {
+      callStack.push(fn.node, site);
+    }
+    MemoCache memo = fn.memo;
+    if (memo != null) {
+      Object cached = memo.get(args);
+      if (cached != null) {
+        if (profiler != null) {
+          profiler.exit();
+        }
+        if (callStack != null) {
+          callStack.pop();
+        }
+        return cached;
+      }
+    }
+    ArrayList<Object> key = args;
+    // Namen aller in diesem Aufruf ausgeführten Funktionen, auch der Endaufrufe
+    ArrayList<String> traced = tracer == null ? null : new ArrayList<>();
+    Environment prevEnv = this.env;
+    callDepth++;
+    try {
+      // Aufrufe in Endposition ersetzen den aktuellen Aufruf, statt den Java-Stack zu vergrößern
+      while (true) {
+        if (traced != null) {
+          traced.add(nameOf(fn));
+          tracer.call(traced.getLast(), args);
+        }
         this.env = new Environment(fn.closure);
-        for (int i = 0; i < argsNode.children.size(); i++) {
-          this.env.define(params.children.get(i).getValue(), args.get(i));
+        bindParams(fn, args);
+        ASTNode blockNode = fn.node.children.getLast();
+        if (blockNode != null && blockNode.getType() == Type.BLOCK) {
+          eval(blockNode);
+        }
+        if (tailFunction == null) {
+          break;
         }
+        if (profiler != null) {
+          profiler.exit();
+          profiler.enter(tailFunction.node);
+        }
+        if (callStack != null) {
+          callStack.replace(tailFunction.node);
+        }
+        fn = tailFunction;
+        args = tailArgs;
+        tailFunction = null;
+        tailArgs = null;
+        returning = false;
       }
+    } finally {
+      this.env = prevEnv;
+      callDepth--;
+      if (profiler != null) {
+        profiler.exit();
+      }
+      if (callStack != null) {
+        callStack.pop();
+      }
+    }
+
+    Object value = returnValue;
+    returning = false;
+    returnValue = null;
+    if (memo != null) {
+      memo.put(key, value);
     }
-    ASTNode blockNode = fn.node.children.getLast();
-    if (blockNode != null && blockNode.getType() == Type.BLOCK) {
-      eval(blockNode);
+    if (traced != null) {
+      // Endaufrufe liefern alle denselben Wert
+      for (int i = traced.size() - 1; i >= 0; i--) {
+        tracer.returned(traced.get(i), value);
+      }
     }
+    return value;
+  }
+
+  /** Legt ein Objekt an, ein einzelnes Objekt als Argument wählt den Copy-Konstruktor. */
+  private Instance construct(Clazz clazz, ArrayList<Object> args) {
+    Instance instance = new Instance(clazz);
+    construct(instance, clazz, args);
+    return instance;
+  }
 
-    this.env = prevEnv;
+  /**
+   * Führt den Konstruktor der Klasse clazz auf dem Objekt aus: erst den der Oberklasse mit den
+   * Argumenten hinter dem Doppelpunkt, dann die Initialisierung der eigenen Attribute, dann den
+   * Rumpf. Ein Copy-Konstruktor ohne Rumpf kopiert alle Felder.
+   */
+  private void construct(Instance instance, Clazz clazz, ArrayList<Object> args) {
+    Function constructor;
+    if (args.size() == 1 && args.getFirst() instanceof Instance source) {
+      constructor = clazz.getCopyConstructor();
+      if (constructor == null || constructor.node.children.getLast().getType() != Type.BLOCK) {
+        instance.copyFrom(source);
+        return;
+      }
+    } else {
+      constructor = null;
+      for (Function candidate : clazz.getConstructors()) {
+        ASTNode params = params(candidate);
+        if ((params == null ? 0 : params.children.size()) == args.size()) {
+          constructor = candidate;
+          break;
+        }
+      }
+      if (constructor == null && !(args.isEmpty() && clazz.getConstructors().isEmpty())) {
+        throw new RuntimeException(
+            "No constructor of " + clazz.getName() + " takes " + args.size() + " arguments");
+      }
+    }
+
+    Environment prevEnv = this.env;
+    try {
+      Environment closure = constructor == null ? prevEnv : constructor.closure;
+      this.env = new Environment(instance.receiver(closure));
+      ArrayList<Object> baseArgs = new ArrayList<>();
+      if (constructor != null) {
+        if (constructor.node.getType() == Type.COPY_CONSTRUCTOR) {
+          define(constructor.node.children.getFirst(), args.getFirst());
+        } else {
+          bindParams(constructor, args);
+        }
+        for (ASTNode child : constructor.node.children) {
+          if (child.getType() == Type.ARGS) {
+            for (ASTNode arg : child.children) {
+              baseArgs.add(eval(arg));
+            }
+          }
+        }
+      }
+      if (clazz.getSuperClazz() != null) {
+        construct(instance, clazz.getSuperClazz(), baseArgs);
+      }
+      for (Attribute attribute : clazz.getOwnAttributes()) {
+        if (attribute.node.getType() == Type.VAR_DECL && attribute.node.children.size() == 2) {
+          String name = attribute.node.children.getFirst().getValue();
+          instance.setField(clazz.attributeIndex(name), eval(attribute.node.children.getLast()));
+        }
+      }
+      ASTNode block =
+          constructor == null || constructor.node.children.isEmpty()
+              ? null
+              : constructor.node.children.getLast();
+      if (block != null && block.getType() == Type.BLOCK) {
+        eval(block);
+      }
+    } finally {
+      this.env = prevEnv;
+      returning = false;
+      returnValue = null;
+    }
+  }
+
+  private static String nameOf(Function fn) {
+    ASTNode fnInfo = fn.node.children.isEmpty() ? null : fn.node.children.getFirst();
+    if (fn.node.getType() == Type.FN_DECL && fnInfo != null && !fnInfo.children.isEmpty()) {
+      return fnInfo.children.getFirst().getValue();
+    }
+    return fn.node.getValue();
+  }
+
+  private ArrayList<Object> evalArgs(ASTNode node, Function fn) {
+    ArrayList<Object> args = new ArrayList<>();
+    ASTNode params = params(fn);
+    if (!node.children.isEmpty() && params != null) {
+      ArrayList<ASTNode> argNodes = node.children.getFirst().children;
+      for (int i = 0; i < argNodes.size(); i++) {
+        ASTNode param = i < params.children.size() ? params.children.get(i) : null;
+        args.add(evalArg(argNodes.get(i), param));
+      }
+    }
+    return args;
+  }
+
+  /** Referenzparameter erhalten den Speicherort, Objekte als Wert eine Kopie. */
+  private Object evalArg(ASTNode arg, ASTNode param) {
+    if (param != null && isRef(param)) {
+      return referenceTo(arg);
+    }
+    Object value = eval(arg);
+    if (param != null && param.getType() == Type.CLASSTYPE && value instanceof Instance source) {
+      ArrayList<Object> args = new ArrayList<>();
+      args.add(source);
+      return construct((Clazz) this.env.get(param.children.getFirst().getValue()), args);
+    }
+    return value;
+  }
 
+  private static boolean isRef(ASTNode param) {
+    for (ASTNode child : param.children) {
+      if (child.getType() == Type.REF) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Ziel einer Referenz: Objekte und Arrays selbst, Variablen und Attribute als {@link Alias}. */
+  private Object referenceTo(ASTNode node) {
+    if (node.getType() == Type.ID && node.hasSlot()) {
+      return this.env.reference(node.getDepth(), node.getSlot());
+    } else if (node.getType() == Type.ID && node.isMember()) {
+      Instance self = self();
+      return fieldReference(self, memberOf(node).index(self));
+    } else if (node.getType() == Type.OBJ_USAGE && !isThis(node)) {
+      Instance instance = receiverOf(node);
+      InlineCache cache = cacheOf(node);
+      if (!cache.isMethod()) {
+        return fieldReference(instance, cache.index(instance));
+      }
+    }
+    return eval(node);
+  }
+
+  private static Object fieldReference(Instance instance, int index) {
+    return instance.isPrimitive(index) ? new Alias(instance, index) : instance.getField(index);
+  }
+
+  private void bindParams(Function fn, ArrayList<Object> args) {
+    ASTNode params = params(fn);
+    for (int i = 0; i < args.size(); i++) {
+      define(params.children.get(i), args.get(i));
+    }
+  }
+
+  private static ASTNode params(Function fn) {
+    for (ASTNode child : fn.node.children) {
+      if (child.getType() == Type.PARAMS) {
+        return child;
+      }
+    }
     return null;
   }
 
+  /** Ob ein {@code return f(...)} als Endaufruf von {@link #evalFnCall} übernommen werden kann. */
+  private boolean isTailCall(ASTNode expression) {
+    return callDepth > 0
+        && expression.getType() == Type.FN_CALL
+        && (expression.children.isEmpty() || expression.children.getFirst().getType() == Type.ARGS)
+        && !(expression.getScope().resolve(expression.getValue()) instanceof BuiltIn)
+        && (expression.isMember() || this.env.get(expression.getValue()) instanceof Function);
+  }
+
   public Object evalFnDecl(ASTNode node) {
     if (node.children.getLast().getType() != Type.BLOCK) {
       return null;
@@ -185,11 +664,14 @@ public class Interpreter {
     SymbolTable.Function func =
         (SymbolTable.Function) node.getScope().resolve(fnInfo.children.getFirst().getValue());
     if (func == null) {
-      System.out.println(
+      printError(
           "Error: the function " + fnInfo.children.getFirst().getValue() + " is not implemented");
       return null;
     }
     Function fn = new Function(node, this.env);
+    if (func.isPure()) {
+      fn.memo = MemoCache.create();
+    }
     this.env.define(fnInfo.children.getFirst().getValue(), fn);
     return null;
   }
@@ -197,117 +679,197 @@ public class Interpreter {
   public Object evalChildren(ASTNode node) {
     for (ASTNode child : node.children) {
       eval(child);
+      if (returning) {
+        break;
+      }
     }
     return null;
   }
 
+  private Object lookup(ASTNode node) {
+    if (node.hasSlot()) {
+      return this.env.get(node.getDepth(), node.getSlot());
+    } else if (node.isMember()) {
+      Instance self = self();
+      return self.getField(memberOf(node).index(self));
+    }
+    return this.env.get(node.getValue());
+  }
+
+  private int lookupInt(ASTNode node) {
+    if (node.hasSlot()) {
+      return this.env.getInt(node.getDepth(), node.getSlot());
+    } else if (node.isMember()) {
+      Instance self = self();
+      return self.getInt(memberOf(node).index(self));
+    }
+    return convertToInteger(this.env.get(node.getValue()));
+  }
+
+  private Object lookupObject(ASTNode node) {
+    if (node.hasSlot()) {
+      return this.env.getObject(node.getDepth(), node.getSlot());
+    } else if (node.isMember()) {
+      Instance self = self();
+      int index = memberOf(node).index(self);
+      return self.isPrimitive(index) ? null : self.getField(index);
+    }
+    return this.env.get(node.getValue());
+  }
+
+  /** Empfänger der laufenden Methode, seine Attribute werden über die Shape gelesen. */
+  private Instance self() {
+    if (this.env.get("this") instanceof Instance self) {
+      return self;
+    }
+    throw new RuntimeException("No object for attribute access outside of a method");
+  }
+
+  private static InlineCache memberOf(ASTNode node) {
+    if (node.getCache() instanceof InlineCache cache) {
+      return cache;
+    }
+    InlineCache cache =
+        new InlineCache(
+            node.getValue(), node.getType() == Type.FN_CALL, enclosingClass(node.getScope()));
+    node.setCache(cache);
+    return cache;
+  }
+
+  private void define(ASTNode node, Object value) {
+    if (node.hasSlot() && node.getDepth() == 0) {
+      this.env.define(node.getSlot(), node.getValue(), value);
+    } else {
+      this.env.define(node.getValue(), value);
+    }
+  }
+
+  private void defineInt(ASTNode node, int value, byte kind) {
+    if (node.hasSlot() && node.getDepth() == 0) {
+      this.env.define(node.getSlot(), node.getValue(), value, kind);
+    } else {
+      Object boxed =
+          switch (kind) {
+            case Environment.BOOL -> value != 0;
+            case Environment.CHAR -> (char) value;
+            default -> value;
+          };
+      this.env.define(node.getValue(), boxed);
+    }
+  }
+
+  private void assignInt(ASTNode node, int value) {
+    if (node.hasSlot()) {
+      this.env.assign(node.getDepth(), node.getSlot(), value);
+    } else if (node.isMember()) {
+      Instance self = self();
+      int index = memberOf(node).index(self);
+      if (self.isPrimitive(index)) {
+        self.setInt(index, value);
+      } else {
+        self.setField(index, value);
+      }
+    } else {
+      this.env.assign(node.getValue(), value);
+    }
+  }
+
+  private void assign(ASTNode node, Object value) {
+    if (node.hasSlot()) {
+      this.env.assign(node.getDepth(), node.getSlot(), value);
+    } else if (node.isMember()) {
+      Instance self = self();
+      self.setField(memberOf(node).index(self), value);
+    } else {
+      this.env.assign(node.getValue(), value);
+    }
+  }
+
   public Object evalAssign(ASTNode node) {
     ASTNode firstChild = node.children.getFirst();
-    String name = firstChild.getValue();
     ASTNode secondChild = node.children.getLast();
-    Object value = eval(secondChild);
     if (firstChild.getType() == Type.OBJ_USAGE) {
-      Attribute attribute = (Attribute) evalObjUsage(firstChild);
-      name = attribute.node.children.getFirst().getValue();
-      int num = convertToInteger(value);
+      evalFieldAssign(node, firstChild, secondChild);
       return null;
     } else if (firstChild.getType() == Type.ARRAY_ITEM) {
-      Object array = this.env.get(name);
-      int[] indices = new int[firstChild.children.size()];
-      for (int i = 0; i < indices.length; i++) {
-        indices[i] = convertToInteger(eval(firstChild.children.get(i)));
+      int value = evalInt(secondChild);
+      Object array = lookup(firstChild);
+      int[] indices = arrayIndices(firstChild, array);
+      if (indices != null) {
+        FlatArray flatArray = (FlatArray) array;
+        flatArray.setInt(flatArray.index(indices), value);
+        assign(firstChild, array);
       }
-      setArrayItem(array, value, indices);
-      this.env.assign(name, array);
       return null;
     }
-    int old = convertToInteger(this.env.get(secondChild.getValue()));
-    int num = convertToInteger(value);
+    if (node.getValue().equals("=")
+        && secondChild.getType() == Type.ID
+        && lookupObject(firstChild) instanceof Instance target
+        && lookupObject(secondChild) instanceof Instance source) {
+      // operator= kopiert alle Felder auf einmal
+      target.copyFrom(source);
+      return null;
+    }
+    int num = evalInt(secondChild);
     switch (node.getValue()) {
-      case "+=" -> this.env.assign(name, old + num);
-      case "-=" -> this.env.assign(name, old - num);
-      case "*=" -> this.env.assign(name, old * num);
-      case "/=" -> this.env.assign(name, old / num);
-      default -> this.env.assign(name, num);
+      case "+=" -> assignInt(firstChild, lookupInt(firstChild) + num);
+      case "-=" -> assignInt(firstChild, lookupInt(firstChild) - num);
+      case "*=" -> assignInt(firstChild, lookupInt(firstChild) * num);
+      case "/=" -> assignInt(firstChild, lookupInt(firstChild) / num);
+      default -> assignInt(firstChild, num);
     }
-    evalTrailingDecInc(secondChild);
     return null;
   }
 
-  private void evalTrailingDecInc(ASTNode node) {
-    Object value;
-    if (node.getType() == Type.DEC_INC) {
-      ASTNode firstChild = node.children.getFirst();
-      ASTNode lastChild = node.children.getLast();
-      if (lastChild.getType() == Type.DEC) {
-        Object obj = eval(firstChild);
-        value =
-            switch (obj) {
-              case Integer i -> i - 1;
-              case Boolean b -> convertToBoolean(convertToInteger(b) - 1);
-              case Character c -> c - 1;
-              default -> throw new IllegalStateException("Unexpected value: " + obj);
-            };
-        this.env.assign(firstChild.getValue(), value);
-      } else if (lastChild.getType() == Type.INC) {
-        Object obj = eval(firstChild);
-        value =
-            switch (obj) {
-              case Integer i -> i + 1;
-              case Boolean b -> convertToBoolean(convertToInteger(b) + 1);
-              case Character c -> c + 1;
-              default -> throw new IllegalStateException("Unexpected value: " + obj);
-            };
-        this.env.assign(firstChild.getValue(), value);
-      }
-    }
-  }
-
-  public Object evalDecInc(ASTNode node) {
+  private void evalFieldAssign(ASTNode node, ASTNode target, ASTNode valueNode) {
+    Instance instance = receiverOf(target);
+    InlineCache cache = cacheOf(target);
+    if (cache.isMethod()) {
+      throw new RuntimeException("Cannot assign to a method call");
+    }
+    int index = cache.index(instance);
+    if (!instance.isPrimitive(index)) {
+      instance.setField(index, eval(valueNode));
+      return;
+    }
+    int num = evalInt(valueNode);
+    switch (node.getValue()) {
+      case "+=" -> instance.setInt(index, instance.getInt(index) + num);
+      case "-=" -> instance.setInt(index, instance.getInt(index) - num);
+      case "*=" -> instance.setInt(index, instance.getInt(index) * num);
+      case "/=" -> instance.setInt(index, instance.getInt(index) / num);
+      default -> instance.setInt(index, num);
+    }
+  }
+
+  public int evalDecInc(ASTNode node) {
     ASTNode firstChild = node.children.getFirst();
     ASTNode lastChild = node.children.getLast();
     if (firstChild.getType() == Type.DEC) {
-      Object obj = eval(lastChild);
-      Object value =
-          switch (obj) {
-            case Integer i -> i - 1;
-            case Boolean b -> convertToBoolean(convertToInteger(b) - 1);
-            case Character c -> c - 1;
-            default -> throw new IllegalStateException("Unexpected value: " + obj);
-          };
-      this.env.assign(lastChild.getValue(), value);
+      int value = lookupInt(lastChild) - 1;
+      assignInt(lastChild, value);
       return value;
     } else if (firstChild.getType() == Type.INC) {
-      Object obj = eval(lastChild);
-      Object value =
-          switch (obj) {
-            case Integer i -> i + 1;
-            case Boolean b -> convertToBoolean(convertToInteger(b) + 1);
-            case Character c -> c + 1;
-            default -> throw new IllegalStateException("Unexpected value: " + obj);
-          };
-      this.env.assign(lastChild.getValue(), value);
+      int value = lookupInt(lastChild) + 1;
+      assignInt(lastChild, value);
       return value;
     } else if (lastChild.getType() == Type.DEC || lastChild.getType() == Type.INC) {
-      Object obj = eval(firstChild);
-      return switch (obj) {
-        case Integer i -> i;
-        case Boolean b -> convertToBoolean(convertToInteger(b));
-        case Character c -> c;
-        default -> throw new IllegalStateException("Unexpected value: " + obj);
-      };
+      // Postfix: der alte Wert ist das Ergebnis
+      int value = lookupInt(firstChild);
+      assignInt(firstChild, lastChild.getType() == Type.DEC ? value - 1 : value + 1);
+      return value;
     }
-    return null;
+    return 0;
   }
 
   public Object evalArrayRef(ASTNode node) {
     ASTNode arrayNameNode = node.children.getLast();
     String arrayName = arrayNameNode.getValue();
 
-    Object arrayObject = this.env.get(arrayName);
+    Object arrayObject = lookup(arrayNameNode);
 
     if (arrayObject == null) {
-      System.out.println("Error: Array " + arrayName + " not found in the current environment");
+      printError("Error: Array " + arrayName + " not found in the current environment");
       return null;
     }
 
@@ -315,7 +877,11 @@ public class Interpreter {
       arrayObject = eval(arrayNameNode);
     }
 
-    int[] sizes = getArraySizes(arrayObject);
+    if (!(arrayObject instanceof FlatArray flatArray)) {
+      printError("Error: " + arrayName + " is not an array");
+      return null;
+    }
+    int[] sizes = flatArray.sizes();
     int[] indices = new int[node.children.getFirst().children.size()];
 
     for (int i = 0; i < indices.length; i++) {
@@ -324,25 +890,24 @@ public class Interpreter {
 
     if (arrayNameNode.children.isEmpty()) {
       if (indices.length != sizes.length) {
-        System.out.println("Error: Dimension mismatch");
+        printError("Error: Dimension mismatch");
         return null;
       }
     } else if (arrayNameNode.children.getFirst().getType() != Type.ID) {
       int index = Integer.parseInt(arrayNameNode.children.getFirst().getValue());
 
       if (index >= sizes.length || index < 0) {
-        System.out.println(
-            "Error: Index " + index + " out of bounds for dimensions of array " + arrayName);
+        printError("Error: Index " + index + " out of bounds for dimensions of array " + arrayName);
         return null;
       } else if (indices[index] != sizes[index]) {
-        System.out.println("Error: Dimension mismatch");
+        printError("Error: Dimension mismatch");
         return null;
       }
     }
 
     for (int i = 0; i < indices.length; i++) {
       if (indices[i] != sizes[i]) {
-        System.out.println(
+        printError(
             "Error: Index "
                 + indices[i]
                 + " out of bounds for dimension "
@@ -360,23 +925,26 @@ public class Interpreter {
     ASTNode firstChild = node.children.getFirst();
     ASTNode lastChild = node.children.getLast();
 
-    String name = firstChild.getValue();
-    Type type = firstChild.getType();
     int[] sizes = countArray(lastChild);
-
-    Object array =
-        switch (type) {
-          case Type.INT -> Array.newInstance(int.class, sizes);
-          case Type.BOOL -> Array.newInstance(boolean.class, sizes);
-          case Type.CHAR -> Array.newInstance(char.class, sizes);
-          default -> Array.newInstance(Object.class, sizes);
-        };
-
-    env.define(name, array);
+    FlatArray array = new FlatArray(kindOf(firstChild.getType()), sizes);
+    // die Werte liegen zeilenweise im flachen Speicher, also in der Reihenfolge der Initialisierung
+    fillArray(array, lastChild, 0);
+    define(firstChild, array);
 
     return null;
   }
 
+  private int fillArray(FlatArray array, ASTNode node, int index) {
+    for (ASTNode child : node.children) {
+      if (child.getType() == Type.ARRAY) {
+        index = fillArray(array, child, index);
+      } else if (index < array.length()) {
+        array.setInt(index++, evalInt(child));
+      }
+    }
+    return index;
+  }
+
   public int[] countArray(ASTNode node) {
     int[] sizes = new int[0];
     if (node.children.getFirst().getType() == Type.ARRAY) {
@@ -403,84 +971,96 @@ public class Interpreter {
 
   public Object evalArrayDecl(ASTNode node) {
     ASTNode firstChild = node.children.getFirst();
-    String name = firstChild.getValue();
     Type type = firstChild.getType();
     int dim = firstChild.children.size();
     int[] sizes = new int[dim];
     for (int i = 0; i < dim; i++) {
       sizes[i] = convertToInteger(eval(firstChild.children.get(i)));
     }
-    Object array =
-        switch (type) {
-          case Type.INT -> Array.newInstance(int.class, sizes);
-          case Type.BOOL -> Array.newInstance(boolean.class, sizes);
-          case Type.CHAR -> Array.newInstance(char.class, sizes);
-          default -> Array.newInstance(Object.class, sizes);
-        };
-    env.define(name, array);
+    define(firstChild, new FlatArray(kindOf(type), sizes));
     return null;
   }
 
   public Object evalVarDecl(ASTNode node) {
     ASTNode firstChild = node.children.getFirst();
-    String name = firstChild.getValue();
     Type type = firstChild.getType();
-    Object value =
-        switch (type) {
-          case Type.INT -> 0;
-          case Type.BOOL -> false;
-          case Type.CHAR -> (char) 0;
-          default -> new Instance((Clazz) this.env.get(firstChild.children.getFirst().getValue()));
-        };
-    if (node.children.size() == 2) {
-      ASTNode secondChild = node.children.getLast();
-      value =
-          switch (type) {
-            case Type.INT -> convertToInteger(eval(secondChild));
-            case Type.BOOL -> convertToBoolean(eval(secondChild));
-            case Type.CHAR -> convertToCharacter(eval(secondChild));
-            default -> eval(secondChild);
-          };
-    }
-    this.env.define(name, value);
-    if (node.children.size() == 2) {
-      ASTNode secondChild = node.children.getLast();
-      evalTrailingDecInc(secondChild);
+    boolean initialized = node.children.size() == 2;
+    byte kind = kindOf(type);
+    if (kind != Environment.OBJECT) {
+      defineInt(firstChild, initialized ? evalInt(node.children.getLast()) : 0, kind);
+    } else {
+      // A x = y ruft den Copy-Konstruktor, A x den Standardkonstruktor
+      ArrayList<Object> args = new ArrayList<>();
+      if (initialized && eval(node.children.getLast()) instanceof Instance source) {
+        args.add(source);
+      }
+      define(
+          firstChild,
+          construct((Clazz) this.env.get(firstChild.children.getFirst().getValue()), args));
     }
     return null;
   }
 
+  static byte kindOf(Type type) {
+    return switch (type) {
+      case Type.INT -> Environment.INT;
+      case Type.BOOL -> Environment.BOOL;
+      case Type.CHAR -> Environment.CHAR;
+      default -> Environment.OBJECT;
+    };
+  }
+
   public Object evalVarRef(ASTNode node) {
-    ASTNode firstChild = node.children.getFirst();
-    String name = firstChild.getValue();
-    ASTNode secondChild = node.children.getLast();
-    if (secondChild.getType() == Type.ID) {
-      this.env.define(name, secondChild.getValue());
-    } else {
-      Object obj = eval(node.children.getLast());
-      this.env.define(name, obj);
-    }
+    // eine Referenz auf ein Objekt teilt sich die Instanz mit ihm
+    define(node.children.getFirst(), referenceTo(node.children.getLast()));
     return null;
   }
 
   public Object evalArrayItem(ASTNode node) {
-    String arrayName = node.getValue();
-    Object arrayObject = this.env.get(arrayName);
+    Object arrayObject = lookup(node);
+    int[] indices = arrayIndices(node, arrayObject);
+    if (indices == null) {
+      return null;
+    }
+    return ((FlatArray) arrayObject).get(indices);
+  }
 
-    if (arrayObject == null) {
-      System.out.println("Error: array " + arrayName + " not found in the current environment");
+  private int evalArrayItemInt(ASTNode node) {
+    Object arrayObject = lookup(node);
+    int[] indices = arrayIndices(node, arrayObject);
+    if (indices == null) {
+      return 0;
+    }
+    FlatArray array = (FlatArray) arrayObject;
+    if (indices.length < array.dimensions()) {
+      return convertToInteger(array.get(indices));
+    }
+    return array.getInt(array.index(indices));
+  }
+
+  /**
+   * Prüft die Indizes eines Arrayzugriffs, bei einem Fehler wird null zurückgegeben. Von der {@link
+   * RangeAnalysis} markierte Zugriffe werden nicht geprüft.
+   */
+  private int[] arrayIndices(ASTNode node, Object arrayObject) {
+    String arrayName = node.getValue();
+    if (!(arrayObject instanceof FlatArray array)) {
+      printError("Error: array " + arrayName + " not found in the current environment");
       return null;
     }
 
-    int[] sizes = getArraySizes(arrayObject);
     int[] indices = new int[node.children.size()];
+    if (node.isInBounds()) {
+      for (int i = 0; i < indices.length; i++) {
+        indices[i] = evalInt(node.children.get(i));
+      }
+      return indices;
+    }
     for (int i = 0; i < node.children.size(); i++) {
-      ASTNode indexNode = node.children.get(i);
-      Object evaluatedIndex = eval(indexNode);
-      int index = convertToInteger(evaluatedIndex);
+      int index = evalInt(node.children.get(i));
 
-      if (index < 0 || index >= sizes[i]) {
-        System.out.println(
+      if (index < 0 || index >= array.size(i)) {
+        printError(
             "Error: index "
                 + index
                 + " is out of bounds for dimension "
@@ -488,87 +1068,49 @@ public class Interpreter {
                 + " of array "
                 + arrayName
                 + " (size: "
-                + sizes[i]
+                + array.size(i)
                 + ")");
         return null;
       }
       indices[i] = index;
     }
-    return getArrayItem(arrayObject, indices);
-  }
-
-  private Object getArrayItem(Object array, int[] indices) {
-    Object currentArray = array;
-
-    for (int i = 0; i < indices.length - 1; i++) {
-      currentArray = Array.get(currentArray, indices[i]);
-    }
-
-    return Array.get(currentArray, indices[indices.length - 1]);
-  }
-
-  private void setArrayItem(Object array, Object value, int[] indices) {
-    Object currentArray = array;
-
-    for (int i = 0; i < indices.length - 1; i++) {
-      currentArray = Array.get(currentArray, indices[i]);
-    }
-
-    Array.set(currentArray, indices[indices.length - 1], value);
-  }
-
-  private int[] getArraySizes(Object array) {
-    int dimensions = 0;
-    java.lang.Class<?> clazz = array.getClass();
-
-    // Anzahl der Dimensionen ermitteln
-    while (clazz.isArray()) {
-      dimensions++;
-      clazz = clazz.getComponentType();
-    }
-
-    int[] sizes = new int[dimensions];
-    Object currentArray = array;
-
-    // Größen der einzelnen Dimensionen ermitteln
-    for (int i = 0; i < dimensions; i++) {
-      sizes[i] = Array.getLength(currentArray);
-      if (sizes[i] > 0) {
-        currentArray = Array.get(currentArray, 0);
-      }
-    }
-
-    return sizes;
+    return indices;
   }
 
   public Object evalWhile(ASTNode node) {
-    while (convertToBoolean(eval(node.children.getFirst()))) {
-      eval(node.children.getLast());
+    ASTNode condition = node.children.getFirst();
+    ASTNode body = node.children.getLast();
+    // der Frame des Schleifenrumpfs wird pro Iteration geleert statt neu angelegt
+    Environment frame = new Environment(this.env);
+    while (!returning && evalBool(condition)) {
+      if (profiler != null) {
+        profiler.count(body);
+      }
+      frame.clear();
+      evalBlock(body, frame);
     }
     return null;
   }
 
   public Object evalIf(ASTNode node) {
-    for (int i = 0; i < node.children.size(); i++) {
-      if (node.children.get(i).getType() != Type.BLOCK) {
-        if (convertToBoolean(eval(node.children.get(i)))) {
-          eval(node.children.get(i + 1));
-          return null;
-        }
-      } else if (node.children.get(i).getType() == Type.BLOCK && i == (node.children.size() - 1)) {
+    // Bedingungen und Blöcke wechseln sich ab, ein else-Block steht allein am Ende
+    for (int i = 0; i < node.children.size(); i += 2) {
+      if (i == node.children.size() - 1) {
         eval(node.children.get(i));
         return null;
       }
+      if (evalBool(node.children.get(i))) {
+        eval(node.children.get(i + 1));
+        return null;
+      }
     }
     return null;
   }
 
   public int evaluateCalculation(ASTNode node) {
     Type operator = node.getType();
-    Object l = eval(node.children.getFirst());
-    Object r = eval(node.children.getLast());
-    int left = convertToInteger(l);
-    int right = convertToInteger(r);
+    int left = evalInt(node.children.getFirst());
+    int right = evalInt(node.children.getLast());
     return switch (operator) {
       case Type.ADD -> left + right;
       case Type.SUB -> left - right;
@@ -580,12 +1122,18 @@ public class Interpreter {
   }
 
   public Object evalBlock(ASTNode node) {
+    return evalBlock(node, new Environment(this.env));
+  }
+
+  private Object evalBlock(ASTNode node, Environment frame) {
     Environment prevEnv = this.env;
     try {
-      this.env = new Environment(this.env);
+      this.env = frame;
       evalChildren(node);
     } finally {
-      this.env.print();
+      if (tracer != null) {
+        tracer.blockExit(this.env.variables());
+      }
       this.env = prevEnv;
     }
     return null;
@@ -594,10 +1142,8 @@ public class Interpreter {
   public boolean evaluateComparison(ASTNode node) {
     Type operator = node.getType();
 
-    Object l = eval(node.children.getFirst());
-    Object r = eval(node.children.getLast());
-    int left = convertToInteger(l);
-    int right = convertToInteger(r);
+    int left = evalInt(node.children.getFirst());
+    int right = evalInt(node.children.getLast());
 
     return switch (operator) {
       case Type.GREATER -> left > right;
@@ -610,18 +1156,15 @@ public class Interpreter {
     };
   }
 
+  // der rechte Operand wird wie in C++ nur ausgewertet, wenn er das Ergebnis noch bestimmt
   public boolean evaluateLogical(ASTNode node) {
     Type operator = node.getType();
 
-    Object l = eval(node.children.getFirst());
-    Object r = eval(node.children.getLast());
-
-    boolean left = convertToBoolean(l);
-    boolean right = convertToBoolean(r);
+    boolean left = evalBool(node.children.getFirst());
 
     return switch (operator) {
-      case Type.AND -> left && right;
-      case Type.OR -> left || right;
+      case Type.AND -> left && evalBool(node.children.getLast());
+      case Type.OR -> left || evalBool(node.children.getLast());
       default -> throw new IllegalStateException("Unexpected value: " + operator);
     };
   }
@@ -662,18 +1205,21 @@ public class Interpreter {
     return chr;
   }
 
-  private void print_int(Object object) {
-    int i = convertToInteger(object);
-    System.out.println("Print int: " + i);
+  private void print_int(int i) {
+    out.printInt(i);
+  }
+
+  private void print_char(char c) {
+    out.printChar(c);
   }
 
-  private void print_char(Object object) {
-    char c = convertToCharacter(object);
-    System.out.println("Print char: " + c);
+  private void print_bool(boolean b) {
+    out.printBool(b);
   }
 
-  private void print_bool(Object object) {
-    boolean b = convertToBoolean(object);
-    System.out.println("Print bool: " + b);
+  // Laufzeitfehler erscheinen erst nach der bis dahin gepufferten Ausgabe
+  private void printError(String message) {
+    out.flush();
+    diagnostics.error(message);
   }
 }
@@ -1,13 +1,23 @@
 import AST.ASTNode;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import org.antlr.v4.runtime.CharStreams;
 import org.antlr.v4.runtime.CommonTokenStream;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 public class Main {
+  // Trace des Interpreters, nur mit --trace bzw. --trace-file=<pfad>
+  private static Tracing.TraceListener trace;
+  // nur mit --profile, gilt für den Baum-Interpreter
+  private static boolean profile;
+  // Ziel der Stichproben im Collapsed-Stack-Format, nur mit --sample=<pfad>
+  private static Path samples;
 
   public static String readFileWithPaths(String relativePath) {
     Path filePath = Paths.get(relativePath);
@@ -21,9 +31,55 @@ public class Main {
 
   public static void main(String... args) throws IOException {
 
-    String relativePath = "src/main/antlr/test_files/vars.cpp";
+    List<Path> paths = new ArrayList<>();
+    String mode = "tree";
+    int jobs = Runtime.getRuntime().availableProcessors();
+    // Socket des Servers, leer für stdin/stdout
+    String serve = null;
+    for (String arg : args) {
+      if (arg.startsWith("--mode=")) {
+        mode = arg.substring("--mode=".length());
+      } else if (arg.startsWith("--memo=")) {
+        Environment.MemoCache.capacity = Integer.parseInt(arg.substring("--memo=".length()));
+      } else if (arg.startsWith("--jobs=")) {
+        jobs = Integer.parseInt(arg.substring("--jobs=".length()));
+      } else if (arg.equals("--serve")) {
+        serve = "";
+      } else if (arg.startsWith("--serve=")) {
+        serve = arg.substring("--serve=".length());
+      } else if (arg.equals("--profile")) {
+        profile = true;
+      } else if (arg.startsWith("--sample=")) {
+        samples = Paths.get(arg.substring("--sample=".length()));
+      } else if (arg.equals("--trace")) {
+        trace = new Tracing.ConsoleTrace();
+      } else if (arg.startsWith("--trace-file=")) {
+        trace = new Tracing.FileTrace(Paths.get(arg.substring("--trace-file=".length())));
+      } else {
+        paths.add(Paths.get(arg));
+      }
+    }
+    if (paths.isEmpty()) {
+      paths.add(Paths.get("src/main/antlr/test_files/vars.cpp"));
+    }
+    boolean batch = paths.size() > 1 || Files.isDirectory(paths.getFirst());
+    if ((serve != null || batch) && (trace != null || profile || samples != null)) {
+      System.out.println("Error: --trace, --profile and --sample need a single file");
+      System.exit(2);
+    }
+    if (serve != null) {
+      serve(serve, jobs);
+      return;
+    }
+    // mehrere Dateien oder ein Verzeichnis: alle parallel prüfen und ausführen
+    if (batch) {
+      if (!compileBatch(BatchCompiler.collect(paths), mode, jobs)) {
+        System.exit(1);
+      }
+      return;
+    }
 
-    String input = readFileWithPaths(relativePath);
+    String input = readFileWithPaths(paths.getFirst().toString());
     if (input != null) {
       System.out.println("Input file:\n" + input);
     }
@@ -50,13 +106,223 @@ public class Main {
     scopeVisitor2.currentScope.print();
     scopedAst.print();
 
+    DeadCodeEliminator deadCodeEliminator = new DeadCodeEliminator();
+    deadCodeEliminator.eliminate(scopedAst);
+
     TypeCheckVisitor typeCheckVisitor = new TypeCheckVisitor(scopeVisitor.currentScope);
     typeCheckVisitor.visit(scopedAst);
     System.out.println("\nType Check Run:");
     typeCheckVisitor.currentScope.print();
 
-    Interpreter interpreter = new Interpreter();
+    new ConstantFolder().fold(scopedAst);
+    // entfernt, was durch die Faltung unerreichbar geworden ist
+    deadCodeEliminator.eliminate(scopedAst);
+    System.out.println("\nConstant Folding Run:");
+    scopedAst.print();
+
+    // markiert Arrayzugriffe, deren Indizes sicher in den Grenzen liegen
+    new RangeAnalysis().analyze(scopedAst);
+    // markiert Funktionen, deren Aufrufe memoisiert werden können
+    new PurityAnalysis().analyze(scopedAst);
+
     System.out.println("\nInterpret Run:");
-    interpreter.eval(scopedAst);
+    // die Konsolen-Trace wird zeilenweise geschrieben, die Ausgabe muss dazwischen passen
+    Output.OutputSink out =
+        Output.ChannelSink.stdout(
+            trace instanceof Tracing.ConsoleTrace
+                ? Output.ChannelSink.MAX_LINE
+                : Output.ChannelSink.DEFAULT_CAPACITY);
+    try {
+      execute(scopedAst, mode, out);
+    } finally {
+      out.flush();
+      // auch nach einem Laufzeitfehler soll die Trace bis zum Fehler in der Datei stehen
+      if (trace instanceof Tracing.FileTrace fileTrace) {
+        fileTrace.close();
+      }
+    }
+  }
+
+  /** Gibt pro Datei Status, Zeiten und Meldungen aus, {@code false} wenn eine fehlschlug. */
+  private static boolean compileBatch(List<Path> files, String mode, int jobs) {
+    long start = System.nanoTime();
+    List<BatchCompiler.Result> results;
+    try (BatchCompiler compiler = new BatchCompiler(jobs)) {
+      results = compiler.compile(files, mode);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    long wall = System.nanoTime() - start;
+
+    long total = 0;
+    int failed = 0;
+    for (BatchCompiler.Result result : results) {
+      total += result.parseNanos() + result.analysisNanos() + result.runNanos();
+      if (result.failed()) {
+        failed++;
+      }
+      System.out.printf(
+          "%-4s %s: parse %.1f ms, analysis %.1f ms, run %.1f ms%n",
+          result.failed() ? "FAIL" : "ok",
+          result.file(),
+          result.parseNanos() / 1e6,
+          result.analysisNanos() / 1e6,
+          result.runNanos() / 1e6);
+      for (String line : result.diagnostics()) {
+        System.out.println("     " + line);
+      }
+    }
+    System.out.printf(
+        "%d files, %d failed, %d jobs, %.1f ms wall, %.1f ms total%n",
+        results.size(), failed, jobs, wall / 1e6, total / 1e6);
+    return failed == 0;
+  }
+
+  /** Ohne Socket liest der Server Anfragen von stdin und antwortet auf stdout. */
+  private static void serve(String socket, int jobs) throws IOException {
+    PrintStream stdout = System.out;
+    // sonstige Konsolenausgaben dürfen die Antworten nicht stören
+    System.setOut(System.err);
+    try (BatchCompiler compiler =
+        new BatchCompiler(jobs, new IncrementalCompiler(IncrementalCompiler.DEFAULT_CAPACITY))) {
+      CompileServer server = new CompileServer(compiler);
+      server.warmUp(jobs * 6);
+      if (socket.isEmpty()) {
+        server.handle(System.in, Channels.newChannel(stdout));
+      } else {
+        server.serve(Paths.get(socket));
+      }
+    } finally {
+      System.setOut(stdout);
+    }
+  }
+
+  /** Führt das geprüfte Programm im gewählten Modus aus, die print-BuiltIns schreiben in out. */
+  public static void execute(ASTNode scopedAst, String mode, Output.OutputSink out)
+      throws IOException {
+    execute(scopedAst, mode, out, new Output.Diagnostics());
+  }
+
+  /** Laufzeitfehler und Hinweise auf den Rückfall gehen an {@code diagnostics}. */
+  public static void execute(
+      ASTNode scopedAst, String mode, Output.OutputSink out, Output.Diagnostics diagnostics)
+      throws IOException {
+    switch (mode) {
+      case "nodes" -> runNodes(scopedAst, out, diagnostics);
+      case "closures" -> runClosures(scopedAst, out, diagnostics);
+      case "vm" -> runBytecode(scopedAst, out, diagnostics, false);
+      case "jit" -> runBytecode(scopedAst, out, diagnostics, true);
+      case "stack" -> runStack(scopedAst, out, diagnostics);
+      default -> interpret(scopedAst, out, diagnostics);
+    }
+  }
+
+  private static void interpret(
+      ASTNode scopedAst, Output.OutputSink out, Output.Diagnostics diagnostics) throws IOException {
+    Interpreter interpreter = new Interpreter();
+    interpreter.setOutput(out);
+    interpreter.setDiagnostics(diagnostics);
+    if (trace != null) {
+      interpreter.addTraceListener(trace);
+    }
+    Tracing.Profiler profiler = profile ? new Tracing.Profiler(scopedAst) : null;
+    interpreter.setProfiler(profiler);
+    Tracing.Sampler sampler = null;
+    if (samples != null) {
+      Tracing.CallStack callStack = new Tracing.CallStack();
+      interpreter.setCallStack(callStack);
+      sampler =
+          new Tracing.Sampler(
+              scopedAst, callStack, samples, Tracing.Sampler.DEFAULT_INTERVAL_MICROS);
+      sampler.start();
+    }
+    try {
+      interpreter.eval(scopedAst);
+    } finally {
+      if (sampler != null) {
+        sampler.close();
+      }
+      if (profiler != null) {
+        out.flush();
+        profiler.report(System.out);
+      }
+    }
+  }
+
+  private static void runNodes(
+      ASTNode scopedAst, Output.OutputSink out, Output.Diagnostics diagnostics) throws IOException {
+    NodeBuilder nodeBuilder = new NodeBuilder();
+    nodeBuilder.setOutput(out);
+    nodeBuilder.setDiagnostics(diagnostics);
+    Nodes.Node program;
+    try {
+      program = nodeBuilder.build(scopedAst);
+    } catch (UnsupportedOperationException e) {
+      diagnostics.note(e.getMessage() + ", falling back to the tree interpreter");
+      interpret(scopedAst, out, diagnostics);
+      return;
+    }
+    nodeBuilder.run(program);
+  }
+
+  private static void runClosures(
+      ASTNode scopedAst, Output.OutputSink out, Output.Diagnostics diagnostics) throws IOException {
+    ClosureCompiler closureCompiler = new ClosureCompiler();
+    closureCompiler.setOutput(out);
+    Closures.Stmt program;
+    try {
+      program = closureCompiler.compile(scopedAst);
+    } catch (UnsupportedOperationException e) {
+      diagnostics.note(e.getMessage() + ", falling back to the tree interpreter");
+      interpret(scopedAst, out, diagnostics);
+      return;
+    }
+    closureCompiler.run(program);
+  }
+
+  private static void runStack(
+      ASTNode scopedAst, Output.OutputSink out, Output.Diagnostics diagnostics) throws IOException {
+    StackInterpreter stackInterpreter = new StackInterpreter();
+    stackInterpreter.setOutput(out);
+    try {
+      stackInterpreter.prepare(scopedAst);
+    } catch (UnsupportedOperationException e) {
+      diagnostics.note(e.getMessage() + ", falling back to the tree interpreter");
+      interpret(scopedAst, out, diagnostics);
+      return;
+    }
+    stackInterpreter.run(scopedAst);
+  }
+
+  private static void runBytecode(
+      ASTNode scopedAst, Output.OutputSink out, Output.Diagnostics diagnostics, boolean jit)
+      throws IOException {
+    Bytecode.Program program;
+    try {
+      program = new BytecodeCompiler().compile(scopedAst);
+    } catch (UnsupportedOperationException e) {
+      diagnostics.note(e.getMessage() + ", falling back to the tree interpreter");
+      interpret(scopedAst, out, diagnostics);
+      return;
+    }
+    if (jit) {
+      Bytecode.Jit compiled = new Bytecode.Jit(program);
+      try {
+        compiled.compile();
+      } catch (UnsupportedOperationException e) {
+        // zu große Funktionen laufen auf der VM, die keine Grenze für die Codelänge hat
+        diagnostics.note(e.getMessage() + ", falling back to the VM");
+        compiled = null;
+      }
+      if (compiled != null) {
+        compiled.setOutput(out);
+        compiled.run();
+        return;
+      }
+    }
+    Bytecode.VM vm = new Bytecode.VM(program);
+    vm.setOutput(out);
+    vm.run();
   }
 }
@@ -0,0 +1,338 @@
+import AST.ASTNode;
+import AST.Type;
+import Nodes.*;
+import Output.ChannelSink;
+import Output.Diagnostics;
+import Output.OutputSink;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Baut aus dem analysierten AST einmalig einen Baum ausführbarer {@link Node}s. Alle Block-Scopes
+ * einer Funktion werden dabei zu einem einzigen Frame zusammengelegt.
+ */
+public class NodeBuilder {
+  private final Map<String, FunctionRoot> functions = new HashMap<>();
+  private Scope globalScope;
+  private Frame globals;
+
+  // Startindex jedes Scopes im Frame der aktuell gebauten Funktion
+  private Map<Scope, Integer> bases = new HashMap<>();
+  private int frameSize;
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+  private Diagnostics diagnostics = new Diagnostics();
+
+  /** Vor {@link #build} aufrufen, die Knoten übernehmen die Ausgabe beim Bauen. */
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  /** Wie {@link #setOutput}, für Laufzeitfehler der Knoten. */
+  public void setDiagnostics(Diagnostics diagnostics) {
+    this.diagnostics = diagnostics;
+  }
+
+  public Object run(Node root) {
+    return root.execute(globals);
+  }
+
+  public Node build(ASTNode program) {
+    this.globalScope = program.getScope();
+    this.globals = new Frame(globalScope.slotCount);
+    ArrayList<Node> statements = new ArrayList<>();
+    for (ASTNode child : program.children) {
+      switch (child.getType()) {
+        case Type.FN_DECL -> buildFnDecl(child);
+        case Type.MAIN -> {
+          buildFunction("main", child.children.getFirst(), null, child.children.getLast());
+          statements.add(CallNode.create("main", new Node[0], functions));
+        }
+        default -> statements.add(buildStatement(child));
+      }
+    }
+    return new BlockNode(statements.toArray(new Node[0]));
+  }
+
+  private void buildFnDecl(ASTNode node) {
+    ASTNode fnInfo = node.children.getFirst();
+    if (node.children.getLast().getType() != Type.BLOCK) {
+      return;
+    }
+    if (fnInfo.getType() == Type.CLASSTYPE) {
+      throw unsupported(fnInfo);
+    }
+    ASTNode params =
+        node.children.stream().filter(n -> n.getType() == Type.PARAMS).findFirst().orElse(null);
+    buildFunction(fnInfo.children.getFirst().getValue(), fnInfo, params, node.children.getLast());
+  }
+
+  private void buildFunction(String name, ASTNode returnType, ASTNode params, ASTNode block) {
+    this.bases = new HashMap<>();
+    this.frameSize = 0;
+    int count = params == null ? 0 : params.children.size();
+    int[] paramSlots = new int[count];
+    Kind[] paramKinds = new Kind[count];
+    for (int i = 0; i < count; i++) {
+      ASTNode param = params.children.get(i);
+      if (!param.hasSlot() || !param.children.isEmpty()) {
+        throw unsupported(param);
+      }
+      paramSlots[i] = localIndex(param.getScope(), param.getSlot());
+      paramKinds[i] = Kind.of(param.getType().name().toLowerCase());
+    }
+    Node body = buildStatement(block);
+    Kind returnKind = Kind.of(returnType.getType().name().toLowerCase());
+    functions.put(
+        name, new FunctionRoot(name, frameSize, paramSlots, paramKinds, returnKind, body));
+  }
+
+  private int localIndex(Scope scope, int slot) {
+    Integer base = bases.get(scope);
+    if (base == null) {
+      base = frameSize;
+      frameSize += scope.slotCount;
+      bases.put(scope, base);
+    }
+    return base + slot;
+  }
+
+  private Scope definingScope(ASTNode node) {
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope;
+  }
+
+  private Kind declaredKind(ASTNode node) {
+    Symbol symbol = definingScope(node).symbols.get(node.getValue());
+    return symbol instanceof SymbolTable.Array ? Kind.OBJECT : Kind.of(symbol.type);
+  }
+
+  private Node read(ASTNode node) {
+    if (!node.hasSlot()) {
+      throw unsupported(node);
+    }
+    Scope scope = definingScope(node);
+    if (scope == globalScope) {
+      return ReadVariableNode.create(node.getSlot(), globals);
+    }
+    return ReadVariableNode.create(localIndex(scope, node.getSlot()), null);
+  }
+
+  private Node write(ASTNode node, Node value) {
+    if (!node.hasSlot()) {
+      throw unsupported(node);
+    }
+    Scope scope = definingScope(node);
+    Kind kind = declaredKind(node);
+    if (scope == globalScope) {
+      return WriteVariableNode.create(node.getSlot(), globals, kind, value);
+    }
+    return WriteVariableNode.create(localIndex(scope, node.getSlot()), null, kind, value);
+  }
+
+  public Node buildStatement(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.BLOCK -> {
+        Node[] statements = new Node[node.children.size()];
+        for (int i = 0; i < statements.length; i++) {
+          statements[i] = buildStatement(node.children.get(i));
+        }
+        yield new BlockNode(statements);
+      }
+      case Type.WHILE ->
+          new WhileNode(
+              buildExpression(node.children.getFirst()), buildStatement(node.children.getLast()));
+      case Type.IF -> buildIf(node);
+      case Type.RETURN ->
+          new ReturnNode(node.children.isEmpty() ? null : buildExpression(node.children.getLast()));
+      case Type.VAR_DECL -> buildVarDecl(node);
+      case Type.ARRAY_DECL -> buildArrayDecl(node);
+      case Type.ARRAY_INIT -> buildArrayInit(node);
+      case Type.ASSIGN -> buildAssign(node);
+      case Type.FN_CALL, Type.DEC_INC -> buildExpression(node);
+      default -> throw unsupported(node);
+    };
+  }
+
+  private Node buildIf(ASTNode node) {
+    ArrayList<Node> conditions = new ArrayList<>();
+    ArrayList<Node> blocks = new ArrayList<>();
+    Node elseBlock = null;
+    for (int i = 0; i < node.children.size(); i++) {
+      ASTNode child = node.children.get(i);
+      if (child.getType() == Type.BLOCK && i == node.children.size() - 1 && i % 2 == 0) {
+        elseBlock = buildStatement(child);
+      } else {
+        conditions.add(buildExpression(child));
+        blocks.add(buildStatement(node.children.get(++i)));
+      }
+    }
+    return new IfNode(conditions.toArray(new Node[0]), blocks.toArray(new Node[0]), elseBlock);
+  }
+
+  private Node buildVarDecl(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    if (target.getType() == Type.CLASSTYPE) {
+      throw unsupported(target);
+    }
+    Node value =
+        node.children.size() == 2
+            ? buildExpression(node.children.getLast())
+            : new LiteralNode(Values.convert(0, Kind.of(target.getType().name().toLowerCase())));
+    return write(target, value);
+  }
+
+  private Node buildArrayDecl(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    Node[] sizes = new Node[target.children.size()];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = buildExpression(target.children.get(i));
+    }
+    Kind element = Kind.of(target.getType().name().toLowerCase());
+    return write(target, new NewArrayNode(element, sizes, null));
+  }
+
+  private Node buildArrayInit(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    ArrayList<Node> sizes = new ArrayList<>();
+    for (ASTNode level = node.children.getLast();
+        level.getType() == Type.ARRAY;
+        level = level.children.getFirst()) {
+      sizes.add(new LiteralNode(level.children.size()));
+    }
+    ArrayList<Node> initial = new ArrayList<>();
+    flattenArray(node.children.getLast(), initial);
+    Kind element = Kind.of(target.getType().name().toLowerCase());
+    return write(
+        target,
+        new NewArrayNode(element, sizes.toArray(new Node[0]), initial.toArray(new Node[0])));
+  }
+
+  private void flattenArray(ASTNode array, ArrayList<Node> values) {
+    for (ASTNode child : array.children) {
+      if (child.getType() == Type.ARRAY) {
+        flattenArray(child, values);
+      } else {
+        values.add(buildExpression(child));
+      }
+    }
+  }
+
+  private Node buildAssign(ASTNode node) {
+    ASTNode target = node.children.getFirst();
+    Node value = buildExpression(node.children.getLast());
+    Type operator =
+        switch (node.getValue()) {
+          case "+=" -> Type.ADD;
+          case "-=" -> Type.SUB;
+          case "*=" -> Type.MUL;
+          case "/=" -> Type.DIV;
+          default -> null;
+        };
+    if (operator != null) {
+      value = ArithmeticNode.create(operator, buildExpression(target), value);
+    }
+    return switch (target.getType()) {
+      case Type.ID -> write(target, value);
+      case Type.ARRAY_ITEM ->
+          new ArrayWriteNode(
+              target.getValue(), read(target), buildIndices(target), value, out, diagnostics);
+      default -> throw unsupported(target);
+    };
+  }
+
+  private Node[] buildIndices(ASTNode arrayItem) {
+    Node[] indices = new Node[arrayItem.children.size()];
+    for (int i = 0; i < indices.length; i++) {
+      indices[i] = buildExpression(arrayItem.children.get(i));
+    }
+    return indices;
+  }
+
+  public Node buildExpression(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.INT -> new LiteralNode(Integer.parseInt(node.getValue()));
+      case Type.BOOL -> new LiteralNode(Boolean.parseBoolean(node.getValue()));
+      case Type.CHAR -> new LiteralNode(node.getValue().charAt(0));
+      case Type.NULL -> new LiteralNode(null);
+      case Type.ID -> read(node);
+      case Type.ADD, Type.SUB, Type.MUL, Type.DIV, Type.MOD ->
+          ArithmeticNode.create(
+              node.getType(),
+              buildExpression(node.children.getFirst()),
+              buildExpression(node.children.getLast()));
+      case Type.GREATER,
+              Type.GREATER_EQUAL,
+              Type.LESS,
+              Type.LESS_EQUAL,
+              Type.EQUAL,
+              Type.NOT_EQUAL ->
+          CompareNode.create(
+              node.getType(),
+              buildExpression(node.children.getFirst()),
+              buildExpression(node.children.getLast()));
+      case Type.AND, Type.OR ->
+          new LogicalNode(
+              node.getType(),
+              buildExpression(node.children.getFirst()),
+              buildExpression(node.children.getLast()));
+      case Type.NOT -> new LogicalNode(Type.NOT, buildExpression(node.children.getFirst()), null);
+      case Type.ARRAY_ITEM ->
+          ArrayItemNode.create(node.getValue(), read(node), buildIndices(node), out, diagnostics);
+      case Type.FN_CALL -> buildFnCall(node);
+      case Type.DEC_INC -> buildDecInc(node);
+      default -> throw unsupported(node);
+    };
+  }
+
+  private Node buildFnCall(ASTNode node) {
+    ASTNode argsNode = node.children.isEmpty() ? null : node.children.getFirst();
+    if (argsNode != null && argsNode.getType() == Type.CLASSTYPE) {
+      throw unsupported(node);
+    }
+    switch (node.getValue()) {
+      case "print_int":
+        return new PrintNode(Kind.INT, buildExpression(argsNode.children.getFirst()), out);
+      case "print_char":
+        return new PrintNode(Kind.CHAR, buildExpression(argsNode.children.getFirst()), out);
+      case "print_bool":
+        return new PrintNode(Kind.BOOL, buildExpression(argsNode.children.getFirst()), out);
+      default:
+        Node[] args = new Node[argsNode == null ? 0 : argsNode.children.size()];
+        for (int i = 0; i < args.length; i++) {
+          args[i] = buildExpression(argsNode.children.get(i));
+        }
+        return CallNode.create(node.getValue(), args, functions);
+    }
+  }
+
+  private Node buildDecInc(ASTNode node) {
+    ASTNode first = node.children.getFirst();
+    boolean prefix = first.getType() == Type.INC || first.getType() == Type.DEC;
+    ASTNode operator = prefix ? first : node.children.getLast();
+    ASTNode target = prefix ? node.children.getLast() : first;
+    int delta = operator.getType() == Type.INC ? 1 : -1;
+    if (target.getType() != Type.ID || !target.hasSlot()) {
+      throw unsupported(target);
+    }
+    Scope scope = definingScope(target);
+    Kind kind = declaredKind(target);
+    if (scope == globalScope) {
+      return new DecIncNode(target.getSlot(), globals, kind, delta, prefix);
+    }
+    return new DecIncNode(localIndex(scope, target.getSlot()), null, kind, delta, prefix);
+  }
+
+  private UnsupportedOperationException unsupported(ASTNode node) {
+    return new UnsupportedOperationException(
+        "Node "
+            + node.getType()
+            + (node.getValue() == null ? "" : " " + node.getValue())
+            + " is not supported by the node interpreter");
+  }
+}
@@ -0,0 +1,93 @@
+package Nodes;
+
+import AST.Type;
+
+/** ADD, SUB, MUL, DIV und MOD, spezialisiert auf die beobachteten Operandentypen. */
+public abstract sealed class ArithmeticNode extends BinaryNode {
+
+  protected ArithmeticNode(Type operator, Node left, Node right) {
+    super(operator, left, right);
+  }
+
+  public static ArithmeticNode create(Type operator, Node left, Node right) {
+    return new Uninitialized(operator, left, right);
+  }
+
+  protected int compute(int l, int r) {
+    return switch (operator) {
+      case ADD -> l + r;
+      case SUB -> l - r;
+      case MUL -> l * r;
+      case DIV -> l / r;
+      case MOD -> l % r;
+      default -> throw new IllegalStateException("Unexpected value: " + operator);
+    };
+  }
+
+  @Override
+  public abstract int executeInt(Frame frame);
+
+  @Override
+  public Object execute(Frame frame) {
+    return executeInt(frame);
+  }
+
+  static final class Uninitialized extends ArithmeticNode {
+    Uninitialized(Type operator, Node left, Node right) {
+      super(operator, left, right);
+    }
+
+    @Override
+    public int executeInt(Frame frame) {
+      Object l = left.execute(frame);
+      Object r = right.execute(frame);
+      Kind leftKind = Kind.of(l);
+      Kind rightKind = Kind.of(r);
+      if (leftKind != Kind.OBJECT && rightKind != Kind.OBJECT) {
+        replace(new Typed(operator, left, right, leftKind, rightKind));
+      } else {
+        replace(new Generic(operator, left, right));
+      }
+      return compute(Values.toInt(l), Values.toInt(r));
+    }
+  }
+
+  static final class Typed extends ArithmeticNode {
+    private final Kind leftKind;
+    private final Kind rightKind;
+
+    Typed(Type operator, Node left, Node right, Kind leftKind, Kind rightKind) {
+      super(operator, left, right);
+      this.leftKind = leftKind;
+      this.rightKind = rightKind;
+    }
+
+    @Override
+    public int executeInt(Frame frame) {
+      int l;
+      try {
+        l = executeAs(left, leftKind, frame);
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(operator, left, right));
+        return compute(Values.toInt(e.getResult()), Values.toInt(right.execute(frame)));
+      }
+      try {
+        return compute(l, executeAs(right, rightKind, frame));
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(operator, left, right));
+        return compute(l, Values.toInt(e.getResult()));
+      }
+    }
+  }
+
+  static final class Generic extends ArithmeticNode {
+    Generic(Type operator, Node left, Node right) {
+      super(operator, left, right);
+    }
+
+    @Override
+    public int executeInt(Frame frame) {
+      return compute(Values.toInt(left.execute(frame)), Values.toInt(right.execute(frame)));
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package Nodes;
+
+import Output.Diagnostics;
+import Output.OutputSink;
+import java.lang.reflect.Array;
+
+/** Liest ein Arrayelement, spezialisiert auf eindimensionale int-, bool- und char-Arrays. */
+public abstract sealed class ArrayItemNode extends Node {
+  protected final String name;
+  protected Node array;
+  protected final CastNode[] indices;
+  // Fehlermeldungen müssen nach der gepufferten Programmausgabe erscheinen
+  protected final OutputSink out;
+  protected final Diagnostics diagnostics;
+
+  protected ArrayItemNode(
+      String name, Node array, CastNode[] indices, OutputSink out, Diagnostics diagnostics) {
+    this.name = name;
+    this.out = out;
+    this.diagnostics = diagnostics;
+    this.array = adopt(array);
+    this.indices = indices;
+    for (CastNode index : indices) {
+      adopt(index);
+    }
+  }
+
+  public static ArrayItemNode create(
+      String name, Node array, Node[] indices, OutputSink out, Diagnostics diagnostics) {
+    CastNode[] casts = new CastNode[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      casts[i] = CastNode.create(Kind.INT, indices[i]);
+    }
+    return new Uninitialized(name, array, casts, out, diagnostics);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (array == oldChild) array = newChild;
+    for (int i = 0; i < indices.length; i++) {
+      if (indices[i] == oldChild) indices[i] = (CastNode) newChild;
+    }
+  }
+
+  /** Greift über Reflection zu und meldet Fehler wie der Interpreter. */
+  protected Object readGeneric(Object arrayObject, Frame frame) {
+    if (arrayObject == null) {
+      printError("Error: array " + name + " not found in the current environment");
+      return null;
+    }
+    Object current = arrayObject;
+    for (int i = 0; i < indices.length; i++) {
+      int index = indices[i].executeInt(frame);
+      int size = Array.getLength(current);
+      if (index < 0 || index >= size) {
+        printOutOfBounds(index, i, size);
+        return null;
+      }
+      current = Array.get(current, index);
+    }
+    return current;
+  }
+
+  protected void printOutOfBounds(int index, int dimension, int size) {
+    printError(outOfBounds(name, index, dimension, size));
+  }
+
+  static String outOfBounds(String name, int index, int dimension, int size) {
+    return "Error: index "
+        + index
+        + " is out of bounds for dimension "
+        + (dimension + 1)
+        + " of array "
+        + name
+        + " (size: "
+        + size
+        + ")";
+  }
+
+  protected void printError(String message) {
+    out.flush();
+    diagnostics.error(message);
+  }
+
+  static final class Uninitialized extends ArrayItemNode {
+    Uninitialized(
+        String name, Node array, CastNode[] indices, OutputSink out, Diagnostics diagnostics) {
+      super(name, array, indices, out, diagnostics);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      Object arrayObject = array.execute(frame);
+      Kind kind =
+          switch (arrayObject) {
+            case int[] a -> Kind.INT;
+            case boolean[] a -> Kind.BOOL;
+            case char[] a -> Kind.CHAR;
+            case null, default -> Kind.OBJECT;
+          };
+      if (kind != Kind.OBJECT && indices.length == 1) {
+        replace(new Typed(name, array, indices, out, diagnostics, kind));
+      } else {
+        replace(new Generic(name, array, indices, out, diagnostics));
+      }
+      return readGeneric(arrayObject, frame);
+    }
+  }
+
+  static final class Typed extends ArrayItemNode {
+    private final Kind kind;
+
+    Typed(
+        String name,
+        Node array,
+        CastNode[] indices,
+        OutputSink out,
+        Diagnostics diagnostics,
+        Kind kind) {
+      super(name, array, indices, out, diagnostics);
+      this.kind = kind;
+    }
+
+    private int read(Frame frame, Kind expected) throws UnexpectedResultException {
+      Object arrayObject = array.execute(frame);
+      int index = indices[0].executeInt(frame);
+      int raw;
+      switch (arrayObject) {
+        case int[] a when kind == Kind.INT && index >= 0 && index < a.length:
+          raw = a[index];
+          break;
+        case boolean[] a when kind == Kind.BOOL && index >= 0 && index < a.length:
+          raw = a[index] ? 1 : 0;
+          break;
+        case char[] a when kind == Kind.CHAR && index >= 0 && index < a.length:
+          raw = a[index];
+          break;
+        case null, default:
+          throw new UnexpectedResultException(fallback(arrayObject, index));
+      }
+      if (kind != expected) {
+        throw new UnexpectedResultException(Values.box(raw, kind));
+      }
+      return raw;
+    }
+
+    private Object fallback(Object arrayObject, int index) {
+      int size = arrayObject == null ? 0 : Array.getLength(arrayObject);
+      if (arrayObject == null || index < 0 || index >= size) {
+        if (arrayObject == null) {
+          printError("Error: array " + name + " not found in the current environment");
+        } else {
+          printOutOfBounds(index, 0, size);
+        }
+        return null;
+      }
+      replace(new Generic(name, array, indices, out, diagnostics));
+      return Array.get(arrayObject, index);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      try {
+        return Values.box(read(frame, kind), kind);
+      } catch (UnexpectedResultException e) {
+        return e.getResult();
+      }
+    }
+
+    @Override
+    public int executeInt(Frame frame) throws UnexpectedResultException {
+      return read(frame, Kind.INT);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) throws UnexpectedResultException {
+      return read(frame, Kind.BOOL) != 0;
+    }
+
+    @Override
+    public char executeChar(Frame frame) throws UnexpectedResultException {
+      return (char) read(frame, Kind.CHAR);
+    }
+  }
+
+  static final class Generic extends ArrayItemNode {
+    Generic(String name, Node array, CastNode[] indices, OutputSink out, Diagnostics diagnostics) {
+      super(name, array, indices, out, diagnostics);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      return readGeneric(array.execute(frame), frame);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package Nodes;
+
+import Output.Diagnostics;
+import Output.OutputSink;
+import java.lang.reflect.Array;
+
+/** Schreibt ein Arrayelement und meldet Indexfehler wie {@link ArrayItemNode}. */
+public final class ArrayWriteNode extends Node {
+  private final String name;
+  private Node array;
+  private final CastNode[] indices;
+  private Node value;
+  private final OutputSink out;
+  private final Diagnostics diagnostics;
+
+  public ArrayWriteNode(
+      String name,
+      Node array,
+      Node[] indices,
+      Node value,
+      OutputSink out,
+      Diagnostics diagnostics) {
+    this.name = name;
+    this.array = adopt(array);
+    this.indices = new CastNode[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      this.indices[i] = adopt(CastNode.create(Kind.INT, indices[i]));
+    }
+    this.value = adopt(value);
+    this.out = out;
+    this.diagnostics = diagnostics;
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    Object result = value.execute(frame);
+    Object target = array.execute(frame);
+    if (target == null) {
+      printError("Error: array " + name + " not found in the current environment");
+      return null;
+    }
+    for (int i = 0; i < indices.length - 1; i++) {
+      int index = indices[i].executeInt(frame);
+      if (!inBounds(target, index, i)) {
+        return null;
+      }
+      target = Array.get(target, index);
+    }
+    int index = indices[indices.length - 1].executeInt(frame);
+    if (!inBounds(target, index, indices.length - 1)) {
+      return null;
+    }
+    switch (target) {
+      case int[] a -> a[index] = Values.toInt(result);
+      case boolean[] a -> a[index] = Values.toBool(result);
+      case char[] a -> a[index] = Values.toChar(result);
+      case null, default -> Array.set(target, index, result);
+    }
+    return null;
+  }
+
+  private boolean inBounds(Object target, int index, int dimension) {
+    int size = Array.getLength(target);
+    if (index < 0 || index >= size) {
+      printError(ArrayItemNode.outOfBounds(name, index, dimension, size));
+      return false;
+    }
+    return true;
+  }
+
+  private void printError(String message) {
+    out.flush();
+    diagnostics.error(message);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (array == oldChild) array = newChild;
+    if (value == oldChild) value = newChild;
+    for (int i = 0; i < indices.length; i++) {
+      if (indices[i] == oldChild) indices[i] = (CastNode) newChild;
+    }
+  }
+}
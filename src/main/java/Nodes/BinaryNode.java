@@ -0,0 +1,21 @@
+package Nodes;
+
+import AST.Type;
+
+public abstract sealed class BinaryNode extends Node permits ArithmeticNode, CompareNode {
+  protected final Type operator;
+  protected Node left;
+  protected Node right;
+
+  protected BinaryNode(Type operator, Node left, Node right) {
+    this.operator = operator;
+    this.left = adopt(left);
+    this.right = adopt(right);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (left == oldChild) left = newChild;
+    if (right == oldChild) right = newChild;
+  }
+}
@@ -0,0 +1,27 @@
+package Nodes;
+
+public final class BlockNode extends Node {
+  private final Node[] statements;
+
+  public BlockNode(Node[] statements) {
+    this.statements = statements;
+    for (Node statement : statements) {
+      adopt(statement);
+    }
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    for (Node statement : statements) {
+      statement.execute(frame);
+    }
+    return null;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    for (int i = 0; i < statements.length; i++) {
+      if (statements[i] == oldChild) statements[i] = newChild;
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package Nodes;
+
+import java.util.Map;
+
+/** Aufruf einer Funktion, die beim ersten Ausführen aufgelöst und danach direkt gerufen wird. */
+public abstract sealed class CallNode extends Node {
+  protected final String name;
+  protected final Node[] args;
+
+  protected CallNode(String name, Node[] args) {
+    this.name = name;
+    this.args = args;
+    for (Node arg : args) {
+      adopt(arg);
+    }
+  }
+
+  public static CallNode create(String name, Node[] args, Map<String, FunctionRoot> functions) {
+    return new Uninitialized(name, args, functions);
+  }
+
+  protected Object[] evaluateArgs(Frame frame) {
+    Object[] values = new Object[args.length];
+    for (int i = 0; i < args.length; i++) {
+      values[i] = args[i].execute(frame);
+    }
+    return values;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] == oldChild) args[i] = newChild;
+    }
+  }
+
+  static final class Uninitialized extends CallNode {
+    private final Map<String, FunctionRoot> functions;
+
+    Uninitialized(String name, Node[] args, Map<String, FunctionRoot> functions) {
+      super(name, args);
+      this.functions = functions;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      FunctionRoot function = functions.get(name);
+      if (function == null) {
+        throw new RuntimeException("Function '" + name + "' not found");
+      }
+      return replace(new Direct(name, args, function)).execute(frame);
+    }
+  }
+
+  static final class Direct extends CallNode {
+    private final FunctionRoot function;
+
+    Direct(String name, Node[] args, FunctionRoot function) {
+      super(name, args);
+      this.function = function;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      return function.call(evaluateArgs(frame));
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package Nodes;
+
+/** Wandelt einen Wert in int, bool oder char um, spezialisiert auf den beobachteten Eingabetyp. */
+public abstract sealed class CastNode extends Node {
+  protected final Kind target;
+  protected Node child;
+
+  protected CastNode(Kind target, Node child) {
+    this.target = target;
+    this.child = adopt(child);
+  }
+
+  public static CastNode create(Kind target, Node child) {
+    return new Uninitialized(target, child);
+  }
+
+  protected abstract int executeRaw(Frame frame);
+
+  @Override
+  public Object execute(Frame frame) {
+    return Values.box(executeRaw(frame), target);
+  }
+
+  @Override
+  public int executeInt(Frame frame) {
+    return executeRaw(frame);
+  }
+
+  @Override
+  public boolean executeBool(Frame frame) {
+    return executeRaw(frame) != 0;
+  }
+
+  @Override
+  public char executeChar(Frame frame) {
+    return (char) executeRaw(frame);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (child == oldChild) child = newChild;
+  }
+
+  protected int fromRaw(int raw) {
+    return target == Kind.BOOL ? (raw != 0 ? 1 : 0) : target == Kind.CHAR ? (char) raw : raw;
+  }
+
+  static final class Uninitialized extends CastNode {
+    Uninitialized(Kind target, Node child) {
+      super(target, child);
+    }
+
+    @Override
+    protected int executeRaw(Frame frame) {
+      Object value = child.execute(frame);
+      Kind source = Kind.of(value);
+      replace(
+          source == Kind.OBJECT ? new Generic(target, child) : new Typed(target, child, source));
+      return fromGeneric(value);
+    }
+  }
+
+  static final class Typed extends CastNode {
+    private final Kind source;
+
+    Typed(Kind target, Node child, Kind source) {
+      super(target, child);
+      this.source = source;
+    }
+
+    @Override
+    protected int executeRaw(Frame frame) {
+      try {
+        return fromRaw(executeAs(child, source, frame));
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(target, child));
+        return fromGeneric(e.getResult());
+      }
+    }
+  }
+
+  static final class Generic extends CastNode {
+    Generic(Kind target, Node child) {
+      super(target, child);
+    }
+
+    @Override
+    protected int executeRaw(Frame frame) {
+      return fromGeneric(child.execute(frame));
+    }
+  }
+
+  protected int fromGeneric(Object value) {
+    return fromRaw(Values.toInt(value));
+  }
+}
@@ -0,0 +1,94 @@
+package Nodes;
+
+import AST.Type;
+
+/** Vergleiche, spezialisiert auf die beobachteten Operandentypen. */
+public abstract sealed class CompareNode extends BinaryNode {
+
+  protected CompareNode(Type operator, Node left, Node right) {
+    super(operator, left, right);
+  }
+
+  public static CompareNode create(Type operator, Node left, Node right) {
+    return new Uninitialized(operator, left, right);
+  }
+
+  protected boolean compute(int l, int r) {
+    return switch (operator) {
+      case GREATER -> l > r;
+      case GREATER_EQUAL -> l >= r;
+      case LESS -> l < r;
+      case LESS_EQUAL -> l <= r;
+      case EQUAL -> l == r;
+      case NOT_EQUAL -> l != r;
+      default -> throw new IllegalStateException("Unexpected value: " + operator);
+    };
+  }
+
+  @Override
+  public abstract boolean executeBool(Frame frame);
+
+  @Override
+  public Object execute(Frame frame) {
+    return executeBool(frame);
+  }
+
+  static final class Uninitialized extends CompareNode {
+    Uninitialized(Type operator, Node left, Node right) {
+      super(operator, left, right);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+      Object l = left.execute(frame);
+      Object r = right.execute(frame);
+      Kind leftKind = Kind.of(l);
+      Kind rightKind = Kind.of(r);
+      if (leftKind != Kind.OBJECT && rightKind != Kind.OBJECT) {
+        replace(new Typed(operator, left, right, leftKind, rightKind));
+      } else {
+        replace(new Generic(operator, left, right));
+      }
+      return compute(Values.toInt(l), Values.toInt(r));
+    }
+  }
+
+  static final class Typed extends CompareNode {
+    private final Kind leftKind;
+    private final Kind rightKind;
+
+    Typed(Type operator, Node left, Node right, Kind leftKind, Kind rightKind) {
+      super(operator, left, right);
+      this.leftKind = leftKind;
+      this.rightKind = rightKind;
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+      int l;
+      try {
+        l = executeAs(left, leftKind, frame);
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(operator, left, right));
+        return compute(Values.toInt(e.getResult()), Values.toInt(right.execute(frame)));
+      }
+      try {
+        return compute(l, executeAs(right, rightKind, frame));
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(operator, left, right));
+        return compute(l, Values.toInt(e.getResult()));
+      }
+    }
+  }
+
+  static final class Generic extends CompareNode {
+    Generic(Type operator, Node left, Node right) {
+      super(operator, left, right);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) {
+      return compute(Values.toInt(left.execute(frame)), Values.toInt(right.execute(frame)));
+    }
+  }
+}
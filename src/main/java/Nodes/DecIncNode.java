@@ -0,0 +1,27 @@
+package Nodes;
+
+/** Prä- und Postinkrement bzw. -dekrement einer Variable. */
+public class DecIncNode extends Node {
+  private final int slot;
+  private final Frame global;
+  private final Kind declared;
+  private final int delta;
+  private final boolean prefix;
+
+  public DecIncNode(int slot, Frame global, Kind declared, int delta, boolean prefix) {
+    this.slot = slot;
+    this.global = global;
+    this.declared = declared;
+    this.delta = delta;
+    this.prefix = prefix;
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    Frame target = global != null ? global : frame;
+    Object old = target.get(slot);
+    Object updated = Values.convert(Values.toInt(old) + delta, declared);
+    target.set(slot, updated);
+    return prefix ? updated : old;
+  }
+}
@@ -0,0 +1,44 @@
+package Nodes;
+
+public final class Frame {
+  private final int[] primitives;
+  private final Object[] objects;
+  private final Kind[] kinds;
+
+  public Frame(int size) {
+    this.primitives = new int[size];
+    this.objects = new Object[size];
+    this.kinds = new Kind[size];
+  }
+
+  public Kind getKind(int slot) {
+    return kinds[slot];
+  }
+
+  public int getPrimitive(int slot) {
+    return primitives[slot];
+  }
+
+  public void setPrimitive(int slot, int value, Kind kind) {
+    primitives[slot] = value;
+    kinds[slot] = kind;
+  }
+
+  public Object get(int slot) {
+    Kind kind = kinds[slot];
+    if (kind == null) {
+      return null;
+    }
+    return kind == Kind.OBJECT ? objects[slot] : Values.box(primitives[slot], kind);
+  }
+
+  public void set(int slot, Object value) {
+    Kind kind = Kind.of(value);
+    if (kind == Kind.OBJECT) {
+      objects[slot] = value;
+      kinds[slot] = kind;
+    } else {
+      setPrimitive(slot, Values.toInt(value), kind);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package Nodes;
+
+public final class FunctionRoot extends Node {
+  private final String name;
+  private final int frameSize;
+  private final int[] paramSlots;
+  private final Kind[] paramKinds;
+  private final Kind returnKind;
+  private Node body;
+
+  public FunctionRoot(
+      String name, int frameSize, int[] paramSlots, Kind[] paramKinds, Kind returnKind, Node body) {
+    this.name = name;
+    this.frameSize = frameSize;
+    this.paramSlots = paramSlots;
+    this.paramKinds = paramKinds;
+    this.returnKind = returnKind;
+    this.body = adopt(body);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Object call(Object[] args) {
+    Frame frame = new Frame(frameSize);
+    for (int i = 0; i < paramSlots.length; i++) {
+      frame.set(paramSlots[i], Values.convert(args[i], paramKinds[i]));
+    }
+    return execute(frame);
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    try {
+      body.execute(frame);
+    } catch (ReturnException e) {
+      return e.getValue() == null ? null : Values.convert(e.getValue(), returnKind);
+    }
+    return null;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (body == oldChild) body = newChild;
+  }
+}
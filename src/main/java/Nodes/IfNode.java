@@ -0,0 +1,39 @@
+package Nodes;
+
+public final class IfNode extends Node {
+  private final CastNode[] conditions;
+  private final Node[] blocks;
+  private Node elseBlock;
+
+  /**
+   * @param elseBlock der abschließende else-Block oder null
+   */
+  public IfNode(Node[] conditions, Node[] blocks, Node elseBlock) {
+    this.conditions = new CastNode[conditions.length];
+    this.blocks = blocks;
+    for (int i = 0; i < conditions.length; i++) {
+      this.conditions[i] = adopt(CastNode.create(Kind.BOOL, conditions[i]));
+      adopt(blocks[i]);
+    }
+    this.elseBlock = adopt(elseBlock);
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    for (int i = 0; i < conditions.length; i++) {
+      if (conditions[i].executeBool(frame)) {
+        return blocks[i].execute(frame);
+      }
+    }
+    return elseBlock == null ? null : elseBlock.execute(frame);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    for (int i = 0; i < conditions.length; i++) {
+      if (conditions[i] == oldChild) conditions[i] = (CastNode) newChild;
+      if (blocks[i] == oldChild) blocks[i] = newChild;
+    }
+    if (elseBlock == oldChild) elseBlock = newChild;
+  }
+}
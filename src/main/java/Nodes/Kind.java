@@ -0,0 +1,26 @@
+package Nodes;
+
+public enum Kind {
+  INT,
+  BOOL,
+  CHAR,
+  OBJECT;
+
+  public static Kind of(Object value) {
+    return switch (value) {
+      case Integer i -> INT;
+      case Boolean b -> BOOL;
+      case Character c -> CHAR;
+      case null, default -> OBJECT;
+    };
+  }
+
+  public static Kind of(String type) {
+    return switch (type) {
+      case "int" -> INT;
+      case "bool" -> BOOL;
+      case "char" -> CHAR;
+      case null, default -> OBJECT;
+    };
+  }
+}
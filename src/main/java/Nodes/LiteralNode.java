@@ -0,0 +1,36 @@
+package Nodes;
+
+public class LiteralNode extends Node {
+  private final Object value;
+  private final Kind kind;
+  private final int raw;
+
+  public LiteralNode(Object value) {
+    this.value = value;
+    this.kind = Kind.of(value);
+    this.raw = Values.toInt(value);
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    return value;
+  }
+
+  @Override
+  public int executeInt(Frame frame) throws UnexpectedResultException {
+    if (kind == Kind.INT) return raw;
+    throw new UnexpectedResultException(value);
+  }
+
+  @Override
+  public boolean executeBool(Frame frame) throws UnexpectedResultException {
+    if (kind == Kind.BOOL) return raw != 0;
+    throw new UnexpectedResultException(value);
+  }
+
+  @Override
+  public char executeChar(Frame frame) throws UnexpectedResultException {
+    if (kind == Kind.CHAR) return (char) raw;
+    throw new UnexpectedResultException(value);
+  }
+}
@@ -0,0 +1,40 @@
+package Nodes;
+
+import AST.Type;
+
+/** AND, OR und NOT über zu bool umgewandelte Operanden. */
+public final class LogicalNode extends Node {
+  private final Type operator;
+  private CastNode left;
+  private CastNode right;
+
+  /**
+   * @param right der zweite Operand oder null bei NOT
+   */
+  public LogicalNode(Type operator, Node left, Node right) {
+    this.operator = operator;
+    this.left = adopt(CastNode.create(Kind.BOOL, left));
+    this.right = right == null ? null : adopt(CastNode.create(Kind.BOOL, right));
+  }
+
+  @Override
+  public boolean executeBool(Frame frame) {
+    return switch (operator) {
+      case AND -> left.executeBool(frame) && right.executeBool(frame);
+      case OR -> left.executeBool(frame) || right.executeBool(frame);
+      case NOT -> !left.executeBool(frame);
+      default -> throw new IllegalStateException("Unexpected value: " + operator);
+    };
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    return executeBool(frame);
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (left == oldChild) left = (CastNode) newChild;
+    if (right == oldChild) right = (CastNode) newChild;
+  }
+}
@@ -0,0 +1,69 @@
+package Nodes;
+
+import java.lang.reflect.Array;
+
+public final class NewArrayNode extends Node {
+  private final Kind element;
+  private final CastNode[] sizes;
+  private final Node[] initial;
+
+  /**
+   * @param initial die Startwerte in Zeilenreihenfolge oder null
+   */
+  public NewArrayNode(Kind element, Node[] sizes, Node[] initial) {
+    this.element = element;
+    this.sizes = new CastNode[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      this.sizes[i] = adopt(CastNode.create(Kind.INT, sizes[i]));
+    }
+    this.initial = initial;
+    if (initial != null) {
+      for (Node value : initial) {
+        adopt(value);
+      }
+    }
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    int[] dimensions = new int[sizes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      dimensions[i] = sizes[i].executeInt(frame);
+    }
+    Object array =
+        switch (element) {
+          case INT -> Array.newInstance(int.class, dimensions);
+          case BOOL -> Array.newInstance(boolean.class, dimensions);
+          case CHAR -> Array.newInstance(char.class, dimensions);
+          case OBJECT -> Array.newInstance(Object.class, dimensions);
+        };
+    if (initial != null) {
+      fill(array, 0, 0, frame);
+    }
+    return array;
+  }
+
+  private int fill(Object array, int dimension, int next, Frame frame) {
+    int length = Array.getLength(array);
+    for (int i = 0; i < length && next < initial.length; i++) {
+      if (dimension < sizes.length - 1) {
+        next = fill(Array.get(array, i), dimension + 1, next, frame);
+      } else {
+        Array.set(array, i, Values.convert(initial[next++].execute(frame), element));
+      }
+    }
+    return next;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    for (int i = 0; i < sizes.length; i++) {
+      if (sizes[i] == oldChild) sizes[i] = (CastNode) newChild;
+    }
+    if (initial != null) {
+      for (int i = 0; i < initial.length; i++) {
+        if (initial[i] == oldChild) initial[i] = newChild;
+      }
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package Nodes;
+
+/**
+ * Basis aller ausführbaren Knoten. Knoten spezialisieren sich zur Laufzeit, indem sie sich im
+ * Elternknoten durch eine passendere Variante ersetzen ({@link #replace}).
+ */
+public abstract class Node {
+  protected Node parent;
+
+  public abstract Object execute(Frame frame);
+
+  public int executeInt(Frame frame) throws UnexpectedResultException {
+    Object value = execute(frame);
+    if (value instanceof Integer i) {
+      return i;
+    }
+    throw new UnexpectedResultException(value);
+  }
+
+  public boolean executeBool(Frame frame) throws UnexpectedResultException {
+    Object value = execute(frame);
+    if (value instanceof Boolean b) {
+      return b;
+    }
+    throw new UnexpectedResultException(value);
+  }
+
+  public char executeChar(Frame frame) throws UnexpectedResultException {
+    Object value = execute(frame);
+    if (value instanceof Character c) {
+      return c;
+    }
+    throw new UnexpectedResultException(value);
+  }
+
+  /** Liest den Wert als int, so wie er für den beobachteten Typ im Frame liegt. */
+  protected static int executeAs(Node node, Kind kind, Frame frame)
+      throws UnexpectedResultException {
+    return switch (kind) {
+      case INT -> node.executeInt(frame);
+      case CHAR -> node.executeChar(frame);
+      case BOOL -> node.executeBool(frame) ? 1 : 0;
+      case OBJECT -> throw new UnexpectedResultException(node.execute(frame));
+    };
+  }
+
+  protected final <T extends Node> T adopt(T child) {
+    if (child != null) {
+      child.parent = this;
+    }
+    return child;
+  }
+
+  protected void replaceChild(Node oldChild, Node newChild) {
+    throw new IllegalStateException(getClass().getSimpleName() + " has no child " + oldChild);
+  }
+
+  protected <T extends Node> T replace(T newNode) {
+    parent.replaceChild(this, newNode);
+    newNode.parent = parent;
+    return newNode;
+  }
+}
@@ -0,0 +1,32 @@
+package Nodes;
+
+import Output.OutputSink;
+
+/** Die BuiltIns print_int, print_char und print_bool. */
+public final class PrintNode extends Node {
+  private final Kind kind;
+  private final OutputSink out;
+  private CastNode arg;
+
+  public PrintNode(Kind kind, Node arg, OutputSink out) {
+    this.kind = kind;
+    this.out = out;
+    this.arg = adopt(CastNode.create(kind, arg));
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    switch (kind) {
+      case INT -> out.printInt(arg.executeInt(frame));
+      case CHAR -> out.printChar(arg.executeChar(frame));
+      case BOOL -> out.printBool(arg.executeBool(frame));
+      default -> throw new IllegalStateException("Unexpected value: " + kind);
+    }
+    return null;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (arg == oldChild) arg = (CastNode) newChild;
+  }
+}
@@ -0,0 +1,89 @@
+package Nodes;
+
+public abstract class ReadVariableNode extends Node {
+  protected final int slot;
+  protected final Frame global;
+
+  protected ReadVariableNode(int slot, Frame global) {
+    this.slot = slot;
+    this.global = global;
+  }
+
+  /**
+   * @param global der Frame der globalen Variablen oder null für eine lokale Variable
+   */
+  public static ReadVariableNode create(int slot, Frame global) {
+    return new Uninitialized(slot, global);
+  }
+
+  protected Frame frame(Frame frame) {
+    return global != null ? global : frame;
+  }
+
+  static final class Uninitialized extends ReadVariableNode {
+    Uninitialized(int slot, Frame global) {
+      super(slot, global);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      Kind kind = frame(frame).getKind(slot);
+      if (kind == null) {
+        return replace(new Generic(slot, global)).execute(frame);
+      }
+      return replace(new Typed(slot, global, kind)).execute(frame);
+    }
+  }
+
+  static final class Typed extends ReadVariableNode {
+    private final Kind kind;
+
+    Typed(int slot, Frame global, Kind kind) {
+      super(slot, global);
+      this.kind = kind;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      Frame target = frame(frame);
+      if (target.getKind(slot) != kind) {
+        return replace(new Generic(slot, global)).execute(frame);
+      }
+      return target.get(slot);
+    }
+
+    private int read(Frame frame, Kind expected) throws UnexpectedResultException {
+      Frame target = frame(frame);
+      if (kind != expected || target.getKind(slot) != kind) {
+        throw new UnexpectedResultException(execute(frame));
+      }
+      return target.getPrimitive(slot);
+    }
+
+    @Override
+    public int executeInt(Frame frame) throws UnexpectedResultException {
+      return read(frame, Kind.INT);
+    }
+
+    @Override
+    public boolean executeBool(Frame frame) throws UnexpectedResultException {
+      return read(frame, Kind.BOOL) != 0;
+    }
+
+    @Override
+    public char executeChar(Frame frame) throws UnexpectedResultException {
+      return (char) read(frame, Kind.CHAR);
+    }
+  }
+
+  static final class Generic extends ReadVariableNode {
+    Generic(int slot, Frame global) {
+      super(slot, global);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      return frame(frame).get(slot);
+    }
+  }
+}
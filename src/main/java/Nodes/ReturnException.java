@@ -0,0 +1,16 @@
+package Nodes;
+
+// wird nie serialisiert
+@SuppressWarnings("serial")
+public class ReturnException extends RuntimeException {
+  private final Object value;
+
+  public ReturnException(Object value) {
+    super(null, null, false, false);
+    this.value = value;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+}
@@ -0,0 +1,22 @@
+package Nodes;
+
+public final class ReturnNode extends Node {
+  private Node value;
+
+  /**
+   * @param value der Rückgabewert oder null bei void
+   */
+  public ReturnNode(Node value) {
+    this.value = adopt(value);
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    throw new ReturnException(value == null ? null : value.execute(frame));
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (value == oldChild) value = newChild;
+  }
+}
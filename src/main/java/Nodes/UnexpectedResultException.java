@@ -0,0 +1,16 @@
+package Nodes;
+
+// wird nie serialisiert
+@SuppressWarnings("serial")
+public class UnexpectedResultException extends Exception {
+  private final Object result;
+
+  public UnexpectedResultException(Object result) {
+    super(null, null, false, false);
+    this.result = result;
+  }
+
+  public Object getResult() {
+    return result;
+  }
+}
@@ -0,0 +1,44 @@
+package Nodes;
+
+public class Values {
+
+  public static int toInt(Object obj) {
+    return switch (obj) {
+      case Character c -> (int) c;
+      case Integer i -> i;
+      case Boolean b -> b ? 1 : 0;
+      case null, default -> 0;
+    };
+  }
+
+  public static boolean toBool(Object obj) {
+    return switch (obj) {
+      case Character c -> c != 0;
+      case Integer i -> i != 0;
+      case Boolean b -> b;
+      case null, default -> false;
+    };
+  }
+
+  public static char toChar(Object obj) {
+    return (char) toInt(obj);
+  }
+
+  public static Object convert(Object obj, Kind kind) {
+    return switch (kind) {
+      case INT -> toInt(obj);
+      case BOOL -> toBool(obj);
+      case CHAR -> toChar(obj);
+      case OBJECT -> obj;
+    };
+  }
+
+  public static Object box(int raw, Kind kind) {
+    return switch (kind) {
+      case INT -> raw;
+      case BOOL -> raw != 0;
+      case CHAR -> (char) raw;
+      case OBJECT -> throw new IllegalStateException("Object values have no primitive form");
+    };
+  }
+}
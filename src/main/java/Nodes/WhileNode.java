@@ -0,0 +1,25 @@
+package Nodes;
+
+public final class WhileNode extends Node {
+  private CastNode condition;
+  private Node body;
+
+  public WhileNode(Node condition, Node body) {
+    this.condition = adopt(CastNode.create(Kind.BOOL, condition));
+    this.body = adopt(body);
+  }
+
+  @Override
+  public Object execute(Frame frame) {
+    while (condition.executeBool(frame)) {
+      body.execute(frame);
+    }
+    return null;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (condition == oldChild) condition = (CastNode) newChild;
+    if (body == oldChild) body = newChild;
+  }
+}
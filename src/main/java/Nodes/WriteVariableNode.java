@@ -0,0 +1,90 @@
+package Nodes;
+
+/** Schreibt einen Wert, umgewandelt in den deklarierten Typ, in einen Slot. */
+public abstract sealed class WriteVariableNode extends Node {
+  protected final int slot;
+  protected final Frame global;
+  protected final Kind declared;
+  protected Node value;
+
+  protected WriteVariableNode(int slot, Frame global, Kind declared, Node value) {
+    this.slot = slot;
+    this.global = global;
+    this.declared = declared;
+    this.value = adopt(value);
+  }
+
+  public static WriteVariableNode create(int slot, Frame global, Kind declared, Node value) {
+    return new Uninitialized(slot, global, declared, value);
+  }
+
+  protected Frame frame(Frame frame) {
+    return global != null ? global : frame;
+  }
+
+  protected Object write(Frame frame, Object result) {
+    frame(frame).set(slot, Values.convert(result, declared));
+    return null;
+  }
+
+  @Override
+  protected void replaceChild(Node oldChild, Node newChild) {
+    if (value == oldChild) value = newChild;
+  }
+
+  static final class Uninitialized extends WriteVariableNode {
+    Uninitialized(int slot, Frame global, Kind declared, Node value) {
+      super(slot, global, declared, value);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      Object result = value.execute(frame);
+      Kind observed = Kind.of(result);
+      if (observed != Kind.OBJECT && declared != Kind.OBJECT) {
+        replace(new Typed(slot, global, declared, value, observed));
+      } else {
+        replace(new Generic(slot, global, declared, value));
+      }
+      return write(frame, result);
+    }
+  }
+
+  static final class Typed extends WriteVariableNode {
+    private final Kind observed;
+
+    Typed(int slot, Frame global, Kind declared, Node value, Kind observed) {
+      super(slot, global, declared, value);
+      this.observed = observed;
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      int raw;
+      try {
+        raw = executeAs(value, observed, frame);
+      } catch (UnexpectedResultException e) {
+        replace(new Generic(slot, global, declared, value));
+        return write(frame, e.getResult());
+      }
+      if (declared == Kind.BOOL) {
+        raw = raw != 0 ? 1 : 0;
+      } else if (declared == Kind.CHAR) {
+        raw = (char) raw;
+      }
+      frame(frame).setPrimitive(slot, raw, declared);
+      return null;
+    }
+  }
+
+  static final class Generic extends WriteVariableNode {
+    Generic(int slot, Frame global, Kind declared, Node value) {
+      super(slot, global, declared, value);
+    }
+
+    @Override
+    public Object execute(Frame frame) {
+      return write(frame, value.execute(frame));
+    }
+  }
+}
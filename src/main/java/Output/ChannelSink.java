@@ -0,0 +1,97 @@
+package Output;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Schreibt die Ausgabe als Bytes in einen Puffer und gibt ihn erst an den Kanal weiter, wenn keine
+ * Zeile mehr hineinpasst. Zahlen werden direkt in den Puffer kodiert, ohne Strings zu erzeugen.
+ */
+public class ChannelSink implements OutputSink {
+  /** Länger wird keine Zeile; ein Puffer dieser Größe gibt jede Zeile sofort weiter. */
+  public static final int MAX_LINE = 32;
+
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private static final byte[] INT = "Print int: ".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] BOOL = "Print bool: ".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] CHAR = "Print char: ".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+  private final byte[] digits = new byte[11];
+
+  public ChannelSink(WritableByteChannel channel, int capacity) {
+    if (capacity < MAX_LINE) {
+      throw new IllegalArgumentException("Capacity must be at least " + MAX_LINE);
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocate(capacity);
+  }
+
+  /** Schreibt über {@code System.out}, damit andere Konsolenausgaben in Reihenfolge bleiben. */
+  public static ChannelSink stdout(int capacity) {
+    return new ChannelSink(Channels.newChannel(System.out), capacity);
+  }
+
+  @Override
+  public void printInt(int value) {
+    buffer.put(INT);
+    long rest = value;
+    if (rest < 0) {
+      buffer.put((byte) '-');
+      rest = -rest;
+    }
+    int start = digits.length;
+    do {
+      digits[--start] = (byte) ('0' + rest % 10);
+      rest /= 10;
+    } while (rest != 0);
+    buffer.put(digits, start, digits.length - start);
+    endLine();
+  }
+
+  @Override
+  public void printBool(boolean value) {
+    buffer.put(BOOL).put(value ? TRUE : FALSE);
+    endLine();
+  }
+
+  @Override
+  public void printChar(char value) {
+    buffer.put(CHAR);
+    if (value < 0x80) {
+      buffer.put((byte) value);
+    } else {
+      buffer.put(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+    endLine();
+  }
+
+  private void endLine() {
+    buffer.put((byte) '\n');
+    if (buffer.remaining() < MAX_LINE) {
+      flush();
+    }
+  }
+
+  @Override
+  public void flush() {
+    buffer.flip();
+    try {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      buffer.clear();
+    }
+  }
+}
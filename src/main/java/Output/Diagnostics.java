@@ -0,0 +1,33 @@
+package Output;
+
+import java.io.PrintStream;
+
+/**
+ * Meldungen einer Phase. Fehler werden gezählt, damit Aufrufer nicht in den Texten nach {@code
+ * Error} suchen müssen. Ohne eigenen Stream geht alles an das jeweils aktuelle {@code System.out}.
+ */
+public class Diagnostics {
+  private final PrintStream stream;
+  private int errors;
+
+  public Diagnostics() {
+    this(null);
+  }
+
+  public Diagnostics(PrintStream stream) {
+    this.stream = stream;
+  }
+
+  public void error(String message) {
+    errors++;
+    note(message);
+  }
+
+  public void note(String message) {
+    (stream != null ? stream : System.out).println(message);
+  }
+
+  public boolean hasErrors() {
+    return errors > 0;
+  }
+}
@@ -0,0 +1,16 @@
+package Output;
+
+/**
+ * Ziel der BuiltIns {@code print_int}, {@code print_bool} und {@code print_char}. Jeder Aufruf
+ * erzeugt eine Zeile wie {@code Print int: 5}; gepufferte Senken geben sie erst mit {@link
+ * #flush()} weiter.
+ */
+public interface OutputSink {
+  void printInt(int value);
+
+  void printBool(boolean value);
+
+  void printChar(char value);
+
+  default void flush() {}
+}
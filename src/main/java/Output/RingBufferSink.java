@@ -0,0 +1,65 @@
+package Output;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Hält die Ausgabe im Speicher, z.B. für Tests oder eingebettete Aufrufer. Ist der Ring voll,
+ * überschreiben neue Zeilen die ältesten Bytes.
+ */
+public class RingBufferSink implements OutputSink {
+  private final byte[] ring;
+  private long written;
+
+  public RingBufferSink(int capacity) {
+    this.ring = new byte[capacity];
+  }
+
+  @Override
+  public void printInt(int value) {
+    line("Print int: " + value);
+  }
+
+  @Override
+  public void printBool(boolean value) {
+    line("Print bool: " + value);
+  }
+
+  @Override
+  public void printChar(char value) {
+    line("Print char: " + value);
+  }
+
+  private void line(String text) {
+    for (byte b : (text + '\n').getBytes(StandardCharsets.UTF_8)) {
+      ring[(int) (written++ % ring.length)] = b;
+    }
+  }
+
+  /** Anzahl aller geschriebenen Bytes, auch der bereits überschriebenen. */
+  public long written() {
+    return written;
+  }
+
+  /** Die noch vorhandenen Bytes in Schreibreihenfolge. */
+  public byte[] toByteArray() {
+    int size = (int) Math.min(written, ring.length);
+    byte[] bytes = new byte[size];
+    int start = (int) ((written - size) % ring.length);
+    int first = Math.min(size, ring.length - start);
+    System.arraycopy(ring, start, bytes, 0, first);
+    System.arraycopy(ring, 0, bytes, first, size - first);
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return new String(toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /** Leert den Ring, alte Bytes bleiben nicht im Speicher stehen. */
+  public void clear() {
+    Arrays.fill(ring, (byte) 0);
+    written = 0;
+  }
+}
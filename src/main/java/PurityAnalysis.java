@@ -0,0 +1,127 @@
+import AST.ASTNode;
+import AST.Type;
+import SymbolTable.BuiltIn;
+import SymbolTable.Function;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Markiert Funktionen, deren Ergebnis nur von den Argumenten abhängt, damit die Interpreter ihre
+ * Aufrufe memoisieren können. Rein ist eine Funktion mit primitiven Parametern und Rückgabetyp, die
+ * keine globalen Variablen liest oder schreibt, keine Referenzen, Arrays oder Objekte benutzt,
+ * nichts ausgibt und nur reine Funktionen aufruft.
+ */
+public class PurityAnalysis {
+  private Scope globalScope;
+
+  public ASTNode analyze(ASTNode program) {
+    this.globalScope = program.getScope();
+    Map<Function, Set<Function>> candidates = new HashMap<>();
+    for (ASTNode child : program.children) {
+      if (child.getType() != Type.FN_DECL || child.children.getLast().getType() != Type.BLOCK) {
+        continue;
+      }
+      ASTNode fnInfo = child.children.getFirst();
+      if (!isPrimitive(fnInfo)
+          || fnInfo.children.isEmpty()
+          || !(child.getScope().resolve(fnInfo.children.getFirst().getValue())
+              instanceof Function function)) {
+        continue;
+      }
+      Set<Function> callees = new HashSet<>();
+      if (hasPrimitiveParams(child) && isPure(child.children.getLast(), callees)) {
+        candidates.put(function, callees);
+      }
+    }
+
+    // Funktionen, die eine unreine Funktion aufrufen, sind selbst unrein
+    boolean changed = true;
+    while (changed) {
+      changed =
+          candidates
+              .entrySet()
+              .removeIf(entry -> !candidates.keySet().containsAll(entry.getValue()));
+    }
+    candidates.keySet().forEach(function -> function.setPure(true));
+    return program;
+  }
+
+  private static boolean isPrimitive(ASTNode type) {
+    return type.getType() == Type.INT || type.getType() == Type.BOOL || type.getType() == Type.CHAR;
+  }
+
+  private boolean hasPrimitiveParams(ASTNode fnDecl) {
+    for (ASTNode child : fnDecl.children) {
+      if (child.getType() == Type.PARAMS) {
+        for (ASTNode param : child.children) {
+          if (!isPrimitive(param) || !param.children.isEmpty()) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /** Prüft den Rumpf und sammelt die aufgerufenen Funktionen. */
+  private boolean isPure(ASTNode node, Set<Function> callees) {
+    switch (node.getType()) {
+      case Type.ID -> {
+        Symbol symbol = symbolOf(node);
+        if (symbol == null || symbol.scope == globalScope) {
+          return false;
+        }
+      }
+      case Type.VAR_DECL -> {
+        if (!isPrimitive(node.children.getFirst())) {
+          return false;
+        }
+      }
+      case Type.FN_CALL -> {
+        Scope scope = node.getScope();
+        Symbol callee = scope == null ? null : scope.resolve(node.getValue());
+        if (callee instanceof BuiltIn
+            || !(callee instanceof Function function)
+            || (!node.children.isEmpty() && node.children.getFirst().getType() != Type.ARGS)) {
+          return false;
+        }
+        callees.add(function);
+      }
+      case Type.VAR_REF,
+          Type.ARRAY_REF,
+          Type.ARRAY_DECL,
+          Type.ARRAY_INIT,
+          Type.ARRAY_ITEM,
+          Type.OBJ_USAGE,
+          Type.CLASSTYPE,
+          Type.NULL -> {
+        return false;
+      }
+      case null -> {
+        return false;
+      }
+      default -> {}
+    }
+    for (ASTNode child : node.children) {
+      if (!isPure(child, callees)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Symbol symbolOf(ASTNode node) {
+    if (!node.hasSlot()) {
+      return null;
+    }
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope.symbols.get(node.getValue());
+  }
+}
@@ -0,0 +1,346 @@
+import AST.ASTNode;
+import AST.Type;
+import SymbolTable.BuiltIn;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bereichsanalyse für Arrayzugriffe. Für Schleifen der Form {@code while (i < L)} wird gezeigt,
+ * dass die Laufvariable im Rumpf in {@code [0, L)} liegt: sie ist eine lokale int-Variable, wird
+ * vor der Schleife mit einem Literal ≥ 0 belegt und im Rumpf nur hochgezählt. Zugriffe {@code a[i]}
+ * auf Arrays mit konstanter Größe ≥ L, die vor jeder Änderung von i im Rumpf liegen, werden
+ * markiert und vom {@link Interpreter} ohne Bereichsprüfung ausgeführt.
+ */
+public class RangeAnalysis {
+  // Größen der mit konstanten Größen deklarierten Arrays
+  private final Map<Symbol, int[]> arraySizes = new HashMap<>();
+  // Attribute und Variablen, die per Referenz gebunden oder an eigene Funktionen übergeben werden
+  private final Set<Symbol> escaped = new HashSet<>();
+  private final Set<Symbol> declaredTwice = new HashSet<>();
+  private Scope globalScope;
+
+  public ASTNode analyze(ASTNode program) {
+    this.globalScope = program.getScope();
+    collect(program);
+    visit(program, new HashMap<>());
+    return program;
+  }
+
+  private void collect(ASTNode node) {
+    switch (node.getType()) {
+      case Type.ARRAY_DECL -> {
+        ASTNode target = node.children.getFirst();
+        Symbol symbol = symbolOf(target);
+        int[] sizes = new int[target.children.size()];
+        for (int i = 0; i < sizes.length && symbol != null; i++) {
+          ASTNode size = target.children.get(i);
+          sizes[i] = size.getType() == Type.INT && !size.hasSlot() ? literal(size) : -1;
+        }
+        if (symbol != null && arraySizes.put(symbol, sizes) != null) {
+          declaredTwice.add(symbol);
+        }
+      }
+      case Type.VAR_REF, Type.ARRAY_REF -> markEscaped(node.children.getLast());
+      case Type.CLASS -> {
+        // Attribute können von jedem Methodenaufruf im Rumpf geändert werden
+        for (ASTNode child : node.children) {
+          Symbol symbol =
+              child.getType() == Type.VAR_DECL ? symbolOf(child.children.getFirst()) : null;
+          if (symbol != null) {
+            escaped.add(symbol);
+          }
+        }
+      }
+      case Type.FN_CALL -> {
+        Scope scope = node.getScope();
+        if (scope == null || !(scope.resolve(node.getValue()) instanceof BuiltIn)) {
+          for (ASTNode child : node.children) {
+            if (child.getType() == Type.ARGS) {
+              child.children.forEach(this::markEscaped);
+            }
+          }
+        }
+      }
+      case null -> {
+        return;
+      }
+      default -> {}
+    }
+    for (ASTNode child : node.children) {
+      collect(child);
+    }
+  }
+
+  private void markEscaped(ASTNode node) {
+    Symbol symbol = node.getType() == Type.ID ? symbolOf(node) : null;
+    if (symbol != null) {
+      escaped.add(symbol);
+    }
+  }
+
+  /**
+   * Läuft über den Baum, {@code bounds} enthält für jede Variable, deren Bereich an dieser Stelle
+   * bewiesen ist, die obere Grenze (exklusiv).
+   */
+  private void visit(ASTNode node, Map<Symbol, Integer> bounds) {
+    switch (node.getType()) {
+      case Type.BLOCK -> {
+        Map<Symbol, Integer> current = new HashMap<>(bounds);
+        for (int i = 0; i < node.children.size(); i++) {
+          ASTNode statement = node.children.get(i);
+          Set<Symbol> written = writes(statement);
+          current.keySet().removeAll(written);
+          if (statement.getType() == Type.WHILE) {
+            visitWhile(statement, node.children.subList(0, i), current);
+          } else {
+            visit(statement, current);
+          }
+        }
+        return;
+      }
+      case Type.WHILE -> {
+        // Schleife außerhalb eines Blocks, ohne bekannten Startwert
+        Map<Symbol, Integer> current = new HashMap<>(bounds);
+        current.keySet().removeAll(writes(node));
+        node.children.forEach(child -> visit(child, current));
+        return;
+      }
+      case Type.ARRAY_ITEM -> markAccess(node, bounds);
+      case null -> {
+        return;
+      }
+      default -> {}
+    }
+    for (ASTNode child : node.children) {
+      visit(child, bounds);
+    }
+  }
+
+  private void visitWhile(ASTNode loop, List<ASTNode> before, Map<Symbol, Integer> bounds) {
+    Map<Symbol, Integer> inner = new HashMap<>(bounds);
+    ASTNode condition = loop.children.getFirst();
+    Symbol variable = inductionVariable(condition);
+    if (variable != null && upperBound(condition) <= Integer.MAX_VALUE) {
+      // i + c darf nicht überlaufen, sonst ist i bei der nächsten Prüfung negativ
+      long maxStep = Integer.MAX_VALUE - limit(condition);
+      if (startsNonNegative(variable, before)
+          && onlyIncremented(variable, loop.children.getLast(), maxStep)) {
+        inner.put(variable, (int) upperBound(condition));
+      }
+    }
+    visit(condition, inner);
+    visit(loop.children.getLast(), inner);
+  }
+
+  /** Laufvariable einer Bedingung {@code i < L}, {@code i <= L} oder {@code L > i}. */
+  private Symbol inductionVariable(ASTNode condition) {
+    ASTNode id = boundedId(condition);
+    if (id == null) {
+      return null;
+    }
+    Symbol symbol = symbolOf(id);
+    if (symbol == null
+        || !"int".equals(symbol.type)
+        || symbol.scope == globalScope
+        || escaped.contains(symbol)
+        || declaredTwice.contains(symbol)) {
+      return null;
+    }
+    return symbol;
+  }
+
+  private ASTNode boundedId(ASTNode condition) {
+    if (condition.children.size() != 2) {
+      return null;
+    }
+    ASTNode left = condition.children.getFirst();
+    ASTNode right = condition.children.getLast();
+    return switch (condition.getType()) {
+      case Type.LESS, Type.LESS_EQUAL ->
+          left.getType() == Type.ID && isLiteral(right) ? left : null;
+      case Type.GREATER -> right.getType() == Type.ID && isLiteral(left) ? right : null;
+      case null, default -> null;
+    };
+  }
+
+  private long upperBound(ASTNode condition) {
+    return condition.getType() == Type.LESS_EQUAL ? limit(condition) + 1 : limit(condition);
+  }
+
+  /** Das Literal L der Bedingung. */
+  private static long limit(ASTNode condition) {
+    return condition.getType() == Type.GREATER
+        ? literal(condition.children.getFirst())
+        : literal(condition.children.getLast());
+  }
+
+  /** Die letzte Anweisung vor der Schleife, die i schreibt, muss ein Literal ≥ 0 zuweisen. */
+  private boolean startsNonNegative(Symbol variable, List<ASTNode> before) {
+    for (int i = before.size() - 1; i >= 0; i--) {
+      ASTNode statement = before.get(i);
+      if (statement.getType() == Type.VAR_DECL
+          && statement.children.size() == 2
+          && symbolOf(statement.children.getFirst()) == variable) {
+        return isNonNegativeLiteral(statement.children.getLast());
+      }
+      if (writes(statement).contains(variable)) {
+        return statement.getType() == Type.ASSIGN
+            && statement.getValue().equals("=")
+            && statement.children.getFirst().getType() == Type.ID
+            && isNonNegativeLiteral(statement.children.getLast());
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Jede Änderung von i im Rumpf ist {@code i++}, {@code ++i}, {@code i += c} oder i = i + c mit
+   * {@code c <= maxStep}.
+   */
+  private boolean onlyIncremented(Symbol variable, ASTNode node, long maxStep) {
+    switch (node.getType()) {
+      case Type.ASSIGN -> {
+        ASTNode target = node.children.getFirst();
+        if (target.getType() == Type.ID && symbolOf(target) == variable) {
+          ASTNode value = node.children.getLast();
+          boolean increment =
+              switch (node.getValue()) {
+                case "+=" -> isStep(value, maxStep);
+                case "=" ->
+                    value.getType() == Type.ADD
+                        && isVariable(value.children.getFirst(), variable)
+                        && isStep(value.children.getLast(), maxStep);
+                default -> false;
+              };
+          if (!increment) {
+            return false;
+          }
+        }
+      }
+      case Type.DEC_INC -> {
+        for (ASTNode child : node.children) {
+          if ((child.getType() == Type.DEC || maxStep < 1) && containsVariable(node, variable)) {
+            return false;
+          }
+        }
+      }
+      case Type.VAR_DECL -> {
+        if (symbolOf(node.children.getFirst()) == variable) {
+          return false;
+        }
+      }
+      case null -> {
+        return true;
+      }
+      default -> {}
+    }
+    for (ASTNode child : node.children) {
+      if (!onlyIncremented(variable, child, maxStep)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void markAccess(ASTNode node, Map<Symbol, Integer> bounds) {
+    Symbol array = symbolOf(node);
+    int[] sizes = array == null || declaredTwice.contains(array) ? null : arraySizes.get(array);
+    if (sizes == null || node.children.size() != sizes.length) {
+      return;
+    }
+    for (int i = 0; i < sizes.length; i++) {
+      ASTNode index = node.children.get(i);
+      boolean safe;
+      if (isLiteral(index)) {
+        safe = literal(index) >= 0 && literal(index) < sizes[i];
+      } else if (index.getType() == Type.ID) {
+        Integer bound = bounds.get(symbolOf(index));
+        safe = bound != null && bound <= sizes[i];
+      } else {
+        safe = false;
+      }
+      if (!safe) {
+        return;
+      }
+    }
+    node.setInBounds(true);
+  }
+
+  /** Alle Variablen, die in node geschrieben werden. */
+  private Set<Symbol> writes(ASTNode node) {
+    Set<Symbol> written = new HashSet<>();
+    collectWrites(node, written);
+    return written;
+  }
+
+  private void collectWrites(ASTNode node, Set<Symbol> written) {
+    ArrayList<ASTNode> targets = new ArrayList<>();
+    switch (node.getType()) {
+      case Type.ASSIGN -> targets.add(node.children.getFirst());
+      case Type.DEC_INC -> targets.addAll(node.children);
+      case Type.VAR_DECL -> targets.add(node.children.getFirst());
+      case null -> {
+        return;
+      }
+      default -> {}
+    }
+    for (ASTNode target : targets) {
+      Symbol symbol = symbolOf(target);
+      if (symbol != null) {
+        written.add(symbol);
+      }
+    }
+    for (ASTNode child : node.children) {
+      collectWrites(child, written);
+    }
+  }
+
+  private boolean containsVariable(ASTNode node, Symbol variable) {
+    if (isVariable(node, variable)) {
+      return true;
+    }
+    for (ASTNode child : node.children) {
+      if (containsVariable(child, variable)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isVariable(ASTNode node, Symbol variable) {
+    return node.getType() == Type.ID && symbolOf(node) == variable;
+  }
+
+  private Symbol symbolOf(ASTNode node) {
+    if (!node.hasSlot()) {
+      return null;
+    }
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope.symbols.get(node.getValue());
+  }
+
+  private static boolean isLiteral(ASTNode node) {
+    return node.getType() == Type.INT && node.children.isEmpty() && !node.hasSlot();
+  }
+
+  private static boolean isNonNegativeLiteral(ASTNode node) {
+    return isLiteral(node) && literal(node) >= 0;
+  }
+
+  private static boolean isStep(ASTNode node, long maxStep) {
+    return isNonNegativeLiteral(node) && literal(node) <= maxStep;
+  }
+
+  private static int literal(ASTNode node) {
+    return Integer.parseInt(node.getValue());
+  }
+}
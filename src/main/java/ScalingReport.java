@@ -0,0 +1,216 @@
+import AST.ASTNode;
+import Output.RingBufferSink;
+import Synthetic.ProgramGenerator;
+import Synthetic.Shape;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+
+/**
+ * Misst Laufzeit und Speicher der Phasen an erzeugten Programmen wachsender Größe. Die Größen sind
+ * Funktionen pro Programm, siehe {@link Shape#scaled}, z.B. {@code ./gradlew scalingReport
+ * --args="100 1000 --runs=5"}. Meldungen der Prüfungen werden mitgelesen, ein Programm mit "Error"
+ * wird gemeldet.
+ */
+public class ScalingReport {
+  private static final int[] DEFAULT_SIZES = {10, 30, 100, 300, 1000};
+  private static final String[] PHASES = {
+    "parse", "ast", "print", "scopes", "typecheck", "optimize", "interpret"
+  };
+  private static final int PARSE = 0;
+  private static final int AST = 1;
+  private static final int PRINT = 2;
+  private static final int SCOPES = 3;
+  private static final int TYPECHECK = 4;
+  private static final int OPTIMIZE = 5;
+  private static final int INTERPRET = 6;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  // Zeit und allokierte Bytes pro Phase im aktuellen Lauf
+  private final long[] nanos = new long[PHASES.length];
+  private final long[] allocated = new long[PHASES.length];
+  private long retained;
+  private int nodes;
+  private int phase = -1;
+  private long start;
+  private long startAllocated;
+
+  public static void main(String... args) {
+    List<Integer> sizes = new ArrayList<>();
+    int runs = 3;
+    long seed = 1;
+    for (String arg : args) {
+      if (arg.startsWith("--runs=")) {
+        runs = Integer.parseInt(arg.substring("--runs=".length()));
+      } else if (arg.startsWith("--seed=")) {
+        seed = Long.parseLong(arg.substring("--seed=".length()));
+      } else {
+        sizes.add(Integer.parseInt(arg));
+      }
+    }
+    if (sizes.isEmpty()) {
+      Arrays.stream(DEFAULT_SIZES).forEach(sizes::add);
+    }
+
+    PrintStream console = System.out;
+    console.printf("Scaling report, seed %d, median of %d runs%n", seed, runs);
+    console.printf("%9s %8s %8s", "functions", "lines", "nodes");
+    for (String name : PHASES) {
+      console.printf(" %12s", name + " ms");
+    }
+    console.printf(" %12s %12s%n", "allocated MB", "retained MB");
+
+    long[] lines = new long[sizes.size()];
+    double[][] medians = new double[sizes.size()][];
+    for (int i = 0; i < sizes.size(); i++) {
+      String source = new ProgramGenerator(Shape.scaled(sizes.get(i)), seed).generate();
+      lines[i] = source.lines().count();
+      long[][] times = new long[runs][];
+      long allocatedBytes = 0;
+      long retainedBytes = 0;
+      int nodeCount = 0;
+      // der erste Lauf wärmt die JVM auf und zählt nicht
+      for (int run = -1; run < runs; run++) {
+        ScalingReport report = new ScalingReport();
+        report.run(source, console);
+        if (run >= 0) {
+          times[run] = report.nanos;
+          allocatedBytes = Math.max(allocatedBytes, Arrays.stream(report.allocated).sum());
+          retainedBytes = Math.max(retainedBytes, report.retained);
+          nodeCount = report.nodes;
+        }
+      }
+
+      medians[i] = new double[PHASES.length];
+      console.printf("%9d %8d %8d", sizes.get(i), lines[i], nodeCount);
+      for (int p = 0; p < PHASES.length; p++) {
+        int phase = p;
+        medians[i][p] = median(Arrays.stream(times).mapToLong(t -> t[phase]).toArray()) / 1e6;
+        console.printf(" %12.2f", medians[i][p]);
+      }
+      console.printf(" %12.1f %12.1f%n", allocatedBytes / 1e6, retainedBytes / 1e6);
+    }
+
+    // Steigung im doppelt logarithmischen Maßstab: 1 heißt linear, 2 quadratisch
+    if (sizes.size() >= 2) {
+      int last = sizes.size() - 1;
+      console.printf("%9s %8s %8s", "growth", "", "");
+      for (int p = 0; p < PHASES.length; p++) {
+        console.printf(
+            " %12.2f",
+            Math.log(medians[last][p] / medians[last - 1][p])
+                / Math.log((double) lines[last] / lines[last - 1]));
+      }
+      console.println();
+    }
+  }
+
+  private static double median(long[] values) {
+    long[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int middle = sorted.length / 2;
+    return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2.0;
+  }
+
+  private void run(String source, PrintStream console) {
+    ByteArrayOutputStream messages = new ByteArrayOutputStream();
+    PrintStream captured = new PrintStream(messages, true);
+    PrintStream discarded = new PrintStream(OutputStream.nullOutputStream());
+    System.gc();
+    long baseline = usedHeap();
+    try {
+      System.setOut(captured);
+      ASTNode ast = buildAst(source);
+
+      begin(PRINT);
+      System.setOut(discarded);
+      ast.print();
+      System.setOut(captured);
+
+      begin(SCOPES);
+      FirstScopeVisitor firstScope = new FirstScopeVisitor();
+      ASTNode scopedAst = firstScope.visitProgram(ast);
+      new SecondScopeVisitor(firstScope.currentScope).visit(scopedAst);
+
+      begin(OPTIMIZE);
+      DeadCodeEliminator deadCodeEliminator = new DeadCodeEliminator();
+      deadCodeEliminator.eliminate(scopedAst);
+
+      begin(TYPECHECK);
+      new TypeCheckVisitor(firstScope.currentScope).visit(scopedAst);
+
+      begin(OPTIMIZE);
+      new ConstantFolder().fold(scopedAst);
+      deadCodeEliminator.eliminate(scopedAst);
+      new RangeAnalysis().analyze(scopedAst);
+      new PurityAnalysis().analyze(scopedAst);
+      end();
+
+      // der Parse-Baum ist nicht mehr erreichbar, übrig bleiben AST und Scopes
+      System.gc();
+      retained = usedHeap() - baseline;
+      nodes = count(scopedAst);
+
+      begin(INTERPRET);
+      Interpreter interpreter = new Interpreter();
+      interpreter.setOutput(new RingBufferSink(1 << 12));
+      interpreter.eval(scopedAst);
+      end();
+    } finally {
+      System.setOut(console);
+    }
+
+    List<String> errors = messages.toString().lines().filter(l -> l.contains("Error")).toList();
+    if (!errors.isEmpty()) {
+      console.println(errors.size() + " errors in generated program, first: " + errors.getFirst());
+    }
+  }
+
+  private ASTNode buildAst(String source) {
+    begin(PARSE);
+    CppLexer lexer = new CppLexer(CharStreams.fromString(source));
+    CppParser parser = new CppParser(new CommonTokenStream(lexer));
+    ParseTree parseTree = parser.program();
+
+    begin(AST);
+    return new CppParseTreeVisitor().visit(parseTree);
+  }
+
+  /** Beendet die laufende Phase und beginnt {@code next}, Zeiten derselben Phase summieren sich. */
+  private void begin(int next) {
+    end();
+    phase = next;
+    start = System.nanoTime();
+    startAllocated = THREADS.getCurrentThreadAllocatedBytes();
+  }
+
+  private void end() {
+    if (phase >= 0) {
+      nanos[phase] += System.nanoTime() - start;
+      allocated[phase] += THREADS.getCurrentThreadAllocatedBytes() - startAllocated;
+    }
+    phase = -1;
+  }
+
+  private static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  private static int count(ASTNode node) {
+    int count = 1;
+    for (ASTNode child : node.children) {
+      count += count(child);
+    }
+    return count;
+  }
+}
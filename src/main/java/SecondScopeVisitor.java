@@ -1,10 +1,12 @@
 import AST.ASTNode;
 import AST.Type;
+import Output.Diagnostics;
 import SymbolTable.*;
 import SymbolTable.Class;
 
 public class SecondScopeVisitor {
   Scope currentScope;
+  Diagnostics diagnostics = new Diagnostics();
 
   public SecondScopeVisitor(Scope scope) {}
 
@@ -35,7 +37,7 @@ public class SecondScopeVisitor {
         visitObjUsage(node);
         break;
       case null:
-        System.out.println("AST.Type: " + node.getType().name() + "Value: " + node.getValue());
+        diagnostics.note("AST.Type: " + node.getType().name() + "Value: " + node.getValue());
         break;
       default:
         if (node.children.isEmpty()) {
@@ -57,9 +59,77 @@ public class SecondScopeVisitor {
   public ASTNode visitProgram(ASTNode program) {
     visitChildren(program);
     this.currentScope = program.getScope();
+    visitSlots(program);
     return program;
   }
 
+  public ASTNode visitSlots(ASTNode node) {
+    switch (node.getType()) {
+      case Type.ID, Type.ARRAY_ITEM:
+        setSlot(node);
+        break;
+      case Type.VAR_DECL, Type.VAR_REF, Type.ARRAY_DECL, Type.ARRAY_INIT, Type.ARRAY_REF:
+        setSlot(node.children.getFirst());
+        break;
+      case Type.PARAMS:
+        for (ASTNode param : node.children) {
+          setSlot(param);
+        }
+        break;
+      case Type.COPY_CONSTRUCTOR:
+        // der Parameter steht ohne PARAMS als erstes Kind
+        setSlot(node.children.getFirst());
+        break;
+      case Type.FN_CALL:
+        // Objektdeklaration A x(...)
+        if (!node.children.isEmpty() && node.children.getFirst().getType() == Type.CLASSTYPE) {
+          setSlot(node);
+        } else if (node.getScope() != null
+            && node.getScope().resolve(node.getValue()) instanceof Function method
+            && isClassScope(method.scope)) {
+          // Methode ohne this->, zur Laufzeit über die vtable des Empfängers
+          node.setMember(true);
+        }
+        break;
+      case Type.OBJ_USAGE:
+        // nur das Objekt selbst liegt im Environment, Attribute und Methoden nicht
+        return visitSlots(node.children.getFirst());
+      case null:
+        return node;
+      default:
+        break;
+    }
+    for (ASTNode child : node.children) {
+      visitSlots(child);
+    }
+    return node;
+  }
+
+  private void setSlot(ASTNode node) {
+    Scope scope = node.getScope();
+    if (scope == null || node.getValue() == null) {
+      return;
+    }
+    Symbol symbol = scope.resolve(node.getValue());
+    if (!(symbol instanceof Variable || symbol instanceof Array || symbol instanceof Reference)) {
+      return;
+    }
+    if (isClassScope(symbol.scope)
+        && !(symbol instanceof Variable variable && variable.isParameter())) {
+      // zur Laufzeit liegt an dieser Stelle das Environment mit this, die Felder in der Instanz
+      node.setMember(true);
+    } else {
+      node.setSlot(scope.depthOf(node.getValue()), symbol.slot);
+    }
+  }
+
+  private static boolean isClassScope(Scope scope) {
+    return scope != null
+        && scope.enclosingScope != null
+        && scope.enclosingScope.symbols.values().stream()
+            .anyMatch(symbol -> symbol instanceof Class c && c.getClassScope() == scope);
+  }
+
   public ASTNode visitFncall(ASTNode fncall) {
     this.currentScope = fncall.getScope();
     String functionName = fncall.getValue();
@@ -68,7 +138,7 @@ public class SecondScopeVisitor {
       String className = fncall.children.getFirst().getValue();
       Symbol classSymbol = currentScope.resolve(className);
       if (classSymbol == null) {
-        System.out.println("Error: no such class: " + className);
+        diagnostics.error("Error: no such class: " + className);
       } else {
         ASTNode args =
             (!fncall.children.isEmpty() && fncall.children.getLast().getType() == Type.ARGS)
@@ -77,7 +147,7 @@ public class SecondScopeVisitor {
         if (args != null) {
           int args_count = args.children.size();
           if (args_count != 1) {
-            System.out.println("Error: arg and param count mismatch at function " + functionName);
+            diagnostics.error("Error: arg and param count mismatch at function " + functionName);
             return fncall;
           } else {
             currentScope.bind(new Variable(functionName, classSymbol.name));
@@ -90,14 +160,14 @@ public class SecondScopeVisitor {
       Symbol function = currentScope.resolve(functionName);
 
       if (function == null) {
-        System.out.println("Error: no such function: " + functionName);
+        diagnostics.error("Error: no such function: " + functionName);
         return fncall;
       }
 
       if (function instanceof Variable) {
         Symbol typeSymbol = currentScope.resolve(function.type);
         if (!(typeSymbol instanceof Class)) {
-          System.out.println("Error: " + functionName + " is not a function");
+          diagnostics.error("Error: " + functionName + " is not a function");
         }
         return fncall;
       }
@@ -121,7 +191,7 @@ public class SecondScopeVisitor {
         }
 
         if (args_count != params_count) {
-          System.out.println("Error: arg and param count mismatch at function " + functionName);
+          diagnostics.error("Error: arg and param count mismatch at function " + functionName);
           return fncall;
         }
 
@@ -157,7 +227,8 @@ public class SecondScopeVisitor {
       String name = child.getValue();
       String type = child.getType().name().toLowerCase();
       Symbol typeSymbol = getTypeEqual(type, child);
-      Symbol param = new Variable(name, typeSymbol.name);
+      Variable param = new Variable(name, typeSymbol.name);
+      param.setParameter(true);
       currentScope.bind(param);
     }
     return node;
@@ -169,13 +240,13 @@ public class SecondScopeVisitor {
     if (node.children.isEmpty() && node.getType() == Type.ID && !node.getValue().equals("this")) {
       variable = currentScope.resolve(node.getValue());
       if (variable == null) {
-        System.out.println("Error: no such variable: " + node.getValue());
+        diagnostics.error("Error: no such variable: " + node.getValue());
       }
     } else {
       if (node.getType() == Type.OBJ_USAGE) {
         variable = getSymbolOfObjUsage(node);
         if (variable == null) {
-          System.out.println("Error: no such variable: " + node.getValue());
+          diagnostics.error("Error: no such variable: " + node.getValue());
         }
       } else {
         visitChildren(node);
@@ -203,20 +274,20 @@ public class SecondScopeVisitor {
     }
 
     if (variable == null) {
-      System.out.println("Error: no such variable: " + node.children.getFirst().getValue());
+      diagnostics.error("Error: no such variable: " + node.children.getFirst().getValue());
     }
 
     ASTNode value = node.children.getLast();
     if (value.getType() == Type.OBJ_USAGE) {
       Symbol valueSymbol = getSymbolOfObjUsage(value);
       if (valueSymbol == null) {
-        System.out.println("Error: no such variable: " + value.getValue());
+        diagnostics.error("Error: no such variable: " + value.getValue());
       }
     }
     if (value.getType() == Type.ID || value.getType() == Type.ARRAY_ITEM) {
       Symbol valueSymbol = currentScope.resolve(value.getValue());
       if (valueSymbol == null) {
-        System.out.println("Error: no such variable: " + value.getValue());
+        diagnostics.error("Error: no such variable: " + value.getValue());
       }
     }
 
@@ -258,13 +329,13 @@ public class SecondScopeVisitor {
     ASTNode paramType = copyconstNode.children.getFirst().children.getFirst();
 
     if (!copyconstName.equals(classSymbol.name)) {
-      System.out.println("Error: Operator return type must match class name: " + classSymbol.name);
+      diagnostics.error("Error: Operator return type must match class name: " + classSymbol.name);
     } else if (!paramType.getValue().equals(classSymbol.name)) {
-      System.out.println("Error: Param type must match class name: " + classSymbol.name);
+      diagnostics.error("Error: Param type must match class name: " + classSymbol.name);
     }
 
     if (!(copyconstName.equals(paramType.getValue()))) {
-      System.out.println("Error: Return type ID must match parameter ID");
+      diagnostics.error("Error: Return type ID must match parameter ID");
     }
 
     Function operator = new Function("copy_" + copyconstName, classSymbol.name);
@@ -286,7 +357,7 @@ public class SecondScopeVisitor {
     String constructorName = constructorNode.getValue();
 
     if (!constructorName.equals(classSymbol.name)) {
-      System.out.println("Error: Constructor name must match class name: " + classSymbol.name);
+      diagnostics.error("Error: Constructor name must match class name: " + classSymbol.name);
     }
 
     Function constructor = new Function(constructorName, classSymbol.name);
@@ -311,7 +382,7 @@ public class SecondScopeVisitor {
 
     Symbol alreadyDeclared = currentScope.resolve(destructorName);
     if (alreadyDeclared != null) {
-      System.out.println("Error: Destructor " + destructorName + " already exists.");
+      diagnostics.error("Error: Destructor " + destructorName + " already exists.");
     }
 
     Function destructor = new Function(destructorName, classSymbol.name);
@@ -392,13 +463,13 @@ public class SecondScopeVisitor {
     ASTNode paramID = operatorNode.children.get(1).children.getFirst().children.getFirst();
 
     if (!returnTypeID.getValue().equals(classSymbol.name)) {
-      System.out.println("Error: Operator return type must match class name: " + classSymbol.name);
+      diagnostics.error("Error: Operator return type must match class name: " + classSymbol.name);
     } else if (!paramID.getValue().equals(classSymbol.name)) {
-      System.out.println("Error: Param type must match class name: " + classSymbol.name);
+      diagnostics.error("Error: Param type must match class name: " + classSymbol.name);
     }
 
     if (!(returnTypeID.getValue().equals(paramID.getValue()))) {
-      System.out.println("Error: Return type ID must match parameter ID");
+      diagnostics.error("Error: Return type ID must match parameter ID");
     }
 
     Function operator = new Function(operatorName, classSymbol.name);
@@ -0,0 +1,716 @@
+import AST.ASTNode;
+import AST.Type;
+import Environment.FlatArray;
+import Environment.MemoCache;
+import Nodes.Kind;
+import Output.ChannelSink;
+import Output.OutputSink;
+import SymbolTable.Scope;
+import SymbolTable.Symbol;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interpreter, der den AST ohne Rekursion auf dem Java-Stack ausführt. Offene Knoten liegen mit
+ * ihrem Fortschritt auf einem Kontrollstack, Zwischenergebnisse auf einem int-Wertestack und die
+ * Variablen jedes Aufrufs in einem {@link Frame} auf dem Heap. Die Rekursionstiefe des Programms
+ * ist damit nur durch den Speicher begrenzt. Slots werden wie im {@link ClosureCompiler} vorab pro
+ * Funktion vergeben und im Knoten abgelegt.
+ */
+public class StackInterpreter {
+  /** Slot einer Variablen, entweder global oder im Frame der Funktion. */
+  private record Local(boolean global, int index, Kind kind) {}
+
+  private static final class Function {
+    ASTNode body;
+    int[] paramSlots;
+    Kind[] paramKinds;
+    int frameSize;
+    Kind result;
+    // nur bei reinen Funktionen gesetzt
+    MemoCache memo;
+  }
+
+  private static final class Frame {
+    final int[] ints;
+    final Object[] objects;
+    final Function function;
+    // Position des Aufrufs auf dem Kontrollstack und sein Zustand nach dem return
+    int control;
+    int resume;
+    // Höhe des Wertestacks beim Betreten
+    int values;
+    int result;
+    // Argumente für den MemoCache
+    List<Integer> key;
+
+    Frame(int size, Function function) {
+      this.ints = new int[size];
+      this.objects = new Object[size];
+      this.function = function;
+    }
+  }
+
+  private final Map<String, Function> functions = new HashMap<>();
+  private final Map<ASTNode, ASTNode[]> initializers = new HashMap<>();
+  private Scope globalScope;
+  private Frame globals;
+  private Function main;
+
+  // Startindex jedes Scopes im Frame der aktuell vorbereiteten Funktion
+  private Map<Scope, Integer> bases = new HashMap<>();
+  private int frameSize;
+
+  private ASTNode[] nodes = new ASTNode[64];
+  private int[] states = new int[64];
+  private int top;
+  private int[] values = new int[64];
+  private int sp;
+  private Frame[] frames = new Frame[16];
+  private int fp;
+  private Frame frame;
+  private OutputSink out = ChannelSink.stdout(ChannelSink.MAX_LINE);
+
+  public void setOutput(OutputSink out) {
+    this.out = out;
+  }
+
+  /** Prüft, ob das Programm unterstützt wird, und vergibt die Slots. */
+  public void prepare(ASTNode program) {
+    this.globalScope = program.getScope();
+    this.globals = new Frame(globalScope.slotCount, null);
+    for (ASTNode child : program.children) {
+      if (child.getType() == Type.FN_DECL && child.children.getLast().getType() == Type.BLOCK) {
+        ASTNode fnInfo = child.children.getFirst();
+        if (fnInfo.getType() == Type.CLASSTYPE) {
+          throw unsupported(fnInfo);
+        }
+        Function function = new Function();
+        function.result = Kind.of(fnInfo.getType().name().toLowerCase());
+        if (child.getScope().resolve(fnInfo.children.getFirst().getValue())
+                instanceof SymbolTable.Function symbol
+            && symbol.isPure()) {
+          function.memo = MemoCache.create();
+        }
+        functions.put(fnInfo.children.getFirst().getValue(), function);
+      } else if (child.getType() == Type.MAIN) {
+        main = new Function();
+        main.result = Kind.INT;
+      }
+    }
+    for (ASTNode child : program.children) {
+      switch (child.getType()) {
+        case Type.FN_DECL -> {
+          if (child.children.getLast().getType() == Type.BLOCK) {
+            String name = child.children.getFirst().children.getFirst().getValue();
+            ASTNode params = null;
+            for (ASTNode part : child.children) {
+              if (part.getType() == Type.PARAMS) {
+                params = part;
+              }
+            }
+            prepareFunction(functions.get(name), params, child.children.getLast());
+          }
+        }
+        case Type.MAIN -> prepareFunction(main, null, child.children.getLast());
+        default -> {
+          this.bases = new HashMap<>();
+          prepareNode(child);
+        }
+      }
+    }
+  }
+
+  private void prepareFunction(Function function, ASTNode params, ASTNode block) {
+    this.bases = new HashMap<>();
+    this.frameSize = 0;
+    int count = params == null ? 0 : params.children.size();
+    function.paramSlots = new int[count];
+    function.paramKinds = new Kind[count];
+    for (int i = 0; i < count; i++) {
+      ASTNode param = params.children.get(i);
+      Symbol symbol = param.hasSlot() ? symbol(param) : null;
+      if (symbol == null || !param.children.isEmpty() || symbol instanceof SymbolTable.Array) {
+        throw unsupported(param);
+      }
+      function.paramSlots[i] = localIndex(param.getScope(), param.getSlot());
+      function.paramKinds[i] = Kind.of(symbol.type);
+    }
+    prepareNode(block);
+    function.body = block;
+    function.frameSize = frameSize;
+  }
+
+  private void prepareNode(ASTNode node) {
+    switch (node.getType()) {
+      case Type.BLOCK,
+          Type.IF,
+          Type.WHILE,
+          Type.RETURN,
+          Type.ASSIGN,
+          Type.ARGS,
+          Type.INT,
+          Type.BOOL,
+          Type.CHAR,
+          Type.ADD,
+          Type.SUB,
+          Type.MUL,
+          Type.DIV,
+          Type.MOD,
+          Type.GREATER,
+          Type.GREATER_EQUAL,
+          Type.LESS,
+          Type.LESS_EQUAL,
+          Type.EQUAL,
+          Type.NOT_EQUAL,
+          Type.AND,
+          Type.OR,
+          Type.NOT -> {}
+      case Type.ID -> {
+        Local local = local(node);
+        if (local.kind() == Kind.OBJECT) {
+          throw unsupported(node);
+        }
+        node.setCache(local);
+      }
+      case Type.VAR_DECL -> {
+        ASTNode target = node.children.getFirst();
+        if (!target.children.isEmpty() || Kind.of(symbol(target).type) == Kind.OBJECT) {
+          throw unsupported(target);
+        }
+        target.setCache(local(target));
+        if (node.children.size() == 2) {
+          prepareNode(node.children.getLast());
+        }
+        return;
+      }
+      case Type.ARRAY_DECL -> {
+        ASTNode target = node.children.getFirst();
+        target.setCache(local(target));
+        target.children.forEach(this::prepareNode);
+        return;
+      }
+      case Type.ARRAY_INIT -> {
+        ASTNode target = node.children.getFirst();
+        target.setCache(local(target));
+        List<ASTNode> leaves = new ArrayList<>();
+        flattenArray(node.children.getLast(), leaves);
+        leaves.forEach(this::prepareNode);
+        initializers.put(node, leaves.toArray(new ASTNode[0]));
+        return;
+      }
+      case Type.ARRAY_ITEM -> {
+        if (!(symbol(node) instanceof SymbolTable.Array array)
+            || array.length.length != node.children.size()) {
+          throw unsupported(node);
+        }
+        node.setCache(local(node));
+      }
+      case Type.DEC_INC -> {
+        ASTNode first = node.children.getFirst();
+        ASTNode target =
+            first.getType() == Type.INC || first.getType() == Type.DEC
+                ? node.children.getLast()
+                : first;
+        if (target.getType() != Type.ID) {
+          throw unsupported(target);
+        }
+        prepareNode(target);
+        return;
+      }
+      case Type.FN_CALL -> {
+        if (!node.children.isEmpty() && node.children.getFirst().getType() != Type.ARGS) {
+          throw unsupported(node);
+        }
+        String name = node.getValue();
+        if (!isPrint(name)) {
+          Function function = functions.get(name);
+          if (function == null) {
+            throw new RuntimeException("Function '" + name + "' not found");
+          }
+          node.setCache(function);
+        }
+      }
+      case null, default -> throw unsupported(node);
+    }
+    node.children.forEach(this::prepareNode);
+  }
+
+  private static void flattenArray(ASTNode array, List<ASTNode> leaves) {
+    for (ASTNode child : array.children) {
+      if (child.getType() == Type.ARRAY) {
+        flattenArray(child, leaves);
+      } else {
+        leaves.add(child);
+      }
+    }
+  }
+
+  private int localIndex(Scope scope, int slot) {
+    Integer base = bases.get(scope);
+    if (base == null) {
+      base = frameSize;
+      frameSize += scope.slotCount;
+      bases.put(scope, base);
+    }
+    return base + slot;
+  }
+
+  private Scope definingScope(ASTNode node) {
+    Scope scope = node.getScope();
+    for (int i = 0; i < node.getDepth(); i++) {
+      scope = scope.enclosingScope;
+    }
+    return scope;
+  }
+
+  private Symbol symbol(ASTNode node) {
+    if (!node.hasSlot()) {
+      throw unsupported(node);
+    }
+    return definingScope(node).symbols.get(node.getValue());
+  }
+
+  private Local local(ASTNode node) {
+    Symbol symbol = symbol(node);
+    Scope scope = definingScope(node);
+    Kind kind = symbol instanceof SymbolTable.Array ? Kind.OBJECT : Kind.of(symbol.type);
+    if (scope == globalScope) {
+      return new Local(true, node.getSlot(), kind);
+    }
+    return new Local(false, localIndex(scope, node.getSlot()), kind);
+  }
+
+  // ---------------------------------------------------------------- Ausführung
+
+  public void run(ASTNode program) {
+    this.frame = globals;
+    push(program);
+    while (top > 0) {
+      // jeder Schritt legt höchstens einen Wert ab
+      if (sp == values.length) {
+        values = Arrays.copyOf(values, sp * 2);
+      }
+      step(nodes[top - 1], states[top - 1]);
+    }
+  }
+
+  /** Führt den nächsten Schritt des obersten Knotens aus. */
+  private void step(ASTNode node, int state) {
+    switch (node.getType()) {
+      case Type.PROGRAM -> {
+        if (state == node.children.size()) {
+          top--;
+          return;
+        }
+        states[top - 1] = state + 1;
+        ASTNode child = node.children.get(state);
+        if (child.getType() != Type.FN_DECL) {
+          push(child);
+        }
+      }
+      case Type.MAIN -> {
+        if (state == 0) {
+          states[top - 1] = 1;
+          enter(main, 1);
+          push(main.body);
+        } else {
+          leave();
+          top--;
+        }
+      }
+      case Type.BLOCK -> {
+        // Ausdrucksanweisungen hinterlassen einen Wert, der verworfen wird
+        if (state > 0 && isExpression(node.children.get(state - 1))) {
+          sp--;
+        }
+        if (state == node.children.size()) {
+          top--;
+          return;
+        }
+        states[top - 1] = state + 1;
+        push(node.children.get(state));
+      }
+      case Type.IF -> stepIf(node, state);
+      case Type.WHILE -> {
+        if (state == 0) {
+          states[top - 1] = 1;
+          push(node.children.getFirst());
+        } else if (values[--sp] != 0) {
+          states[top - 1] = 0;
+          push(node.children.getLast());
+        } else {
+          top--;
+        }
+      }
+      case Type.RETURN -> {
+        if (state == 0 && !node.children.isEmpty()) {
+          states[top - 1] = 1;
+          push(node.children.getLast());
+          return;
+        }
+        int result = node.children.isEmpty() ? 0 : values[--sp];
+        frame.result = convert(frame.function.result, result);
+        // alle offenen Knoten der Funktion verwerfen und beim Aufruf weitermachen
+        top = frame.control + 1;
+        states[top - 1] = frame.resume;
+        sp = frame.values;
+      }
+      case Type.VAR_DECL -> {
+        if (state == 0 && node.children.size() == 2) {
+          states[top - 1] = 1;
+          push(node.children.getLast());
+          return;
+        }
+        writeInt(node.children.getFirst(), node.children.size() == 2 ? values[--sp] : 0);
+        top--;
+      }
+      case Type.ARRAY_DECL -> {
+        ASTNode target = node.children.getFirst();
+        int count = target.children.size();
+        if (state < count) {
+          states[top - 1] = state + 1;
+          push(target.children.get(state));
+          return;
+        }
+        sp -= count;
+        int[] sizes = Arrays.copyOfRange(values, sp, sp + count);
+        writeObject(target, new FlatArray(Interpreter.kindOf(target.getType()), sizes));
+        top--;
+      }
+      case Type.ARRAY_INIT -> stepArrayInit(node, state);
+      case Type.ASSIGN -> stepAssign(node, state);
+      case Type.DEC_INC -> {
+        ASTNode first = node.children.getFirst();
+        boolean prefix = first.getType() == Type.INC || first.getType() == Type.DEC;
+        ASTNode operator = prefix ? first : node.children.getLast();
+        ASTNode target = prefix ? node.children.getLast() : first;
+        int old = readInt(target);
+        writeInt(target, old + (operator.getType() == Type.INC ? 1 : -1));
+        values[sp++] = prefix ? readInt(target) : old;
+        top--;
+      }
+      case Type.FN_CALL -> stepCall(node, state);
+      case Type.INT -> {
+        values[sp++] = Integer.parseInt(node.getValue());
+        top--;
+      }
+      case Type.BOOL -> {
+        values[sp++] = Boolean.parseBoolean(node.getValue()) ? 1 : 0;
+        top--;
+      }
+      case Type.CHAR -> {
+        values[sp++] = node.getValue().charAt(0);
+        top--;
+      }
+      case Type.ID -> {
+        values[sp++] = readInt(node);
+        top--;
+      }
+      case Type.ARRAY_ITEM -> {
+        int count = node.children.size();
+        if (state < count) {
+          states[top - 1] = state + 1;
+          push(node.children.get(state));
+          return;
+        }
+        sp -= count;
+        FlatArray array = (FlatArray) readObject(node);
+        values[sp] = array.getInt(elementIndex(node, array));
+        sp++;
+        top--;
+      }
+      case Type.AND, Type.OR -> {
+        if (state == 0) {
+          states[top - 1] = 1;
+          push(node.children.getFirst());
+        } else if (state == 1 && (values[sp - 1] != 0) == (node.getType() == Type.AND)) {
+          // rechte Seite entscheidet
+          sp--;
+          states[top - 1] = 2;
+          push(node.children.getLast());
+        } else {
+          values[sp - 1] = values[sp - 1] != 0 ? 1 : 0;
+          top--;
+        }
+      }
+      case Type.NOT -> {
+        if (state == 0) {
+          states[top - 1] = 1;
+          push(node.children.getFirst());
+        } else {
+          values[sp - 1] = values[sp - 1] == 0 ? 1 : 0;
+          top--;
+        }
+      }
+      default -> {
+        if (state < 2) {
+          states[top - 1] = state + 1;
+          push(node.children.get(state));
+          return;
+        }
+        int right = values[--sp];
+        int left = values[sp - 1];
+        values[sp - 1] = binary(node.getType(), left, right);
+        top--;
+      }
+    }
+  }
+
+  private void stepIf(ASTNode node, int state) {
+    // Zustand 2k: Bedingung k auswerten, 2k + 1: Ergebnis prüfen
+    if (state % 2 == 0) {
+      if (state == node.children.size()) {
+        top--;
+      } else if (state == node.children.size() - 1) {
+        // else-Block ersetzt das if
+        nodes[top - 1] = node.children.get(state);
+        states[top - 1] = 0;
+      } else {
+        states[top - 1] = state + 1;
+        push(node.children.get(state));
+      }
+    } else if (values[--sp] != 0) {
+      nodes[top - 1] = node.children.get(state);
+      states[top - 1] = 0;
+    } else {
+      states[top - 1] = state + 1;
+    }
+  }
+
+  private void stepArrayInit(ASTNode node, int state) {
+    ASTNode[] leaves = initializers.get(node);
+    if (state < leaves.length) {
+      states[top - 1] = state + 1;
+      push(leaves[state]);
+      return;
+    }
+    ASTNode target = node.children.getFirst();
+    List<Integer> sizes = new ArrayList<>();
+    for (ASTNode level = node.children.getLast();
+        level.getType() == Type.ARRAY;
+        level = level.children.getFirst()) {
+      sizes.add(level.children.size());
+      if (level.children.isEmpty()) {
+        break;
+      }
+    }
+    FlatArray array =
+        new FlatArray(
+            Interpreter.kindOf(target.getType()),
+            sizes.stream().mapToInt(Integer::intValue).toArray());
+    sp -= leaves.length;
+    for (int i = 0; i < leaves.length && i < array.length(); i++) {
+      array.setInt(i, values[sp + i]);
+    }
+    writeObject(target, array);
+    top--;
+  }
+
+  private void stepAssign(ASTNode node, int state) {
+    ASTNode target = node.children.getFirst();
+    // bei Arrayelementen zuerst die Indizes, dann der Wert
+    int count = target.getType() == Type.ARRAY_ITEM ? target.children.size() : 0;
+    if (state < count) {
+      states[top - 1] = state + 1;
+      push(target.children.get(state));
+      return;
+    }
+    if (state == count) {
+      states[top - 1] = state + 1;
+      push(node.children.getLast());
+      return;
+    }
+    int value = values[--sp];
+    if (count == 0) {
+      if (!node.getValue().equals("=")) {
+        value = compound(node.getValue(), readInt(target), value);
+      }
+      writeInt(target, value);
+    } else {
+      sp -= count;
+      FlatArray array = (FlatArray) readObject(target);
+      int index = elementIndex(target, array);
+      if (!node.getValue().equals("=")) {
+        value = compound(node.getValue(), array.getInt(index), value);
+      }
+      array.setInt(index, value);
+    }
+    top--;
+  }
+
+  private void stepCall(ASTNode node, int state) {
+    List<ASTNode> args = node.children.isEmpty() ? List.of() : node.children.getFirst().children;
+    if (state < args.size()) {
+      states[top - 1] = state + 1;
+      push(args.get(state));
+      return;
+    }
+    if (!(node.getCache() instanceof Function function)) {
+      int value = values[sp - 1];
+      switch (node.getValue()) {
+        case "print_int" -> out.printInt(value);
+        case "print_bool" -> out.printBool(value != 0);
+        default -> out.printChar((char) value);
+      }
+      values[sp - 1] = 0;
+      top--;
+      return;
+    }
+    if (state == args.size()) {
+      sp -= args.size();
+      List<Integer> key = null;
+      if (function.memo != null) {
+        Integer[] boxed = new Integer[args.size()];
+        for (int i = 0; i < boxed.length; i++) {
+          boxed[i] = values[sp + i];
+        }
+        key = List.of(boxed);
+        if (function.memo.get(key) instanceof Integer cached) {
+          values[sp++] = cached;
+          top--;
+          return;
+        }
+      }
+      states[top - 1] = state + 1;
+      enter(function, state + 1);
+      frame.key = key;
+      for (int i = 0; i < args.size(); i++) {
+        frame.ints[function.paramSlots[i]] = convert(function.paramKinds[i], values[sp + i]);
+      }
+      push(function.body);
+    } else {
+      // Rumpf ist beendet, mit oder ohne return
+      int result = frame.result;
+      if (frame.key != null) {
+        frame.function.memo.put(frame.key, result);
+      }
+      leave();
+      values[sp++] = result;
+      top--;
+    }
+  }
+
+  private void enter(Function function, int resume) {
+    Frame callee = new Frame(function.frameSize, function);
+    callee.control = top - 1;
+    callee.resume = resume;
+    callee.values = sp;
+    if (fp == frames.length) {
+      frames = Arrays.copyOf(frames, fp * 2);
+    }
+    frames[fp++] = frame;
+    frame = callee;
+  }
+
+  private void leave() {
+    frame = frames[--fp];
+    frames[fp] = null;
+  }
+
+  private void push(ASTNode node) {
+    if (top == nodes.length) {
+      nodes = Arrays.copyOf(nodes, top * 2);
+      states = Arrays.copyOf(states, top * 2);
+    }
+    nodes[top] = node;
+    states[top] = 0;
+    top++;
+  }
+
+  private static boolean isExpression(ASTNode statement) {
+    return statement.getType() == Type.FN_CALL || statement.getType() == Type.DEC_INC;
+  }
+
+  private static boolean isPrint(String name) {
+    return name.equals("print_int") || name.equals("print_bool") || name.equals("print_char");
+  }
+
+  // ---------------------------------------------------------------- Variablen
+
+  private int readInt(ASTNode node) {
+    Local local = (Local) node.getCache();
+    return (local.global() ? globals : frame).ints[local.index()];
+  }
+
+  private void writeInt(ASTNode node, int value) {
+    Local local = (Local) node.getCache();
+    (local.global() ? globals : frame).ints[local.index()] = convert(local.kind(), value);
+  }
+
+  private Object readObject(ASTNode node) {
+    Local local = (Local) node.getCache();
+    return (local.global() ? globals : frame).objects[local.index()];
+  }
+
+  private void writeObject(ASTNode node, Object value) {
+    Local local = (Local) node.getCache();
+    (local.global() ? globals : frame).objects[local.index()] = value;
+  }
+
+  /** Position des Elements, die Indizes liegen ab {@code sp} auf dem Wertestack. */
+  private int elementIndex(ASTNode node, FlatArray array) {
+    if (!node.isInBounds()) {
+      for (int i = 0; i < array.dimensions(); i++) {
+        int index = values[sp + i];
+        if (index < 0 || index >= array.size(i)) {
+          throw new RuntimeException(
+              "Error: index "
+                  + index
+                  + " is out of bounds for dimension "
+                  + (i + 1)
+                  + " of array "
+                  + node.getValue()
+                  + " (size: "
+                  + array.size(i)
+                  + ")");
+        }
+      }
+    }
+    return array.index(values, sp);
+  }
+
+  private static int convert(Kind kind, int value) {
+    return switch (kind) {
+      case BOOL -> value != 0 ? 1 : 0;
+      case CHAR -> (char) value;
+      default -> value;
+    };
+  }
+
+  private static int compound(String operator, int left, int right) {
+    return switch (operator) {
+      case "+=" -> left + right;
+      case "-=" -> left - right;
+      case "*=" -> left * right;
+      default -> left / right;
+    };
+  }
+
+  private static int binary(Type operator, int left, int right) {
+    return switch (operator) {
+      case Type.ADD -> left + right;
+      case Type.SUB -> left - right;
+      case Type.MUL -> left * right;
+      case Type.DIV -> left / right;
+      case Type.MOD -> left % right;
+      case Type.GREATER -> left > right ? 1 : 0;
+      case Type.GREATER_EQUAL -> left >= right ? 1 : 0;
+      case Type.LESS -> left < right ? 1 : 0;
+      case Type.LESS_EQUAL -> left <= right ? 1 : 0;
+      case Type.EQUAL -> left == right ? 1 : 0;
+      default -> left != right ? 1 : 0;
+    };
+  }
+
+  private UnsupportedOperationException unsupported(ASTNode node) {
+    return new UnsupportedOperationException(
+        "Node "
+            + node.getType()
+            + (node.getValue() == null ? "" : " " + node.getValue())
+            + " is not supported by the stack interpreter");
+  }
+}
@@ -7,6 +7,10 @@ public class Function extends Symbol {
   private ArrayList<ASTNode> params = new ArrayList<>();
 
   public boolean isImplemented = false;
+  // von der PurityAnalysis gesetzt, das Ergebnis hängt nur von den Argumenten ab
+  private boolean pure = false;
+  // nur Methoden: mit virtual deklariert oder überschreibt eine virtuelle Methode
+  private boolean virtual = false;
 
   public Function(String name, String type) {
     super(name, type);
@@ -23,4 +27,20 @@ public class Function extends Symbol {
   public ArrayList<ASTNode> getParams() {
     return params;
   }
+
+  public boolean isPure() {
+    return pure;
+  }
+
+  public void setPure(boolean pure) {
+    this.pure = pure;
+  }
+
+  public boolean isVirtual() {
+    return virtual;
+  }
+
+  public void setVirtual(boolean virtual) {
+    this.virtual = virtual;
+  }
 }
@@ -9,6 +9,9 @@ public class Scope {
   public Scope enclosingScope;
   public ArrayList<Scope> innerScopes = new ArrayList<>();
   public Map<String, Symbol> symbols = new HashMap<String, Symbol>();
+  public int slotCount = 0;
+  // nur bei Klassen-Scopes: Scope der Oberklasse, deren Member hier ebenfalls sichtbar sind
+  public Scope baseScope;
 
   public Scope() {}
 
@@ -17,12 +20,26 @@ public class Scope {
   }
 
   public void bind(Symbol symbol) {
+    Symbol previous = this.symbols.get(symbol.name);
+    symbol.slot = previous != null ? previous.slot : slotCount++;
     this.symbols.put(symbol.name, symbol);
     symbol.scope = this;
   }
 
+  public int depthOf(String name) {
+    int depth = 0;
+    for (Scope scope = this; scope != null; scope = scope.enclosingScope) {
+      if (scope.symbols.containsKey(name)) return depth;
+      depth++;
+    }
+    return -1;
+  }
+
   public Symbol resolve(String name) {
     if (symbols.containsKey(name)) return symbols.get(name);
+    for (Scope base = baseScope; base != null; base = base.baseScope) {
+      if (base.symbols.containsKey(name)) return base.symbols.get(name);
+    }
     try {
       return enclosingScope.resolve(name);
     } catch (Exception e) {
@@ -37,6 +54,12 @@ public class Scope {
         return symbol;
       }
     }
+    for (Scope base = baseScope; base != null; base = base.baseScope) {
+      Symbol symbol = base.symbols.get(name);
+      if (symbol != null && symbol.getClass().getName().contains(nameOfClass)) {
+        return symbol;
+      }
+    }
     try {
       return enclosingScope.resolve(name, nameOfClass);
     } catch (Exception e) {
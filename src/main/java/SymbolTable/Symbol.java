@@ -6,6 +6,7 @@ public class Symbol {
   public String type;
   private Object value;
   public Scope scope;
+  public int slot = -1;
 
   public Symbol(String name, String type, Object value) {
     this.name = name;
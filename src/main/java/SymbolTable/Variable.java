@@ -1,6 +1,8 @@
 package SymbolTable;
 
 public class Variable extends Symbol {
+  // Parameter von Konstruktoren und Operatoren liegen im Klassen-Scope, sind aber keine Attribute
+  private boolean parameter;
 
   public Variable(String name, String type, String value) {
     super(name, type, value);
@@ -9,4 +11,12 @@ public class Variable extends Symbol {
   public Variable(String name, String type) {
     super(name, type);
   }
+
+  public boolean isParameter() {
+    return parameter;
+  }
+
+  public void setParameter(boolean parameter) {
+    this.parameter = parameter;
+  }
 }
@@ -0,0 +1,342 @@
+package Synthetic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Erzeugt Programme der Sprache aus {@code Cpp.g4} in der Größe eines {@link Shape}, zum Messen der
+ * Phasen an großen Eingaben. Die Programme bestehen die Scope- und Typprüfung und benutzen nur
+ * Konstrukte, die alle Interpreter ausführen können: Klassen mit Default-Konstruktoren, Zuweisungen
+ * nur an eigene Felder, Methodenaufrufe nur als Anweisung und ohne Argumente, Schleifen mit festen
+ * Grenzen und Arrayzugriffe innerhalb der Grenzen. Bei gleichem Seed entsteht dasselbe Programm.
+ */
+public class ProgramGenerator {
+  private static final String INDENT = "    ";
+  // Aufrufketten zwischen Funktionen sind höchstens so lang, die Laufzeit bleibt linear
+  private static final int CALL_DEPTH = 4;
+  // aufgerufen wird eine der letzten Funktionen
+  private static final int CALL_WINDOW = 8;
+  private static final int ARRAY_SIZE = 4;
+  // höchstens ARRAY_SIZE, damit die Schleifenzähler gültige Indizes sind
+  private static final int LOOP_BOUND = 3;
+  private static final int FIELDS = 2;
+  private static final String[] OPERATORS = {"+", "-", "*"};
+  private static final String[] COMPARISONS = {"<", ">", "<=", ">=", "==", "!="};
+
+  private final Shape shape;
+  private final long seed;
+  private Random random;
+  private StringBuilder out;
+  private int depth;
+  // laufende Nummer für lokale Namen einer Funktion
+  private int nextLocal;
+  private int[] params;
+  private int[] callDepths;
+  private boolean[] returnsBool;
+
+  public ProgramGenerator(Shape shape, long seed) {
+    this.shape = shape;
+    this.seed = seed;
+  }
+
+  public String generate() {
+    random = new Random(seed);
+    out = new StringBuilder();
+    params = new int[shape.functions()];
+    callDepths = new int[shape.functions()];
+    returnsBool = new boolean[shape.functions()];
+    for (int i = 0; i < shape.classes(); i++) {
+      emitClass(i);
+    }
+    for (int i = 0; i < shape.functions(); i++) {
+      emitFunction(i);
+    }
+    emitMain();
+    return out.toString();
+  }
+
+  /** Die Klassen bilden Ketten der Länge {@code inheritanceDepth}. */
+  private int baseOf(int cls) {
+    return cls % shape.inheritanceDepth() == 0 ? -1 : cls - 1;
+  }
+
+  private void emitClass(int cls) {
+    int base = baseOf(cls);
+    line("class C" + cls + (base < 0 ? "" : " : public C" + base) + " {");
+    line("public:");
+    depth++;
+    StringBuilder init = new StringBuilder();
+    for (int f = 0; f < FIELDS; f++) {
+      init.append(" c" + cls + "v" + f + " = ").append(literal()).append(';');
+    }
+    line("C" + cls + "() {" + init + " }");
+
+    // geerbte Felder findet die Scope-Prüfung in geschachtelten Blöcken nicht
+    Names names = new Names();
+    for (int f = 0; f < FIELDS; f++) {
+      names.ints.add("c" + cls + "v" + f);
+      names.assignable.add("c" + cls + "v" + f);
+    }
+    nextLocal = 0;
+    line("void c" + cls + "m() {");
+    block(names, 0);
+    line("}");
+    for (int f = 0; f < FIELDS; f++) {
+      line("int c" + cls + "v" + f + ";");
+    }
+    depth--;
+    line("};");
+    line("");
+  }
+
+  private void emitFunction(int fn) {
+    params[fn] = 1 + random.nextInt(3);
+    returnsBool[fn] = random.nextInt(8) == 0;
+    Names names = new Names();
+    StringBuilder signature = new StringBuilder();
+    for (int p = 0; p < params[fn]; p++) {
+      signature.append(p == 0 ? "" : ", ").append("int p").append(p);
+      names.ints.add("p" + p);
+      names.assignable.add("p" + p);
+    }
+    line((returnsBool[fn] ? "bool" : "int") + " f" + fn + "(" + signature + ") {");
+    depth++;
+    nextLocal = 0;
+    String result = declareInt(names);
+    String flag = "b" + nextLocal++;
+    line("bool " + flag + " = true;");
+    names.bools.add(flag);
+    if (shape.arrayDimensions() > 0) {
+      String array = "a" + nextLocal++;
+      line("int " + array + ("[" + ARRAY_SIZE + "]").repeat(shape.arrayDimensions()) + ";");
+      names.arrays.add(array);
+    }
+
+    // höchstens ein Aufruf, außerhalb von Schleifen
+    int callee = callee(fn);
+    callDepths[fn] = callee < 0 ? 0 : callDepths[callee] + 1;
+    if (callee >= 0 && returnsBool[callee]) {
+      line(flag + " = " + call(callee, names) + ";");
+    } else if (callee >= 0) {
+      line(result + " = (" + result + " + " + call(callee, names) + ");");
+    }
+    statements(names, 0);
+    if (returnsBool[fn]) {
+      line("return (" + flag + " && " + condition(names) + ");");
+    } else {
+      line("return " + intExpr(names, shape.expressionSize()) + ";");
+    }
+    depth--;
+    line("}");
+    line("");
+  }
+
+  private int callee(int fn) {
+    List<Integer> candidates = new ArrayList<>();
+    for (int i = Math.max(0, fn - CALL_WINDOW); i < fn; i++) {
+      if (callDepths[i] < CALL_DEPTH - 1) {
+        candidates.add(i);
+      }
+    }
+    return candidates.isEmpty() ? -1 : candidates.get(random.nextInt(candidates.size()));
+  }
+
+  private String call(int fn, Names names) {
+    StringBuilder call = new StringBuilder("f").append(fn).append('(');
+    for (int p = 0; p < params[fn]; p++) {
+      call.append(p == 0 ? "" : ", ").append(intExpr(names, 2));
+    }
+    return call.append(')').toString();
+  }
+
+  private void emitMain() {
+    line("int main() {");
+    depth++;
+    Names names = new Names();
+    line("int total = 0;");
+    names.ints.add("total");
+    for (int cls = 0; cls < shape.classes(); cls++) {
+      String object = "o" + cls;
+      line("C" + cls + " " + object + ";");
+      for (int c = cls; c >= 0; c = baseOf(c)) {
+        line(object + ".c" + c + "m();");
+      }
+      // geerbte Felder kennt die Typprüfung in Ausdrücken nicht
+      Names fields = new Names();
+      for (int f = 0; f < FIELDS; f++) {
+        fields.ints.add(object + ".c" + cls + "v" + f);
+      }
+      line(object + ".c" + cls + "v0 = " + intExpr(fields, shape.expressionSize()) + ";");
+      line("total = (total + " + object + ".c" + cls + "v1);");
+    }
+    for (int fn = 0; fn < shape.functions(); fn++) {
+      if (returnsBool[fn]) {
+        line("bool r" + fn + " = " + call(fn, names) + ";");
+        line("if (r" + fn + ") {");
+        line(INDENT + "total = (total + 1);");
+        line("}");
+      } else {
+        line("total = (total + " + call(fn, names) + ");");
+      }
+    }
+    line("print_int(total);");
+    line("return 0;");
+    depth--;
+    line("}");
+  }
+
+  private void block(Names names, int nesting) {
+    depth++;
+    int[] mark = names.mark();
+    statements(names, nesting);
+    names.reset(mark);
+    depth--;
+  }
+
+  /** Bis zur Schachtelungstiefe enthält jeder Block ein {@code if} oder {@code while}. */
+  private void statements(Names names, int nesting) {
+    int nested = nesting < shape.nesting() ? random.nextInt(shape.statements()) : -1;
+    for (int i = 0; i < shape.statements(); i++) {
+      int kind = random.nextInt(10);
+      if (i == nested || (nesting < shape.nesting() && kind < 2)) {
+        compound(names, nesting);
+      } else if (kind < 4) {
+        declareInt(names);
+      } else if (kind < 5 && !names.arrays.isEmpty()) {
+        line(arrayItem(names) + " = " + intExpr(names, shape.expressionSize()) + ";");
+      } else if (kind < 6 && !names.bools.isEmpty()) {
+        String flag = pick(names.bools);
+        line(flag + " = (" + flag + " || " + condition(names) + ");");
+      } else if (!names.assignable.isEmpty()) {
+        line(pick(names.assignable) + " = " + intExpr(names, shape.expressionSize()) + ";");
+      } else {
+        declareInt(names);
+      }
+    }
+  }
+
+  private void compound(Names names, int nesting) {
+    int kind = random.nextInt(3);
+    if (kind == 2) {
+      String counter = "k" + nextLocal++;
+      line("int " + counter + " = 0;");
+      line("while (" + counter + " < " + (1 + random.nextInt(LOOP_BOUND)) + ") {");
+      int[] mark = names.mark();
+      names.ints.add(counter);
+      names.counters.add(counter);
+      block(names, nesting + 1);
+      names.reset(mark);
+      line(INDENT + counter + " += 1;");
+      line("}");
+      return;
+    }
+    line("if " + condition(names) + " {");
+    block(names, nesting + 1);
+    if (kind == 1) {
+      line("} else {");
+      block(names, nesting + 1);
+    }
+    line("}");
+  }
+
+  private String declareInt(Names names) {
+    String name = "v" + nextLocal++;
+    line("int " + name + " = " + intExpr(names, shape.expressionSize()) + ";");
+    names.ints.add(name);
+    names.assignable.add(name);
+    return name;
+  }
+
+  /** Vergleich zweier Ausdrücke, geklammert. */
+  private String condition(Names names) {
+    String comparison =
+        "("
+            + intExpr(names, 1)
+            + " "
+            + COMPARISONS[random.nextInt(COMPARISONS.length)]
+            + " "
+            + intExpr(names, Math.max(1, shape.expressionSize() / 2))
+            + ")";
+    if (names.bools.isEmpty() || random.nextBoolean()) {
+      return comparison;
+    }
+    return "(" + pick(names.bools) + (random.nextBoolean() ? " && " : " || ") + comparison + ")";
+  }
+
+  /** Ausdruck mit {@code size} Operanden, jede Operation geklammert. */
+  private String intExpr(Names names, int size) {
+    if (size <= 1) {
+      int kind = random.nextInt(4);
+      if (kind == 0 || names.ints.isEmpty()) {
+        return literal();
+      } else if (kind == 1 && !names.arrays.isEmpty()) {
+        return arrayItem(names);
+      }
+      return pick(names.ints);
+    }
+    int left = 1 + random.nextInt(size - 1);
+    return "("
+        + intExpr(names, left)
+        + " "
+        + OPERATORS[random.nextInt(OPERATORS.length)]
+        + " "
+        + intExpr(names, size - left)
+        + ")";
+  }
+
+  private String arrayItem(Names names) {
+    StringBuilder item = new StringBuilder(pick(names.arrays));
+    for (int d = 0; d < shape.arrayDimensions(); d++) {
+      item.append('[')
+          .append(
+              names.counters.isEmpty() || random.nextBoolean()
+                  ? String.valueOf(random.nextInt(ARRAY_SIZE))
+                  : pick(names.counters))
+          .append(']');
+    }
+    return item.toString();
+  }
+
+  // keine negativen Literale, die Grammatik liest sie als Subtraktion
+  private String literal() {
+    return String.valueOf(random.nextInt(10));
+  }
+
+  private String pick(List<String> names) {
+    return names.get(random.nextInt(names.size()));
+  }
+
+  private void line(String text) {
+    out.append(INDENT.repeat(depth)).append(text).append('\n');
+  }
+
+  /** Im aktuellen Block sichtbare Namen, beim Verlassen eines Blocks wird zurückgesetzt. */
+  private static final class Names {
+    // lesbare int-Werte, auch Parameter, Felder und Schleifenzähler
+    final List<String> ints = new ArrayList<>();
+    // Schleifenzähler werden nie zugewiesen
+    final List<String> assignable = new ArrayList<>();
+    final List<String> bools = new ArrayList<>();
+    final List<String> counters = new ArrayList<>();
+    final List<String> arrays = new ArrayList<>();
+
+    int[] mark() {
+      return new int[] {
+        ints.size(), assignable.size(), bools.size(), counters.size(), arrays.size()
+      };
+    }
+
+    void reset(int[] mark) {
+      truncate(ints, mark[0]);
+      truncate(assignable, mark[1]);
+      truncate(bools, mark[2]);
+      truncate(counters, mark[3]);
+      truncate(arrays, mark[4]);
+    }
+
+    private static void truncate(List<String> names, int size) {
+      names.subList(size, names.size()).clear();
+    }
+  }
+}
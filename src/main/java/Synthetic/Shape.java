@@ -0,0 +1,37 @@
+package Synthetic;
+
+/**
+ * Größe und Form eines erzeugten Programms.
+ *
+ * @param classes Anzahl der Klassen
+ * @param inheritanceDepth Länge der Vererbungsketten, 1 heißt ohne Basisklassen
+ * @param functions Anzahl der freien Funktionen neben {@code main}
+ * @param nesting Schachtelungstiefe von {@code if} und {@code while} in Funktionen und Methoden
+ * @param arrayDimensions Dimensionen des lokalen Arrays jeder Funktion, 0 heißt ohne Arrays
+ * @param expressionSize Operanden pro arithmetischem Ausdruck
+ * @param statements Anweisungen pro Block
+ */
+public record Shape(
+    int classes,
+    int inheritanceDepth,
+    int functions,
+    int nesting,
+    int arrayDimensions,
+    int expressionSize,
+    int statements) {
+
+  public Shape {
+    if (classes < 0 || functions < 0 || nesting < 0 || arrayDimensions < 0) {
+      throw new IllegalArgumentException("Sizes of a synthetic program must not be negative");
+    }
+    if (inheritanceDepth < 1 || expressionSize < 1 || statements < 1) {
+      throw new IllegalArgumentException(
+          "Inheritance depth, expression size and statements must be at least 1");
+    }
+  }
+
+  /** Wächst linear mit {@code functions}, pro Funktion sind es etwa 100 Zeilen. */
+  public static Shape scaled(int functions) {
+    return new Shape(Math.max(1, functions / 10), 3, functions, 3, 2, 4, 4);
+  }
+}
@@ -0,0 +1,51 @@
+package Tracing;
+
+import AST.ASTNode;
+import java.util.Arrays;
+
+/**
+ * Aufrufkette auf Ebene des Programms, die der {@code Interpreter} pflegt und ein anderer Thread
+ * ohne Sperren lesen kann. Zu jeder Funktion wird der Aufruf gespeichert, mit dem sie betreten
+ * wurde. Ein Leser sieht höchstens einen leicht veralteten Stand, für Stichproben genügt das.
+ */
+public class CallStack {
+  private volatile ASTNode[] functions = new ASTNode[64];
+  private volatile ASTNode[] sites = new ASTNode[64];
+  // erst nach den Einträgen geschrieben, damit ein Leser nur fertige Einträge sieht
+  private volatile int depth;
+
+  public void push(ASTNode function, ASTNode site) {
+    int top = depth;
+    if (top == functions.length) {
+      sites = Arrays.copyOf(sites, top * 2);
+      functions = Arrays.copyOf(functions, top * 2);
+    }
+    functions[top] = function;
+    sites[top] = site;
+    depth = top + 1;
+  }
+
+  /** Ein Endaufruf ersetzt die oberste Funktion, der ursprüngliche Aufruf bleibt. */
+  public void replace(ASTNode function) {
+    functions[depth - 1] = function;
+  }
+
+  public void pop() {
+    depth--;
+  }
+
+  /**
+   * Kopiert die innersten Einträge der Kette von außen nach innen in die beiden Arrays und gibt die
+   * Tiefe der ganzen Kette zurück. Ist sie größer als die Arrays, fehlen die äußersten Einträge.
+   */
+  public int snapshot(ASTNode[] functionsOut, ASTNode[] sitesOut) {
+    int top = depth;
+    ASTNode[] currentFunctions = functions;
+    ASTNode[] currentSites = sites;
+    top = Math.min(top, Math.min(currentFunctions.length, currentSites.length));
+    int count = Math.min(top, Math.min(functionsOut.length, sitesOut.length));
+    System.arraycopy(currentFunctions, top - count, functionsOut, 0, count);
+    System.arraycopy(currentSites, top - count, sitesOut, 0, count);
+    return top;
+  }
+}
@@ -0,0 +1,9 @@
+package Tracing;
+
+/** Gibt den Trace wie bisher auf der Konsole aus. */
+public class ConsoleTrace extends TextTrace {
+  @Override
+  protected void line(String text) {
+    System.out.println(text);
+  }
+}
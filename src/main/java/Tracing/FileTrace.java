@@ -0,0 +1,85 @@
+package Tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Schreibt den Trace asynchron in eine Datei. Zeilen werden im Interpreter-Thread zu Blöcken
+ * gesammelt, ein Hintergrund-Thread schreibt die fertigen Blöcke. Erst {@link #close()} wartet, bis
+ * alles geschrieben ist.
+ */
+public class FileTrace extends TextTrace implements AutoCloseable {
+  private static final int BATCH_SIZE = 1 << 16;
+  private static final StringBuilder END = new StringBuilder();
+
+  private final BlockingQueue<StringBuilder> batches = new ArrayBlockingQueue<>(16);
+  private final Thread writer;
+  private StringBuilder batch = new StringBuilder(BATCH_SIZE);
+  private volatile IOException failure;
+
+  public FileTrace(Path path) throws IOException {
+    BufferedWriter out = Files.newBufferedWriter(path);
+    this.writer = new Thread(() -> write(out), "trace-writer");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  @Override
+  protected void line(String text) {
+    batch.append(text).append('\n');
+    if (batch.length() >= BATCH_SIZE) {
+      hand(batch);
+      batch = new StringBuilder(BATCH_SIZE);
+    }
+  }
+
+  private void hand(StringBuilder full) {
+    try {
+      batches.put(full);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while writing the trace", e);
+    }
+  }
+
+  private void write(BufferedWriter out) {
+    try (out) {
+      StringBuilder next;
+      while ((next = batches.take()) != END) {
+        // nach einem Fehler wird weiter geleert, damit der Interpreter nicht blockiert
+        if (failure == null) {
+          try {
+            out.append(next);
+          } catch (IOException e) {
+            failure = e;
+          }
+        }
+      }
+    } catch (IOException e) {
+      failure = e;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (!batch.isEmpty()) {
+      hand(batch);
+      batch = new StringBuilder();
+    }
+    hand(END);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package Tracing;
+
+import AST.ASTNode;
+import AST.Type;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Zählt, wie oft der {@code Interpreter} jeden Knoten auswertet, und misst Aufrufe und Zeit pro
+ * Funktion und Methode. Die Knoten werden beim Anlegen durchnummeriert, alle Zähler liegen in
+ * flachen {@code long[]}, die über diese Nummer indiziert werden.
+ */
+public class Profiler {
+  private static final int TOP = 10;
+
+  private final ASTNode[] nodes;
+  // Funktion bzw. Methode, in der ein Knoten steht, z.B. "main" oder "Kreis::flaeche"
+  private final String[] owners;
+  private final int[] parents;
+  private final long[] counts;
+  private final long[] calls;
+  private final long[] inclusive;
+  private final long[] exclusive;
+  // laufende Aufrufe je Funktion, rekursive Aufrufe zählen nur einmal zur inklusiven Zeit
+  private final int[] active;
+
+  // offene Aufrufe: Funktion, Startzeit und Zeit in aufgerufenen Funktionen
+  private int[] stack = new int[64];
+  private long[] starts = new long[64];
+  private long[] children = new long[64];
+  private int depth;
+
+  public Profiler(ASTNode program) {
+    List<ASTNode> all = new ArrayList<>();
+    List<String> labels = new ArrayList<>();
+    List<Integer> parentIds = new ArrayList<>();
+    number(program, -1, "", "<global>", all, labels, parentIds);
+    this.nodes = all.toArray(new ASTNode[0]);
+    this.owners = labels.toArray(new String[0]);
+    this.parents = parentIds.stream().mapToInt(Integer::intValue).toArray();
+    this.counts = new long[nodes.length];
+    this.calls = new long[nodes.length];
+    this.inclusive = new long[nodes.length];
+    this.exclusive = new long[nodes.length];
+    this.active = new int[nodes.length];
+  }
+
+  private static void number(
+      ASTNode node,
+      int parent,
+      String className,
+      String owner,
+      List<ASTNode> all,
+      List<String> labels,
+      List<Integer> parentIds) {
+    if (node == null) {
+      return;
+    }
+    switch (node.getType()) {
+      case Type.CLASS -> className = node.getValue() + "::";
+      case Type.MAIN -> owner = "main";
+      case Type.FN_DECL, Type.CONSTRUCTOR, Type.COPY_CONSTRUCTOR, Type.DESTRUCTOR ->
+          owner = className + functionName(node);
+      case null, default -> {}
+    }
+    int id = all.size();
+    node.setId(id);
+    all.add(node);
+    labels.add(owner);
+    parentIds.add(parent);
+    for (ASTNode child : node.children) {
+      number(child, id, className, owner, all, labels, parentIds);
+    }
+  }
+
+  static String functionName(ASTNode fnDecl) {
+    ASTNode fnInfo = fnDecl.children.isEmpty() ? null : fnDecl.children.getFirst();
+    if (fnDecl.getType() == Type.FN_DECL && fnInfo != null && !fnInfo.children.isEmpty()) {
+      return fnInfo.children.getFirst().getValue();
+    }
+    return String.valueOf(fnDecl.getValue());
+  }
+
+  public void count(ASTNode node) {
+    int id = node.getId();
+    if (id >= 0) {
+      counts[id]++;
+    }
+  }
+
+  /** Beginnt einen Aufruf der Funktion mit dem Deklarationsknoten {@code function}. */
+  public void enter(ASTNode function) {
+    if (depth == stack.length) {
+      stack = Arrays.copyOf(stack, depth * 2);
+      starts = Arrays.copyOf(starts, depth * 2);
+      children = Arrays.copyOf(children, depth * 2);
+    }
+    int id = function.getId();
+    if (id >= 0) {
+      calls[id]++;
+      active[id]++;
+    }
+    stack[depth] = id;
+    starts[depth] = System.nanoTime();
+    children[depth] = 0;
+    depth++;
+  }
+
+  /** Beendet den zuletzt mit {@link #enter} begonnenen Aufruf. */
+  public void exit() {
+    depth--;
+    long elapsed = System.nanoTime() - starts[depth];
+    int id = stack[depth];
+    if (id >= 0) {
+      exclusive[id] += elapsed - children[depth];
+      if (--active[id] == 0) {
+        inclusive[id] += elapsed;
+      }
+    }
+    if (depth > 0) {
+      children[depth - 1] += elapsed;
+    }
+  }
+
+  /** Kann auch während der Ausführung aufgerufen werden, offene Aufrufe fehlen dann noch. */
+  public void report(PrintStream out) {
+    out.println("Profile:");
+    out.printf("  %-32s %12s %14s %14s%n", "function", "calls", "inclusive ms", "exclusive ms");
+    for (int id : hottest(calls, Profiler::isFunction)) {
+      out.printf(
+          "  %-32s %12d %14.3f %14.3f%n",
+          owners[id], calls[id], inclusive[id] / 1e6, exclusive[id] / 1e6);
+    }
+    out.printf("  %-32s %12s%n", "loop", "iterations");
+    // der Rumpf wird pro Iteration einmal ausgewertet
+    for (int id : hottest(counts, this::isLoopBody)) {
+      out.printf("  %-32s %12d%n", owners[id] + ": " + describe(id), counts[id]);
+    }
+    out.printf("  %-32s %12s%n", "call site", "calls");
+    for (int id : hottest(counts, node -> node.getType() == Type.FN_CALL)) {
+      out.printf("  %-32s %12d%n", owners[id] + ": " + describe(id), counts[id]);
+    }
+    out.printf("  %-32s %12s%n", "node", "executions");
+    for (int id : hottest(counts, node -> true)) {
+      out.printf("  %-32s %12d%n", owners[id] + ": " + describe(id), counts[id]);
+    }
+  }
+
+  private boolean isLoopBody(ASTNode node) {
+    int parent = parents[node.getId()];
+    return parent >= 0
+        && nodes[parent].getType() == Type.WHILE
+        && nodes[parent].children.getLast() == node;
+  }
+
+  private static boolean isFunction(ASTNode node) {
+    return switch (node.getType()) {
+      case Type.FN_DECL, Type.CONSTRUCTOR, Type.COPY_CONSTRUCTOR, Type.DESTRUCTOR -> true;
+      case null, default -> false;
+    };
+  }
+
+  /** Typ und Wert des Knotens, bei Schleifen und Aufrufen die laufende Nummer in der Funktion. */
+  private String describe(int id) {
+    ASTNode node = nodes[id];
+    if (isLoopBody(node)) {
+      return "while #" + ordinal(parents[id]);
+    }
+    if (node.getType() == Type.FN_CALL) {
+      return node.getValue() + "() #" + ordinal(id);
+    }
+    return node.getType() + (node.getValue() == null ? "" : " " + node.getValue());
+  }
+
+  /** Zählt gleichartige Knoten derselben Funktion, die in der Vorordnung davor stehen. */
+  private int ordinal(int id) {
+    int ordinal = 1;
+    for (int i = 0; i < id; i++) {
+      if (nodes[i].getType() == nodes[id].getType()
+          && String.valueOf(nodes[i].getValue()).equals(String.valueOf(nodes[id].getValue()))
+          && owners[i].equals(owners[id])) {
+        ordinal++;
+      }
+    }
+    return ordinal;
+  }
+
+  private List<Integer> hottest(long[] values, Predicate<ASTNode> filter) {
+    List<Integer> ids = new ArrayList<>();
+    for (int id = 0; id < nodes.length; id++) {
+      if (values[id] > 0 && nodes[id].getType() != null && filter.test(nodes[id])) {
+        ids.add(id);
+      }
+    }
+    ids.sort(Comparator.comparingLong((Integer id) -> values[id]).reversed());
+    return ids.subList(0, Math.min(TOP, ids.size()));
+  }
+}
@@ -0,0 +1,113 @@
+package Tracing;
+
+import AST.ASTNode;
+import AST.Type;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Nimmt in festen Abständen Stichproben der {@link CallStack} des Interpreters und schreibt sie
+ * beim Schließen im Collapsed-Stack-Format ({@code main:12;fib:5;fib 42}), das Flame-Graph-Tools
+ * direkt einlesen. Die Zeile hinter einer Funktion ist die Stelle, an der sie die nächste
+ * aufgerufen hat. Der Interpreter selbst misst nichts, sein Aufwand ist unabhängig vom Intervall.
+ */
+public class Sampler implements AutoCloseable {
+  public static final int DEFAULT_INTERVAL_MICROS = 1000;
+  private static final int MAX_DEPTH = 1024;
+
+  private final CallStack stack;
+  private final Path path;
+  private final long intervalNanos;
+  private final Map<ASTNode, String> names = new IdentityHashMap<>();
+  // nur vom Sampler-Thread benutzt, bis close() auf ihn gewartet hat
+  private final Map<String, Long> samples = new HashMap<>();
+  private final ASTNode[] functions = new ASTNode[MAX_DEPTH];
+  private final ASTNode[] sites = new ASTNode[MAX_DEPTH];
+  private final Thread thread;
+  private volatile boolean running = true;
+
+  public Sampler(ASTNode program, CallStack stack, Path path, int intervalMicros) {
+    this.stack = stack;
+    this.path = path;
+    this.intervalNanos = intervalMicros * 1000L;
+    collectNames(program, "");
+    this.thread = new Thread(this::loop, "sampler");
+    this.thread.setDaemon(true);
+  }
+
+  private void collectNames(ASTNode node, String className) {
+    if (node == null) {
+      return;
+    }
+    switch (node.getType()) {
+      case Type.CLASS -> className = node.getValue() + "::";
+      case Type.MAIN -> names.put(node, "main");
+      case Type.FN_DECL, Type.CONSTRUCTOR, Type.COPY_CONSTRUCTOR, Type.DESTRUCTOR ->
+          names.put(node, className + Profiler.functionName(node));
+      case null, default -> {}
+    }
+    for (ASTNode child : node.children) {
+      collectNames(child, className);
+    }
+  }
+
+  public void start() {
+    thread.start();
+  }
+
+  private void loop() {
+    while (running) {
+      LockSupport.parkNanos(intervalNanos);
+      sample();
+    }
+  }
+
+  private void sample() {
+    int depth = stack.snapshot(functions, sites);
+    if (depth == 0) {
+      return;
+    }
+    StringBuilder key = new StringBuilder();
+    if (depth > MAX_DEPTH) {
+      // bei tiefer Rekursion zählen die innersten Aufrufe, die äußeren fasst ... zusammen
+      key.append("...;");
+      depth = MAX_DEPTH;
+    }
+    for (int i = 0; i < depth; i++) {
+      if (i > 0) {
+        key.append(';');
+      }
+      key.append(names.getOrDefault(functions[i], "?"));
+      ASTNode next = i + 1 < depth ? sites[i + 1] : null;
+      if (next != null && next.getLine() >= 0) {
+        key.append(':').append(next.getLine());
+      }
+    }
+    samples.merge(key.toString(), 1L, Long::sum);
+  }
+
+  /** Beendet die Stichproben und schreibt die gesammelten Aufrufketten in die Datei. */
+  @Override
+  public void close() throws IOException {
+    running = false;
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while stopping the sampler", e);
+    }
+    try (BufferedWriter out = Files.newBufferedWriter(path)) {
+      for (Map.Entry<String, Long> entry : new TreeMap<>(samples).entrySet()) {
+        out.write(entry.getKey() + " " + entry.getValue());
+        out.newLine();
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package Tracing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formatiert die Ereignisse als Text, eingerückt nach der Aufruftiefe. Die Einrückung gehört zu
+ * diesem Listener, nicht mehr zu einem statischen Zähler.
+ */
+public abstract class TextTrace implements TraceListener {
+  private int depth;
+
+  protected abstract void line(String text);
+
+  private String indent() {
+    return "  ".repeat(depth);
+  }
+
+  @Override
+  public void define(String name, Object value) {
+    line(indent() + "Define " + name + " : " + value);
+  }
+
+  @Override
+  public void assign(String name, Object value) {
+    line(indent() + "Assign " + name + " : " + value);
+  }
+
+  @Override
+  public void blockExit(Map<String, Object> variables) {
+    line(indent() + "Environment {");
+    for (Map.Entry<String, Object> entry : variables.entrySet()) {
+      line(indent() + "  " + entry.getKey() + ": " + entry.getValue());
+    }
+    line(indent() + "}");
+  }
+
+  @Override
+  public void call(String function, List<Object> args) {
+    StringBuilder text = new StringBuilder(indent()).append("Call ").append(function).append('(');
+    for (int i = 0; i < args.size(); i++) {
+      text.append(i == 0 ? "" : ", ").append(args.get(i));
+    }
+    line(text.append(')').toString());
+    depth++;
+  }
+
+  @Override
+  public void returned(String function, Object value) {
+    depth--;
+    line(indent() + "Return " + function + " : " + value);
+  }
+}
@@ -0,0 +1,21 @@
+package Tracing;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Empfängt Ereignisse des {@code Interpreter}s. Ohne Listener werden keine Ereignisse erzeugt, die
+ * Ausführung zahlt dann nur eine null-Prüfung.
+ */
+public interface TraceListener {
+  default void define(String name, Object value) {}
+
+  default void assign(String name, Object value) {}
+
+  /** Variablen des verlassenen Blocks in Slot-Reihenfolge. */
+  default void blockExit(Map<String, Object> variables) {}
+
+  default void call(String function, List<Object> args) {}
+
+  default void returned(String function, Object value) {}
+}
@@ -0,0 +1,65 @@
+package Tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/** Verteilt jedes Ereignis an mehrere Listener. */
+public class Tracer implements TraceListener {
+  private final List<TraceListener> listeners = new ArrayList<>();
+
+  public Tracer(TraceListener... listeners) {
+    this.listeners.addAll(List.of(listeners));
+  }
+
+  public void add(TraceListener listener) {
+    listeners.add(listener);
+  }
+
+  /** Hängt listener an, ein einzelner Listener wird nicht verpackt. */
+  public static TraceListener combine(TraceListener current, TraceListener listener) {
+    if (current == null) {
+      return listener;
+    }
+    if (current instanceof Tracer tracer) {
+      tracer.add(listener);
+      return tracer;
+    }
+    return new Tracer(current, listener);
+  }
+
+  @Override
+  public void define(String name, Object value) {
+    for (TraceListener listener : listeners) {
+      listener.define(name, value);
+    }
+  }
+
+  @Override
+  public void assign(String name, Object value) {
+    for (TraceListener listener : listeners) {
+      listener.assign(name, value);
+    }
+  }
+
+  @Override
+  public void blockExit(Map<String, Object> variables) {
+    for (TraceListener listener : listeners) {
+      listener.blockExit(variables);
+    }
+  }
+
+  @Override
+  public void call(String function, List<Object> args) {
+    for (TraceListener listener : listeners) {
+      listener.call(function, args);
+    }
+  }
+
+  @Override
+  public void returned(String function, Object value) {
+    for (TraceListener listener : listeners) {
+      listener.returned(function, value);
+    }
+  }
+}
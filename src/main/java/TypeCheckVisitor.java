@@ -1,5 +1,6 @@
 import AST.ASTNode;
 import AST.Type;
+import Output.Diagnostics;
 import SymbolTable.*;
 import SymbolTable.Class;
 import java.util.ArrayList;
@@ -7,6 +8,7 @@ import java.util.Objects;
 
 public class TypeCheckVisitor {
   Scope currentScope;
+  Diagnostics diagnostics = new Diagnostics();
 
   public TypeCheckVisitor(Scope scope) {
     this.currentScope = scope;
@@ -89,7 +91,7 @@ public class TypeCheckVisitor {
         variable = currentScope.resolve(node.getValue());
       }
       if (variable == null) {
-        System.out.println("Error: no such variable: " + node.getValue());
+        diagnostics.error("Error: no such variable: " + node.getValue());
       }
     } else {
       visitChildren(node);
@@ -133,7 +135,7 @@ public class TypeCheckVisitor {
     String type = getEndType(node.children.getFirst());
 
     if (!typeIsValid(type)) {
-      System.out.println("Error: invalid type for negation: " + type);
+      diagnostics.error("Error: invalid type for negation: " + type);
     }
     return node;
   }
@@ -149,9 +151,9 @@ public class TypeCheckVisitor {
     String firstType = getEndType(node.children.getFirst());
     String secondType = getEndType(node.children.getLast());
     if (!typeIsValid(firstType)) {
-      System.out.println("Error: invalid type for bool operation: " + firstType);
+      diagnostics.error("Error: invalid type for bool operation: " + firstType);
     } else if (!typeIsValid(secondType)) {
-      System.out.println("Error: invalid type for bool operation: " + secondType);
+      diagnostics.error("Error: invalid type for bool operation: " + secondType);
     }
     return node;
   }
@@ -169,7 +171,7 @@ public class TypeCheckVisitor {
         String paramType = paramTypeNode.getValue();
 
         if (!typeIsValid(paramType) && returnType != Type.CLASSTYPE) {
-          System.out.println("Error: Invalid parameter type in function declaration: " + paramType);
+          diagnostics.error("Error: Invalid parameter type in function declaration: " + paramType);
         }
       }
     }
@@ -177,7 +179,7 @@ public class TypeCheckVisitor {
     if (returnTypeNode.getType() != Type.VOID) {
       if (node.children.getLast().getType() == Type.BLOCK) {
         if (!visitReturn(node.children.getLast(), returnType.name().toLowerCase())) {
-          System.out.println(
+          diagnostics.error(
               "Error: Return from type " + returnType.name().toLowerCase() + " expected.");
         }
       }
@@ -196,14 +198,14 @@ public class TypeCheckVisitor {
       if (child.getType() == Type.RETURN) {
         if (child.children.isEmpty()) {
           if (!methodType.equals("void")) {
-            System.out.println(
+            diagnostics.error(
                 "Error: Function expects return type " + methodType + ", but got void.");
           }
           return true;
         } else {
           String returnType = getEndType(child.children.getFirst());
           if (!methodType.equals(returnType)) {
-            System.out.println(
+            diagnostics.error(
                 "Error: Return type mismatch. Expected "
                     + methodType
                     + ", but got "
@@ -248,7 +250,7 @@ public class TypeCheckVisitor {
         if (typeIsValid(argType) && typeIsValid(paramType)) {
           break;
         }
-        System.out.println("Error: Argument type mismatch in function");
+        diagnostics.error("Error: Argument type mismatch in function");
       }
     }
 
@@ -257,10 +259,10 @@ public class TypeCheckVisitor {
 
   private void builtInFunctions(ASTNode node) {
     if (node.children.getFirst().children.size() != 1) {
-      System.out.println("Error: builtInFunction not called with 1 parameter");
+      diagnostics.error("Error: builtInFunction not called with 1 parameter");
     }
     if (!typeIsValid(getEndType(node.children.getFirst().children.getFirst()))) {
-      System.out.println("Error builtInFunction was not called with built in type");
+      diagnostics.error("Error builtInFunction was not called with built in type");
     }
   }
 
@@ -306,7 +308,7 @@ public class TypeCheckVisitor {
           Type.AND,
           Type.OR:
         if (!typeIsValid(getEndType(secondChild))) {
-          System.out.println("Error: types need to be built in to use operators in assign");
+          diagnostics.error("Error: types need to be built in to use operators in assign");
         }
         break;
       default:
@@ -315,7 +317,7 @@ public class TypeCheckVisitor {
           break;
         }
         if (!firstType.equals(secondType)) {
-          System.out.println(
+          diagnostics.error(
               "Error: types " + firstType + " and " + secondType + " do not match in assign");
         }
     }
@@ -338,9 +340,9 @@ public class TypeCheckVisitor {
     String firstType = getEndType(node.children.getFirst());
     String secondType = getEndType(node.children.getLast());
     if (!typeIsValid(firstType)) {
-      System.out.println("Error: invalid type for compare operation: " + firstType);
+      diagnostics.error("Error: invalid type for compare operation: " + firstType);
     } else if (!typeIsValid(secondType)) {
-      System.out.println("Error: invalid type for compare operation: " + secondType);
+      diagnostics.error("Error: invalid type for compare operation: " + secondType);
     }
     return node;
   }
@@ -357,7 +359,7 @@ public class TypeCheckVisitor {
     }
     String type = getEndType(child);
     if (!typeIsValid(type)) {
-      System.out.println("Error: Invalid type for decremental or incremental: " + type);
+      diagnostics.error("Error: Invalid type for decremental or incremental: " + type);
     }
     return node;
   }
@@ -375,8 +377,8 @@ public class TypeCheckVisitor {
       }
 
       if (!Objects.equals(firstType, secondType)) {
-        System.out.println(firstChild.getValue() + " " + secondChild.getValue());
-        System.out.println(
+        diagnostics.note(firstChild.getValue() + " " + secondChild.getValue());
+        diagnostics.error(
             "Error: type mismatch in vardecl: type " + firstType + " cannot be " + secondType);
       }
     }
@@ -389,7 +391,7 @@ public class TypeCheckVisitor {
     Symbol arr = currentScope.resolve(node.children.getLast().getValue());
 
     if (!(arr instanceof Array)) {
-      System.out.println("Error: type mismatch in arrayRef: " + arr + " is not an array");
+      diagnostics.error("Error: type mismatch in arrayRef: " + arr + " is not an array");
     }
 
     return node;
@@ -400,7 +402,7 @@ public class TypeCheckVisitor {
     for (ASTNode child : node.children.getFirst().children) {
       String childType = getEndType(child);
       if (!typeIsValid(childType)) {
-        System.out.println("Error: type " + childType + " cannot describe array length");
+        diagnostics.error("Error: type " + childType + " cannot describe array length");
       }
     }
 
@@ -424,14 +426,14 @@ public class TypeCheckVisitor {
       String childType = getEndType(child);
       if (typeIsValid(arrayType)) {
         if (!typeIsValid(childType)) {
-          System.out.println(
+          diagnostics.error(
               "Error: type mismatch in arrayInit: "
                   + childType
                   + " is not the same as "
                   + arrayType);
         }
       } else if (!childType.equals(arrayType)) {
-        System.out.println(
+        diagnostics.error(
             "Error: type mismatch in arrayInit: " + childType + " is not the same as " + arrayType);
       }
       if (child.getType() == Type.ARRAY) {
@@ -446,7 +448,7 @@ public class TypeCheckVisitor {
     String type = getEndType(node.children.getFirst());
     this.currentScope = node.getScope();
     if (!typeIsValid(type)) {
-      System.out.println("Error: type " + type + " must be built in type");
+      diagnostics.error("Error: type " + type + " must be built in type");
     }
     return node;
   }
@@ -472,9 +474,9 @@ public class TypeCheckVisitor {
     String firstType = getEndType(node.children.getFirst());
     String secondType = getEndType(node.children.getLast());
     if (!typeIsValid(firstType)) {
-      System.out.println("Error: invalid type for calc operation: " + firstType);
+      diagnostics.error("Error: invalid type for calc operation: " + firstType);
     } else if (!typeIsValid(secondType)) {
-      System.out.println("Error: invalid type for calc operation: " + secondType);
+      diagnostics.error("Error: invalid type for calc operation: " + secondType);
     }
     return node;
   }
@@ -500,6 +502,10 @@ public class TypeCheckVisitor {
       }
       return classSymbol.name;
     }
+    // Aufrufe ohne Argumente haben keine Kinder
+    if (node.getType() == Type.FN_CALL && node.children.isEmpty()) {
+      return currentScope.resolve(node.getValue()).type;
+    }
     if (!node.children.isEmpty()) {
       boolean isRef = false;
       for (ASTNode child : node.children) {
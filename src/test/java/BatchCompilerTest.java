@@ -0,0 +1,105 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import Output.RingBufferSink;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class BatchCompilerTest {
+  @Test
+  void programWithoutErrorsDoesNotFail() throws Exception {
+    String source =
+        """
+        int main() {
+            print_int(3);
+            return 0;
+        }
+        """;
+    RingBufferSink out = new RingBufferSink(1 << 12);
+    BatchCompiler.Result result = compile(source, out);
+    assertFalse(result.failed());
+    assertEquals(Programs.ints(3), out.toString());
+  }
+
+  @Test
+  void analysisErrorFailsWithoutRunning() throws Exception {
+    String source =
+        """
+        int main() {
+            int x = 1;
+            int x = 2;
+            print_int(x);
+            return 0;
+        }
+        """;
+    RingBufferSink out = new RingBufferSink(1 << 12);
+    BatchCompiler.Result result = compile(source, out);
+    assertTrue(result.failed());
+    assertEquals(List.of("Error: such variable x already exists"), result.diagnostics());
+    assertEquals("", out.toString());
+  }
+
+  @Test
+  void runtimeErrorFails() throws Exception {
+    String source =
+        """
+        int get(int i) {
+            int a[3];
+            return a[i];
+        }
+        int main() {
+            print_int(get(5));
+            return 0;
+        }
+        """;
+    BatchCompiler.Result result = compile(source, new RingBufferSink(1 << 12));
+    assertTrue(result.failed());
+    assertTrue(result.diagnostics().getFirst().contains("out of bounds"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"tree", "nodes", "closures", "vm", "jit", "stack"})
+  void outOfBoundsWriteIsReportedInEveryMode(String mode) throws Exception {
+    String source =
+        """
+        int main() {
+            int a[3] = {1, 2, 3};
+            int i = 3;
+            a[i] = i + 1;
+            return 0;
+        }
+        """;
+    BatchCompiler.Result result;
+    try (BatchCompiler compiler = new BatchCompiler(1)) {
+      result =
+          compiler.submit(Path.of("test.cpp"), source, mode, new RingBufferSink(1 << 12)).get();
+    }
+    assertTrue(result.failed());
+    // VM, JIT und Closures werfen die Meldung, BatchCompiler stellt den Ausnahmetyp davor
+    String diagnostic = result.diagnostics().getFirst();
+    assertTrue(
+        diagnostic.endsWith("Error: index 3 is out of bounds for dimension 1 of array a (size: 3)"),
+        diagnostic);
+  }
+
+  @Test
+  void leavesSystemOutAlone() {
+    PrintStream before = System.out;
+    try (BatchCompiler compiler = new BatchCompiler(1)) {
+      assertSame(before, System.out);
+    }
+    assertSame(before, System.out);
+  }
+
+  private static BatchCompiler.Result compile(String source, RingBufferSink out) throws Exception {
+    try (BatchCompiler compiler = new BatchCompiler(1)) {
+      return compiler.submit(Path.of("test.cpp"), source, "tree", out).get();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Spricht das Protokoll über eine Pipe, so wie ein Editor über stdin/stdout. */
+class CompileServerTest {
+  private static final String PROGRAM =
+      """
+      int twice(int x) {
+          return 2 * x;
+      }
+      int main() {
+          print_int(twice(3));
+          return 0;
+      }
+      """;
+
+  private BatchCompiler compiler;
+
+  @BeforeEach
+  void setUp() {
+    compiler = new BatchCompiler(2, new IncrementalCompiler(IncrementalCompiler.DEFAULT_CAPACITY));
+  }
+
+  @AfterEach
+  void tearDown() {
+    compiler.close();
+  }
+
+  @Test
+  void requestsOnOneConnectionShareTheCache() throws Exception {
+    List<Frame> frames = exchange(request("tree", PROGRAM) + request("vm", PROGRAM));
+    assertEquals(4, frames.size(), frames.toString());
+    assertEquals(new Frame("output", Programs.ints(6)), frames.get(0));
+    assertDone(frames.get(1), "ok", 0);
+    assertEquals(new Frame("output", Programs.ints(6)), frames.get(2));
+    assertDone(frames.get(3), "ok", 1);
+  }
+
+  @Test
+  void analysisErrorFailsOnlyItsRequest() throws Exception {
+    String broken =
+        """
+        int main() {
+            int x = 1;
+            int x = 2;
+            return 0;
+        }
+        """;
+    List<Frame> frames = exchange(request("tree", broken) + request("tree", PROGRAM));
+    assertEquals(4, frames.size(), frames.toString());
+    assertEquals(new Frame("diagnostic", "Error: such variable x already exists"), frames.get(0));
+    assertDone(frames.get(1), "failed", 0);
+    assertEquals(new Frame("output", Programs.ints(6)), frames.get(2));
+    assertDone(frames.get(3), "ok", 0);
+  }
+
+  @Test
+  void malformedHeaderEndsTheConnection() throws Exception {
+    List<Frame> frames = exchange("tree many\n" + request("tree", PROGRAM));
+    assertEquals(
+        List.of(
+            new Frame("diagnostic", "Error: malformed request header: tree many"),
+            new Frame("done", "failed")),
+        frames);
+  }
+
+  private record Frame(String kind, String payload) {}
+
+  private static String request(String mode, String source) {
+    return mode + " " + source.getBytes(StandardCharsets.UTF_8).length + " test.cpp\n" + source;
+  }
+
+  private static void assertDone(Frame frame, String status, int cached) {
+    assertEquals("done", frame.kind());
+    assertTrue(frame.payload().startsWith(status + " "), frame.payload());
+    assertTrue(frame.payload().endsWith(", " + cached + " cached"), frame.payload());
+  }
+
+  /** Schreibt die Anfragen von einem eigenen Thread in die Pipe und liest alle Frames. */
+  private List<Frame> exchange(String requests) throws Exception {
+    Pipe pipe = Pipe.open();
+    Thread writer =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try (Pipe.SinkChannel sink = pipe.sink()) {
+                    ByteBuffer bytes = ByteBuffer.wrap(requests.getBytes(StandardCharsets.UTF_8));
+                    while (bytes.hasRemaining()) {
+                      sink.write(bytes);
+                    }
+                  } catch (IOException e) {
+                    throw new RuntimeException(e);
+                  }
+                });
+    ByteArrayOutputStream response = new ByteArrayOutputStream();
+    try (InputStream in = Channels.newInputStream(pipe.source())) {
+      new CompileServer(compiler).handle(in, Channels.newChannel(response));
+    }
+    writer.join();
+    return parse(response.toByteArray());
+  }
+
+  private static List<Frame> parse(byte[] response) {
+    List<Frame> frames = new ArrayList<>();
+    int position = 0;
+    while (position < response.length) {
+      int newline = position;
+      while (response[newline] != '\n') {
+        newline++;
+      }
+      String[] header =
+          new String(response, position, newline - position, StandardCharsets.US_ASCII).split(" ");
+      int length = Integer.parseInt(header[1]);
+      frames.add(
+          new Frame(header[0], new String(response, newline + 1, length, StandardCharsets.UTF_8)));
+      position = newline + 1 + length;
+    }
+    return frames;
+  }
+}
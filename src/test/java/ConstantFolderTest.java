@@ -0,0 +1,53 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import AST.ASTNode;
+import AST.Type;
+import org.junit.jupiter.api.Test;
+
+class ConstantFolderTest {
+  @Test
+  void foldsConstantExpressions() {
+    ASTNode argument = printed("int main() { print_int(2 * 3 + 4); return 0; }");
+    assertEquals(Type.INT, argument.getType());
+    assertEquals("10", argument.getValue());
+  }
+
+  @Test
+  void replacesVariablesThatAreNeverWritten() {
+    ASTNode argument = printed("int main() { int x = 6; print_int(x * 7); return 0; }");
+    assertEquals(Type.INT, argument.getType());
+    assertEquals("42", argument.getValue());
+  }
+
+  @Test
+  void keepsVariablesThatAreWritten() {
+    ASTNode argument = printed("int main() { int y = 1; y = y + 1; print_int(y * 7); return 0; }");
+    assertEquals(Type.MUL, argument.getType());
+  }
+
+  @Test
+  void leavesDivisionByZeroUnfolded() {
+    assertEquals(Type.DIV, printed("int main() { print_int(7 / 0); return 0; }").getType());
+    assertEquals(Type.MOD, printed("int main() { print_int(7 % 0); return 0; }").getType());
+  }
+
+  @Test
+  void removesBranchesWithConstantCondition() throws Exception {
+    String source =
+        """
+        int main() {
+            if (1 > 2) { print_int(1); } else { print_int(2); }
+            return 0;
+        }
+        """;
+    assertNull(Programs.find(Programs.analyze(source), Type.IF));
+    assertEquals(Programs.ints(2), Programs.run(source, "tree"));
+  }
+
+  /** Das Argument des einzigen print_int-Aufrufs nach allen Durchläufen. */
+  private static ASTNode printed(String source) {
+    ASTNode call = Programs.find(Programs.analyze(source), Type.FN_CALL);
+    return call.children.getFirst().children.getFirst();
+  }
+}
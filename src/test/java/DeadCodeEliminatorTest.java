@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import AST.ASTNode;
+import AST.Type;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DeadCodeEliminatorTest {
+  @Test
+  void removesStatementsAfterReturn() throws Exception {
+    String source =
+        """
+        int f() {
+            return 1;
+            print_int(2);
+        }
+        int main() { print_int(f()); return 0; }
+        """;
+    ASTNode function = Programs.find(Programs.analyze(source), Type.FN_DECL);
+    ASTNode body = function.children.getLast();
+    assertEquals(List.of(Type.RETURN), body.children.stream().map(ASTNode::getType).toList());
+    assertEquals(Programs.ints(1), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void removesFunctionsAndClassesNotReachableFromMain() {
+    String source =
+        """
+        int unused() { return 1; }
+        class Unused {
+        public:
+            int x;
+        };
+        int main() { return 0; }
+        """;
+    ASTNode program = Programs.analyze(source);
+    assertNull(Programs.find(program, Type.FN_DECL));
+    assertNull(Programs.find(program, Type.CLASS));
+  }
+
+  @Test
+  void keepsFunctionsReachableThroughOtherFunctions() throws Exception {
+    String source =
+        """
+        int g() { return 2; }
+        int f() { return g() + 1; }
+        int main() { print_int(f()); return 0; }
+        """;
+    ASTNode program = Programs.analyze(source);
+    assertEquals(
+        List.of(Type.FN_DECL, Type.FN_DECL, Type.MAIN),
+        program.children.stream().map(ASTNode::getType).toList());
+    assertEquals(Programs.ints(3), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void removesBranchesWithConstantlyFalseCondition() {
+    String source =
+        """
+        int main() {
+            int x = 1;
+            if (false) { x = 2; }
+            print_int(x);
+            return 0;
+        }
+        """;
+    ASTNode program = Programs.analyze(source);
+    assertNull(Programs.find(program, Type.IF));
+    // ohne den Zweig wird x nie geschrieben und der ConstantFolder setzt den Wert ein
+    ASTNode argument = Programs.find(program, Type.FN_CALL).children.getFirst().children.getFirst();
+    assertEquals("1", argument.getValue());
+  }
+}
@@ -0,0 +1,47 @@
+package Environment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class MemoCacheTest {
+  private final int capacity = MemoCache.capacity;
+
+  @AfterEach
+  void restoreCapacity() {
+    MemoCache.capacity = capacity;
+  }
+
+  @Test
+  void evictsTheLeastRecentlyUsedEntryWhenFull() {
+    MemoCache cache = new MemoCache(2);
+    cache.put(List.of(1), 10);
+    cache.put(List.of(2), 20);
+    cache.get(List.of(1));
+    cache.put(List.of(3), 30);
+
+    assertEquals(10, cache.get(List.of(1)));
+    assertNull(cache.get(List.of(2)));
+    assertEquals(30, cache.get(List.of(3)));
+  }
+
+  @Test
+  void createUsesTheConfiguredCapacity() {
+    MemoCache.capacity = 1;
+    MemoCache cache = MemoCache.create();
+    cache.put(List.of(1), 10);
+    cache.put(List.of(2), 20);
+
+    assertNull(cache.get(List.of(1)));
+    assertEquals(20, cache.get(List.of(2)));
+  }
+
+  @Test
+  void capacityZeroTurnsMemoisationOff() {
+    MemoCache.capacity = 0;
+    assertNull(MemoCache.create());
+  }
+}
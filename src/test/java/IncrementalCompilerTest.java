@@ -0,0 +1,215 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import Output.RingBufferSink;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Schickt bearbeitete Programme nacheinander durch denselben Compiler mit Cache. */
+class IncrementalCompilerTest {
+  private BatchCompiler compiler;
+
+  @BeforeEach
+  void setUp() {
+    compiler = new BatchCompiler(4, new IncrementalCompiler(IncrementalCompiler.DEFAULT_CAPACITY));
+  }
+
+  @AfterEach
+  void tearDown() {
+    compiler.close();
+  }
+
+  @Test
+  void unchangedProgramReusesEveryClassAndFunction() throws Exception {
+    String source =
+        """
+        class A {
+        public:
+            int value;
+        };
+        int get(A a) {
+            if (a.value > 2) {
+                return a.value;
+            } else {
+                return 0;
+            }
+        }
+        int main() {
+            A a;
+            a.value = 3;
+            print_int(get(a));
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(3), 0), compile(source));
+    assertEquals(new Run(Programs.ints(3), 2), compile(source));
+    // Leerzeichen und Kommentare ändern die Tokens nicht
+    String reformatted = source.replace("int get(A a) {", "int  get(A a)  {  // getter");
+    assertEquals(new Run(Programs.ints(3), 2), compile(reformatted));
+  }
+
+  @Test
+  void elseAndTheSemicolonOfAClassStayWithTheirStatement() throws Exception {
+    String source =
+        """
+        class B {
+        public:
+            int value;
+        }
+        ;
+        int sign(int x) {
+            if (x < 0) {
+                return 0 - 1;
+            }
+            else {
+                return 1;
+            }
+        }
+        int main() {
+            B b;
+            b.value = 0 - 4;
+            print_int(sign(b.value));
+            print_int(sign(4));
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(-1, 1), 0), compile(source));
+    assertEquals(new Run(Programs.ints(-1, 1), 2), compile(source));
+  }
+
+  @Test
+  void changedBodyOfACalleeKeepsItsCallersCached() throws Exception {
+    String source =
+        """
+        int f(int x) {
+            return x + 1;
+        }
+        int g(int x) {
+            return f(x) * 2;
+        }
+        int main() {
+            print_int(g(1));
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(4), 0), compile(source));
+    assertEquals(new Run(Programs.ints(6), 1), compile(source.replace("x + 1", "x + 2")));
+  }
+
+  @Test
+  void changedSignatureOfACalleeInvalidatesItsCallers() throws Exception {
+    String source =
+        """
+        void inc(int x) {
+            x = x + 1;
+        }
+        int g() {
+            int v = 1;
+            inc(v);
+            return v;
+        }
+        int main() {
+            print_int(g());
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(1), 0), compile(source));
+    assertEquals(new Run(Programs.ints(2), 0), compile(source.replace("int x", "int& x")));
+  }
+
+  @Test
+  void globalInsertedBeforeACachedFunctionShiftsItsSlot() throws Exception {
+    String source =
+        """
+        int g = 0;
+        int f() {
+            return g;
+        }
+        int main() {
+            g = 5;
+            print_int(f());
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(5), 0), compile(source));
+    // h wird geschrieben, der ConstantFolder lässt es also als Slot vor g stehen
+    String inserted =
+        """
+        int h = 0;
+        int g = 0;
+        int f() {
+            return g;
+        }
+        int main() {
+            h = 7;
+            g = 5;
+            print_int(f());
+            print_int(h);
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(5, 7), 1), compile(inserted));
+  }
+
+  @Test
+  void cachedCallerOfAnImpureCalleeIsNotMemoised() throws Exception {
+    String source =
+        """
+        int h(int x) {
+            return x;
+        }
+        int f(int x) {
+            return h(x) + 1;
+        }
+        int main() {
+            print_int(f(1));
+            print_int(f(1));
+            return 0;
+        }
+        """;
+    assertEquals(new Run(Programs.ints(2, 2), 0), compile(source));
+    String impure = source.replace("return x;", "print_int(x);\n    return x;");
+    assertEquals(new Run(Programs.ints(1, 2, 1, 2), 1), compile(impure));
+  }
+
+  @Test
+  void concurrentBuildsOfTheSameProgramEachGetTheirOwnTrees() throws Exception {
+    String source =
+        """
+        int g = 3;
+        int f(int x) {
+            return x * g;
+        }
+        int main() {
+            print_int(f(2));
+            return 0;
+        }
+        """;
+    compile(source);
+    List<RingBufferSink> outputs = new ArrayList<>();
+    List<Future<BatchCompiler.Result>> results = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      RingBufferSink out = new RingBufferSink(1 << 12);
+      outputs.add(out);
+      results.add(compiler.submit(Path.of("test.cpp"), source, "tree", out));
+    }
+    for (int i = 0; i < results.size(); i++) {
+      assertFalse(results.get(i).get().failed());
+      assertEquals(Programs.ints(6), outputs.get(i).toString());
+    }
+  }
+
+  private record Run(String output, int reused) {}
+
+  private Run compile(String source) throws Exception {
+    RingBufferSink out = new RingBufferSink(1 << 12);
+    BatchCompiler.Result result = compiler.submit(Path.of("test.cpp"), source, "tree", out).get();
+    assertFalse(result.failed(), String.join("\n", result.diagnostics()));
+    return new Run(out.toString(), result.reused());
+  }
+}
@@ -0,0 +1,285 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class InterpreterTest {
+  @Test
+  void methodCallReturnsTheValueOfTheMethod() throws Exception {
+    String source =
+        """
+        class C {
+        public:
+            int foo() { int b = 3; return b + value; }
+            int value;
+        };
+        int main() {
+            C c;
+            c.value = 4;
+            print_int(c.foo());
+            int x = c.foo() * 2;
+            print_int(x);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(7, 14), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void methodCallAsStatementRunsTheMethod() throws Exception {
+    String source =
+        """
+        class C {
+        public:
+            void inc() { value = value + 1; print_int(value); }
+            int value;
+        };
+        int main() {
+            C c;
+            c.value = 1;
+            c.inc();
+            c.inc();
+            print_int(c.value);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(2, 3, 3), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void onlyVirtualMethodsDispatchOnTheDynamicType() throws Exception {
+    String source =
+        """
+        class A {
+        public:
+            void foo() { print_int(1); }
+            virtual void bar() { print_int(2); }
+        };
+        class B : public A {
+        public:
+            void foo() { print_int(3); }
+            void bar() { print_int(4); }
+        };
+        class C : public B {
+        public:
+            void foo() { print_int(5); }
+            void bar() { print_int(6); }
+        };
+        int main() {
+            C c;
+            B &b = c;
+            A &a = c;
+            c.foo();
+            b.foo();
+            a.foo();
+            b.bar();
+            a.bar();
+            return 0;
+        }
+        """;
+    // foo ist nirgends virtuell, bar wird in B und C implizit virtuell
+    assertEquals(Programs.ints(5, 3, 1, 6, 6), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void nonVirtualCallThroughBaseReferenceBindsToTheStaticType() throws Exception {
+    // wie polymorphie.cpp: foo wird erst in B virtuell, bar nie
+    String source =
+        """
+        class A {
+        public:
+            void foo() { print_char('A'); print_int(aval); }
+            int aval;
+        };
+        class B : public A {
+        public:
+            virtual void foo() { print_char('B'); print_int(bval); }
+            void bar() { print_char('b'); print_int(bval); }
+            int bval;
+        };
+        class C : public B {
+        public:
+            void foo() { print_char('C'); print_int(cval); }
+            void bar() { print_char('c'); print_int(cval); }
+            int cval;
+        };
+        int main() {
+            C c;
+            c.aval = 1;
+            c.bval = 2;
+            c.cval = 3;
+            B &b = c;
+            A &a = c;
+            b.foo();
+            b.bar();
+            a.foo();
+            A sliced = c;
+            sliced.foo();
+            return 0;
+        }
+        """;
+    assertEquals(
+        "Print char: C\nPrint int: 3\n"
+            + "Print char: b\nPrint int: 2\n"
+            + "Print char: A\nPrint int: 1\n"
+            + "Print char: A\nPrint int: 1\n",
+        Programs.run(source, "tree"));
+  }
+
+  @Test
+  void zeroArgumentTailCallDoesNotGrowTheStack() throws Exception {
+    String source =
+        """
+        int n = 0;
+        int count() {
+            if (n == 1000000) {
+                return n;
+            }
+            n = n + 1;
+            return count();
+        }
+        int main() {
+            print_int(count());
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(1000000), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void constructorRunsBaseConstructorThenInitialisersThenBody() throws Exception {
+    String source =
+        """
+        class B {
+        public:
+            B(int v) { x = v; print_int(x); }
+            int x;
+        };
+        class D : public B {
+        public:
+            D(int v) : B(v + 1) { print_int(y); y = v; }
+            int y = 7;
+        };
+        int main() {
+            D d(3);
+            print_int(d.x);
+            print_int(d.y);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(4, 7, 4, 3), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void singleObjectArgumentSelectsTheCopyConstructor() throws Exception {
+    String source =
+        """
+        class A {
+        public:
+            A() { value = 1; }
+            A(A& rhs) { value = rhs.value + 10; }
+            int value;
+        };
+        class P {
+        public:
+            int value;
+        };
+        int main() {
+            A a;
+            A b(a);
+            A c = b;
+            print_int(b.value);
+            print_int(c.value);
+            P p;
+            p.value = 5;
+            P q = p;
+            q.value = 6;
+            print_int(p.value);
+            print_int(q.value);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(11, 21, 5, 6), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void referenceParametersWriteThroughToTheArgument() throws Exception {
+    String source =
+        """
+        class A {
+        public:
+            int value;
+        };
+        void inc(int& r) {
+            r = r + 1;
+        }
+        void change(A a) {
+            a.value = 9;
+        }
+        int main() {
+            int x = 1;
+            inc(x);
+            A a;
+            a.value = 4;
+            inc(a.value);
+            change(a);
+            print_int(x);
+            print_int(a.value);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(2, 5), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void mainRunsAfterFunctionsDeclaredBehindIt() throws Exception {
+    String source =
+        """
+        int twice(int x);
+        int main() {
+            print_int(twice(4));
+            return 0;
+        }
+        int twice(int x) {
+            return x * 2;
+        }
+        """;
+    assertEquals(Programs.ints(8), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void postfixIncrementYieldsTheOldValue() throws Exception {
+    String source =
+        """
+        int main() {
+            int i = 5;
+            int j = i++;
+            print_int(j);
+            print_int(i);
+            i--;
+            print_int(i);
+            return 0;
+        }
+        """;
+    assertEquals(Programs.ints(5, 6, 5), Programs.run(source, "tree"));
+  }
+
+  @Test
+  void attributeInitialisersRunInDeclarationOrder() throws Exception {
+    assertEquals(Programs.ints(5, 6), Programs.run(ModeEquivalenceTest.INITIALISER_ORDER, "tree"));
+  }
+
+  @Test
+  void logicalOperatorsSkipTheRightOperandWhenTheLeftDecides() throws Exception {
+    assertEquals(
+        "Print bool: false\nPrint bool: true\n"
+            + "Print int: 3\nPrint bool: true\n"
+            + "Print int: 4\nPrint bool: true\n",
+        Programs.run(ModeEquivalenceTest.SHORT_CIRCUIT, "tree"));
+  }
+
+  @Test
+  void bareMethodCallInsideAMethodCallsTheReceiversMethod() throws Exception {
+    assertEquals(
+        Programs.ints(5, 10, 1, 2), Programs.run(ModeEquivalenceTest.BARE_METHOD_CALL, "tree"));
+  }
+}
@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/** Jedes Programm aus test_files gibt in allen Modi dasselbe aus wie der {@code Interpreter}. */
+class ModeEquivalenceTest {
+  private static final Path TEST_FILES = Path.of("src/main/antlr/test_files");
+
+  static Stream<Path> programs() throws IOException {
+    try (Stream<Path> files = Files.list(TEST_FILES)) {
+      return files.filter(file -> file.toString().endsWith(".cpp")).sorted().toList().stream();
+    }
+  }
+
+  // Initialisierer dürfen frühere Attribute lesen
+  static final String INITIALISER_ORDER =
+      """
+      class P {
+      public:
+          int b = 5;
+          int a = b + 1;
+      };
+      int main() {
+          P p;
+          print_int(p.b);
+          print_int(p.a);
+          return 0;
+      }
+      """;
+
+  // der rechte Operand von && und || läuft nur, wenn er das Ergebnis bestimmt
+  static final String SHORT_CIRCUIT =
+      """
+      bool side(int x) {
+          print_int(x);
+          return true;
+      }
+      int main() {
+          bool r = false && side(1);
+          print_bool(r);
+          r = true || side(2);
+          print_bool(r);
+          r = true && side(3);
+          print_bool(r);
+          r = false || side(4);
+          print_bool(r);
+          return 0;
+      }
+      """;
+
+  // Methoden ohne this-> werden über den Empfänger gebunden, virtuelle dynamisch
+  static final String BARE_METHOD_CALL =
+      """
+      class B {
+      public:
+          int n() { return value; }
+          int callN() { return n(); }
+          int twice() { int a = n(); return a + n(); }
+          virtual int k() { return 1; }
+          int callK() { return k(); }
+          int value;
+      };
+      class D : public B {
+      public:
+          int k() { return 2; }
+      };
+      int main() {
+          B b;
+          b.value = 5;
+          print_int(b.callN());
+          print_int(b.twice());
+          print_int(b.callK());
+          D d;
+          print_int(d.callK());
+          return 0;
+      }
+      """;
+
+  @ParameterizedTest
+  @MethodSource("programs")
+  void everyModePrintsWhatTheTreeInterpreterPrints(Path file) throws IOException {
+    assertEveryModeAgrees(Files.readString(file), file.getFileName().toString());
+  }
+
+  @Test
+  void attributeInitialisersRunInDeclarationOrderInEveryMode() throws IOException {
+    assertEveryModeAgrees(INITIALISER_ORDER, "initialiser order");
+  }
+
+  @Test
+  void functionTooLargeForTheJitRunsOnTheVm() throws IOException {
+    // ergibt mehr als 64 KB JVM-Bytecode in main
+    String source =
+        "int main() { int x = -9; " + "x = x + 6; ".repeat(6000) + "print_int(x); return 0; }";
+    assertEquals(Programs.ints(35991), Programs.run(source, "vm"));
+    assertEquals(Programs.ints(35991), Programs.run(source, "jit"));
+  }
+
+  @Test
+  void logicalOperatorsShortCircuitInEveryMode() throws IOException {
+    assertEveryModeAgrees(SHORT_CIRCUIT, "short circuit");
+  }
+
+  @Test
+  void bareMethodCallsInsideMethodsInEveryMode() throws IOException {
+    assertEveryModeAgrees(BARE_METHOD_CALL, "bare method call");
+  }
+
+  private static void assertEveryModeAgrees(String source, String name) throws IOException {
+    String expected = Programs.run(source, "tree");
+    for (String mode : List.of("nodes", "closures", "vm", "jit", "stack")) {
+      assertEquals(expected, Programs.run(source, mode), name + " in mode " + mode);
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package Output;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class RingBufferSinkTest {
+  @Test
+  void keepsEverythingWhileTheRingIsNotFull() {
+    RingBufferSink out = new RingBufferSink(64);
+    out.printInt(1);
+    out.printBool(true);
+    out.printChar('c');
+    assertEquals("Print int: 1\nPrint bool: true\nPrint char: c\n", out.toString());
+    assertEquals(out.toString().length(), out.written());
+  }
+
+  @Test
+  void keepsTheLastBytesInOrderAfterWrapAround() {
+    // jede Zeile "Print int: n\n" hat 13 Bytes, der Ring hält nicht einmal zwei davon
+    RingBufferSink out = new RingBufferSink(20);
+    out.printInt(1);
+    out.printInt(2);
+    out.printInt(3);
+    String all = "Print int: 1\nPrint int: 2\nPrint int: 3\n";
+    assertEquals(39, out.written());
+    assertArrayEquals(
+        all.substring(all.length() - 20).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+  }
+
+  @Test
+  void wrapsExactlyAtTheEndOfTheRing() {
+    RingBufferSink out = new RingBufferSink(13);
+    out.printInt(1);
+    assertEquals("Print int: 1\n", out.toString());
+    out.printInt(2);
+    assertEquals("Print int: 2\n", out.toString());
+  }
+
+  @Test
+  void clearForgetsTheOldOutput() {
+    RingBufferSink out = new RingBufferSink(20);
+    out.printInt(1);
+    out.printInt(2);
+    out.clear();
+    assertEquals(0, out.written());
+    assertEquals("", out.toString());
+    out.printChar('x');
+    assertEquals("Print char: x\n", out.toString());
+  }
+}
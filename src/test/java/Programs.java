@@ -0,0 +1,52 @@
+import AST.ASTNode;
+import AST.Type;
+import Output.Diagnostics;
+import Output.RingBufferSink;
+import java.io.IOException;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+
+/** Prüft Quelltext mit denselben Durchläufen wie {@code Main} und führt ihn aus. */
+final class Programs {
+  private Programs() {}
+
+  static ASTNode analyze(String source) {
+    CppLexer lexer = new CppLexer(CharStreams.fromString(source));
+    CppParser parser = new CppParser(new CommonTokenStream(lexer));
+    return BatchCompiler.analyze(parser.program(), new Diagnostics());
+  }
+
+  /** Ausgabe der print-BuiltIns, wenn das Programm im Modus {@code mode} läuft. */
+  static String run(String source, String mode) throws IOException {
+    return run(analyze(source), mode);
+  }
+
+  static String run(ASTNode scopedAst, String mode) throws IOException {
+    RingBufferSink out = new RingBufferSink(1 << 16);
+    Main.execute(scopedAst, mode, out);
+    return out.toString();
+  }
+
+  /** Der erste Knoten vom Typ type in Preorder, sonst null. */
+  static ASTNode find(ASTNode node, Type type) {
+    if (node.getType() == type) {
+      return node;
+    }
+    for (ASTNode child : node.children) {
+      ASTNode found = find(child, type);
+      if (found != null) {
+        return found;
+      }
+    }
+    return null;
+  }
+
+  /** Die erwarteten Zeilen, wie sie die print-BuiltIns schreiben. */
+  static String ints(int... values) {
+    StringBuilder lines = new StringBuilder();
+    for (int value : values) {
+      lines.append("Print int: ").append(value).append('\n');
+    }
+    return lines.toString();
+  }
+}
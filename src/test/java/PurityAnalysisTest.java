@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AST.ASTNode;
+import SymbolTable.Function;
+import org.junit.jupiter.api.Test;
+
+class PurityAnalysisTest {
+  private static final String SOURCE =
+      """
+      int g = 1;
+      int square(int x) { return x * x; }
+      int sumOfSquares(int x, int y) { return square(x) + square(y); }
+      int loud(int x) { print_int(x); return x; }
+      int callsLoud(int x) { return loud(x) + 1; }
+      int readsGlobal(int x) { return x + g; }
+      int viaReference(int &x) { return x; }
+      int main() {
+          int a = 2;
+          g = 5;
+          print_int(sumOfSquares(a, 3));
+          print_int(loud(a));
+          print_int(loud(a));
+          print_int(callsLoud(a));
+          print_int(readsGlobal(a));
+          print_int(viaReference(a));
+          return 0;
+      }
+      """;
+
+  @Test
+  void functionsOfTheirArgumentsArePure() {
+    ASTNode program = Programs.analyze(SOURCE);
+    assertTrue(isPure(program, "square"));
+    assertTrue(isPure(program, "sumOfSquares"));
+  }
+
+  @Test
+  void printingAndCallingPrintingFunctionsIsImpure() {
+    ASTNode program = Programs.analyze(SOURCE);
+    assertFalse(isPure(program, "loud"));
+    assertFalse(isPure(program, "callsLoud"));
+  }
+
+  @Test
+  void globalsAndReferencesAreImpure() {
+    ASTNode program = Programs.analyze(SOURCE);
+    assertFalse(isPure(program, "readsGlobal"));
+    assertFalse(isPure(program, "viaReference"));
+  }
+
+  @Test
+  void impureFunctionsAreNotMemoised() throws Exception {
+    // loud gibt bei jedem Aufruf aus, auch mit denselben Argumenten
+    assertEquals(Programs.ints(13, 2, 2, 2, 2, 2, 3, 7, 2), Programs.run(SOURCE, "tree"));
+  }
+
+  private static boolean isPure(ASTNode program, String name) {
+    return ((Function) program.getScope().resolve(name)).isPure();
+  }
+}
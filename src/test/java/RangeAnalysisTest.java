@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AST.ASTNode;
+import AST.Type;
+import org.junit.jupiter.api.Test;
+
+class RangeAnalysisTest {
+  @Test
+  void countingLoopAccessIsInBounds() {
+    ASTNode access =
+        arrayItem(
+            """
+            int main() {
+                int a[5];
+                int i = 0;
+                while (i < 5) { a[i] = i; i += 1; }
+                return 0;
+            }
+            """);
+    assertTrue(access.isInBounds());
+  }
+
+  @Test
+  void stepThatOverflowsPastTheBoundIsNotTrusted() {
+    ASTNode access =
+        arrayItem(
+            """
+            int main() {
+                int a[5];
+                int i = 1;
+                while (i < 5) { a[i] = i; i += 2147483647; }
+                return 0;
+            }
+            """);
+    assertFalse(access.isInBounds());
+  }
+
+  @Test
+  void incrementUpToIntMaxIsNotTrusted() {
+    ASTNode access =
+        arrayItem(
+            """
+            int main() {
+                int a[5];
+                int i = 0;
+                while (i <= 2147483647) { a[i] = i; i++; }
+                return 0;
+            }
+            """);
+    assertFalse(access.isInBounds());
+  }
+
+  private static ASTNode arrayItem(String source) {
+    return Programs.find(Programs.analyze(source), Type.ARRAY_ITEM);
+  }
+}
@@ -0,0 +1,68 @@
+package Tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import AST.ASTNode;
+import AST.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SamplerTest {
+  private final ASTNode main = new ASTNode(Type.MAIN, "main");
+  private final ASTNode down = new ASTNode(Type.FN_DECL, "down");
+  private final ASTNode leaf = new ASTNode(Type.FN_DECL, "leaf");
+
+  @Test
+  void snapshotOfADeepStackKeepsTheInnermostFrames() {
+    CallStack stack = new CallStack();
+    ASTNode[] frames = new ASTNode[100];
+    for (int i = 0; i < frames.length; i++) {
+      frames[i] = new ASTNode(Type.FN_DECL, "f" + i);
+      stack.push(frames[i], null);
+    }
+    ASTNode[] functions = new ASTNode[10];
+    ASTNode[] sites = new ASTNode[10];
+
+    assertEquals(100, stack.snapshot(functions, sites));
+    assertEquals(Arrays.asList(frames).subList(90, 100), Arrays.asList(functions));
+  }
+
+  @Test
+  void deepRecursionIsSampledFromTheInnermostFrameWithAnEllipsisRoot() throws Exception {
+    CallStack stack = new CallStack();
+    stack.push(main, null);
+    for (int i = 0; i < 2000; i++) {
+      stack.push(down, call(i == 0 ? 12 : 3));
+    }
+    stack.push(leaf, call(7));
+    ASTNode program = new ASTNode(Type.PROGRAM);
+    program.addChild(main);
+    program.addChild(down);
+    program.addChild(leaf);
+    Path path = Files.createTempFile("samples", ".txt");
+    try {
+      Sampler sampler = new Sampler(program, stack, path, 100);
+      sampler.start();
+      Thread.sleep(50);
+      sampler.close();
+
+      List<String> lines = Files.readAllLines(path);
+      assertEquals(1, lines.size(), lines.toString());
+      // 1023 Einträge für down und leaf, main und die äußeren down fehlen
+      String expected = "...;" + "down:3;".repeat(1022) + "down:7;leaf ";
+      assertTrue(lines.getFirst().startsWith(expected), lines.getFirst());
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  private static ASTNode call(int line) {
+    ASTNode site = new ASTNode(Type.FN_CALL, "down");
+    site.setLine(line);
+    return site;
+  }
+}